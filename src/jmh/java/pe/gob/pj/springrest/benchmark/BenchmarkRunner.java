@@ -0,0 +1,69 @@
+package pe.gob.pj.springrest.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Punto de entrada de los benchmarks (perfil Maven "benchmark").
+ * Acepta los mismos argumentos que la línea de comandos de JMH y siempre
+ * agrega el GCProfiler para reportar la tasa de asignación (gc.alloc.rate.norm).
+ * Si no se indica -rf/-rff, el resultado se guarda en target/jmh-result.json.
+ * <p>
+ * Luego compara el resultado con la línea base (jmh.linea-base, por defecto src/jmh/linea-base.json)
+ * y termina con código 1 si algún benchmark retrocede más que jmh.tolerancia (ComparacionLineaBase),
+ * lo que hace fallar el build. Con -Djmh.actualizar-linea-base=true, en lugar de comparar, el
+ * resultado pasa a ser la nueva línea base; conviene tomarla siempre en la misma máquina que compara
+ * y con el JDK del proyecto, porque una línea base de otro JDK mayor también hace fallar el build.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions lineaDeComandos = new CommandLineOptions(args);
+
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(lineaDeComandos);
+        builder.addProfiler(GCProfiler.class);
+        if (!lineaDeComandos.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!lineaDeComandos.getResult().hasValue()) {
+            builder.result("target/jmh-result.json");
+        }
+        Options opciones = builder.build();
+
+        Collection<RunResult> resultados = new Runner(opciones).run();
+
+        Path lineaBase = Path.of(System.getProperty("jmh.linea-base", "src/jmh/linea-base.json"));
+        if (Boolean.getBoolean("jmh.actualizar-linea-base")) {
+            if (opciones.getResultFormat().orElse(null) != ResultFormatType.JSON) {
+                throw new IllegalArgumentException("La línea base se guarda en JSON (-rf json).");
+            }
+            ComparacionLineaBase.guardar(Path.of(opciones.getResult().get()), lineaBase);
+            System.out.println("Línea base actualizada: " + lineaBase);
+            return;
+        }
+        if (!Files.exists(lineaBase)) {
+            System.out.println("Sin línea base en " + lineaBase + "; no se comparan los resultados.");
+            return;
+        }
+
+        double tolerancia = Double.parseDouble(System.getProperty("jmh.tolerancia", "0.10"));
+        List<String> retrocesos = new ComparacionLineaBase(lineaBase, tolerancia).retrocesos(resultados);
+        if (!retrocesos.isEmpty()) {
+            System.err.println("Retrocesos frente a " + lineaBase + " (tolerancia " + Math.round(tolerancia * 100) + "%):");
+            retrocesos.forEach(retroceso -> System.err.println("  " + retroceso));
+            System.exit(1);
+        }
+        System.out.println("Sin retrocesos frente a " + lineaBase + ".");
+    }
+}
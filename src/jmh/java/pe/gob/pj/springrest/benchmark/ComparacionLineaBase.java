@@ -0,0 +1,160 @@
+package pe.gob.pj.springrest.benchmark;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara los resultados de una ejecución con la línea base (un JSON de JMH, el mismo formato de
+ * target/jmh-result.json). Un benchmark retrocede si, frente a su línea base:
+ * <ul>
+ *   <li>su puntaje empeora más que la tolerancia (menos operaciones en Throughput, más tiempo en
+ *       los demás modos) y la diferencia supera la suma de los márgenes de error de ambas
+ *       mediciones, para no fallar por ruido; o</li>
+ *   <li>asigna más bytes por operación (gc.alloc.rate.norm) que la tolerancia, con al menos
+ *       {@value #ASIGNACION_MINIMA_BYTES} bytes de diferencia.</li>
+ * </ul>
+ * Los benchmarks sin línea base (nuevos, u otros parámetros) solo se informan. Una línea base
+ * tomada con otro JDK mayor no se compara (los puntajes no son equiparables): se informa como
+ * retroceso para que se regenere con el JDK del proyecto.
+ */
+public class ComparacionLineaBase {
+
+    static final String ASIGNACION = "gc.alloc.rate.norm";
+    // Bajo este umbral la diferencia de asignación es ruido del propio perfilador
+    private static final double ASIGNACION_MINIMA_BYTES = 16;
+    // Rutas y argumentos del JVM de la máquina que midió: no forman parte de la línea base versionada
+    private static final List<String> CAMPOS_DE_MAQUINA = List.of("jvm", "jvmArgs");
+
+    private final Map<String, Medicion> lineaBase;
+    private final double tolerancia;
+
+    private record Medicion(boolean mayorEsMejor, double puntaje, double error, String unidad, Double asignacion,
+                            int jdk) {
+    }
+
+    public ComparacionLineaBase(Path archivo, double tolerancia) {
+        this.lineaBase = leer(archivo);
+        this.tolerancia = tolerancia;
+    }
+
+    /**
+     * @return la descripción de cada retroceso; vacía si ninguno retrocedió.
+     */
+    public List<String> retrocesos(Collection<RunResult> resultados) {
+        List<String> retrocesos = new ArrayList<>();
+        for (RunResult resultado : resultados) {
+            String clave = clave(resultado.getParams());
+            Medicion base = lineaBase.get(clave);
+            if (base == null) {
+                System.out.println("Sin línea base: " + clave);
+                continue;
+            }
+            Medicion actual = medicion(resultado);
+            if (actual.jdk() != base.jdk()) {
+                retrocesos.add(String.format("%s: línea base tomada en JDK %d y medida en JDK %d; "
+                        + "regenérela con -Djmh.actualizar-linea-base=true", clave, base.jdk(), actual.jdk()));
+                continue;
+            }
+
+            double cambio = (actual.puntaje() - base.puntaje()) / base.puntaje();
+            boolean empeora = base.mayorEsMejor() ? cambio < -tolerancia : cambio > tolerancia;
+            boolean fueraDelError = Math.abs(actual.puntaje() - base.puntaje())
+                    > sinNaN(actual.error()) + sinNaN(base.error());
+            if (empeora && fueraDelError) {
+                retrocesos.add(String.format("%s: %.3f -> %.3f %s (%+.1f%%)",
+                        clave, base.puntaje(), actual.puntaje(), actual.unidad(), cambio * 100));
+            }
+
+            if (base.asignacion() != null && actual.asignacion() != null
+                    && actual.asignacion() > base.asignacion() * (1 + tolerancia)
+                    && actual.asignacion() - base.asignacion() >= ASIGNACION_MINIMA_BYTES) {
+                retrocesos.add(String.format("%s: %.0f -> %.0f B/op asignados",
+                        clave, base.asignacion(), actual.asignacion()));
+            }
+        }
+        return retrocesos;
+    }
+
+    /**
+     * Guarda el resultado de JMH como nueva línea base, sin los campos propios de la máquina
+     * ({@link #CAMPOS_DE_MAQUINA}); jdkVersion se conserva porque la comparación la exige.
+     */
+    public static void guardar(Path resultado, Path lineaBase) throws IOException {
+        JsonMapper mapper = JsonMapper.builder().build();
+        JsonNode raiz = mapper.readTree(Files.readString(resultado));
+        for (JsonNode benchmark : raiz) {
+            ((ObjectNode) benchmark).remove(CAMPOS_DE_MAQUINA);
+        }
+        Files.writeString(lineaBase, mapper.writerWithDefaultPrettyPrinter().writeValueAsString(raiz) + "\n");
+    }
+
+    // Benchmark, modo y parámetros ordenados por nombre: identifica la misma medición en ambos archivos
+    private static String clave(String benchmark, String modo, Map<String, String> parametros) {
+        return benchmark + " [" + modo + "]" + (parametros.isEmpty() ? "" : " " + new TreeMap<>(parametros));
+    }
+
+    private static String clave(BenchmarkParams params) {
+        Map<String, String> parametros = new HashMap<>();
+        for (String nombre : params.getParamsKeys()) {
+            parametros.put(nombre, params.getParam(nombre));
+        }
+        return clave(params.getBenchmark(), params.getMode().shortLabel(), parametros);
+    }
+
+    private static Medicion medicion(RunResult resultado) {
+        Result<?> primario = resultado.getPrimaryResult();
+        Result<?> asignacion = resultado.getSecondaryResults().get(ASIGNACION);
+        return new Medicion(resultado.getParams().getMode() == Mode.Throughput,
+                primario.getScore(), primario.getScoreError(), primario.getScoreUnit(),
+                asignacion != null ? asignacion.getScore() : null, jdkMayor(resultado.getParams().getJdkVersion()));
+    }
+
+    private static Map<String, Medicion> leer(Path archivo) {
+        JsonNode raiz;
+        try {
+            raiz = JsonMapper.builder().build().readTree(Files.readString(archivo));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("No se pudo leer la línea base " + archivo + ": " + e.getMessage(), e);
+        }
+
+        Map<String, Medicion> mediciones = new HashMap<>();
+        for (JsonNode benchmark : raiz) {
+            Map<String, String> parametros = new HashMap<>();
+            benchmark.path("params").properties().forEach(p -> parametros.put(p.getKey(), p.getValue().asString()));
+            String modo = benchmark.path("mode").asString();
+
+            JsonNode primario = benchmark.path("primaryMetric");
+            JsonNode asignacion = benchmark.path("secondaryMetrics").path(ASIGNACION);
+            mediciones.put(clave(benchmark.path("benchmark").asString(), modo, parametros), new Medicion(
+                    Mode.Throughput.shortLabel().equals(modo),
+                    primario.path("score").asDouble(), primario.path("scoreError").asDouble(Double.NaN),
+                    primario.path("scoreUnit").asString(),
+                    asignacion.isMissingNode() ? null : asignacion.path("score").asDouble(),
+                    jdkMayor(benchmark.path("jdkVersion").asString())));
+        }
+        return mediciones;
+    }
+
+    private static int jdkMayor(String jdkVersion) {
+        return Runtime.Version.parse(jdkVersion).feature();
+    }
+
+    private static double sinNaN(double valor) {
+        return Double.isNaN(valor) ? 0 : valor;
+    }
+}
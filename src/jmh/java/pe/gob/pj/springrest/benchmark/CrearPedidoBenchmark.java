@@ -0,0 +1,99 @@
+package pe.gob.pj.springrest.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import pe.gob.pj.springrest.Application;
+import pe.gob.pj.springrest.application.service.PedidoService;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.ItemPedido;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.domain.model.Producto;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PedidoService.crearPedido de punta a punta (RN3, RN1/RN4 y persistencia)
+ * contra H2 embebida, con la misma configuración que propiedades/application_h2.properties
+ * pero sin show-sql para no medir el log.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CrearPedidoBenchmark {
+
+    static final String[] PROPIEDADES_H2 = {
+            "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MariaDB;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.hibernate.ddl-auto=create-drop",
+            "--spring.jpa.properties.jakarta.persistence.schema-generation.create-source=script-then-metadata",
+            "--spring.jpa.properties.jakarta.persistence.schema-generation.create-script-source=db/h2/secuencias.sql",
+            "--spring.jpa.show-sql=false",
+            "--spring.jpa.properties.hibernate.format_sql=false",
+            "--spring.sql.init.mode=never",
+            "--logging.level.root=WARN"
+    };
+
+    @Param({"1", "10"})
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private PedidoService pedidoService;
+    private Cliente cliente;
+    private List<Producto> productos;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run(PROPIEDADES_H2);
+        pedidoService = context.getBean(PedidoService.class);
+
+        cliente = context.getBean(ClienteRepository.class).save(Cliente.builder()
+                .nombre("Carlos Gómez").telefono("987654321").direccion("Calle Falsa 123").build());
+
+        ProductoRepository productoRepository = context.getBean(ProductoRepository.class);
+        productos = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            productos.add(productoRepository.save(Producto.builder()
+                    .nombre("Pizza " + i).precioBase(new BigDecimal("15.50")).disponible(true).build()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        context.close();
+    }
+
+    @Benchmark
+    public Pedido crearPedido() {
+        // Cada invocación crea un pedido nuevo (como lo haría PedidoMapper a partir del request)
+        List<ItemPedido> lista = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            Producto referencia = Producto.builder().id(productos.get(i % productos.size()).getId()).build();
+            lista.add(ItemPedido.builder().producto(referencia).cantidad(1).build());
+        }
+
+        Pedido pedido = Pedido.builder()
+                .cliente(cliente)
+                .tipoEntrega("DOMICILIO")
+                .metodoPago("EFECTIVO")
+                .direccionEntrega(cliente.getDireccion())
+                .items(lista)
+                .build();
+
+        return pedidoService.crearPedido(pedido);
+    }
+}
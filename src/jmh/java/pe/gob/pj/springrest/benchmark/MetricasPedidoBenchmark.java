@@ -0,0 +1,92 @@
+package pe.gob.pj.springrest.benchmark;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import pe.gob.pj.springrest.application.service.CatalogoProductoService;
+import pe.gob.pj.springrest.application.service.PedidoService;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.ItemPedido;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.domain.model.Producto;
+import pe.gob.pj.springrest.infraestructure.metricas.MetricasPedido;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de las métricas de negocio en la ruta feliz de PedidoService.prepararPedido (RN3, RN1/RN4
+ * contra una foto del catálogo ya verificada, sin BD). "ninguno" usa un registro compuesto sin registros hijos
+ * (medidores no-op), como referencia; "prometheus" es el registro que se usa en producción,
+ * con el histograma de etapas activo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricasPedidoBenchmark {
+
+    @Param({"ninguno", "prometheus"})
+    public String registro;
+
+    @Param({"1", "10"})
+    public int items;
+
+    private PedidoService pedidoService;
+    private CatalogoProductoService.Snapshot foto;
+    private Cliente cliente;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        List<Producto> productos = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            productos.add(Producto.builder()
+                    .id(i).nombre("Pizza " + i).precioBase(new BigDecimal("15.50")).disponible(true).build());
+        }
+        foto = CatalogoProductoService.Snapshot.de(productos);
+
+        MeterRegistry meterRegistry = "prometheus".equals(registro)
+                ? new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)
+                : new CompositeMeterRegistry();
+        // Igual que management.metrics.distribution.percentiles-histogram.pedidos.creacion.etapa=true
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!id.getName().equals("pedidos.creacion.etapa")) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        });
+
+        pedidoService = new PedidoService(null, null, null, null, null, null, new MetricasPedido(meterRegistry));
+        cliente = Cliente.builder()
+                .id(1L).nombre("Carlos Gómez").telefono("987654321").direccion("Calle Falsa 123").build();
+    }
+
+    @Benchmark
+    public Pedido prepararPedido() {
+        List<ItemPedido> lista = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            lista.add(ItemPedido.builder().producto(Producto.builder().id((long) (i % 5) + 1).build()).cantidad(1).build());
+        }
+        Pedido pedido = Pedido.builder()
+                .cliente(cliente)
+                .tipoEntrega("DOMICILIO")
+                .metodoPago("EFECTIVO")
+                .direccionEntrega(cliente.getDireccion())
+                .items(lista)
+                .build();
+        pedidoService.prepararPedido(pedido, foto);
+        return pedido;
+    }
+}
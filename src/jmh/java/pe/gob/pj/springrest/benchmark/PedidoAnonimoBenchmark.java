@@ -0,0 +1,124 @@
+package pe.gob.pj.springrest.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.gob.pj.springrest.Application;
+import pe.gob.pj.springrest.application.service.ClienteService;
+import pe.gob.pj.springrest.application.service.PedidoService;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.ItemPedido;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.domain.model.Producto;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pedidos sin clienteId por segundo y crecimiento de la tabla cliente, contra H2 embebida:
+ * <ul>
+ *   <li>TEMPORAL (antes): un "Cliente Temporal" nuevo por pedido, insertado en la misma transacción.</li>
+ *   <li>TELEFONO (después): PedidoService.crearPedidoAnonimo (ClienteService.resolverPorTelefono en la
+ *       transacción del pedido); solo el primer pedido de cada teléfono inserta su cliente.</li>
+ * </ul>
+ * telefonos es la cantidad de teléfonos distintos que se repiten en rotación: con 100 todos quedan
+ * en caché; con 100000 se supera pedidos.cache-clientes.capacidad y hay lecturas por el índice.
+ * Los contadores auxiliares muestran, por iteración, los pedidos creados y los clientes insertados.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PedidoAnonimoBenchmark {
+
+    @Param({"TEMPORAL", "TELEFONO"})
+    public String modo;
+
+    @Param({"100", "100000"})
+    public int telefonos;
+
+    private ConfigurableApplicationContext context;
+    private PedidoService pedidoService;
+    private ClienteService clienteService;
+    private ClienteRepository clienteRepository;
+    private TransactionTemplate transactionTemplate;
+    private Long productoId;
+    private long siguiente;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Crecimiento {
+        public long pedidos;
+        public long clientesInsertados;
+
+        @Setup(Level.Iteration)
+        public void reiniciar() {
+            pedidos = 0;
+            clientesInsertados = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run(CrearPedidoBenchmark.PROPIEDADES_H2);
+        pedidoService = context.getBean(PedidoService.class);
+        clienteService = context.getBean(ClienteService.class);
+        clienteRepository = context.getBean(ClienteRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        productoId = context.getBean(ProductoRepository.class).save(Producto.builder()
+                .nombre("Margarita").precioBase(new BigDecimal("12.00")).disponible(true).build()).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        context.close();
+    }
+
+    @Benchmark
+    public Pedido crearPedidoSinClienteId(Crecimiento crecimiento) {
+        long n = siguiente++;
+        String telefono = String.valueOf(900_000_000L + n % telefonos);
+        String direccion = "Calle " + n % telefonos;
+
+        Pedido pedido;
+        if ("TEMPORAL".equals(modo)) {
+            // El índice único de teléfonos anónimos no admite repetidos: cada temporal recibe uno propio, como
+            // antes recibía su propia fila
+            pedido = transactionTemplate.execute(status -> {
+                Cliente temporal = clienteRepository.save(Cliente.builder()
+                        .nombre("Cliente Temporal").telefono("T" + n).direccion(direccion).build());
+                return pedidoService.crearPedido(nuevoPedido(temporal, direccion));
+            });
+            crecimiento.clientesInsertados++;
+        } else {
+            long insertadosAntes = clienteService.estadisticas().insertados();
+            pedido = pedidoService.crearPedidoAnonimo(nuevoPedido(null, direccion), telefono);
+            crecimiento.clientesInsertados += clienteService.estadisticas().insertados() - insertadosAntes;
+        }
+        crecimiento.pedidos++;
+        return pedido;
+    }
+
+    private Pedido nuevoPedido(Cliente cliente, String direccion) {
+        List<ItemPedido> items = new ArrayList<>(1);
+        items.add(ItemPedido.builder().producto(Producto.builder().id(productoId).build()).cantidad(1).build());
+        return Pedido.builder()
+                .cliente(cliente)
+                .tipoEntrega("DOMICILIO")
+                .metodoPago("EFECTIVO")
+                .direccionEntrega(direccion)
+                .items(items)
+                .build();
+    }
+}
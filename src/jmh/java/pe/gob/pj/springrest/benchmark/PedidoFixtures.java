@@ -0,0 +1,81 @@
+package pe.gob.pj.springrest.benchmark;
+
+import pe.gob.pj.springrest.application.dto.ItemPedidoResponse;
+import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.ItemPedido;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.domain.model.Producto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos de prueba compartidos por los benchmarks.
+ */
+final class PedidoFixtures {
+
+    private PedidoFixtures() {
+    }
+
+    // Pedido ya confirmado (con precios y relaciones), como lo recibe PedidoResponseMapper
+    static Pedido pedidoConItems(int cantidadItems) {
+        Cliente cliente = Cliente.builder()
+                .id(1L).nombre("Carlos Gómez").telefono("987654321").direccion("Calle Falsa 123").build();
+
+        Pedido pedido = Pedido.builder()
+                .id(1L)
+                .cliente(cliente)
+                .estado(EstadoPedido.PENDIENTE)
+                .fechaHora(LocalDateTime.of(2025, 1, 10, 12, 0))
+                .tipoEntrega("DOMICILIO")
+                .metodoPago("EFECTIVO")
+                .direccionEntrega(cliente.getDireccion())
+                .items(new ArrayList<>())
+                .build();
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < cantidadItems; i++) {
+            Producto producto = Producto.builder()
+                    .id((long) (i % 5) + 1).nombre("Pizza " + (i % 5)).precioBase(new BigDecimal("15.50")).disponible(true).build();
+            ItemPedido item = ItemPedido.builder()
+                    .id((long) i + 1).pedido(pedido).producto(producto).cantidad(2).precioUnitario(producto.getPrecioBase()).build();
+            pedido.getItems().add(item);
+            total = total.add(producto.getPrecioBase().multiply(BigDecimal.valueOf(2)));
+        }
+        pedido.setTotal(total);
+        return pedido;
+    }
+
+    // Lista de DTOs de salida, como la que serializa Jackson en GET /api/pedidos
+    static List<PedidoResponse> respuestas(int cantidadPedidos, int itemsPorPedido) {
+        List<PedidoResponse> lista = new ArrayList<>(cantidadPedidos);
+        for (int p = 0; p < cantidadPedidos; p++) {
+            PedidoResponse response = new PedidoResponse();
+            response.setId((long) p + 1);
+            response.setClienteId(1L);
+            response.setNombreCliente("Carlos Gómez");
+            response.setFechaHora(LocalDateTime.of(2025, 1, 10, 12, 0).plusMinutes(p));
+            response.setEstado(EstadoPedido.PENDIENTE);
+            response.setTipoEntrega("DOMICILIO");
+            response.setDireccionEntrega("Calle Falsa 123");
+
+            List<ItemPedidoResponse> items = new ArrayList<>(itemsPorPedido);
+            for (int i = 0; i < itemsPorPedido; i++) {
+                ItemPedidoResponse item = new ItemPedidoResponse();
+                item.setNombreProducto("Pizza " + i);
+                item.setCantidad(2);
+                item.setPrecioUnitario(new BigDecimal("15.50"));
+                item.setSubtotal(new BigDecimal("31.00"));
+                items.add(item);
+            }
+            response.setItems(items);
+            response.setTotal(new BigDecimal("31.00").multiply(BigDecimal.valueOf(itemsPorPedido)));
+            lista.add(response);
+        }
+        return lista;
+    }
+}
@@ -0,0 +1,37 @@
+package pe.gob.pj.springrest.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.infraestructure.mapper.PedidoResponseMapper;
+import pe.gob.pj.springrest.infraestructure.mapper.PedidoResponseMapperImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo Entidad -> DTO (PedidoResponseMapper) para pedidos de 1, 10 y 100 ítems.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PedidoResponseMapperBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int items;
+
+    private final PedidoResponseMapper mapper = new PedidoResponseMapperImpl();
+    private Pedido pedido;
+
+    @Setup
+    public void preparar() {
+        pedido = PedidoFixtures.pedidoConItems(items);
+    }
+
+    @Benchmark
+    public PedidoResponse toResponse() {
+        return mapper.toResponse(pedido);
+    }
+}
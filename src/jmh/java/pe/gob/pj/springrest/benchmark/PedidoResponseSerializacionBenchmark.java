@@ -0,0 +1,36 @@
+package pe.gob.pj.springrest.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de listas de PedidoResponse con Jackson 3 (el que usa Spring MVC en Boot 4).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PedidoResponseSerializacionBenchmark {
+
+    @Param({"1", "20", "100"})
+    public int pedidos;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private List<PedidoResponse> respuestas;
+
+    @Setup
+    public void preparar() {
+        respuestas = PedidoFixtures.respuestas(pedidos, 3);
+    }
+
+    @Benchmark
+    public byte[] serializarLista() {
+        return jsonMapper.writeValueAsBytes(respuestas);
+    }
+}
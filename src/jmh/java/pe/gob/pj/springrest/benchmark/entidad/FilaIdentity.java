@@ -0,0 +1,28 @@
+package pe.gob.pj.springrest.benchmark.entidad;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.math.BigDecimal;
+
+/**
+ * Fila con las columnas de item_pedido y la estrategia de ID anterior (IDENTITY).
+ * Solo existe en el perfil benchmark para medir la línea base.
+ */
+@Entity
+@Table(name = "bench_fila_identity")
+@Getter
+@Setter
+@NoArgsConstructor
+public class FilaIdentity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Integer cantidad;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal precioUnitario;
+}
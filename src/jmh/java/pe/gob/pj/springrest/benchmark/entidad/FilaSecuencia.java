@@ -0,0 +1,29 @@
+package pe.gob.pj.springrest.benchmark.entidad;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.math.BigDecimal;
+
+/**
+ * Fila con las columnas de item_pedido y la estrategia de ID actual (secuencia pooled, bloques de 50).
+ * Solo existe en el perfil benchmark.
+ */
+@Entity
+@Table(name = "bench_fila_secuencia")
+@Getter
+@Setter
+@NoArgsConstructor
+public class FilaSecuencia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bench_fila_seq")
+    @SequenceGenerator(name = "bench_fila_seq", sequenceName = "bench_fila_seq", allocationSize = 50)
+    private Long id;
+
+    private Integer cantidad;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal precioUnitario;
+}
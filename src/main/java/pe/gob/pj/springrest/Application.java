@@ -2,8 +2,10 @@ package pe.gob.pj.springrest;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // Purga de claves de idempotencia vencidas
 public class Application {
 
 	public static void main(String[] args) {
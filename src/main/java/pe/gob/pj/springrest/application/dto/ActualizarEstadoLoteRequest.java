@@ -0,0 +1,21 @@
+package pe.gob.pj.springrest.application.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+
+import java.util.List;
+
+/**
+ * HU9 (tablero de cocina): pedidos que pasan juntos a un mismo estado.
+ */
+@Data
+public class ActualizarEstadoLoteRequest {
+
+    @NotEmpty(message = "Debe indicar al menos un ID de pedido.")
+    private List<@NotNull(message = "Los IDs de pedido no pueden ser nulos.") Long> ids;
+
+    @NotNull(message = "El nuevo estado es obligatorio.")
+    private EstadoPedido nuevoEstado;
+}
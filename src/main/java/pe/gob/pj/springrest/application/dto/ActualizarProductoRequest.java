@@ -0,0 +1,22 @@
+package pe.gob.pj.springrest.application.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import lombok.Data;
+import java.math.BigDecimal;
+
+/**
+ * HU2: Datos que el administrador puede modificar de un Producto.
+ * Los campos nulos no se modifican.
+ */
+@Data
+public class ActualizarProductoRequest {
+
+    // RN1: Nuevo precio base (mismo formato que la columna precio_base DECIMAL(10,2))
+    @DecimalMin(value = "0.01", message = "El precio base debe ser mayor que cero.")
+    @Digits(integer = 8, fraction = 2, message = "El precio base admite como máximo 2 decimales.")
+    private BigDecimal precioBase;
+
+    // RN4: Marcar el producto como disponible o agotado
+    private Boolean disponible;
+}
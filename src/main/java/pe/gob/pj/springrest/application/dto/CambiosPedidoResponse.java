@@ -0,0 +1,21 @@
+package pe.gob.pj.springrest.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Página del feed de cambios (GET /api/pedidos/cambios).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambiosPedidoResponse {
+    // Estado actual de los pedidos creados o modificados después del cursor, en orden de cambio
+    private List<PedidoResponse> pedidos;
+    // Valor para "desde" en la siguiente llamada (igual al recibido si no hubo cambios)
+    private long siguienteCursor;
+    // true si se alcanzó el límite y conviene pedir de inmediato la página siguiente
+    private boolean hayMas;
+}
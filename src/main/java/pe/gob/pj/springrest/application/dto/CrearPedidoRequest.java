@@ -4,7 +4,9 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
+import pe.gob.pj.springrest.domain.model.Cliente;
 import java.util.List;
 
 @Data
@@ -16,6 +18,7 @@ public class CrearPedidoRequest {
     // Para la RN3: Validación de datos de entrega
     @NotBlank(message = "El teléfono del cliente es requerido (RN3).")
     @Pattern(regexp = "^[0-9]{9,}$", message = "El teléfono debe contener al menos 9 dígitos.")
+    @Size(max = Cliente.LONGITUD_TELEFONO, message = "El teléfono admite como máximo {max} dígitos.")
     private String telefonoCliente;
 
     @NotBlank(message = "La dirección de entrega es requerida (RN3).")
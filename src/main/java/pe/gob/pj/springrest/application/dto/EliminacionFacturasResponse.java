@@ -0,0 +1,15 @@
+package pe.gob.pj.springrest.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de DELETE /facturas?desde=&hasta=: filas eliminadas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EliminacionFacturasResponse {
+    private int eliminadas;
+}
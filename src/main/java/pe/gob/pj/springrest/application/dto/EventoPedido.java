@@ -0,0 +1,27 @@
+package pe.gob.pj.springrest.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento compacto de GET /api/pedidos/eventos: basta para que el tablero actualice la tarjeta
+ * del pedido (o lo consulte por ID) sin volver a listar todos los pedidos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoPedido {
+
+    public enum Tipo { CREADO, ESTADO_ACTUALIZADO }
+
+    // Secuencia del evento; el "id" SSE (Last-Event-ID) es época-secuencia
+    private long id;
+    private Tipo tipo;
+    private Long pedidoId;
+    private EstadoPedido estado;
+    private LocalDateTime fechaHora;
+}
@@ -1,12 +1,16 @@
 package pe.gob.pj.springrest.application.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // Proyección directa desde JPQL (PedidoRepository.proyectarItems)
 public class ItemPedidoResponse {
     private String nombreProducto;
     private Integer cantidad;
     private BigDecimal precioUnitario;
     private BigDecimal subtotal; // Añadido para conveniencia del cliente
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package pe.gob.pj.springrest.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaPedidosResponse {
+    private List<PedidoResponse> pedidos;
+    // Token opaco para pedir la página siguiente (null si no hay más pedidos)
+    private String siguienteCursor;
+}
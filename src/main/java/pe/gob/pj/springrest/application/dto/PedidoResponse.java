@@ -2,11 +2,14 @@ package pe.gob.pj.springrest.application.dto;
 
 import pe.gob.pj.springrest.domain.enums.EstadoPedido;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
+@NoArgsConstructor
 public class PedidoResponse {
     private Long id;
     private Long clienteId;
@@ -17,4 +20,18 @@ public class PedidoResponse {
     private String direccionEntrega;
     private BigDecimal total; // RN1
     private List<ItemPedidoResponse> items;
-}
\ No newline at end of file
+
+    // Proyección directa desde JPQL (PedidoRepository.proyectarPorId y páginas); los ítems se agregan después
+    public PedidoResponse(Long id, Long clienteId, String nombreCliente, LocalDateTime fechaHora, EstadoPedido estado,
+                          String tipoEntrega, String direccionEntrega, BigDecimal total) {
+        this.id = id;
+        this.clienteId = clienteId;
+        this.nombreCliente = nombreCliente;
+        this.fechaHora = fechaHora;
+        this.estado = estado;
+        this.tipoEntrega = tipoEntrega;
+        this.direccionEntrega = direccionEntrega;
+        this.total = total;
+        this.items = new ArrayList<>();
+    }
+}
@@ -0,0 +1,31 @@
+package pe.gob.pj.springrest.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+
+import java.util.List;
+
+/**
+ * Resultado de PATCH /api/pedidos/estado: qué pedidos cambiaron de estado y cuáles no, y por qué.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoEstadoLoteResponse {
+    private EstadoPedido nuevoEstado;
+    // IDs que pasaron a nuevoEstado, en el orden recibido
+    private List<Long> movidos;
+    private List<Rechazo> rechazados;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rechazo {
+        private Long id;
+        // Estado en el que sigue el pedido; null si no existe
+        private EstadoPedido estadoActual;
+        private String motivo;
+    }
+}
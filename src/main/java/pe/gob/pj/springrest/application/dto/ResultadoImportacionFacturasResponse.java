@@ -0,0 +1,37 @@
+package pe.gob.pj.springrest.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de POST /facturas/importacion: totales del archivo y errores por línea.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoImportacionFacturasResponse {
+    // Líneas de datos leídas (sin cabecera ni líneas en blanco)
+    private long lineas;
+    private long insertadas;
+    // Facturas existentes cuyo concepto o importe cambió
+    private long actualizadas;
+    // Facturas existentes con los mismos datos
+    private long sinCambios;
+    // Líneas reemplazadas por una línea posterior con el mismo número en el mismo bloque
+    private long duplicadas;
+    private long rechazadas;
+    // Solo los primeros errores (facturas.importacion.errores-maximos); rechazadas tiene el total
+    private List<ErrorLinea> errores;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErrorLinea {
+        // Número de línea en el archivo, desde 1
+        private long linea;
+        private String mensaje;
+    }
+}
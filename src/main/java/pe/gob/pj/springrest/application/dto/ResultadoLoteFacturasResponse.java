@@ -0,0 +1,24 @@
+package pe.gob.pj.springrest.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de POST /facturas/lote: filas insertadas, actualizadas y sin cambios, y los números
+ * repetidos en el lote.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteFacturasResponse {
+    private int insertadas;
+    // Facturas que ya existían y cuyo concepto o importe cambió
+    private int actualizadas;
+    // Facturas que ya existían con los mismos datos (no se escriben)
+    private int sinCambios;
+    // Números que aparecen más de una vez en el lote; de cada uno se guarda la última aparición
+    private List<Integer> duplicadas;
+}
@@ -0,0 +1,16 @@
+package pe.gob.pj.springrest.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteResponse {
+    private int creados;
+    private int rechazados;
+    // Un resultado por pedido recibido, en el mismo orden
+    private List<ResultadoPedidoLote> resultados;
+}
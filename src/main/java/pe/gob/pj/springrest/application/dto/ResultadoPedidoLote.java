@@ -0,0 +1,31 @@
+package pe.gob.pj.springrest.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+/**
+ * Resultado de un pedido dentro de una ingesta por lotes (POST /api/pedidos/lote).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoPedidoLote {
+    // Posición del pedido en la lista recibida (base 0)
+    private int indice;
+    private boolean creado;
+    // ID asignado si se creó; null si fue rechazado
+    private Long pedidoId;
+    private BigDecimal total;
+    // Motivo del rechazo (validación del DTO, RN1-RN4 o error de BD)
+    private String error;
+
+    public static ResultadoPedidoLote creado(int indice, Long pedidoId, BigDecimal total) {
+        return new ResultadoPedidoLote(indice, true, pedidoId, total, null);
+    }
+
+    public static ResultadoPedidoLote rechazado(int indice, String error) {
+        return new ResultadoPedidoLote(indice, false, null, null, error);
+    }
+}
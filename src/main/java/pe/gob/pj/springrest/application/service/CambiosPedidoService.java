@@ -0,0 +1,87 @@
+package pe.gob.pj.springrest.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pe.gob.pj.springrest.application.dto.CambiosPedidoResponse;
+import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.infraestructure.config.RutaLecturaReplica;
+import pe.gob.pj.springrest.infraestructure.mapper.PedidoResponseMapper;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Feed de cambios de pedidos para sincronización (BI, facturación): en lugar de releer la tabla
+ * pedido, el consumidor guarda el cursor de la última llamada y pide solo lo que cambió después.
+ *
+ * Cada INSERT y cada transición de estado asigna a pedido.cambio_seq el siguiente valor de la
+ * secuencia pedido_cambio_seq. Un valor menor puede confirmarse después que uno mayor (dos
+ * transacciones concurrentes), así que solo se entregan cambios con más de
+ * pedidos.cambios.margen-ms de antigüedad: mientras ninguna transacción que modifique pedidos
+ * dure más que ese margen, el consumidor no salta cambios al avanzar el cursor.
+ *
+ * El feed se lee siempre de la primaria: en una réplica, un cambio de hace más que el margen puede
+ * no haber llegado aún (retraso de hasta pedidos.bd.replica.retraso-maximo-segundos) y el cursor
+ * lo saltaría para siempre.
+ */
+@Service
+public class CambiosPedidoService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CambiosPedidoService.class);
+
+    private final PedidoRepository pedidoRepository;
+    private final PedidoResponseMapper responseMapper;
+    private final long margenMs;
+    private final int limiteMaximo;
+
+    public CambiosPedidoService(PedidoRepository pedidoRepository,
+                                PedidoResponseMapper responseMapper,
+                                @Value("${pedidos.cambios.margen-ms:2000}") long margenMs,
+                                @Value("${pedidos.cambios.limite-maximo:1000}") int limiteMaximo) {
+        this.pedidoRepository = pedidoRepository;
+        this.responseMapper = responseMapper;
+        this.margenMs = margenMs;
+        this.limiteMaximo = limiteMaximo;
+    }
+
+    /**
+     * Pedidos con cambio_seq mayor que desde, en orden de cambio. Un pedido que cambió varias
+     * veces aparece una sola vez, con su estado actual.
+     * @param desde Cursor devuelto por la llamada anterior (0 para empezar desde el principio).
+     * @param limite Máximo de pedidos a devolver (acotado a pedidos.cambios.limite-maximo).
+     */
+    @Transactional(readOnly = true)
+    public CambiosPedidoResponse listarCambios(long desde, int limite) {
+        if (desde < 0) {
+            throw new IllegalArgumentException("El cursor 'desde' no puede ser negativo.");
+        }
+        int tamano = Math.max(1, Math.min(limite, limiteMaximo));
+        return RutaLecturaReplica.enPrimaria(() -> leerCambios(desde, tamano));
+    }
+
+    private CambiosPedidoResponse leerCambios(long desde, int tamano) {
+        LocalDateTime estables = LocalDateTime.now().minusNanos(margenMs * 1_000_000);
+
+        List<Pedido> pedidos = pedidoRepository.buscarCambiosDesde(desde, estables, Limit.of(tamano));
+        if (pedidos.isEmpty()) {
+            return new CambiosPedidoResponse(List.of(), desde, false);
+        }
+
+        // Ítems y productos de toda la página en una segunda consulta (sin N+1)
+        pedidoRepository.cargarItems(pedidos.stream().map(Pedido::getId).collect(Collectors.toList()));
+        List<PedidoResponse> contenido = pedidos.stream()
+                .map(responseMapper::toResponse)
+                .collect(Collectors.toList());
+
+        long siguienteCursor = pedidos.get(pedidos.size() - 1).getCambioSeq();
+        LOG.info("Feed de cambios desde {}: {} pedidos (siguiente cursor {}).", desde, pedidos.size(), siguienteCursor);
+        return new CambiosPedidoResponse(contenido, siguienteCursor, pedidos.size() == tamano);
+    }
+}
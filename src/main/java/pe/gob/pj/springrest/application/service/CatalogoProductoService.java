@@ -0,0 +1,258 @@
+package pe.gob.pj.springrest.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.gob.pj.springrest.application.dto.ActualizarProductoRequest;
+import pe.gob.pj.springrest.domain.model.Producto;
+import pe.gob.pj.springrest.infraestructure.config.RutaLecturaReplica;
+import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+import pe.gob.pj.springrest.presentation.exception.RecursoNoEncontradoException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Catálogo de productos (menú) en memoria.
+ * La tabla producto es pequeña y casi nunca cambia, por lo que PedidoService valida la RN4
+ * y calcula la RN1 contra una foto inmutable (Snapshot) sin cargar los productos en cada pedido.
+ * <p>
+ * Un pedido nunca se acepta con un precio o una disponibilidad vieja: {@link #vigente()} lee en la
+ * transacción del pedido la huella de la tabla (ProductoRepository.Huella: una consulta de agregados)
+ * y, si no coincide con la de la foto, valoriza el pedido con una foto recién leída en esa misma
+ * transacción. El pedido queda así valorizado con la tabla confirmada al momento de esa lectura; un
+ * cambio confirmado después se ordena tras el pedido, como si hubiera llegado más tarde.
+ * <p>
+ * Mantener la foto publicada al día solo evita esas lecturas completas:
+ * <ul>
+ *   <li>En el nodo que atiende {@link #actualizarProducto(Long, ActualizarProductoRequest)}, la foto
+ *       se recarga tras el commit y antes de responder al administrador.</li>
+ *   <li>En los demás nodos, {@link #verificar()} compara la huella cada pedidos.catalogo.verificacion-ms
+ *       y recarga si difiere; también la recarga el primer pedido que encuentra la diferencia.
+ *       Un cambio hecho por SQL directo se detecta si incrementa producto.version.</li>
+ * </ul>
+ */
+@Service
+public class CatalogoProductoService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogoProductoService.class);
+
+    private final ProductoRepository productoRepository;
+    // Transacción propia de solo lectura: la recarga corre tras el commit de otra transacción
+    private final TransactionTemplate lectura;
+
+    // Foto vigente del catálogo. Se publica completa (nunca se modifica in situ).
+    private volatile Snapshot snapshot;
+
+    public CatalogoProductoService(ProductoRepository productoRepository, PlatformTransactionManager transactionManager) {
+        this.productoRepository = productoRepository;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lectura.setReadOnly(true);
+    }
+
+    /**
+     * Devuelve la foto vigente del catálogo. La primera llamada la carga desde la BD.
+     */
+    public Snapshot snapshot() {
+        Snapshot actual = snapshot;
+        if (actual == null) {
+            synchronized (this) {
+                actual = snapshot;
+                if (actual == null) {
+                    actual = recargar();
+                }
+            }
+        }
+        return actual;
+    }
+
+    /**
+     * Vuelve a leer la tabla producto y publica una nueva foto.
+     * Lee en una transacción nueva y de la primaria: se llama tras el commit de una actualización,
+     * cuando los recursos de esa transacción todavía están ligados al hilo y la réplica puede no
+     * tener aún el cambio.
+     * @return La foto recién publicada.
+     */
+    public synchronized Snapshot recargar() {
+        Snapshot nuevo = RutaLecturaReplica.enPrimaria(() -> lectura.execute(estado -> Snapshot.de(productoRepository.findAll())));
+        snapshot = nuevo;
+        LOG.info("Catálogo de productos recargado: {} productos.", nuevo.cantidad());
+        return nuevo;
+    }
+
+    /**
+     * Foto con la que la transacción en curso valida y valoriza un pedido (RN1, RN4): la publicada
+     * si su huella coincide con la de la tabla leída en esta transacción; si no, una foto leída en
+     * esta misma transacción, y la publicada se recarga al terminarla.
+     * No publica la foto que lee: con REPEATABLE READ podría ser más antigua que la ya publicada.
+     * @throws org.springframework.transaction.IllegalTransactionStateException si no hay transacción en curso.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Snapshot vigente() {
+        Snapshot actual = snapshot;
+        ProductoRepository.Huella huella = productoRepository.huella();
+        if (actual != null && actual.coincideCon(huella)) {
+            return actual;
+        }
+        LOG.info("La foto del catálogo no coincide con la tabla producto; el pedido se valoriza con una lectura nueva.");
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int estado) {
+                recargar();
+            }
+        });
+        return Snapshot.de(productoRepository.findAll());
+    }
+
+    /**
+     * Recarga la foto si la tabla producto cambió desde que se cargó (p. ej. en otro nodo).
+     * No hace nada mientras la foto no se haya cargado por primera vez.
+     */
+    @Scheduled(fixedDelayString = "${pedidos.catalogo.verificacion-ms:5000}")
+    public void verificar() {
+        Snapshot actual = snapshot;
+        if (actual == null) {
+            return;
+        }
+        ProductoRepository.Huella huella = RutaLecturaReplica.enPrimaria(() -> lectura.execute(estado -> productoRepository.huella()));
+        if (!actual.coincideCon(huella)) {
+            LOG.info("La tabla producto cambió fuera de este nodo; se recarga el catálogo.");
+            recargar();
+        }
+    }
+
+    /**
+     * HU2: Actualiza el precio y/o la disponibilidad de un producto.
+     * La nueva foto del catálogo se publica tras el commit, antes de responder al administrador, para
+     * que los pedidos siguientes de este nodo no tengan que leer la tabla (ver {@link #vigente()}).
+     */
+    @Transactional
+    public Producto actualizarProducto(Long id, ActualizarProductoRequest request) {
+        Producto producto = productoRepository.findById(id)
+                .orElseThrow(() -> new RecursoNoEncontradoException("Producto", id));
+
+        if (request.getPrecioBase() != null) {
+            producto.setPrecioBase(request.getPrecioBase());
+        }
+        if (request.getDisponible() != null) {
+            producto.setDisponible(request.getDisponible());
+        }
+        LOG.info("Producto ID {} actualizado (precio={}, disponible={}).", id, producto.getPrecioBase(), producto.getDisponible());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recargar();
+            }
+        });
+
+        return producto;
+    }
+
+    /**
+     * Foto inmutable del catálogo. Los IDs se guardan ordenados y cada producto se ubica por búsqueda
+     * binaria en un índice compacto (0..cantidad-1), sin importar cuán grandes sean los IDs.
+     * Los precios se guardan en céntimos en un arreglo primitivo y la disponibilidad (RN4) en un BitSet.
+     */
+    public static final class Snapshot {
+
+        private final long[] ids;
+        private final Producto[] productos;
+        private final long[] preciosCentimos;
+        private final BitSet disponibles;
+        // Huella de la tabla al cargar la foto (ver ProductoRepository.Huella)
+        private final long sumaVersiones;
+
+        private Snapshot(long[] ids, Producto[] productos, long[] preciosCentimos, BitSet disponibles, long sumaVersiones) {
+            this.ids = ids;
+            this.productos = productos;
+            this.preciosCentimos = preciosCentimos;
+            this.disponibles = disponibles;
+            this.sumaVersiones = sumaVersiones;
+        }
+
+        public static Snapshot de(List<Producto> lista) {
+            List<Producto> ordenados = new ArrayList<>(lista);
+            ordenados.sort(Comparator.comparing(Producto::getId));
+
+            int cantidad = ordenados.size();
+            long[] ids = new long[cantidad];
+            Producto[] productos = new Producto[cantidad];
+            long[] precios = new long[cantidad];
+            BitSet disponibles = new BitSet(cantidad);
+            long sumaVersiones = 0;
+
+            for (int i = 0; i < cantidad; i++) {
+                Producto p = ordenados.get(i);
+                ids[i] = p.getId();
+                // Copia desacoplada del contexto de persistencia que la cargó
+                productos[i] = Producto.builder()
+                        .id(p.getId())
+                        .nombre(p.getNombre())
+                        .descripcion(p.getDescripcion())
+                        .precioBase(p.getPrecioBase())
+                        .disponible(p.getDisponible())
+                        .version(p.getVersion())
+                        .build();
+                precios[i] = p.getPrecioBase().movePointRight(2).longValueExact();
+                disponibles.set(i, Boolean.TRUE.equals(p.getDisponible()));
+                sumaVersiones += p.getVersion() != null ? p.getVersion() : 0;
+            }
+            return new Snapshot(ids, productos, precios, disponibles, sumaVersiones);
+        }
+
+        /**
+         * @return El producto con ese ID, o null si no existe en el catálogo.
+         */
+        public Producto producto(Long id) {
+            if (id == null) {
+                return null;
+            }
+            int i = Arrays.binarySearch(ids, id);
+            return i >= 0 ? productos[i] : null;
+        }
+
+        // RN4: Disponibilidad (solo válido para IDs existentes)
+        public boolean disponible(Long id) {
+            return disponibles.get(indice(id));
+        }
+
+        // RN1: Precio unitario (solo válido para IDs existentes)
+        public BigDecimal precio(Long id) {
+            return BigDecimal.valueOf(preciosCentimos[indice(id)], 2);
+        }
+
+        public int cantidad() {
+            return ids.length;
+        }
+
+        boolean coincideCon(ProductoRepository.Huella huella) {
+            long maximoId = ids.length == 0 ? 0 : ids[ids.length - 1];
+            return huella.getCantidad() == ids.length
+                    && huella.getMaximoId() == maximoId
+                    && huella.getSumaVersiones() == sumaVersiones;
+        }
+
+        private int indice(Long id) {
+            int i = Arrays.binarySearch(ids, id);
+            if (i < 0) {
+                throw new IllegalArgumentException("Producto " + id + " fuera del catálogo.");
+            }
+            return i;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package pe.gob.pj.springrest.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteAnonimoRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository.ContactoCliente;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resuelve el cliente de los pedidos sin clienteId (POST /api/pedidos y /api/pedidos/lote) por su
+ * teléfono normalizado, en lugar de insertar un "Cliente Temporal" por pedido:
+ * <ul>
+ *   <li>Solo se reutilizan clientes anónimos: un teléfono que coincide con el de un cliente
+ *       registrado no recibe su ID ni su nombre (no se exponen sus datos a quien envía el teléfono).</li>
+ *   <li>Caché en memoria teléfono → cliente anónimo, acotada (pedidos.cache-clientes.capacidad) y
+ *       LRU: un teléfono frecuente no vuelve a consultar la BD. ClienteListener saca al cliente que
+ *       se modifica o elimina.</li>
+ *   <li>Si el teléfono no está en caché se busca por el índice único uk_cliente_telefono_anonimo y,
+ *       si no existe, se inserta en la transacción del pedido (una sola conexión por solicitud): si
+ *       el pedido se rechaza, el cliente no queda registrado.
+ *       Si otro pedido con el mismo teléfono lo insertó al mismo tiempo, se usa esa fila
+ *       (ClienteAnonimoRepository): todos los pedidos del teléfono comparten un solo cliente.</li>
+ * </ul>
+ */
+@Service
+public class ClienteService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClienteService.class);
+
+    // Si la fila ganadora se elimina entre el INSERT rechazado y su lectura, se vuelve a intentar
+    private static final int INTENTOS_REGISTRO = 3;
+
+    private final ClienteRepository clienteRepository;
+    private final ClienteAnonimoRepository clienteAnonimoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacidad;
+
+    // Orden de acceso (LRU); get() también modifica el mapa, por eso todo acceso es sincronizado
+    private final LinkedHashMap<String, ContactoCliente> porTelefono;
+    // ID -> teléfono de las entradas en caché, para olvidar(id)
+    private final Map<Long, String> telefonoPorId = new HashMap<>();
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder insertados = new LongAdder();
+
+    public ClienteService(ClienteRepository clienteRepository,
+                          ClienteAnonimoRepository clienteAnonimoRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${pedidos.cache-clientes.capacidad:10000}") int capacidad) {
+        this.clienteRepository = clienteRepository;
+        this.clienteAnonimoRepository = clienteAnonimoRepository;
+        // REQUIRED: se une a la transacción del pedido (PedidoService#crearPedidoAnonimo, o la del
+        // bloque en PedidoLoteService)
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.capacidad = capacidad;
+        this.porTelefono = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ContactoCliente> eldest) {
+                if (size() > ClienteService.this.capacidad) {
+                    telefonoPorId.remove(eldest.getValue().id());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Ver Cliente#normalizarTelefono.
+     */
+    public static String normalizarTelefono(String telefono) {
+        return Cliente.normalizarTelefono(telefono);
+    }
+
+    /**
+     * Cliente anónimo del teléfono, creándolo (con la dirección de entrega) si aún no existe.
+     * Devuelve una referencia no administrada con los datos que usan RN3 y la respuesta del pedido;
+     * el pedido solo guarda su ID. Si hay una transacción en curso, el cliente se crea en ella y
+     * solo entra a la caché cuando confirma.
+     * @throws IllegalArgumentException si falta el teléfono o la dirección (RN3).
+     */
+    public Cliente resolverPorTelefono(String telefono, String direccion) {
+        String normalizado = normalizarTelefono(telefono);
+        if (normalizado == null) {
+            throw new IllegalArgumentException("El teléfono del cliente es requerido (RN3).");
+        }
+        if (normalizado.length() > Cliente.LONGITUD_TELEFONO) {
+            throw new IllegalArgumentException(
+                    String.format("El teléfono admite como máximo %d dígitos.", Cliente.LONGITUD_TELEFONO));
+        }
+        if (!StringUtils.hasText(direccion)) {
+            throw new IllegalArgumentException("La dirección de entrega es requerida (RN3).");
+        }
+
+        ContactoCliente contacto;
+        synchronized (porTelefono) {
+            contacto = porTelefono.get(normalizado);
+        }
+        if (contacto != null) {
+            aciertos.increment();
+        } else {
+            contacto = transactionTemplate.execute(status -> {
+                ContactoCliente resuelto = clienteRepository.buscarContactoAnonimo(normalizado)
+                        .orElseGet(() -> registrar(normalizado, direccion));
+                guardarAlConfirmar(resuelto);
+                return resuelto;
+            });
+        }
+        return Cliente.builder()
+                .id(contacto.id())
+                .nombre(contacto.nombre())
+                .telefono(contacto.telefono())
+                .direccion(contacto.direccion())
+                .build();
+    }
+
+    /**
+     * Carga en caché, con una sola consulta, los clientes anónimos existentes de los teléfonos
+     * indicados que aún no están en caché (un bloque de la ingesta por lotes).
+     */
+    public void precargar(Collection<String> telefonos) {
+        Set<String> faltantes = new LinkedHashSet<>();
+        synchronized (porTelefono) {
+            for (String telefono : telefonos) {
+                String normalizado = normalizarTelefono(telefono);
+                if (normalizado != null && !porTelefono.containsKey(normalizado)) {
+                    faltantes.add(normalizado);
+                }
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            clienteRepository.buscarContactosAnonimos(faltantes).forEach(this::guardar);
+        }
+    }
+
+    public record Estadisticas(long aciertos, long insertados, int entradas, int capacidad) {
+    }
+
+    public Estadisticas estadisticas() {
+        synchronized (porTelefono) {
+            return new Estadisticas(aciertos.sum(), insertados.sum(), porTelefono.size(), capacidad);
+        }
+    }
+
+    /**
+     * Saca de la caché al cliente (modificado o eliminado; ver ClienteListener).
+     */
+    public void olvidar(Long clienteId) {
+        synchronized (porTelefono) {
+            String telefono = telefonoPorId.remove(clienteId);
+            if (telefono != null) {
+                porTelefono.remove(telefono);
+            }
+        }
+    }
+
+    /**
+     * Vacía la caché (p. ej. tras eliminar clientes directamente en la BD).
+     */
+    public void limpiar() {
+        synchronized (porTelefono) {
+            porTelefono.clear();
+            telefonoPorId.clear();
+        }
+    }
+
+    private void guardar(ContactoCliente contacto) {
+        synchronized (porTelefono) {
+            ContactoCliente anterior = porTelefono.put(contacto.telefono(), contacto);
+            if (anterior != null) {
+                telefonoPorId.remove(anterior.id());
+            }
+            telefonoPorId.put(contacto.id(), contacto.telefono());
+        }
+    }
+
+    // Un cliente insertado en una transacción que luego se revierte no debe quedar en caché
+    private void guardarAlConfirmar(ContactoCliente contacto) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                guardar(contacto);
+            }
+        });
+    }
+
+    private ContactoCliente registrar(String telefono, String direccion) {
+        for (int intento = 1; ; intento++) {
+            Optional<Long> id = clienteAnonimoRepository.insertarSiNoExiste(telefono, direccion);
+            if (id.isPresent()) {
+                insertados.increment();
+                LOG.info("Cliente anónimo ID {} registrado.", id.get());
+                return new ContactoCliente(id.get(), Cliente.NOMBRE_SIN_REGISTRO, telefono, direccion);
+            }
+            // Otro pedido con el mismo teléfono lo insertó primero: se usa esa fila
+            Optional<ContactoCliente> ganador = clienteAnonimoRepository.buscarBloqueando(telefono);
+            if (ganador.isPresent()) {
+                return ganador.get();
+            }
+            if (intento == INTENTOS_REGISTRO) {
+                throw new IllegalStateException("No se pudo registrar el cliente anónimo del pedido.");
+            }
+        }
+    }
+}
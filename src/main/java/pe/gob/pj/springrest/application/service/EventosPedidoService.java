@@ -0,0 +1,252 @@
+package pe.gob.pj.springrest.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pe.gob.pj.springrest.application.dto.EventoPedido;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Eventos de pedidos en tiempo real (GET /api/pedidos/eventos, Server-Sent Events) para los
+ * tableros de cocina y repartidores, en lugar de consultar GET /api/pedidos periódicamente.
+ *
+ * <ul>
+ *   <li>Los eventos se publican solo después del commit de la transacción que creó o cambió
+ *       el pedido: un rollback no emite nada.</li>
+ *   <li>Cada suscriptor tiene una cola acotada (pedidos.eventos.buffer-suscriptor) y su propio
+ *       hilo virtual de envío. Quien publica nunca espera a un cliente: si la cola está llena,
+ *       el suscriptor se desconecta y deberá reconectarse. Un lote (PATCH /api/pedidos/estado,
+ *       POST /api/pedidos/lote) publica un evento por pedido de una vez, así que la cola es al
+ *       menos del doble del lote más grande: un lote no desconecta a un suscriptor al día.</li>
+ *   <li>Los últimos eventos (pedidos.eventos.historial) se conservan para reanudar con
+ *       Last-Event-ID. Si el cliente pide un ID que ya no está, recibe un evento "reinicio"
+ *       y debe recargar la lista completa.</li>
+ *   <li>Los IDs de evento son "época-secuencia", con una época nueva en cada arranque: la
+ *       secuencia reinicia con el proceso, y un Last-Event-ID de otra época (o de otro nodo)
+ *       no se confunde con uno de esta; recibe "reinicio".</li>
+ * </ul>
+ */
+@Service
+public class EventosPedidoService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventosPedidoService.class);
+
+    static final String EVENTO_PEDIDO = "pedido";
+    static final String EVENTO_REINICIO = "reinicio";
+
+    private final int capacidadBuffer;
+    private final String epoca = UUID.randomUUID().toString().substring(0, 8);
+    private final long timeoutMs;
+    private final long latidoMs;
+
+    // Historial circular: el evento con id N está en historial[N % historial.length]
+    private final EventoPedido[] historial;
+    private long ultimoId;
+
+    private final List<Suscriptor> suscriptores = new CopyOnWriteArrayList<>();
+    private final ThreadFactory hilos = Thread.ofVirtual().name("sse-pedidos-", 0).factory();
+    private final AtomicLong descartados = new AtomicLong();
+
+    public EventosPedidoService(@Value("${pedidos.eventos.buffer-suscriptor:256}") int capacidadBuffer,
+                                @Value("${pedidos.eventos.historial:1000}") int tamanoHistorial,
+                                @Value("${pedidos.eventos.timeout-ms:1800000}") long timeoutMs,
+                                @Value("${pedidos.eventos.latido-ms:15000}") long latidoMs,
+                                @Value("${pedidos.lote.tamano-maximo:1000}") int tamanoMaximoLote,
+                                @Value("${pedidos.estado-lote.tamano-maximo:500}") int tamanoMaximoLoteEstado) {
+        int minimo = 2 * Math.max(tamanoMaximoLote, tamanoMaximoLoteEstado);
+        if (capacidadBuffer < minimo) {
+            LOG.warn("pedidos.eventos.buffer-suscriptor={} es menor que el doble del lote más grande; se usa {}.",
+                    capacidadBuffer, minimo);
+            capacidadBuffer = minimo;
+        }
+        this.capacidadBuffer = capacidadBuffer;
+        this.historial = new EventoPedido[tamanoHistorial];
+        this.timeoutMs = timeoutMs;
+        this.latidoMs = latidoMs;
+    }
+
+    // ===============================================
+    // PUBLICACIÓN (desde PedidoService / PedidoLoteService)
+    // ===============================================
+
+    public void publicarCreado(Long pedidoId, EstadoPedido estado) {
+        alConfirmar(() -> publicar(EventoPedido.Tipo.CREADO, pedidoId, estado));
+    }
+
+    public void publicarCambioEstado(Collection<Long> pedidoIds, EstadoPedido estado) {
+        List<Long> ids = List.copyOf(pedidoIds);
+        alConfirmar(() -> ids.forEach(id -> publicar(EventoPedido.Tipo.ESTADO_ACTUALIZADO, id, estado)));
+    }
+
+    private void alConfirmar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    // Sincronizado: el orden de los IDs es el orden del historial y de cada cola
+    synchronized void publicar(EventoPedido.Tipo tipo, Long pedidoId, EstadoPedido estado) {
+        EventoPedido evento = new EventoPedido(++ultimoId, tipo, pedidoId, estado, LocalDateTime.now());
+        historial[(int) (evento.getId() % historial.length)] = evento;
+        for (Suscriptor suscriptor : suscriptores) {
+            if (!suscriptor.cola.offer(evento)) {
+                descartar(suscriptor);
+            }
+        }
+    }
+
+    // ===============================================
+    // SUSCRIPCIÓN (GET /api/pedidos/eventos)
+    // ===============================================
+
+    /**
+     * Registra un suscriptor. Con ultimoEventoId (Last-Event-ID) primero recibe los eventos
+     * posteriores a ese ID que sigan en el historial; si el ID es de otra época, "reinicio".
+     */
+    public SseEmitter suscribir(String ultimoEventoId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Suscriptor suscriptor = new Suscriptor(emitter, new ArrayBlockingQueue<>(capacidadBuffer));
+        Long ultimoIdRecibido = ultimoEventoId != null ? secuenciaDe(ultimoEventoId) : null;
+
+        synchronized (this) {
+            if (ultimoEventoId != null && ultimoIdRecibido == null) {
+                suscriptor.reiniciar = true;
+            } else if (ultimoIdRecibido != null) {
+                long primeroRetenido = Math.max(1, ultimoId - historial.length + 1);
+                long pendientes = ultimoId - ultimoIdRecibido;
+                if (ultimoIdRecibido < primeroRetenido - 1 || pendientes < 0 || pendientes > capacidadBuffer) {
+                    suscriptor.reiniciar = true;
+                } else {
+                    for (long id = ultimoIdRecibido + 1; id <= ultimoId; id++) {
+                        suscriptor.cola.add(historial[(int) (id % historial.length)]);
+                    }
+                }
+            }
+            suscriptores.add(suscriptor);
+        }
+
+        emitter.onCompletion(suscriptor::cerrar);
+        emitter.onTimeout(suscriptor::cerrar);
+        emitter.onError(e -> suscriptor.cerrar());
+        suscriptor.hilo.start();
+        return emitter;
+    }
+
+    public Map<String, Long> estadisticas() {
+        synchronized (this) {
+            return Map.of("suscriptores", (long) suscriptores.size(), "ultimoId", ultimoId,
+                    "descartados", descartados.get(), "capacidadBuffer", (long) capacidadBuffer);
+        }
+    }
+
+    /**
+     * ID SSE del evento con esa secuencia en esta época (lo que el cliente devuelve en Last-Event-ID).
+     */
+    public String idEvento(long secuencia) {
+        return epoca + "-" + secuencia;
+    }
+
+    // Secuencia de un Last-Event-ID de esta época; null si es de otra o no tiene el formato
+    private Long secuenciaDe(String idEvento) {
+        String prefijo = epoca + "-";
+        if (!idEvento.startsWith(prefijo) || !idEvento.substring(prefijo.length()).matches("\\d{1,18}")) {
+            return null;
+        }
+        return Long.valueOf(idEvento.substring(prefijo.length()));
+    }
+
+    // Antes del apagado ordenado del servidor web, que si no esperaría a estas conexiones abiertas
+    @EventListener(ContextClosedEvent.class)
+    void cerrarTodos() {
+        suscriptores.forEach(Suscriptor::cerrar);
+    }
+
+    private void descartar(Suscriptor suscriptor) {
+        if (suscriptores.remove(suscriptor)) {
+            descartados.incrementAndGet();
+            LOG.warn("Suscriptor de eventos descartado: su buffer de {} eventos está lleno.", capacidadBuffer);
+            suscriptor.hilo.interrupt();
+        }
+    }
+
+    /**
+     * Un cliente SSE: solo su hilo de envío escribe en el emitter.
+     */
+    private final class Suscriptor {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<EventoPedido> cola;
+        private final Thread hilo;
+        private volatile boolean reiniciar;
+
+        private Suscriptor(SseEmitter emitter, BlockingQueue<EventoPedido> cola) {
+            this.emitter = emitter;
+            this.cola = cola;
+            this.hilo = hilos.newThread(this::entregar);
+        }
+
+        private void entregar() {
+            try {
+                // Envía los encabezados de inmediato: sin esto el cliente espera hasta el primer evento
+                emitter.send(SseEmitter.event().comment("conectado"));
+                if (reiniciar) {
+                    emitter.send(SseEmitter.event().name(EVENTO_REINICIO).id(idEvento(ultimoIdPublicado()))
+                            .data("El historial ya no contiene el último evento recibido; recargue los pedidos."));
+                }
+                while (!Thread.currentThread().isInterrupted()) {
+                    EventoPedido evento = cola.poll(latidoMs, TimeUnit.MILLISECONDS);
+                    if (evento == null) {
+                        emitter.send(SseEmitter.event().comment("latido")); // mantiene viva la conexión
+                    } else {
+                        emitter.send(SseEmitter.event().name(EVENTO_PEDIDO).id(idEvento(evento.getId()))
+                                .data(evento, MediaType.APPLICATION_JSON));
+                    }
+                }
+                emitter.complete();
+            } catch (InterruptedException e) {
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado o emitter ya completado
+                LOG.debug("Suscriptor de eventos desconectado: {}", e.getMessage());
+            } finally {
+                suscriptores.remove(this);
+            }
+        }
+
+        private void cerrar() {
+            suscriptores.remove(this);
+            hilo.interrupt();
+        }
+    }
+
+    private synchronized long ultimoIdPublicado() {
+        return ultimoId;
+    }
+}
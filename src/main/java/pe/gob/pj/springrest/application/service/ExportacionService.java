@@ -0,0 +1,138 @@
+package pe.gob.pj.springrest.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pe.gob.pj.springrest.application.dto.ItemPedidoResponse;
+import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import pe.gob.pj.springrest.domain.model.Factura;
+import pe.gob.pj.springrest.infraestructure.persistence.FacturaRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository.FilaExportacion;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportación completa de facturas y pedidos en NDJSON (un objeto JSON por línea). Las filas se
+ * leen con un cursor dentro de una transacción de solo lectura y se escriben una a una con el
+ * generador de Jackson: la memoria usada no depende del tamaño de la tabla.
+ */
+@Service
+public class ExportacionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExportacionService.class);
+
+    private final FacturaRepository facturaRepository;
+    private final PedidoRepository pedidoRepository;
+    // No cierra la salida (la cierra quien la abrió) ni hace flush por objeto: el generador y el
+    // contenedor ya agrupan las escrituras
+    private final ObjectWriter escritor;
+
+    public ExportacionService(FacturaRepository facturaRepository,
+                              PedidoRepository pedidoRepository,
+                              JsonMapper jsonMapper) {
+        this.facturaRepository = facturaRepository;
+        this.pedidoRepository = pedidoRepository;
+        this.escritor = jsonMapper.writer()
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Escribe todas las facturas, ordenadas por número, y devuelve cuántas se exportaron.
+     * No cierra la salida.
+     */
+    @Transactional(readOnly = true)
+    public long exportarFacturas(OutputStream salida) {
+        long exportadas = 0;
+        try (JsonGenerator generador = escritor.createGenerator(salida);
+             Stream<Factura> facturas = facturaRepository.exportarTodas()) {
+            Iterator<Factura> it = facturas.iterator();
+            while (it.hasNext()) {
+                Factura factura = it.next();
+                generador.writeStartObject();
+                generador.writeNumberProperty("numero", factura.getNumero());
+                generador.writeStringProperty("concepto", factura.getConcepto());
+                generador.writeNumberProperty("importe", factura.getImporte());
+                generador.writeEndObject();
+                generador.writeRaw('\n');
+                exportadas++;
+            }
+        }
+        LOG.info("Exportación de facturas terminada: {} filas.", exportadas);
+        return exportadas;
+    }
+
+    /**
+     * Escribe todos los pedidos, ordenados por ID, con el mismo formato que GET /api/pedidos/{id},
+     * y devuelve cuántos se exportaron. No cierra la salida.
+     */
+    @Transactional(readOnly = true)
+    public long exportarPedidos(OutputStream salida) {
+        long exportados = 0;
+        try (JsonGenerator generador = escritor.createGenerator(salida);
+             Stream<FilaExportacion> filas = pedidoRepository.exportarConItems()) {
+            // Las filas llegan agrupadas por pedido: se escribe cada pedido al pasar al siguiente
+            PedidoResponse actual = null;
+            Iterator<FilaExportacion> it = filas.iterator();
+            while (it.hasNext()) {
+                FilaExportacion fila = it.next();
+                if (actual == null || !actual.getId().equals(fila.pedidoId())) {
+                    if (actual != null) {
+                        escribir(generador, actual);
+                        exportados++;
+                    }
+                    actual = nuevoPedido(fila);
+                }
+                if (fila.cantidad() != null) {
+                    actual.getItems().add(nuevoItem(fila));
+                }
+            }
+            if (actual != null) {
+                escribir(generador, actual);
+                exportados++;
+            }
+        }
+        LOG.info("Exportación de pedidos terminada: {} pedidos.", exportados);
+        return exportados;
+    }
+
+    private void escribir(JsonGenerator generador, PedidoResponse pedido) {
+        escritor.writeValue(generador, pedido);
+        generador.writeRaw('\n');
+    }
+
+    private static PedidoResponse nuevoPedido(FilaExportacion fila) {
+        PedidoResponse pedido = new PedidoResponse();
+        pedido.setId(fila.pedidoId());
+        pedido.setClienteId(fila.clienteId());
+        pedido.setNombreCliente(fila.nombreCliente());
+        pedido.setFechaHora(fila.fechaHora());
+        pedido.setEstado(fila.estado());
+        pedido.setTipoEntrega(fila.tipoEntrega());
+        pedido.setDireccionEntrega(fila.direccionEntrega());
+        pedido.setTotal(fila.total());
+        pedido.setItems(new ArrayList<>());
+        return pedido;
+    }
+
+    // Mismo cálculo de subtotal que PedidoResponseMapper.toItemResponse
+    private static ItemPedidoResponse nuevoItem(FilaExportacion fila) {
+        ItemPedidoResponse item = new ItemPedidoResponse();
+        item.setNombreProducto(fila.nombreProducto());
+        item.setCantidad(fila.cantidad());
+        item.setPrecioUnitario(fila.precioUnitario());
+        item.setSubtotal(fila.precioUnitario().multiply(new BigDecimal(fila.cantidad())));
+        return item;
+    }
+}
@@ -0,0 +1,315 @@
+package pe.gob.pj.springrest.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import pe.gob.pj.springrest.application.dto.ResultadoImportacionFacturasResponse;
+import pe.gob.pj.springrest.application.dto.ResultadoImportacionFacturasResponse.ErrorLinea;
+import pe.gob.pj.springrest.application.dto.ResultadoLoteFacturasResponse;
+import pe.gob.pj.springrest.domain.model.Factura;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Importación de facturas desde archivos CSV (numero,concepto,importe) o NDJSON (un objeto
+ * Factura por línea) de cientos de miles de filas. El cuerpo se lee línea por línea: en memoria
+ * solo están la línea actual, el bloque pendiente de guardar y los primeros errores, sin importar
+ * el tamaño del archivo. Cada línea se valida con las restricciones de Factura; las válidas se
+ * guardan por bloques (facturas.importacion.tamano-transaccion), una transacción por bloque con
+ * el mismo upsert de POST /facturas/lote. Una línea inválida no detiene la importación.
+ * Una línea de más de facturas.importacion.longitud-maxima-linea caracteres se rechaza sin
+ * leerla completa en memoria. Si un bloque falla en la BD, se reintenta factura por factura:
+ * cada una que falle se informa en su línea y las demás se guardan.
+ */
+@Service
+public class FacturaImportacionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FacturaImportacionService.class);
+
+    public enum Formato {
+        CSV, NDJSON
+    }
+
+    private final FacturaLoteService loteService;
+    private final JsonMapper jsonMapper;
+    private final int tamanoTransaccion;
+    private final int erroresMaximos;
+    private final int longitudMaximaLinea;
+
+    public FacturaImportacionService(FacturaLoteService loteService,
+                                     JsonMapper jsonMapper,
+                                     @Value("${facturas.importacion.tamano-transaccion:1000}") int tamanoTransaccion,
+                                     @Value("${facturas.importacion.errores-maximos:1000}") int erroresMaximos,
+                                     @Value("${facturas.importacion.longitud-maxima-linea:4096}") int longitudMaximaLinea) {
+        this.loteService = loteService;
+        this.jsonMapper = jsonMapper;
+        this.tamanoTransaccion = tamanoTransaccion;
+        this.erroresMaximos = erroresMaximos;
+        this.longitudMaximaLinea = longitudMaximaLinea;
+    }
+
+    public ResultadoImportacionFacturasResponse importar(InputStream cuerpo, Formato formato) {
+        LOG.info("Iniciando la importación de facturas ({}).", formato);
+        Importacion importacion = new Importacion();
+
+        try (LectorLineas lector = new LectorLineas(new InputStreamReader(cuerpo, StandardCharsets.UTF_8), longitudMaximaLinea)) {
+            String linea;
+            long numeroLinea = 0;
+            while ((linea = lector.siguiente()) != null) {
+                numeroLinea++;
+                if (lector.excedida()) {
+                    importacion.lineas++;
+                    importacion.rechazar(numeroLinea, "La línea supera los " + longitudMaximaLinea + " caracteres.");
+                    continue;
+                }
+                if (linea.isBlank() || (numeroLinea == 1 && formato == Formato.CSV && esCabecera(linea))) {
+                    continue;
+                }
+                importacion.lineas++;
+
+                Factura factura;
+                try {
+                    factura = formato == Formato.CSV ? desdeCsv(linea) : jsonMapper.readValue(linea, Factura.class);
+                } catch (IllegalArgumentException e) {
+                    importacion.rechazar(numeroLinea, "Formato inválido: " + e.getMessage());
+                    continue;
+                } catch (JacksonException e) {
+                    importacion.rechazar(numeroLinea, "JSON inválido: " + e.getOriginalMessage());
+                    continue;
+                }
+
+                List<String> errores = loteService.validar(factura);
+                if (!errores.isEmpty()) {
+                    importacion.rechazar(numeroLinea, String.join("; ", errores));
+                    continue;
+                }
+
+                importacion.agregar(numeroLinea, factura);
+                if (importacion.pendientes.size() >= tamanoTransaccion) {
+                    importacion.guardarPendientes();
+                }
+            }
+        } catch (IOException e) {
+            // Lo ya confirmado se mantiene; el cliente puede reintentar (el upsert es idempotente)
+            throw new UncheckedIOException("Error al leer el archivo de facturas en la línea " + (importacion.ultimaLinea + 1) + ".", e);
+        }
+        importacion.guardarPendientes();
+
+        LOG.info("Importación de facturas terminada: {} líneas, {} insertadas, {} actualizadas, {} sin cambios, {} duplicadas, {} rechazadas.",
+                importacion.lineas, importacion.insertadas, importacion.actualizadas, importacion.sinCambios,
+                importacion.duplicadas, importacion.rechazadas);
+        return new ResultadoImportacionFacturasResponse(importacion.lineas, importacion.insertadas,
+                importacion.actualizadas, importacion.sinCambios, importacion.duplicadas, importacion.rechazadas,
+                importacion.errores);
+    }
+
+    // Estado de una importación en curso
+    private class Importacion {
+        private final List<Factura> pendientes = new ArrayList<>(tamanoTransaccion);
+        private final List<Long> lineasPendientes = new ArrayList<>(tamanoTransaccion);
+        private final List<ErrorLinea> errores = new ArrayList<>();
+        private long primeraLineaPendiente;
+        private long ultimaLinea;
+        private long lineas;
+        private long insertadas;
+        private long actualizadas;
+        private long sinCambios;
+        private long duplicadas;
+        private long rechazadas;
+
+        void agregar(long numeroLinea, Factura factura) {
+            if (pendientes.isEmpty()) {
+                primeraLineaPendiente = numeroLinea;
+            }
+            pendientes.add(factura);
+            lineasPendientes.add(numeroLinea);
+            ultimaLinea = numeroLinea;
+        }
+
+        void rechazar(long numeroLinea, String mensaje) {
+            rechazadas++;
+            ultimaLinea = numeroLinea;
+            if (errores.size() < erroresMaximos) {
+                errores.add(new ErrorLinea(numeroLinea, mensaje));
+            }
+        }
+
+        void guardarPendientes() {
+            if (pendientes.isEmpty()) {
+                return;
+            }
+            try {
+                sumar(loteService.guardarValidadas(pendientes), pendientes.size());
+            } catch (RuntimeException e) {
+                // Si falla el bloque, se reintenta factura por factura para aislar la que provoca el error
+                LOG.warn("Falló el guardado de las líneas {}-{} de la importación: {}. Se reintenta factura por factura.",
+                        primeraLineaPendiente, ultimaLinea, e.getMessage());
+                guardarUnaPorUna();
+            }
+            pendientes.clear();
+            lineasPendientes.clear();
+        }
+
+        private void guardarUnaPorUna() {
+            for (int i = 0; i < pendientes.size(); i++) {
+                long numeroLinea = lineasPendientes.get(i);
+                try {
+                    sumar(loteService.guardarValidadas(List.of(pendientes.get(i))), 1);
+                } catch (RuntimeException ex) {
+                    LOG.error("No se pudo guardar la línea {} de la importación: {}", numeroLinea, ex.getMessage());
+                    rechazar(numeroLinea, "Error al guardar la factura en la base de datos.");
+                }
+            }
+        }
+
+        private void sumar(ResultadoLoteFacturasResponse resultado, int guardadas) {
+            insertadas += resultado.getInsertadas();
+            actualizadas += resultado.getActualizadas();
+            sinCambios += resultado.getSinCambios();
+            // Las líneas que no se contaron fueron reemplazadas por otra del bloque con el mismo número
+            duplicadas += guardadas - resultado.getInsertadas() - resultado.getActualizadas() - resultado.getSinCambios();
+        }
+    }
+
+    /**
+     * Lee líneas como BufferedReader.readLine (separadas por \n, \r o \r\n), pero sin guardar
+     * más de longitudMaxima caracteres: el resto de una línea más larga se descarta y excedida()
+     * lo indica.
+     */
+    private static final class LectorLineas implements AutoCloseable {
+
+        private final Reader lector;
+        private final int longitudMaxima;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder linea = new StringBuilder();
+        private int posicion;
+        private int limite;
+        private boolean excedida;
+        // La línea anterior terminó en \r: un \n inmediato es parte del mismo separador
+        private boolean trasRetorno;
+
+        private LectorLineas(Reader lector, int longitudMaxima) {
+            this.lector = lector;
+            this.longitudMaxima = longitudMaxima;
+        }
+
+        // Siguiente línea sin su separador, o null al final del archivo
+        String siguiente() throws IOException {
+            linea.setLength(0);
+            excedida = false;
+            boolean leyo = false;
+            while (true) {
+                if (posicion == limite) {
+                    limite = lector.read(buffer, 0, buffer.length);
+                    posicion = 0;
+                    if (limite <= 0) {
+                        limite = 0;
+                        return leyo ? linea.toString() : null;
+                    }
+                }
+                char c = buffer[posicion++];
+                if (trasRetorno) {
+                    trasRetorno = false;
+                    if (c == '\n') {
+                        continue;
+                    }
+                }
+                if (c == '\n' || c == '\r') {
+                    trasRetorno = c == '\r';
+                    return linea.toString();
+                }
+                leyo = true;
+                if (linea.length() < longitudMaxima) {
+                    linea.append(c);
+                } else {
+                    excedida = true;
+                }
+            }
+        }
+
+        boolean excedida() {
+            return excedida;
+        }
+
+        @Override
+        public void close() throws IOException {
+            lector.close();
+        }
+    }
+
+    private static boolean esCabecera(String linea) {
+        return linea.strip().toLowerCase().startsWith("numero");
+    }
+
+    // numero,concepto,importe; el concepto puede ir entre comillas dobles ("" escapa una comilla)
+    private static Factura desdeCsv(String linea) {
+        List<String> campos = camposCsv(linea);
+        if (campos.size() != 3) {
+            throw new IllegalArgumentException("se esperaban 3 campos (numero,concepto,importe) y hay " + campos.size() + ".");
+        }
+        return new Factura(entero(campos.get(0), "numero"), campos.get(1).isEmpty() ? null : campos.get(1), decimal(campos.get(2), "importe"));
+    }
+
+    private static List<String> camposCsv(String linea) {
+        List<String> campos = new ArrayList<>(3);
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString().strip());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("comillas sin cerrar.");
+        }
+        campos.add(campo.toString().strip());
+        return campos;
+    }
+
+    private static Integer entero(String valor, String campo) {
+        if (valor.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(campo + " no es un entero: '" + valor + "'.");
+        }
+    }
+
+    private static Double decimal(String valor, String campo) {
+        if (valor.isEmpty()) {
+            return null;
+        }
+        try {
+            return Double.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(campo + " no es un número: '" + valor + "'.");
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package pe.gob.pj.springrest.application.service;
+
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pe.gob.pj.springrest.application.dto.ResultadoLoteFacturasResponse;
+import pe.gob.pj.springrest.domain.model.Factura;
+import pe.gob.pj.springrest.infraestructure.persistence.FacturaRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Alta/actualización de facturas por lotes (POST /facturas/lote) para los procesos de conciliación.
+ * El lote se valida completo antes de escribir y se guarda en una sola transacción (todo o nada).
+ * Por cada bloque se consultan de una vez las facturas existentes, se insertan las nuevas con
+ * persist (sin el SELECT previo de merge) y se envían los cambios en batches JDBC
+ * (hibernate.jdbc.batch_size), vaciando el contexto de persistencia al terminar cada bloque.
+ */
+@Service
+public class FacturaLoteService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FacturaLoteService.class);
+
+    private final FacturaRepository repository;
+    private final Validator validator;
+    private final int tamanoBloque;
+    private final int tamanoMaximoLote;
+
+    public FacturaLoteService(FacturaRepository repository,
+                              Validator validator,
+                              @Value("${facturas.lote.tamano-bloque:50}") int tamanoBloque,
+                              @Value("${facturas.lote.tamano-maximo:5000}") int tamanoMaximoLote) {
+        this.repository = repository;
+        this.validator = validator;
+        this.tamanoBloque = tamanoBloque;
+        this.tamanoMaximoLote = tamanoMaximoLote;
+    }
+
+    /**
+     * Inserta las facturas que no existen y sobrescribe las existentes. Si un número se repite
+     * en el lote, prevalece la última aparición y el número se informa en duplicadas.
+     */
+    @Transactional
+    public ResultadoLoteFacturasResponse guardarLote(List<Factura> facturas) {
+        if (facturas == null || facturas.isEmpty()) {
+            throw new IllegalArgumentException("El lote debe contener al menos una factura.");
+        }
+        if (facturas.size() > tamanoMaximoLote) {
+            throw new IllegalArgumentException(
+                    String.format("El lote admite como máximo %d facturas (recibidas: %d).", tamanoMaximoLote, facturas.size()));
+        }
+        validar(facturas);
+
+        ResultadoLoteFacturasResponse resultado = guardarValidadas(facturas);
+        LOG.info("Lote de {} facturas guardado: {} insertadas, {} actualizadas, {} sin cambios, {} números repetidos.",
+                facturas.size(), resultado.getInsertadas(), resultado.getActualizadas(), resultado.getSinCambios(),
+                resultado.getDuplicadas().size());
+        return resultado;
+    }
+
+    /**
+     * Upsert de facturas ya validadas (con número), en la transacción en curso o en una nueva.
+     * Lo usa también la importación de archivos, que valida línea por línea. Solo cuenta como
+     * actualizada la factura existente cuyo concepto o importe cambia.
+     */
+    @Transactional
+    public ResultadoLoteFacturasResponse guardarValidadas(List<Factura> facturas) {
+        Map<Integer, Factura> porNumero = new LinkedHashMap<>();
+        Set<Integer> duplicadas = new LinkedHashSet<>();
+        for (Factura factura : facturas) {
+            if (porNumero.put(factura.getNumero(), factura) != null) {
+                duplicadas.add(factura.getNumero());
+            }
+        }
+        List<Factura> unicas = new ArrayList<>(porNumero.values());
+
+        int insertadas = 0;
+        int actualizadas = 0;
+        int sinCambios = 0;
+        for (int inicio = 0; inicio < unicas.size(); inicio += tamanoBloque) {
+            List<Factura> bloque = unicas.subList(inicio, Math.min(inicio + tamanoBloque, unicas.size()));
+
+            Map<Integer, Factura> existentes = repository.buscarPorNumeros(bloque.stream().map(Factura::getNumero).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Factura::getNumero, f -> f));
+            for (Factura factura : bloque) {
+                Factura existente = existentes.get(factura.getNumero());
+                if (existente == null) {
+                    repository.insertar(factura);
+                    insertadas++;
+                } else if (Objects.equals(existente.getConcepto(), factura.getConcepto())
+                        && Objects.equals(existente.getImporte(), factura.getImporte())) {
+                    sinCambios++;
+                } else {
+                    // La entidad está 'managed': el UPDATE sale en el flush
+                    existente.setConcepto(factura.getConcepto());
+                    existente.setImporte(factura.getImporte());
+                    actualizadas++;
+                }
+            }
+            repository.sincronizarYLimpiar();
+        }
+        return new ResultadoLoteFacturasResponse(insertadas, actualizadas, sinCambios, new ArrayList<>(duplicadas));
+    }
+
+    /**
+     * Bean Validation de una factura (equivalente a @Valid en POST /facturas); el número es
+     * obligatorio porque identifica la fila a insertar o actualizar. Vacío si es válida.
+     */
+    public List<String> validar(Factura factura) {
+        if (factura == null) {
+            return List.of("La factura no puede ser nula.");
+        }
+        List<String> errores = new ArrayList<>();
+        if (factura.getNumero() == null) {
+            errores.add("numero: El número de factura es obligatorio.");
+        }
+        validator.validate(factura).stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .forEach(errores::add);
+        return errores;
+    }
+
+    private void validar(List<Factura> facturas) {
+        List<String> errores = new ArrayList<>();
+        for (int i = 0; i < facturas.size(); i++) {
+            String prefijo = "[" + i + "] ";
+            validar(facturas.get(i)).forEach(e -> errores.add(prefijo + e));
+        }
+        if (!errores.isEmpty()) {
+            throw new IllegalArgumentException("Lote de facturas inválido: " + String.join("; ", errores));
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import pe.gob.pj.springrest.domain.model.Factura;
 import pe.gob.pj.springrest.presentation.exception.RecursoNoEncontradoException;
+import pe.gob.pj.springrest.infraestructure.config.RutaLecturaReplica;
 import pe.gob.pj.springrest.infraestructure.persistence.FacturaRepository;
 
 import java.util.List;
@@ -34,7 +35,8 @@ public class FacturaService {
     @Transactional(readOnly = true)
     public Optional<Factura> buscarPorId(Integer id) {
         LOG.debug("Buscando factura por ID: {}", id);
-        return repository.buscarPorId(id);
+        // De la primaria: puede seguir a un PUT y la réplica aún no tenerlo
+        return RutaLecturaReplica.enPrimaria(() -> repository.buscarPorId(id));
         // El repositorio ya devuelve Optional, no hay que hacer nada más aquí.
     }
 
@@ -42,10 +44,8 @@ public class FacturaService {
     public void eliminar(Integer id) {
         LOG.debug("Intento de eliminación de factura con ID: {}", id); // Opcional, para trazar la entrada al método
 
-        Optional<Factura> facturaOpt = repository.buscarPorId(id);
-
-        if (facturaOpt.isPresent()) {
-            repository.eliminar(id);
+        // Si no eliminó filas, la factura no existía
+        if (repository.eliminar(id) > 0) {
             LOG.info("Factura con ID {} eliminada exitosamente a través del servicio.", id);
         } else {
             // A nivel de servicio, esto es un WARN o INFO/ERROR dependiendo de la política:
@@ -58,4 +58,16 @@ public class FacturaService {
             throw new RecursoNoEncontradoException(mensajeError);
         }
     }
+
+    /**
+     * Elimina en una sola sentencia las facturas con número entre desde y hasta (inclusive)
+     * y devuelve cuántas se eliminaron.
+     */
+    @Transactional
+    public int eliminarRango(Integer desde, Integer hasta) {
+        if (desde == null || hasta == null || desde > hasta) {
+            throw new IllegalArgumentException("Rango de facturas inválido: 'desde' y 'hasta' son obligatorios y desde <= hasta.");
+        }
+        return repository.eliminarRango(desde, hasta);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,233 @@
+package pe.gob.pj.springrest.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.gob.pj.springrest.application.dto.CrearPedidoRequest;
+import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import pe.gob.pj.springrest.domain.model.ClaveIdempotencia;
+import pe.gob.pj.springrest.infraestructure.persistence.ClaveIdempotenciaRepository;
+import pe.gob.pj.springrest.presentation.exception.ConflictoIdempotenciaException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key para POST /api/pedidos: los reintentos de un cliente con la misma clave
+ * devuelven el PedidoResponse ya creado, sin volver a aplicar RN1-RN4 ni insertar otra vez.
+ *
+ * <ul>
+ *   <li>En memoria: mapa acotado (pedidos.idempotencia.capacidad) con vencimiento
+ *       (pedidos.idempotencia.ttl-segundos). Las solicitudes simultáneas con la misma clave
+ *       esperan el resultado de la primera (single-flight) en lugar de competir.</li>
+ *   <li>Persistente (pedidos.idempotencia.persistente=true): además se registra la clave en la
+ *       tabla idempotencia_pedido, en la misma transacción que el pedido, para que varios nodos
+ *       compartan las claves.</li>
+ * </ul>
+ */
+@Service
+public class IdempotenciaPedidoService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IdempotenciaPedidoService.class);
+
+    static final int LONGITUD_MAXIMA_CLAVE = 100;
+
+    private final PedidoService pedidoService;
+    private final ClaveIdempotenciaRepository claveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacidad;
+    private final long ttlMs;
+    private final long esperaMaximaMs;
+    private final boolean persistente;
+
+    // Orden de inserción = orden de vencimiento; se protege con su propio monitor
+    private final LinkedHashMap<String, Entrada> entradas;
+
+    public IdempotenciaPedidoService(PedidoService pedidoService,
+                                     ClaveIdempotenciaRepository claveRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${pedidos.idempotencia.capacidad:10000}") int capacidad,
+                                     @Value("${pedidos.idempotencia.ttl-segundos:86400}") long ttlSegundos,
+                                     @Value("${pedidos.idempotencia.espera-maxima-ms:10000}") long esperaMaximaMs,
+                                     @Value("${pedidos.idempotencia.persistente:false}") boolean persistente) {
+        this.pedidoService = pedidoService;
+        this.claveRepository = claveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.capacidad = capacidad;
+        this.ttlMs = TimeUnit.SECONDS.toMillis(ttlSegundos);
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.persistente = persistente;
+        this.entradas = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                return size() > IdempotenciaPedidoService.this.capacidad;
+            }
+        };
+    }
+
+    /**
+     * Resultado de una creación con Idempotency-Key; repetido indica que el pedido ya existía.
+     */
+    public record Resultado(PedidoResponse pedido, boolean repetido) {
+    }
+
+    private record Entrada(String huella, CompletableFuture<PedidoResponse> resultado, long expiraEn) {
+    }
+
+    /**
+     * Ejecuta la creación una sola vez por clave. Si la creación falla, la clave se libera para
+     * que el cliente pueda reintentar.
+     */
+    public Resultado crearPedido(String clave, CrearPedidoRequest request, Supplier<PedidoResponse> creacion) {
+        validarClave(clave);
+        String huella = huella(request);
+        long ahora = System.currentTimeMillis();
+
+        Entrada existente;
+        Entrada propia = null;
+        synchronized (entradas) {
+            existente = entradas.get(clave);
+            if (existente != null && existente.expiraEn() <= ahora) {
+                entradas.remove(clave);
+                existente = null;
+            }
+            if (existente == null) {
+                propia = new Entrada(huella, new CompletableFuture<>(), ahora + ttlMs);
+                entradas.put(clave, propia);
+            }
+        }
+
+        if (existente != null) {
+            verificarHuella(existente.huella(), huella);
+            return new Resultado(esperar(existente.resultado()), true);
+        }
+
+        try {
+            Resultado resultado = persistente ? crearRegistrando(clave, huella, creacion) : new Resultado(creacion.get(), false);
+            propia.resultado().complete(resultado.pedido());
+            return resultado;
+        } catch (RuntimeException e) {
+            synchronized (entradas) {
+                entradas.remove(clave, propia);
+            }
+            propia.resultado().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Purga periódica de las claves vencidas (memoria y, si aplica, tabla idempotencia_pedido).
+     */
+    @Scheduled(fixedDelayString = "${pedidos.idempotencia.purga-ms:600000}")
+    public void purgarVencidas() {
+        long ahora = System.currentTimeMillis();
+        synchronized (entradas) {
+            Iterator<Entrada> iterator = entradas.values().iterator();
+            while (iterator.hasNext() && iterator.next().expiraEn() <= ahora) {
+                iterator.remove();
+            }
+        }
+        if (persistente) {
+            int eliminadas = claveRepository.eliminarCreadasAntesDe(LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+            LOG.debug("Claves de idempotencia vencidas eliminadas: {}", eliminadas);
+        }
+    }
+
+    int tamano() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+
+    // La clave se inserta antes que el pedido: si otro nodo ya la registró (aún sin confirmar),
+    // el INSERT espera a esa transacción y falla por clave duplicada, sin crear un segundo pedido.
+    private Resultado crearRegistrando(String clave, String huella, Supplier<PedidoResponse> creacion) {
+        LocalDateTime limite = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMs));
+        Optional<ClaveIdempotencia> registrada = claveRepository.findById(clave);
+        if (registrada.isPresent()) {
+            if (registrada.get().getCreadoEn().isAfter(limite)) {
+                return repetir(registrada.get(), huella);
+            }
+            claveRepository.delete(registrada.get());
+        }
+
+        try {
+            PedidoResponse response = transactionTemplate.execute(status -> {
+                ClaveIdempotencia registro = claveRepository.saveAndFlush(ClaveIdempotencia.builder()
+                        .clave(clave).huella(huella).creadoEn(LocalDateTime.now()).build());
+                PedidoResponse creado = creacion.get();
+                registro.setPedidoId(creado.getId());
+                return creado;
+            });
+            return new Resultado(response, false);
+        } catch (DataIntegrityViolationException e) {
+            ClaveIdempotencia ganadora = claveRepository.findById(clave).orElseThrow(() -> e);
+            return repetir(ganadora, huella);
+        }
+    }
+
+    private Resultado repetir(ClaveIdempotencia registrada, String huella) {
+        verificarHuella(registrada.getHuella(), huella);
+        if (registrada.getPedidoId() == null) {
+            throw new ConflictoIdempotenciaException("La solicitud original con esta Idempotency-Key sigue en curso.");
+        }
+        return new Resultado(pedidoService.buscarPedidoPorId(registrada.getPedidoId()), true);
+    }
+
+    private PedidoResponse esperar(CompletableFuture<PedidoResponse> resultado) {
+        try {
+            return resultado.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // La solicitud original falló: se propaga el mismo error (p. ej. 400 por RN4)
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConflictoIdempotenciaException("La solicitud original con esta Idempotency-Key sigue en curso.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictoIdempotenciaException("Se interrumpió la espera de la solicitud original.");
+        }
+    }
+
+    private static void verificarHuella(String registrada, String recibida) {
+        if (!registrada.equals(recibida)) {
+            throw new ConflictoIdempotenciaException("La Idempotency-Key ya se usó con un cuerpo de solicitud distinto.");
+        }
+    }
+
+    private static void validarClave(String clave) {
+        if (clave.isBlank() || clave.length() > LONGITUD_MAXIMA_CLAVE) {
+            throw new IllegalArgumentException(
+                    String.format("La Idempotency-Key debe tener entre 1 y %d caracteres.", LONGITUD_MAXIMA_CLAVE));
+        }
+    }
+
+    // SHA-256 del cuerpo (toString de Lombok: incluye todos los campos e ítems)
+    private static String huella(CrearPedidoRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(request.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
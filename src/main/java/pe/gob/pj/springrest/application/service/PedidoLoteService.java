@@ -0,0 +1,219 @@
+package pe.gob.pj.springrest.application.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.gob.pj.springrest.application.dto.CrearPedidoRequest;
+import pe.gob.pj.springrest.application.dto.ResultadoLoteResponse;
+import pe.gob.pj.springrest.application.dto.ResultadoPedidoLote;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.infraestructure.mapper.PedidoMapper;
+import pe.gob.pj.springrest.presentation.exception.RecursoNoEncontradoException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Ingesta de pedidos por lotes (POST /api/pedidos/lote) para integraciones como el call-center.
+ * Cada pedido se valida con las mismas reglas que la creación individual (DTO, RN1-RN4) y los
+ * válidos se insertan por bloques: cada bloque se valida e inserta en una transacción, con los
+ * INSERT agrupados en batches JDBC (hibernate.jdbc.batch_size). Un pedido rechazado no impide crear los demás.
+ */
+@Service
+public class PedidoLoteService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PedidoLoteService.class);
+
+    private final PedidoService pedidoService;
+    private final CatalogoProductoService catalogoProductoService;
+    private final EventosPedidoService eventosPedido;
+    private final PedidoMapper pedidoMapper;
+    private final ClienteService clienteService;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanoBloque;
+    private final int tamanoMaximoLote;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PedidoLoteService(PedidoService pedidoService,
+                             CatalogoProductoService catalogoProductoService,
+                             EventosPedidoService eventosPedido,
+                             PedidoMapper pedidoMapper,
+                             ClienteService clienteService,
+                             Validator validator,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${pedidos.lote.tamano-bloque:50}") int tamanoBloque,
+                             @Value("${pedidos.lote.tamano-maximo:1000}") int tamanoMaximoLote) {
+        this.pedidoService = pedidoService;
+        this.catalogoProductoService = catalogoProductoService;
+        this.eventosPedido = eventosPedido;
+        this.pedidoMapper = pedidoMapper;
+        this.clienteService = clienteService;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanoBloque = tamanoBloque;
+        this.tamanoMaximoLote = tamanoMaximoLote;
+    }
+
+    /**
+     * Crea los pedidos del lote y devuelve un resultado por pedido, en el mismo orden recibido.
+     */
+    public ResultadoLoteResponse crearPedidos(List<CrearPedidoRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("El lote debe contener al menos un pedido.");
+        }
+        if (requests.size() > tamanoMaximoLote) {
+            throw new IllegalArgumentException(
+                    String.format("El lote admite como máximo %d pedidos (recibidos: %d).", tamanoMaximoLote, requests.size()));
+        }
+        LOG.info("Iniciando la ingesta de un lote de {} pedidos.", requests.size());
+
+        ResultadoPedidoLote[] resultados = new ResultadoPedidoLote[requests.size()];
+        for (int inicio = 0; inicio < requests.size(); inicio += tamanoBloque) {
+            int fin = Math.min(inicio + tamanoBloque, requests.size());
+            procesarBloque(requests, inicio, fin, resultados);
+        }
+
+        int creados = (int) Arrays.stream(resultados).filter(ResultadoPedidoLote::isCreado).count();
+        LOG.info("Lote procesado: {} creados, {} rechazados.", creados, resultados.length - creados);
+        return new ResultadoLoteResponse(creados, resultados.length - creados, Arrays.asList(resultados));
+    }
+
+    private void procesarBloque(List<CrearPedidoRequest> requests, int inicio, int fin, ResultadoPedidoLote[] resultados) {
+        Map<Long, Cliente> clientes = buscarClientes(requests.subList(inicio, fin));
+
+        // Validación e inserción del bloque en una sola transacción (INSERT por batches JDBC): los
+        // pedidos se valorizan con la foto del catálogo vigente en la transacción que los guarda
+        try {
+            List<Candidato> candidatos = transactionTemplate.execute(status -> validarYPersistir(requests, inicio, fin, clientes, resultados));
+            candidatos.forEach(c -> resultados[c.indice] = ResultadoPedidoLote.creado(c.indice, c.pedido.getId(), c.pedido.getTotal()));
+        } catch (RuntimeException e) {
+            // Si falla el bloque, se reintenta pedido por pedido para aislar al que provoca el error.
+            // Los rechazados por el DTO o las reglas ya tienen su resultado.
+            LOG.warn("Falló la inserción del bloque [{}, {}): {}. Se reintenta pedido por pedido.", inicio, fin, e.getMessage());
+            for (int i = inicio; i < fin; i++) {
+                if (resultados[i] != null) {
+                    continue;
+                }
+                int indice = i;
+                try {
+                    transactionTemplate.execute(status -> validarYPersistir(requests, indice, indice + 1, clientes, resultados))
+                            .forEach(c -> resultados[c.indice] = ResultadoPedidoLote.creado(c.indice, c.pedido.getId(), c.pedido.getTotal()));
+                } catch (RuntimeException ex) {
+                    LOG.error("No se pudo insertar el pedido {} del lote: {}", indice, ex.getMessage());
+                    resultados[indice] = ResultadoPedidoLote.rechazado(indice, "Error al guardar el pedido en la base de datos.");
+                }
+            }
+        }
+    }
+
+    // Valida los pedidos [inicio, fin) con el DTO y las reglas (anotando los rechazados) e inserta los válidos
+    private List<Candidato> validarYPersistir(List<CrearPedidoRequest> requests, int inicio, int fin,
+                                              Map<Long, Cliente> clientes, ResultadoPedidoLote[] resultados) {
+        CatalogoProductoService.Snapshot catalogo = catalogoProductoService.vigente();
+        List<Candidato> candidatos = new ArrayList<>();
+        for (int i = inicio; i < fin; i++) {
+            CrearPedidoRequest request = requests.get(i);
+
+            String errorDto = validarDto(request);
+            if (errorDto != null) {
+                resultados[i] = ResultadoPedidoLote.rechazado(i, errorDto);
+                continue;
+            }
+
+            try {
+                Candidato candidato = new Candidato(i, pedidoMapper.toEntity(request));
+                candidato.pedido.setCliente(request.getClienteId() == null
+                        ? clienteService.resolverPorTelefono(request.getTelefonoCliente(), request.getDireccionEntrega())
+                        : clientes.get(request.getClienteId()));
+                if (candidato.pedido.getCliente() == null) {
+                    throw new IllegalArgumentException("Cliente ID no encontrado.");
+                }
+                pedidoService.prepararPedido(candidato.pedido, catalogo); // RN3, RN1, RN4
+                candidatos.add(candidato);
+            } catch (IllegalArgumentException | RecursoNoEncontradoException e) {
+                resultados[i] = ResultadoPedidoLote.rechazado(i, e.getMessage());
+            }
+        }
+        persistir(candidatos);
+        return candidatos;
+    }
+
+    private void persistir(List<Candidato> candidatos) {
+        for (Candidato candidato : candidatos) {
+            entityManager.persist(candidato.pedido); // CascadeType.ALL persiste los ítems
+        }
+        entityManager.flush();
+        // Solo se emiten si el bloque confirma; un rollback los descarta
+        candidatos.forEach(c -> eventosPedido.publicarCreado(c.pedido.getId(), c.pedido.getEstado()));
+    }
+
+    // Clientes existentes referenciados por el bloque, en una sola consulta como máximo. Los teléfonos de los
+    // pedidos sin clienteId se precargan en la caché de ClienteService (otra consulta como máximo).
+    private Map<Long, Cliente> buscarClientes(List<CrearPedidoRequest> requests) {
+        Set<Long> ids = new HashSet<>();
+        Set<String> telefonos = new HashSet<>();
+        for (CrearPedidoRequest request : requests) {
+            if (request != null && request.getClienteId() != null) {
+                ids.add(request.getClienteId());
+            } else if (request != null && request.getTelefonoCliente() != null) {
+                telefonos.add(request.getTelefonoCliente());
+            }
+        }
+        clienteService.precargar(telefonos);
+        Map<Long, Cliente> clientes = new HashMap<>();
+        if (!ids.isEmpty()) {
+            // findMultiple toma de la caché de segundo nivel los que estén y consulta solo el resto
+            List<Cliente> encontrados = transactionTemplate.execute(status ->
+                    entityManager.unwrap(Session.class).findMultiple(Cliente.class, new ArrayList<>(ids)));
+            encontrados.stream().filter(Objects::nonNull).forEach(c -> clientes.put(c.getId(), c));
+        }
+        return clientes;
+    }
+
+    // Bean Validation del DTO (equivalente a @Valid en la creación individual)
+    private String validarDto(CrearPedidoRequest request) {
+        if (request == null) {
+            return "El pedido no puede ser nulo.";
+        }
+        Set<ConstraintViolation<CrearPedidoRequest>> violaciones = validator.validate(request);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        return violaciones.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Pedido validado pendiente de inserción.
+     */
+    private static final class Candidato {
+        private final int indice;
+        private final Pedido pedido;
+
+        private Candidato(int indice, Pedido pedido) {
+            this.indice = indice;
+            this.pedido = pedido;
+        }
+    }
+}
@@ -1,28 +1,43 @@
 package pe.gob.pj.springrest.application.service;
 
 import lombok.AllArgsConstructor;
+import pe.gob.pj.springrest.application.dto.PaginaPedidosResponse;
+import pe.gob.pj.springrest.application.dto.ItemPedidoResponse;
 import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import pe.gob.pj.springrest.application.dto.ResultadoEstadoLoteResponse;
 import pe.gob.pj.springrest.domain.enums.EstadoPedido;
 import pe.gob.pj.springrest.domain.model.Cliente;
 import pe.gob.pj.springrest.domain.model.Pedido;
 import pe.gob.pj.springrest.domain.model.Producto;
 import pe.gob.pj.springrest.domain.model.ItemPedido;
-import pe.gob.pj.springrest.infraestructure.mapper.PedidoResponseMapper;
+import pe.gob.pj.springrest.infraestructure.config.RutaLecturaReplica;
+import pe.gob.pj.springrest.infraestructure.metricas.MetricasPedido;
 import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.FiltroPedidos;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoBusquedaRepository;
 import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
-import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+import pe.gob.pj.springrest.presentation.exception.ConflictoEstadoPedidoException;
 import pe.gob.pj.springrest.presentation.exception.RecursoNoEncontradoException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 @AllArgsConstructor
@@ -30,12 +45,20 @@ public class PedidoService {
 
     private static final Logger LOG = LoggerFactory.getLogger(PedidoService.class);
 
+    private static final Set<String> TIPOS_ENTREGA = Set.of("DOMICILIO", "RECOGIDA");
+
     // Inyección de Dependencias
     private final PedidoRepository pedidoRepository;
     private final ClienteRepository clienteRepository;
-    private final ProductoRepository productoRepository;
-    // ¡IMPORTANTE! Necesitas inyectar el mapper para devolver PedidoResponse
-    private final PedidoResponseMapper responseMapper;
+    // Cliente anónimo de los pedidos sin clienteId (por teléfono)
+    private final ClienteService clienteService;
+    // Búsqueda con filtros opcionales (GET /api/pedidos/buscar)
+    private final PedidoBusquedaRepository pedidoBusquedaRepository;
+    private final CatalogoProductoService catalogoProductoService;
+    // Notifica a los tableros (SSE) después del commit
+    private final EventosPedidoService eventosPedido;
+    // Duración por etapa, rechazos por regla y transiciones (Micrometer)
+    private final MetricasPedido metricas;
 
     // Constructor para inyección (@Autowired implícito en Spring Boot 3+)
     /*public PedidoService(PedidoRepository pedidoRepository,
@@ -56,19 +79,66 @@ public class PedidoService {
     public Pedido crearPedido(Pedido nuevoPedido) {
         LOG.info("Iniciando la creación de un nuevo pedido.");
 
+        // 1-3. VALIDACIONES (RN3, RN1, RN4) Y PROPIEDADES FINALES
+        prepararPedido(nuevoPedido);
+
+        // 4. GUARDAR, NOTIFICAR (tras el commit) Y RETORNAR
+        // Los INSERT salen al confirmar: la etapa de persistencia se cierra con el commit
+        long inicio = System.nanoTime();
+        Pedido guardado = pedidoRepository.save(nuevoPedido);
+        metricas.registrarEtapaAlConfirmar(MetricasPedido.Etapa.PERSISTENCIA, inicio);
+        eventosPedido.publicarCreado(guardado.getId(), guardado.getEstado());
+        return guardado;
+    }
+
+    /**
+     * Crea un pedido sin clienteId: su cliente anónimo se resuelve (o se registra) por teléfono en la
+     * misma transacción que el pedido, de modo que un pedido rechazado (RN1, RN3, RN4) no deja un
+     * cliente sin pedidos.
+     * @param nuevoPedido La entidad Pedido (aún incompleta, sin Cliente) con su dirección de entrega e Items.
+     * @param telefono Teléfono del cliente, tal como lo envió.
+     * @return El Pedido ya guardado y confirmado.
+     */
+    @Transactional
+    public Pedido crearPedidoAnonimo(Pedido nuevoPedido, String telefono) {
+        nuevoPedido.setCliente(clienteService.resolverPorTelefono(telefono, nuevoPedido.getDireccionEntrega()));
+        return crearPedido(nuevoPedido);
+    }
+
+    /**
+     * Aplica RN3, RN1 y RN4 y completa total, estado inicial y fecha, sin persistir.
+     * Debe llamarse en la transacción que guarda el pedido: valoriza con la foto del catálogo
+     * vigente en ella (CatalogoProductoService#vigente).
+     * @param nuevoPedido La entidad Pedido (aún incompleta) con Cliente e Items.
+     */
+    public void prepararPedido(Pedido nuevoPedido) {
+        // La foto se pide después de RN3: un pedido sin datos de entrega no consulta la BD
+        preparar(nuevoPedido, catalogoProductoService::vigente);
+    }
+
+    /**
+     * Igual que {@link #prepararPedido(Pedido)}, con una foto ya verificada en la transacción en curso.
+     * La ingesta por lotes (PedidoLoteService) toma una sola foto por bloque.
+     */
+    public void prepararPedido(Pedido nuevoPedido, CatalogoProductoService.Snapshot catalogo) {
+        preparar(nuevoPedido, () -> catalogo);
+    }
+
+    private void preparar(Pedido nuevoPedido, Supplier<CatalogoProductoService.Snapshot> catalogo) {
         // 1. VALIDACIÓN DE DATOS DEL CLIENTE (RN3)
+        long inicio = System.nanoTime();
         validarDatosEntrega(nuevoPedido.getCliente());
+        metricas.registrarEtapa(MetricasPedido.Etapa.DATOS_ENTREGA, inicio);
 
         // 2. CÁLCULO Y VALIDACIÓN DE ÍTEMS (RN1 y RN4)
-        BigDecimal totalCalculado = calcularTotalYValidarItems(nuevoPedido);
+        inicio = System.nanoTime();
+        BigDecimal totalCalculado = calcularTotalYValidarItems(nuevoPedido, catalogo.get());
+        metricas.registrarEtapa(MetricasPedido.Etapa.ITEMS, inicio);
 
         // 3. ASIGNACIÓN DE PROPIEDADES FINALES
         nuevoPedido.setTotal(totalCalculado);       // Aplica el resultado de RN1
         nuevoPedido.setEstado(EstadoPedido.PENDIENTE); // Estado inicial (RN2)
         nuevoPedido.setFechaHora(LocalDateTime.now());
-
-        // 4. GUARDAR Y RETORNAR
-        return pedidoRepository.save(nuevoPedido);
     }
 
     /**
@@ -80,33 +150,38 @@ public class PedidoService {
                 !StringUtils.hasText(cliente.getDireccion())) {
 
             LOG.warn("RN3 Fallida: Datos de cliente o dirección incompletos.");
+            metricas.registrarRechazo(MetricasPedido.Regla.RN3);
             throw new IllegalArgumentException("RN3: El teléfono y la dirección de entrega son obligatorios para confirmar el pedido.");
         }
     }
 
     /**
      * Implementa la Regla de Negocio RN1 (Cálculo) y RN4 (Disponibilidad).
+     * Los productos se resuelven contra la foto del catálogo (CatalogoProductoService), sin una
+     * consulta por ítem. Todos los ítems se validan y valorizan con la misma foto (la misma versión del menú).
      * @return El total final del pedido.
      */
-    private BigDecimal calcularTotalYValidarItems(Pedido pedido) {
+    private BigDecimal calcularTotalYValidarItems(Pedido pedido, CatalogoProductoService.Snapshot catalogo) {
         BigDecimal total = BigDecimal.ZERO;
         List<ItemPedido> itemsValidados = new ArrayList<>();
 
         for (ItemPedido item : pedido.getItems()) {
-            Producto producto = productoRepository.findById(item.getProducto().getId())
-                    .orElseThrow(() -> {
-                        LOG.error("Producto no encontrado: ID {}", item.getProducto().getId());
-                        return new RecursoNoEncontradoException("Producto con ID " + item.getProducto().getId() + " no encontrado.");
-                    });
+            Producto producto = catalogo.producto(item.getProducto().getId());
+            if (producto == null) {
+                LOG.error("Producto no encontrado: ID {}", item.getProducto().getId());
+                metricas.registrarRechazo(MetricasPedido.Regla.PRODUCTO_NO_ENCONTRADO);
+                throw new RecursoNoEncontradoException("Producto con ID " + item.getProducto().getId() + " no encontrado.");
+            }
 
             // RN4: Validación de Disponibilidad
-            if (!producto.getDisponible()) {
+            if (!catalogo.disponible(producto.getId())) {
                 LOG.error("RN4 Fallida: Producto ID {} no disponible.", producto.getId());
+                metricas.registrarRechazo(MetricasPedido.Regla.RN4);
                 throw new IllegalArgumentException("RN4: El producto '" + producto.getNombre() + "' no está disponible actualmente.");
             }
 
             // RN1: Cálculo del Subtotal
-            BigDecimal precioUnitario = producto.getPrecioBase();
+            BigDecimal precioUnitario = catalogo.precio(producto.getId());
             BigDecimal subtotal = precioUnitario.multiply(BigDecimal.valueOf(item.getCantidad()));
 
             // Actualizar ItemPedido con datos finales (precio, relación)
@@ -119,6 +194,7 @@ public class PedidoService {
         }
 
         if (itemsValidados.isEmpty()) {
+            metricas.registrarRechazo(MetricasPedido.Regla.RN1_SIN_ITEMS);
             throw new IllegalArgumentException("El pedido debe contener al menos un ítem.");
         }
 
@@ -132,33 +208,109 @@ public class PedidoService {
 
     /**
      * Implementa la Regla de Negocio RN2: Cambio de estado con validación estricta.
+     * La transición es un UPDATE condicionado a que el pedido siga en un estado predecesor
+     * (compare-and-set): no se carga el pedido antes, y de dos transiciones simultáneas
+     * incompatibles solo una se aplica.
      * @param idPedido ID del pedido a actualizar.
      * @param nuevoEstado El estado al que se desea transicionar.
      * @return El Pedido actualizado.
+     * @throws RecursoNoEncontradoException si el pedido no existe (404).
+     * @throws ConflictoEstadoPedidoException si el estado actual no permite la transición (409).
      */
     @Transactional
     public Pedido actualizarEstadoPedido(Long idPedido, EstadoPedido nuevoEstado) {
 
-        Pedido pedido = pedidoRepository.findById(idPedido)
-                .orElseThrow(() -> new RecursoNoEncontradoException("Pedido con ID " + idPedido + " no encontrado."));
-
-        EstadoPedido estadoActual = pedido.getEstado();
+        // Ningún estado lleva a nuevoEstado (ej. PENDIENTE): inválido sin consultar la BD
+        Set<EstadoPedido> predecesores = nuevoEstado.predecesores();
+        if (predecesores.isEmpty()) {
+            LOG.warn("RN2 Fallida: Ningún estado puede pasar a {}. Pedido ID {}", nuevoEstado, idPedido);
+            metricas.registrarRechazo(MetricasPedido.Regla.RN2);
+            throw new IllegalArgumentException(
+                    String.format("RN2: Transición de estado inválida. Ningún estado puede pasar a %s.", nuevoEstado));
+        }
 
-        // RN2: Validación de la secuencia de transición
-        if (!estadoActual.esTransicionValida(nuevoEstado)) {
+        int actualizados = pedidoRepository.transicionarEstado(idPedido, nuevoEstado, predecesores);
+        if (actualizados == 0) {
+            // El UPDATE no aplicó: el pedido no existe o su estado actual no lo permite
+            EstadoPedido estadoActual = pedidoRepository.buscarEstadoPorId(idPedido)
+                    .orElseThrow(() -> new RecursoNoEncontradoException("Pedido con ID " + idPedido + " no encontrado."));
             LOG.warn("RN2 Fallida: Transición inválida. Pedido ID {} de {} a {}", idPedido, estadoActual, nuevoEstado);
-            throw new IllegalArgumentException(
+            metricas.registrarRechazo(MetricasPedido.Regla.RN2);
+            throw new ConflictoEstadoPedidoException(
                     String.format("RN2: Transición de estado inválida. No se puede pasar de %s a %s.",
                             estadoActual, nuevoEstado));
         }
+        // El origen es el único predecesor posible; solo CANCELADO tiene dos y queda sin origen
+        EstadoPedido desde = predecesores.size() == 1 ? predecesores.iterator().next() : null;
+        LOG.info("Pedido ID {} actualizado de {} a {}", idPedido, desde, nuevoEstado);
+        metricas.registrarTransiciones(desde, nuevoEstado, 1);
+
+        // Notifica a cocina y repartidores (GET /api/pedidos/eventos) cuando la transacción confirme
+        eventosPedido.publicarCambioEstado(List.of(idPedido), nuevoEstado);
+
+        // Se carga con su detalle: el controlador lo mapea a DTO fuera de la transacción (OSIV desactivado)
+        return pedidoRepository.buscarConDetallePorId(idPedido)
+                .orElseThrow(() -> new RecursoNoEncontradoException("Pedido con ID " + idPedido + " no encontrado."));
+    }
+
+    /**
+     * RN2 por lotes (tablero de cocina): lleva varios pedidos a nuevoEstado con dos sentencias,
+     * sin importar cuántos sean: una lectura bloqueante de sus estados y un UPDATE condicionado.
+     * Los pedidos inexistentes o cuyo estado no permite la transición se informan como rechazados.
+     * @param ids IDs de los pedidos (los repetidos se consideran una vez).
+     * @param nuevoEstado El estado al que se desea transicionar.
+     */
+    @Transactional
+    public ResultadoEstadoLoteResponse actualizarEstadoPedidos(Collection<Long> ids, EstadoPedido nuevoEstado) {
+        Set<Long> solicitados = new LinkedHashSet<>(ids);
+        Set<EstadoPedido> predecesores = nuevoEstado.predecesores();
+
+        Map<Long, EstadoPedido> estados = new HashMap<>();
+        if (!predecesores.isEmpty()) {
+            for (Object[] fila : pedidoRepository.bloquearEstados(solicitados)) {
+                estados.put(((Number) fila[0]).longValue(), EstadoPedido.valueOf(fila[1].toString()));
+            }
+        }
 
-        // Si la transición es válida, actualizamos el estado
-        pedido.setEstado(nuevoEstado);
-        LOG.info("Pedido ID {} actualizado de {} a {}", idPedido, estadoActual, nuevoEstado);
+        List<Long> movidos = new ArrayList<>();
+        // Los estados bloqueados dan el origen de cada transición (métricas desde/hacia)
+        Map<EstadoPedido, Integer> movidosPorOrigen = new EnumMap<>(EstadoPedido.class);
+        List<ResultadoEstadoLoteResponse.Rechazo> rechazados = new ArrayList<>();
+        int rechazosRn2 = 0;
+        for (Long id : solicitados) {
+            EstadoPedido estadoActual = estados.get(id);
+            if (predecesores.isEmpty()) {
+                rechazosRn2++;
+                rechazados.add(new ResultadoEstadoLoteResponse.Rechazo(id, null,
+                        String.format("RN2: Transición de estado inválida. Ningún estado puede pasar a %s.", nuevoEstado)));
+            } else if (estadoActual == null) {
+                rechazados.add(new ResultadoEstadoLoteResponse.Rechazo(id, null,
+                        "Pedido con ID " + id + " no encontrado."));
+            } else if (!estadoActual.esTransicionValida(nuevoEstado)) {
+                rechazosRn2++;
+                rechazados.add(new ResultadoEstadoLoteResponse.Rechazo(id, estadoActual,
+                        String.format("RN2: Transición de estado inválida. No se puede pasar de %s a %s.",
+                                estadoActual, nuevoEstado)));
+            } else {
+                movidos.add(id);
+                movidosPorOrigen.merge(estadoActual, 1, Integer::sum);
+            }
+        }
 
-        // Lógica adicional (ej. notificar al cliente o repartidor) podría ir aquí
+        if (!movidos.isEmpty()) {
+            // Las filas siguen bloqueadas: el UPDATE afecta exactamente a los pedidos clasificados
+            int actualizados = pedidoRepository.transicionarEstados(movidos, nuevoEstado, predecesores);
+            if (actualizados != movidos.size()) {
+                throw new IllegalStateException(String.format(
+                        "Se esperaban %d pedidos actualizados y se actualizaron %d.", movidos.size(), actualizados));
+            }
+            eventosPedido.publicarCambioEstado(movidos, nuevoEstado);
+            movidosPorOrigen.forEach((desde, cantidad) -> metricas.registrarTransiciones(desde, nuevoEstado, cantidad));
+        }
+        metricas.registrarRechazos(MetricasPedido.Regla.RN2, rechazosRn2);
+        LOG.info("Transición por lotes a {}: {} movidos, {} rechazados.", nuevoEstado, movidos.size(), rechazados.size());
 
-        return pedidoRepository.save(pedido);
+        return new ResultadoEstadoLoteResponse(nuevoEstado, movidos, rechazados);
     }
 
     // ************************************************************
@@ -168,6 +320,8 @@ public class PedidoService {
     /**
      * Busca un pedido por su ID.
      * Implementa manejo de excepción si el recurso no es encontrado (404).
+     * Se lee de la primaria: el cliente suele pedirlo justo después de crearlo o cambiar su estado,
+     * y la réplica puede no tener aún esa escritura (404 o estado anterior).
      * @param id ID del pedido.
      * @return El DTO de respuesta del pedido encontrado.
      */
@@ -175,30 +329,127 @@ public class PedidoService {
     public PedidoResponse buscarPedidoPorId(Long id) {
         LOG.info("Buscando pedido por ID: {}", id);
 
-        // Uso de Optional y orElseThrow, manejando 404 a través de la excepción
-        Pedido pedido = pedidoRepository.findById(id)
-                .orElseThrow(() -> {
-                    LOG.warn("Pedido ID {} no encontrado.", id);
-                    return new RecursoNoEncontradoException("Pedido", id);
-                });
+        // Uso de Optional y orElseThrow, manejando 404 a través de la excepción.
+        // Una sola consulta construye los DTOs de cabecera e ítems (sin entidades ni mapper)
+        List<Object[]> filas = RutaLecturaReplica.enPrimaria(() -> pedidoRepository.proyectarConItemsPorId(id));
+        if (filas.isEmpty()) {
+            LOG.warn("Pedido ID {} no encontrado.", id);
+            throw new RecursoNoEncontradoException("Pedido", id);
+        }
 
-        return responseMapper.toResponse(pedido);
+        PedidoResponse pedido = (PedidoResponse) filas.get(0)[0];
+        for (Object[] fila : filas) {
+            ItemPedidoResponse item = (ItemPedidoResponse) fila[1];
+            if (item.getCantidad() != null) {
+                pedido.getItems().add(item);
+            }
+        }
+        return pedido;
     }
 
     /**
-     * Lista todos los pedidos existentes en el sistema.
-     * (Nota: En un sistema real se debería usar paginación).
-     * @return Lista de DTOs PedidoResponse.
+     * Lista los pedidos del más reciente al más antiguo usando paginación por clave (keyset)
+     * sobre (fecha_hora, id). La página N cuesta lo mismo que la primera: no hay OFFSET.
+     * @param cursor Token opaco devuelto por la página anterior, o null para la primera página.
+     * @param tamano Cantidad máxima de pedidos de la página (ya acotada por el controlador).
+     * @return La página de DTOs PedidoResponse y el cursor de la siguiente, si existe.
      */
     @Transactional(readOnly = true)
-    public List<PedidoResponse> listarTodosPedidos() {
-        LOG.info("Listando todos los pedidos.");
+    public PaginaPedidosResponse listarPedidos(String cursor, int tamano) {
+        LOG.info("Listando pedidos (cursor={}, tamaño={}).", cursor, tamano);
+
+        // Se pide una fila extra para saber si existe una página siguiente
+        Limit limite = Limit.of(tamano + 1);
+        List<PedidoResponse> pedidos;
+        if (cursor == null || cursor.isBlank()) {
+            pedidos = pedidoRepository.proyectarPrimeraPagina(limite);
+        } else {
+            CursorPedido posicion = CursorPedido.decodificar(cursor);
+            pedidos = pedidoRepository.proyectarPaginaSiguiente(posicion.fechaHora(), posicion.id(), limite);
+        }
 
-        List<Pedido> pedidos = pedidoRepository.findAll();
+        String siguienteCursor = null;
+        if (pedidos.size() > tamano) {
+            pedidos = pedidos.subList(0, tamano);
+            PedidoResponse ultimo = pedidos.get(tamano - 1);
+            siguienteCursor = new CursorPedido(ultimo.getFechaHora(), ultimo.getId()).codificar();
+        }
+
+        // Segunda (y última) consulta: ítems y productos de toda la página
+        agregarItems(pedidos);
 
-        // Convertir la lista de entidades a una lista de DTOs
-        return pedidos.stream()
-                .map(responseMapper::toResponse)
-                .collect(Collectors.toList());
+        return new PaginaPedidosResponse(pedidos, siguienteCursor);
+    }
+
+    /**
+     * Busca pedidos por estado, cliente, tipo de entrega y rango de fecha_hora (todos opcionales),
+     * del más reciente al más antiguo, con la misma paginación por cursor que listarPedidos.
+     * @param filtro Filtros presentes en la solicitud; el rango es [desde, hasta).
+     * @param cursor Token opaco devuelto por la página anterior, o null para la primera página.
+     * @param tamano Cantidad máxima de pedidos de la página (ya acotada por el controlador).
+     * @throws IllegalArgumentException si el tipo de entrega o el rango de fechas son inválidos (400).
+     */
+    @Transactional(readOnly = true)
+    public PaginaPedidosResponse buscarPedidos(FiltroPedidos filtro, String cursor, int tamano) {
+        LOG.info("Buscando pedidos ({}, cursor={}, tamaño={}).", filtro, cursor, tamano);
+
+        if (filtro.tipoEntrega() != null && !TIPOS_ENTREGA.contains(filtro.tipoEntrega())) {
+            throw new IllegalArgumentException("El tipo de entrega debe ser DOMICILIO o RECOGIDA.");
+        }
+        if (filtro.desde() != null && filtro.hasta() != null && filtro.desde().isAfter(filtro.hasta())) {
+            throw new IllegalArgumentException("El rango de fechas es inválido: 'desde' es posterior a 'hasta'.");
+        }
+
+        CursorPedido posicion = (cursor == null || cursor.isBlank()) ? null : CursorPedido.decodificar(cursor);
+        List<PedidoResponse> pedidos = pedidoBusquedaRepository.buscar(filtro,
+                posicion != null ? posicion.fechaHora() : null,
+                posicion != null ? posicion.id() : null,
+                tamano + 1);
+
+        String siguienteCursor = null;
+        if (pedidos.size() > tamano) {
+            pedidos = pedidos.subList(0, tamano);
+            PedidoResponse ultimo = pedidos.get(tamano - 1);
+            siguienteCursor = new CursorPedido(ultimo.getFechaHora(), ultimo.getId()).codificar();
+        }
+        agregarItems(pedidos);
+
+        return new PaginaPedidosResponse(pedidos, siguienteCursor);
+    }
+
+    // Completa los ítems de los pedidos proyectados con una sola consulta
+    private void agregarItems(List<PedidoResponse> pedidos) {
+        if (pedidos.isEmpty()) {
+            return;
+        }
+        Map<Long, PedidoResponse> porId = new HashMap<>();
+        pedidos.forEach(p -> porId.put(p.getId(), p));
+        for (Object[] fila : pedidoRepository.proyectarItems(porId.keySet())) {
+            porId.get((Long) fila[0]).getItems().add((ItemPedidoResponse) fila[1]);
+        }
+    }
+
+    /**
+     * Posición de la última fila entregada, serializada como token opaco (Base64 URL-safe).
+     */
+    private record CursorPedido(LocalDateTime fechaHora, Long id) {
+
+        String codificar() {
+            String valor = fechaHora + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static CursorPedido decodificar(String token) {
+            try {
+                String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separador = valor.indexOf('|');
+                return new CursorPedido(
+                        LocalDateTime.parse(valor.substring(0, separador)),
+                        Long.valueOf(valor.substring(separador + 1)));
+            } catch (RuntimeException e) {
+                LOG.warn("Cursor de paginación inválido: {}", token);
+                throw new IllegalArgumentException("El cursor de paginación es inválido.");
+            }
+        }
     }
-}
\ No newline at end of file
+}
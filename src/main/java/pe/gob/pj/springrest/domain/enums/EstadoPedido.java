@@ -1,6 +1,7 @@
 package pe.gob.pj.springrest.domain.enums;
 
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -19,6 +20,9 @@ public enum EstadoPedido {
     // Se inicializa en el bloque estático, después de que todas las constantes existen.
     private static final Map<EstadoPedido, Set<EstadoPedido>> TRANSITIONS;
 
+    // Transiciones inversas: estados desde los que se puede llegar a cada estado
+    private static final Map<EstadoPedido, Set<EstadoPedido>> PREDECESSORS;
+
     /**
      * Bloque de inicialización estático (se ejecuta una sola vez)
      * Aquí definimos el mapa inmutable con todas las reglas de la RN2 de forma segura.
@@ -39,6 +43,14 @@ public enum EstadoPedido {
 
         // Hacemos el mapa global inmutable para seguridad
         TRANSITIONS = Collections.unmodifiableMap(map);
+
+        Map<EstadoPedido, Set<EstadoPedido>> inverso = new EnumMap<>(EstadoPedido.class);
+        for (EstadoPedido destino : values()) {
+            inverso.put(destino, Stream.of(values())
+                    .filter(origen -> origen.esTransicionValida(destino))
+                    .collect(Collectors.toUnmodifiableSet()));
+        }
+        PREDECESSORS = Collections.unmodifiableMap(inverso);
     }
 
     /**
@@ -51,4 +63,20 @@ public enum EstadoPedido {
         return TRANSITIONS.getOrDefault(this, Collections.emptySet())
                 .contains(nuevoEstado);
     }
+
+    /**
+     * Estados desde los que la RN2 permite pasar a este estado (vacío para PENDIENTE).
+     * Se usa como condición del UPDATE de la transición (compare-and-set).
+     */
+    public Set<EstadoPedido> predecesores() {
+        return PREDECESSORS.get(this);
+    }
+
+    /**
+     * Un estado es final si la RN2 no permite ninguna transición desde él (ENTREGADO, CANCELADO):
+     * un pedido en estado final ya no puede cambiar.
+     */
+    public boolean esFinal() {
+        return TRANSITIONS.getOrDefault(this, Collections.emptySet()).isEmpty();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package pe.gob.pj.springrest.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro compartido de claves Idempotency-Key de POST /api/pedidos, para despliegues con
+ * varios nodos (pedidos.idempotencia.persistente=true). La clave primaria garantiza que solo
+ * una solicitud por clave llegue a crear el pedido.
+ */
+@Entity
+@Table(name = "idempotencia_pedido")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClaveIdempotencia {
+
+    @Id
+    @Column(length = 100)
+    private String clave;
+
+    // Huella del cuerpo de la solicitud original: la misma clave con otro cuerpo es un conflicto
+    @Column(nullable = false, length = 64)
+    private String huella;
+
+    // Nulo mientras la solicitud original no haya confirmado su transacción
+    @Column(name = "pedido_id")
+    private Long pedidoId;
+
+    @Column(name = "creado_en", nullable = false)
+    private LocalDateTime creadoEn;
+}
@@ -2,9 +2,21 @@ package pe.gob.pj.springrest.domain.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteListener;
 
 @Entity
-@Table(name = "cliente")
+// Caché de segundo nivel: los pedidos con clienteId lo leen por ID en cada creación
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cliente") // límites en CacheSegundoNivelConfig
+@Table(name = "cliente", indexes = {
+        // Un cliente anónimo por teléfono normalizado: los pedidos sin clienteId lo resuelven por aquí
+        // (ClienteService). Los clientes registrados tienen telefono_anonimo NULL y no participan.
+        @Index(name = "uk_cliente_telefono_anonimo", columnList = "telefono_anonimo", unique = true)
+})
+// Vacía la caché teléfono -> cliente de ClienteService al modificar o eliminar un cliente
+@EntityListeners(ClienteListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -12,8 +24,16 @@ import lombok.*;
 @Builder
 public class Cliente {
 
+    // Nombre de los clientes creados para pedidos sin clienteId (ClienteService)
+    public static final String NOMBRE_SIN_REGISTRO = "Cliente Temporal";
+    // Largo de cliente.telefono y cliente.telefono_anonimo (VARCHAR(20))
+    public static final int LONGITUD_TELEFONO = 20;
+
+    // Secuencia con asignación por bloques (pooled), igual que Pedido e ItemPedido:
+    // los clientes nuevos de un lote se insertan en batch junto con sus pedidos.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cliente_seq")
+    @SequenceGenerator(name = "cliente_seq", sequenceName = "cliente_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -22,13 +42,53 @@ public class Cliente {
     @Column(unique = true, length = 100)
     private String email;
 
-    @Column(nullable = false, length = 20)
+    @Column(nullable = false, length = LONGITUD_TELEFONO)
     private String telefono; // Requerido para RN3
 
+    // Solo en clientes anónimos (NOMBRE_SIN_REGISTRO): su teléfono normalizado, clave de
+    // uk_cliente_telefono_anonimo. Se mantiene al insertar y actualizar; registrar al cliente lo vacía.
+    @Column(name = "telefono_anonimo", length = LONGITUD_TELEFONO)
+    private String telefonoAnonimo;
+
     @Column(nullable = false, columnDefinition = "TEXT")
     private String direccion; // Requerido para RN3
 
     // Relación 1:N con Pedido (Opcional incluir la lista de pedidos en Cliente)
     // @OneToMany(mappedBy = "cliente", cascade = CascadeType.ALL, orphanRemoval = true)
     // private List<Pedido> pedidos;
-}
\ No newline at end of file
+
+    @PrePersist
+    @PreUpdate
+    void alGuardar() {
+        if (!NOMBRE_SIN_REGISTRO.equals(nombre)) {
+            telefonoAnonimo = null;
+        } else if (telefonoAnonimo == null) {
+            telefonoAnonimo = normalizarTelefono(telefono);
+        }
+    }
+
+    /**
+     * Normaliza un teléfono para usarlo como clave: solo dígitos y sin el código de país de Perú
+     * (+51 o 0051) delante de un número de 9 dígitos. La migración V7 aplica el mismo criterio en SQL.
+     * @return el teléfono normalizado, o null si no contiene dígitos.
+     */
+    public static String normalizarTelefono(String telefono) {
+        if (telefono == null) {
+            return null;
+        }
+        StringBuilder digitos = new StringBuilder(telefono.length());
+        for (int i = 0; i < telefono.length(); i++) {
+            char c = telefono.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            }
+        }
+        String normalizado = digitos.toString();
+        if (normalizado.length() == 13 && normalizado.startsWith("0051")) {
+            normalizado = normalizado.substring(4);
+        } else if (normalizado.length() == 11 && normalizado.startsWith("51")) {
+            normalizado = normalizado.substring(2);
+        }
+        return normalizado.isEmpty() ? null : normalizado;
+    }
+}
@@ -1,5 +1,6 @@
 package pe.gob.pj.springrest.domain.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
@@ -11,8 +12,13 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+// Caché de segundo nivel: merge (guardar) la actualiza y los DELETE por JPQL invalidan la región
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "factura") // límites en CacheSegundoNivelConfig
 @Table(name = "facturas")
 @AllArgsConstructor
 @NoArgsConstructor
@@ -13,8 +13,10 @@ import java.math.BigDecimal;
 @Builder
 public class ItemPedido {
 
+    // Secuencia con asignación por bloques (pooled): los ítems de un pedido se insertan en un solo batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_pedido_seq")
+    @SequenceGenerator(name = "item_pedido_seq", sequenceName = "item_pedido_seq", allocationSize = 50)
     private Long id;
 
     // N:1 al pedido principal
@@ -4,12 +4,23 @@ import jakarta.persistence.*;
 
 import pe.gob.pj.springrest.domain.enums.EstadoPedido; // Paquete ajustado
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "pedido")
+@Table(name = "pedido", indexes = {
+        // Paginación por clave (keyset) de GET /api/pedidos
+        @Index(name = "idx_pedido_fecha_hora_id", columnList = "fecha_hora, id"),
+        // Búsqueda con filtros de GET /api/pedidos/buscar (ver PedidoBusquedaRepository)
+        @Index(name = "idx_pedido_cliente_fecha", columnList = "cliente_id, fecha_hora, id"),
+        @Index(name = "idx_pedido_cliente_estado_fecha", columnList = "cliente_id, estado, fecha_hora, id"),
+        @Index(name = "idx_pedido_estado_fecha", columnList = "estado, fecha_hora, id"),
+        @Index(name = "idx_pedido_tipo_entrega_fecha", columnList = "tipo_entrega, fecha_hora, id"),
+        // Feed de cambios de GET /api/pedidos/cambios
+        @Index(name = "idx_pedido_cambio_seq", columnList = "cambio_seq", unique = true)
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,8 +28,11 @@ import java.util.List;
 @Builder
 public class Pedido {
 
+    // Secuencia con asignación por bloques (pooled): el ID se conoce sin ejecutar el INSERT,
+    // lo que permite agrupar los INSERT en batches JDBC (IDENTITY lo impide).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_seq")
+    @SequenceGenerator(name = "pedido_seq", sequenceName = "pedido_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,6 +43,11 @@ public class Pedido {
     @Column(nullable = false)
     private EstadoPedido estado;
 
+    // Bloqueo optimista: las transiciones de estado (RN2) la incrementan en el mismo UPDATE
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(name = "fecha_hora", nullable = false)
     private LocalDateTime fechaHora = LocalDateTime.now();
 
@@ -45,7 +64,24 @@ public class Pedido {
     @Column(name = "direccion_entrega", nullable = false, columnDefinition = "TEXT")
     private String direccionEntrega;
 
+    // Feed de cambios (GET /api/pedidos/cambios): la BD asigna el siguiente valor de
+    // pedido_cambio_seq al insertar (DEFAULT de la columna) y cada transición de estado
+    // lo renueva en su mismo UPDATE.
+    @Column(name = "cambio_seq", insertable = false, updatable = false)
+    @ColumnDefault("NEXT VALUE FOR pedido_cambio_seq")
+    private Long cambioSeq;
+
+    @Column(name = "cambiado_en", nullable = false)
+    private LocalDateTime cambiadoEn;
+
     // Relación 1:N con ItemPedido
     @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ItemPedido> items;
-}
\ No newline at end of file
+
+    @PrePersist
+    void alInsertar() {
+        if (cambiadoEn == null) {
+            cambiadoEn = LocalDateTime.now();
+        }
+    }
+}
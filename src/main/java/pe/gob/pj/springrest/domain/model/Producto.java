@@ -30,4 +30,9 @@ public class Producto {
     // Para la RN4: Disponibilidad (True si se puede pedir, False si está agotado)
     @Column(nullable = false)
     private Boolean disponible = true;
+
+    // Bloqueo optimista; también delata a los demás nodos que su foto del catálogo quedó vieja
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
\ No newline at end of file
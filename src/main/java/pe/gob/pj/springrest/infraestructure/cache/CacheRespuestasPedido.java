@@ -0,0 +1,94 @@
+package pe.gob.pj.springrest.infraestructure.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JSON ya serializado de GET /api/pedidos/{id} para pedidos en estado final (ENTREGADO,
+ * CANCELADO). Esos pedidos no pueden cambiar (RN2), así que la respuesta se sirve sin cargar
+ * la entidad ni volver a serializarla. Acotada por bytes (pedidos.cache-respuestas.bytes-maximo),
+ * desaloja primero las menos usadas (LRU).
+ */
+@Component
+public class CacheRespuestasPedido {
+
+    private final JsonMapper jsonMapper;
+    private final long bytesMaximo;
+
+    // Orden de acceso (LRU); get() también modifica el mapa, por eso todo acceso es sincronizado
+    private final LinkedHashMap<Long, byte[]> respuestas = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytesEnUso;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+
+    public CacheRespuestasPedido(JsonMapper jsonMapper,
+                                 @Value("${pedidos.cache-respuestas.bytes-maximo:16777216}") long bytesMaximo) {
+        this.jsonMapper = jsonMapper;
+        this.bytesMaximo = bytesMaximo;
+    }
+
+    public record Estadisticas(long aciertos, long fallos, long desalojos, int entradas, long bytes, long bytesMaximo) {
+    }
+
+    /**
+     * @return el JSON del pedido, o null si no está en caché.
+     */
+    public byte[] obtener(Long id) {
+        byte[] json;
+        synchronized (respuestas) {
+            json = respuestas.get(id);
+        }
+        (json != null ? aciertos : fallos).increment();
+        return json;
+    }
+
+    /**
+     * Serializa la respuesta y la guarda si el pedido está en estado final.
+     * @return el JSON serializado (guardado o no).
+     */
+    public byte[] serializarYGuardar(PedidoResponse response) {
+        byte[] json = jsonMapper.writeValueAsBytes(response);
+        if (!response.getEstado().esFinal() || json.length > bytesMaximo) {
+            return json;
+        }
+        synchronized (respuestas) {
+            byte[] anterior = respuestas.put(response.getId(), json);
+            bytesEnUso += json.length - (anterior != null ? anterior.length : 0);
+            Iterator<Map.Entry<Long, byte[]>> iterator = respuestas.entrySet().iterator();
+            while (bytesEnUso > bytesMaximo && iterator.hasNext()) {
+                bytesEnUso -= iterator.next().getValue().length;
+                iterator.remove();
+                desalojos.increment();
+            }
+        }
+        return json;
+    }
+
+    public Estadisticas estadisticas() {
+        synchronized (respuestas) {
+            return new Estadisticas(aciertos.sum(), fallos.sum(), desalojos.sum(), respuestas.size(), bytesEnUso, bytesMaximo);
+        }
+    }
+
+    /**
+     * Vacía la caché y reinicia sus contadores.
+     */
+    public void limpiar() {
+        synchronized (respuestas) {
+            respuestas.clear();
+            bytesEnUso = 0;
+            aciertos.reset();
+            fallos.reset();
+            desalojos.reset();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package pe.gob.pj.springrest.infraestructure.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estadísticas por región de la caché de segundo nivel (CacheSegundoNivelConfig): aciertos,
+ * fallos, escrituras y entidades en memoria, para dimensionarla con el tráfico real.
+ * Sin caché de segundo nivel la lista está vacía. Aciertos, fallos y escrituras valen 0 mientras
+ * las estadísticas de Hibernate estén desactivadas (pedidos.cache-segundo-nivel.estadisticas).
+ */
+@Component
+public class CacheSegundoNivel {
+
+    private final SessionFactory sessionFactory;
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    public CacheSegundoNivel(EntityManagerFactory entityManagerFactory, ObjectProvider<CacheManager> cacheManager) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.cacheManager = cacheManager;
+    }
+
+    public record Region(String region, long aciertos, long fallos, long escrituras, double tasaAciertos, long entidades) {
+    }
+
+    public List<Region> estadisticas() {
+        CacheManager manager = cacheManager.getIfAvailable();
+        if (manager == null) {
+            return List.of();
+        }
+        Statistics statistics = sessionFactory.getStatistics();
+        List<Region> regiones = new ArrayList<>();
+        for (String nombre : manager.getCacheNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(nombre);
+            long consultas = region.getHitCount() + region.getMissCount();
+            regiones.add(new Region(nombre, region.getHitCount(), region.getMissCount(), region.getPutCount(),
+                    consultas == 0 ? 0 : (double) region.getHitCount() / consultas,
+                    entidades(manager.getCache(nombre))));
+        }
+        return regiones;
+    }
+
+    /**
+     * Vacía todas las regiones (p. ej. tras modificar tablas directamente en la BD).
+     */
+    public void limpiar() {
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    // Tamaño estimado de la región según Caffeine (JCache no lo expone)
+    private static long entidades(Cache<Object, Object> cache) {
+        return cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+    }
+}
@@ -0,0 +1,79 @@
+package pe.gob.pj.springrest.infraestructure.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caché de segundo nivel de Hibernate (pedidos.cache-segundo-nivel.habilitada=true, por defecto)
+ * para entidades que se leen mucho más de lo que se escriben: Cliente (pedidos con clienteId) y
+ * Factura (GET /facturas/{id}). Cada región es local (Caffeine vía JCache) y está acotada por
+ * cantidad de entidades y vigencia desde la última escritura:
+ * pedidos.cache-segundo-nivel.&lt;region&gt;.tamano-maximo y .ttl-segundos.
+ * Una región no declarada aquí hace fallar el arranque (missing_cache_strategy=fail): ninguna
+ * entidad queda en caché sin límites.
+ * Las estadísticas de Hibernate (aciertos y fallos por región) tienen costo en cada sesión; solo
+ * se activan con pedidos.cache-segundo-nivel.estadisticas=true.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pedidos.cache-segundo-nivel.habilitada", havingValue = "true", matchIfMissing = true)
+public class CacheSegundoNivelConfig {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheSegundoNivelConfig.class);
+
+    public static final String REGION_CLIENTE = "cliente";
+    public static final String REGION_FACTURA = "factura";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerSegundoNivel(Environment env) {
+        // URI propia: el CacheManager por defecto del proveedor es único por classloader y lo
+        // compartirían varios contextos de Spring en la misma JVM (p. ej. las pruebas)
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("segundo-nivel-" + UUID.randomUUID()), getClass().getClassLoader());
+        crearRegion(cacheManager, env, REGION_CLIENTE, 10_000, 1800);
+        crearRegion(cacheManager, env, REGION_FACTURA, 10_000, 600);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheManager cacheManagerSegundoNivel, Environment env) {
+        boolean estadisticas = env.getProperty("pedidos.cache-segundo-nivel.estadisticas", Boolean.class, false);
+        return propiedades -> {
+            propiedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            propiedades.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            propiedades.put("hibernate.javax.cache.cache_manager", cacheManagerSegundoNivel);
+            propiedades.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+            // Aciertos, fallos y escrituras por región para GET /api/admin/cache/segundo-nivel
+            if (estadisticas) {
+                propiedades.put(AvailableSettings.GENERATE_STATISTICS, true);
+            }
+        };
+    }
+
+    private static void crearRegion(CacheManager cacheManager, Environment env, String region,
+                                    long tamanoMaximoPorDefecto, long ttlSegundosPorDefecto) {
+        String prefijo = "pedidos.cache-segundo-nivel." + region;
+        long tamanoMaximo = env.getProperty(prefijo + ".tamano-maximo", Long.class, tamanoMaximoPorDefecto);
+        long ttlSegundos = env.getProperty(prefijo + ".ttl-segundos", Long.class, ttlSegundosPorDefecto);
+
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(tamanoMaximo))
+                .setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSegundos)));
+        cacheManager.createCache(region, configuracion);
+        LOG.info("Región '{}' de la caché de segundo nivel: {} entidades, {} s de vigencia.", region, tamanoMaximo, ttlSegundos);
+    }
+}
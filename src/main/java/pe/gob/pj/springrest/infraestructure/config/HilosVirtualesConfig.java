@@ -0,0 +1,57 @@
+package pe.gob.pj.springrest.infraestructure.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Modo de ejecución con hilos virtuales (spring.threads.virtual.enabled=true).
+ * Spring Boot ya atiende las solicitudes de Tomcat y las tareas asíncronas (applicationTaskExecutor)
+ * con hilos virtuales; aquí se agrega la protección de la BD: el DataSource se envuelve en un
+ * LimitadorConexionesDataSource para que los hilos con una conexión en uso nunca superen el pool.
+ * Con réplica de lectura el DataSource enruta entre dos pools y no se envuelve: ReplicaLecturaConfig
+ * limita cada pool por separado (RutaLecturaReplica#limitarConexiones).
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class HilosVirtualesConfig {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HilosVirtualesConfig.class);
+
+    // static: los BeanPostProcessor deben registrarse antes que el resto de beans
+    @Bean
+    public static BeanPostProcessor limitadorConexionesPostProcessor(Environment env) {
+        int limite = limiteConcurrencia(env);
+        long esperaMaximaMs = esperaMaximaMs(env);
+        boolean conReplica = env.getProperty("pedidos.bd.replica.habilitada", Boolean.class, false);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof LimitadorConexionesDataSource) && !conReplica) {
+                    LOG.info("Hilos virtuales activos: DataSource '{}' limitado a {} conexiones concurrentes.", beanName, limite);
+                    return new LimitadorConexionesDataSource(dataSource, limite, esperaMaximaMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Por defecto, el mismo tamaño que el pool de HikariCP (de la primaria, si hay réplica)
+    static int limiteConcurrencia(Environment env) {
+        return env.getProperty("pedidos.bd.limite-concurrencia", Integer.class,
+                env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+    }
+
+    static long esperaMaximaMs(Environment env) {
+        return env.getProperty("pedidos.bd.espera-maxima-ms", Long.class,
+                env.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L));
+    }
+}
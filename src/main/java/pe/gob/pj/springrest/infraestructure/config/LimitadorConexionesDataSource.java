@@ -0,0 +1,107 @@
+package pe.gob.pj.springrest.infraestructure.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource que limita con un semáforo la cantidad de hilos que tienen una conexión en uso.
+ * Con hilos virtuales no hay un tope natural de hilos (Tomcat deja de tener 200 hilos de plataforma),
+ * así que miles de solicitudes pueden llegar a la vez a la BD: el semáforo (justo, FIFO) las hace
+ * esperar ordenadamente fuera del pool y falla rápido al superar la espera máxima.
+ * El permiso se toma al pedir la conexión y se libera al cerrarla (fin de la transacción).
+ */
+public class LimitadorConexionesDataSource extends DelegatingDataSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LimitadorConexionesDataSource.class);
+
+    private final Semaphore permisos;
+    private final int limite;
+    private final long esperaMaximaMs;
+
+    public LimitadorConexionesDataSource(DataSource destino, int limite, long esperaMaximaMs) {
+        super(destino);
+        this.permisos = new Semaphore(limite, true);
+        this.limite = limite;
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return liberarAlCerrar(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return liberarAlCerrar(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    // Conexiones en uso en este momento
+    public int getEnUso() {
+        return limite - permisos.availablePermits();
+    }
+
+    // Hilos esperando un permiso
+    public int getEnEspera() {
+        return permisos.getQueueLength();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permisos.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                LOG.warn("Límite de {} conexiones concurrentes alcanzado; {} hilos en espera.", limite, permisos.getQueueLength());
+                throw new SQLTransientConnectionException(
+                        "No hay conexiones disponibles tras esperar " + esperaMaximaMs + " ms (límite " + limite + ").");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido mientras esperaba una conexión.", e);
+        }
+    }
+
+    // Envuelve la conexión para devolver el permiso una sola vez al cerrarla
+    private Connection liberarAlCerrar(Connection conexion) {
+        AtomicBoolean liberado = new AtomicBoolean(false);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && liberado.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(conexion, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            permisos.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(conexion, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
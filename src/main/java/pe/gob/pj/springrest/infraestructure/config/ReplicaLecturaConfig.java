@@ -0,0 +1,69 @@
+package pe.gob.pj.springrest.infraestructure.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Réplica de lectura (pedidos.bd.replica.habilitada=true): las transacciones
+ * {@code @Transactional(readOnly = true)} usan el pool de la réplica y el resto el de la primaria.
+ * <p>
+ * El DataSource de la aplicación es un LazyConnectionDataSourceProxy: la conexión física se pide
+ * recién en la primera sentencia, cuando la transacción ya marcó la conexión como de solo lectura,
+ * y en ese caso se toma de RutaLecturaReplica#getLecturas (réplica, o primaria si está atrasada).
+ * La primaria se configura con spring.datasource.* y la réplica con pedidos.bd.replica.*
+ * (propiedades de HikariCP: jdbc-url, username, password, maximum-pool-size...).
+ */
+@Configuration
+@ConditionalOnProperty(name = "pedidos.bd.replica.habilitada", havingValue = "true")
+public class ReplicaLecturaConfig {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicaLecturaConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public RutaLecturaReplica rutaLecturaReplica(DataSourceProperties propiedades, Environment env) {
+        Binder binder = Binder.get(env);
+
+        HikariDataSource primaria = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primaria));
+        primaria.setPoolName("primaria");
+
+        HikariDataSource replica = new HikariDataSource();
+        binder.bind("pedidos.bd.replica", Bindable.ofInstance(replica));
+        replica.setPoolName("replica");
+        // Sin conexiones al arrancar: la aplicación inicia aunque la réplica no esté disponible
+        replica.setInitializationFailTimeout(-1);
+        replica.setReadOnly(true);
+
+        long retrasoMaximo = env.getProperty("pedidos.bd.replica.retraso-maximo-segundos", Long.class, 5L);
+        LOG.info("Réplica de lectura activa en {} (retraso máximo {} s).", replica.getJdbcUrl(), retrasoMaximo);
+        RutaLecturaReplica ruta = new RutaLecturaReplica(primaria, replica,
+                env.getProperty("pedidos.bd.replica.consulta-retraso", "SHOW REPLICA STATUS"),
+                env.getProperty("pedidos.bd.replica.columna-retraso", "Seconds_Behind_Master"),
+                retrasoMaximo);
+        // Un semáforo por pool: uno solo sobre el DataSource de abajo, del tamaño de la primaria,
+        // también contaría las conexiones de la réplica
+        if (Threading.VIRTUAL.isActive(env)) {
+            ruta.limitarConexiones(HilosVirtualesConfig.limiteConcurrencia(env), HilosVirtualesConfig.esperaMaximaMs(env));
+        }
+        return ruta;
+    }
+
+    @Bean
+    public DataSource dataSource(RutaLecturaReplica ruta) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(ruta.getEscrituras());
+        dataSource.setReadOnlyDataSource(ruta.getLecturas());
+        return dataSource;
+    }
+}
@@ -0,0 +1,205 @@
+package pe.gob.pj.springrest.infraestructure.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Pools de la BD primaria y de la réplica de lectura, y la decisión de a cuál va cada
+ * transacción de solo lectura (ReplicaLecturaConfig):
+ * <ul>
+ *   <li>Las transacciones de solo lectura usan la réplica mientras su retraso (consulta-retraso,
+ *       por defecto SHOW REPLICA STATUS) no supere retraso-maximo-segundos.</li>
+ *   <li>Si la réplica se atrasa, deja de replicar o no entrega conexiones, las lecturas vuelven a
+ *       la primaria hasta la siguiente verificación que la encuentre al día.</li>
+ * </ul>
+ * Mientras no se haya verificado la réplica (arranque) las lecturas van a la primaria. Las
+ * lecturas que no toleran retraso (el feed de cambios, la lectura por id tras una escritura) se
+ * fijan a la primaria con {@link #enPrimaria(Supplier)}.
+ * <p>
+ * Una sesión que lee de la réplica solo consulta la caché de segundo nivel (CacheMode.GET): las
+ * entidades que carga pueden estar atrasadas y no deben reemplazar en la caché a las de la primaria.
+ */
+public class RutaLecturaReplica implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RutaLecturaReplica.class);
+
+    private static final ThreadLocal<Boolean> EN_PRIMARIA = ThreadLocal.withInitial(() -> false);
+
+    private final HikariDataSource primaria;
+    private final HikariDataSource replica;
+    private final String consultaRetraso;
+    private final String columnaRetraso;
+    private final long retrasoMaximoSegundos;
+    private final DataSource lecturas = new Lecturas();
+    // Por donde se piden las conexiones de cada pool (ver limitarConexiones)
+    private DataSource conexionesPrimaria;
+    private DataSource conexionesReplica;
+
+    private volatile boolean replicaDisponible;
+    // null: sin verificar, la réplica no respondió o no está replicando
+    private volatile Long retrasoSegundos;
+
+    private final LongAdder lecturasReplica = new LongAdder();
+    private final LongAdder lecturasPrimaria = new LongAdder();
+    private final LongAdder fallosReplica = new LongAdder();
+
+    public RutaLecturaReplica(HikariDataSource primaria, HikariDataSource replica, String consultaRetraso,
+                              String columnaRetraso, long retrasoMaximoSegundos) {
+        this.primaria = primaria;
+        this.replica = replica;
+        this.consultaRetraso = consultaRetraso;
+        this.columnaRetraso = columnaRetraso;
+        this.retrasoMaximoSegundos = retrasoMaximoSegundos;
+        this.conexionesPrimaria = primaria;
+        this.conexionesReplica = replica;
+    }
+
+    /**
+     * Con hilos virtuales (HilosVirtualesConfig), limita cada pool con su propio
+     * LimitadorConexionesDataSource: la primaria a limitePrimaria y la réplica a su
+     * maximum-pool-size. Se llama al crear el bean, antes de entregar conexiones.
+     */
+    public void limitarConexiones(int limitePrimaria, long esperaMaximaMs) {
+        conexionesPrimaria = new LimitadorConexionesDataSource(primaria, limitePrimaria, esperaMaximaMs);
+        conexionesReplica = new LimitadorConexionesDataSource(replica, replica.getMaximumPoolSize(), esperaMaximaMs);
+        LOG.info("Hilos virtuales activos: primaria limitada a {} y réplica a {} conexiones concurrentes.",
+                limitePrimaria, replica.getMaximumPoolSize());
+    }
+
+    public HikariDataSource getPrimaria() {
+        return primaria;
+    }
+
+    public HikariDataSource getReplica() {
+        return replica;
+    }
+
+    /**
+     * DataSource de las transacciones de escritura: la primaria.
+     */
+    public DataSource getEscrituras() {
+        return conexionesPrimaria;
+    }
+
+    /**
+     * DataSource de las transacciones de solo lectura: la réplica si está al día, si no la primaria.
+     */
+    public DataSource getLecturas() {
+        return lecturas;
+    }
+
+    /**
+     * Ejecuta la lectura contra la primaria aunque la réplica esté al día. Sirve dentro de una
+     * transacción de solo lectura ya iniciada: la conexión física se pide en la primera sentencia.
+     * Sin réplica configurada no cambia nada.
+     */
+    public static <T> T enPrimaria(Supplier<T> lectura) {
+        boolean anterior = EN_PRIMARIA.get();
+        EN_PRIMARIA.set(true);
+        try {
+            return lectura.get();
+        } finally {
+            EN_PRIMARIA.set(anterior);
+        }
+    }
+
+    /**
+     * Consulta el retraso de la réplica y decide si las lecturas pueden usarla.
+     */
+    @Scheduled(fixedDelayString = "${pedidos.bd.replica.verificacion-ms:5000}")
+    public void verificar() {
+        Long retraso;
+        try (Connection conexion = replica.getConnection();
+             Statement sentencia = conexion.createStatement();
+             ResultSet rs = sentencia.executeQuery(consultaRetraso)) {
+            // Sin filas o NULL: la réplica no está replicando
+            retraso = rs.next() ? toLong(rs.getObject(columnaRetraso)) : null;
+        } catch (SQLException | RuntimeException e) {
+            LOG.warn("No se pudo consultar el retraso de la réplica: {}", e.getMessage());
+            retraso = null;
+        }
+
+        boolean disponible = retraso != null && retraso <= retrasoMaximoSegundos;
+        if (disponible != replicaDisponible) {
+            if (disponible) {
+                LOG.info("Réplica al día (retraso {} s): las lecturas vuelven a la réplica.", retraso);
+            } else {
+                LOG.warn("Réplica no disponible o atrasada (retraso {} s, máximo {} s): las lecturas van a la primaria.",
+                        retraso, retrasoMaximoSegundos);
+            }
+        }
+        retrasoSegundos = retraso;
+        replicaDisponible = disponible;
+    }
+
+    public record Estado(boolean replicaDisponible, Long retrasoSegundos, long retrasoMaximoSegundos,
+                         long lecturasReplica, long lecturasPrimaria, long fallosReplica) {
+    }
+
+    public Estado estado() {
+        return new Estado(replicaDisponible, retrasoSegundos, retrasoMaximoSegundos,
+                lecturasReplica.sum(), lecturasPrimaria.sum(), fallosReplica.sum());
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primaria.close();
+    }
+
+    private static Long toLong(Object valor) {
+        return valor instanceof Number numero ? numero.longValue() : null;
+    }
+
+    private class Lecturas extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (replicaDisponible && !EN_PRIMARIA.get()) {
+                try {
+                    Connection conexion = conexionesReplica.getConnection();
+                    lecturasReplica.increment();
+                    soloLeerCacheSegundoNivel();
+                    return conexion;
+                } catch (SQLException e) {
+                    // No se espera a la siguiente verificación para dejar de usarla
+                    replicaDisponible = false;
+                    fallosReplica.increment();
+                    LOG.warn("La réplica no entregó una conexión; las lecturas van a la primaria: {}", e.getMessage());
+                }
+            }
+            Connection conexion = conexionesPrimaria.getConnection();
+            lecturasPrimaria.increment();
+            return conexion;
+        }
+
+        // La conexión se pide en la primera sentencia de la transacción, con su sesión ya ligada al hilo
+        private void soloLeerCacheSegundoNivel() {
+            for (Object recurso : TransactionSynchronizationManager.getResourceMap().values()) {
+                if (recurso instanceof EntityManagerHolder holder) {
+                    holder.getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+                }
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new UnsupportedOperationException("Las credenciales se configuran en cada pool.");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package pe.gob.pj.springrest.infraestructure.limitador;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.TransactionException;
+import pe.gob.pj.springrest.presentation.exception.EscrituraRechazadaException;
+
+import java.util.function.Supplier;
+
+/**
+ * Permiso del LimitadorAdaptativo tomado solo alrededor del trabajo, para las escrituras que
+ * LimitadorEscrituraFilter deja pasar sin permiso: un POST /api/pedidos con Idempotency-Key puede
+ * pasar la mayor parte del tiempo esperando el resultado de otra solicitud con la misma clave, y
+ * no debe ocupar un permiso mientras tanto.
+ */
+public class AdmisionEscritura {
+
+    private final LimitadorAdaptativo limitador;
+    private final long reintentarEnSegundos;
+
+    public AdmisionEscritura(LimitadorAdaptativo limitador, long reintentarEnSegundos) {
+        this.limitador = limitador;
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    /**
+     * Ejecuta el trabajo con un permiso, con el mismo criterio que el filtro: los errores de BD o
+     * de transacción (p. ej. sin conexión del pool) reducen el límite, los de negocio no cuentan.
+     * @throws EscrituraRechazadaException si no hay permiso (503).
+     */
+    public <T> T ejecutar(Supplier<T> trabajo) {
+        LimitadorAdaptativo.Permiso permiso = limitador.adquirir();
+        if (permiso == null) {
+            throw new EscrituraRechazadaException(
+                    "Demasiadas escrituras en curso; reintente en " + reintentarEnSegundos + " s.", reintentarEnSegundos);
+        }
+        try {
+            T resultado = trabajo.get();
+            permiso.exito();
+            return resultado;
+        } catch (DataAccessException | TransactionException e) {
+            permiso.fallo();
+            throw e;
+        } catch (RuntimeException e) {
+            permiso.ignorar();
+            throw e;
+        } catch (Error e) {
+            permiso.fallo();
+            throw e;
+        }
+    }
+}
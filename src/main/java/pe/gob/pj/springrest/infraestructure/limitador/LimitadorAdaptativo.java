@@ -0,0 +1,178 @@
+package pe.gob.pj.springrest.infraestructure.limitador;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Límite de solicitudes en curso que se ajusta con la latencia observada (algoritmo de gradiente,
+ * como Gradient2 de Netflix concurrency-limits):
+ * <ul>
+ *   <li>Se comparan la latencia de la última solicitud y la latencia de largo plazo (media móvil).
+ *       Si la reciente sube (se está formando cola en el pool o en la BD), el gradiente
+ *       largo/reciente baja de 1 y el límite se reduce en la misma proporción.</li>
+ *   <li>Con latencia estable el límite crece de a raíz(límite), para descubrir capacidad libre;
+ *       no crece si menos de la mitad del límite está en uso (la carga no lo necesita).</li>
+ *   <li>Una solicitud fallida por sobrecarga (5xx, p. ej. timeout de conexión) reduce el límite
+ *       un 10%.</li>
+ * </ul>
+ * Lo que excede el límite se rechaza de inmediato en lugar de esperar una conexión.
+ */
+public class LimitadorAdaptativo {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LimitadorAdaptativo.class);
+
+    // Suavizado del nuevo límite y ventana (en muestras) de la latencia de largo plazo
+    private static final double SUAVIZADO = 0.2;
+    private static final int VENTANA_LARGO_PLAZO = 600;
+    private static final double REDUCCION_POR_FALLO = 0.9;
+
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final double tolerancia;
+    private final LongSupplier relojNanos;
+
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final LongAdder aceptadas = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+
+    // Protegidos por this
+    private double limite;
+    private double latenciaLargoPlazoMs;
+    private double ultimaLatenciaMs;
+    private long muestras;
+
+    /**
+     * @param tolerancia cuánto puede superar la latencia reciente a la de largo plazo sin reducir
+     *                   el límite (1.5 = hasta un 50% más).
+     */
+    public LimitadorAdaptativo(int limiteInicial, int limiteMinimo, int limiteMaximo, double tolerancia) {
+        this(limiteInicial, limiteMinimo, limiteMaximo, tolerancia, System::nanoTime);
+    }
+
+    // relojNanos: para medir latencias simuladas en las pruebas
+    public LimitadorAdaptativo(int limiteInicial, int limiteMinimo, int limiteMaximo, double tolerancia,
+                               LongSupplier relojNanos) {
+        if (limiteMinimo < 1 || limiteMinimo > limiteMaximo || limiteInicial < limiteMinimo || limiteInicial > limiteMaximo) {
+            throw new IllegalArgumentException("Límites inválidos: se requiere 1 <= mínimo <= inicial <= máximo.");
+        }
+        this.limite = limiteInicial;
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.tolerancia = tolerancia;
+        this.relojNanos = relojNanos;
+    }
+
+    /**
+     * Permiso para atender una solicitud; debe cerrarse con exactamente uno de sus métodos.
+     */
+    public final class Permiso {
+
+        private final long inicio = relojNanos.getAsLong();
+        private boolean cerrado;
+
+        // Atendida: su latencia ajusta el límite
+        public void exito() {
+            if (cerrar()) {
+                registrarLatencia((relojNanos.getAsLong() - inicio) / 1_000_000.0);
+            }
+        }
+
+        // Falló por sobrecarga: reduce el límite
+        public void fallo() {
+            if (cerrar()) {
+                reducir();
+            }
+        }
+
+        // Su latencia no representa la carga de la BD (p. ej. rechazada por validación)
+        public void ignorar() {
+            cerrar();
+        }
+
+        private boolean cerrar() {
+            if (cerrado) {
+                return false;
+            }
+            cerrado = true;
+            enCurso.decrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     * @return un permiso, o null si ya hay tantas solicitudes en curso como el límite.
+     */
+    public Permiso adquirir() {
+        while (true) {
+            int actual = enCurso.get();
+            if (actual >= getLimite()) {
+                rechazadas.increment();
+                return null;
+            }
+            if (enCurso.compareAndSet(actual, actual + 1)) {
+                aceptadas.increment();
+                return new Permiso();
+            }
+        }
+    }
+
+    public synchronized int getLimite() {
+        return (int) limite;
+    }
+
+    public int getEnCurso() {
+        return enCurso.get();
+    }
+
+    public record Estado(int limite, int enCurso, double latenciaMs, double latenciaLargoPlazoMs,
+                         long aceptadas, long rechazadas) {
+    }
+
+    public synchronized Estado estado() {
+        return new Estado((int) limite, enCurso.get(), ultimaLatenciaMs, latenciaLargoPlazoMs,
+                aceptadas.sum(), rechazadas.sum());
+    }
+
+    private synchronized void registrarLatencia(double latenciaMs) {
+        ultimaLatenciaMs = latenciaMs;
+        muestras++;
+        if (muestras == 1) {
+            latenciaLargoPlazoMs = latenciaMs;
+            return;
+        }
+        // Media móvil exponencial; las primeras muestras pesan más hasta completar la ventana
+        double peso = 1.0 / Math.min(muestras, VENTANA_LARGO_PLAZO);
+        latenciaLargoPlazoMs = latenciaLargoPlazoMs * (1 - peso) + latenciaMs * peso;
+
+        // Si la latencia bajó mucho (terminó un pico), la de largo plazo se acerca más rápido
+        if (latenciaLargoPlazoMs / latenciaMs > 2) {
+            latenciaLargoPlazoMs *= 0.95;
+        }
+
+        double gradiente = Math.max(0.5, Math.min(1.0, tolerancia * latenciaLargoPlazoMs / latenciaMs));
+        double nuevo = limite * gradiente + Math.sqrt(limite);
+        nuevo = limite * (1 - SUAVIZADO) + nuevo * SUAVIZADO;
+        // Sin crecer mientras la carga use menos de la mitad del límite
+        if (nuevo > limite && enCurso.get() + 1 < limite / 2) {
+            return;
+        }
+        ajustar(nuevo);
+    }
+
+    private synchronized void reducir() {
+        ajustar(limite * REDUCCION_POR_FALLO);
+    }
+
+    private void ajustar(double nuevo) {
+        int anterior = (int) limite;
+        limite = Math.max(limiteMinimo, Math.min(limiteMaximo, nuevo));
+        if ((int) limite != anterior) {
+            LOG.debug("Límite de escrituras en curso: {} -> {} (latencia {} ms, largo plazo {} ms).",
+                    anterior, (int) limite, Math.round(ultimaLatenciaMs), Math.round(latenciaLargoPlazoMs));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package pe.gob.pj.springrest.infraestructure.limitador;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+
+/**
+ * Límite adaptativo de escrituras en curso (pedidos.limitador-escritura.habilitado=true, por
+ * defecto). Parte del tamaño del pool de HikariCP, que es lo que se quiere proteger.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pedidos.limitador-escritura.habilitado", havingValue = "true", matchIfMissing = true)
+public class LimitadorEscrituraConfig {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LimitadorEscrituraConfig.class);
+
+    @Bean
+    public LimitadorAdaptativo limitadorEscritura(Environment env) {
+        int pool = env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        int inicial = env.getProperty("pedidos.limitador-escritura.limite-inicial", Integer.class, pool);
+        int minimo = env.getProperty("pedidos.limitador-escritura.limite-minimo", Integer.class, 1);
+        int maximo = env.getProperty("pedidos.limitador-escritura.limite-maximo", Integer.class, pool * 5);
+        double tolerancia = env.getProperty("pedidos.limitador-escritura.tolerancia", Double.class, 1.5);
+
+        LOG.info("Límite adaptativo de escrituras: inicial {}, entre {} y {}.", inicial, minimo, maximo);
+        return new LimitadorAdaptativo(inicial, minimo, maximo, tolerancia);
+    }
+
+    @Bean
+    public LimitadorEscrituraFilter limitadorEscrituraFilter(LimitadorAdaptativo limitadorEscritura, JsonMapper jsonMapper,
+                                                             @Value("${pedidos.limitador-escritura.reintentar-en-segundos:1}") long reintentarEnSegundos,
+                                                             @Value("${pedidos.limitador-escritura.rutas-excluidas:/api/admin,/api/pedidos/lote,/facturas/lote,/facturas/importacion}")
+                                                             List<String> rutasExcluidas) {
+        return new LimitadorEscrituraFilter(limitadorEscritura, jsonMapper, reintentarEnSegundos, rutasExcluidas);
+    }
+
+    @Bean
+    public AdmisionEscritura admisionEscritura(LimitadorAdaptativo limitadorEscritura,
+                                               @Value("${pedidos.limitador-escritura.reintentar-en-segundos:1}") long reintentarEnSegundos) {
+        return new AdmisionEscritura(limitadorEscritura, reintentarEnSegundos);
+    }
+}
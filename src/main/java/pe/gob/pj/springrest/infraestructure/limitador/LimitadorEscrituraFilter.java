@@ -0,0 +1,107 @@
+package pe.gob.pj.springrest.infraestructure.limitador;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import pe.gob.pj.springrest.presentation.exception.ErrorResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Control de admisión de las escrituras (POST, PUT, PATCH y DELETE): cada una toma un permiso del
+ * LimitadorAdaptativo. Sin permiso se responde 503 con Retry-After de inmediato, en lugar de
+ * esperar connection-timeout por una conexión del pool y fallar cuando el cliente ya reintentó.
+ * Las lecturas no pasan por el limitador, ni tampoco:
+ * <ul>
+ *   <li>Las rutas de pedidos.limitador-escritura.rutas-excluidas (por defecto /api/admin y las
+ *       cargas masivas): duran segundos, y su latencia haría bajar el límite de las escrituras
+ *       cortas que el limitador protege.</li>
+ *   <li>POST /api/pedidos con Idempotency-Key: puede esperar el resultado de otra solicitud con
+ *       la misma clave; toma el permiso solo al crear el pedido (AdmisionEscritura).</li>
+ * </ul>
+ */
+public class LimitadorEscrituraFilter extends OncePerRequestFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LimitadorEscrituraFilter.class);
+
+    private static final String RUTA_PEDIDOS = "/api/pedidos";
+    private static final String ENCABEZADO_IDEMPOTENCIA = "Idempotency-Key";
+
+    private static final Set<String> METODOS_ESCRITURA = Set.of(
+            HttpMethod.POST.name(), HttpMethod.PUT.name(), HttpMethod.PATCH.name(), HttpMethod.DELETE.name());
+
+    private final LimitadorAdaptativo limitador;
+    private final JsonMapper jsonMapper;
+    private final long reintentarEnSegundos;
+    // Prefijos de ruta
+    private final List<String> rutasExcluidas;
+
+    public LimitadorEscrituraFilter(LimitadorAdaptativo limitador, JsonMapper jsonMapper, long reintentarEnSegundos,
+                                    List<String> rutasExcluidas) {
+        this.limitador = limitador;
+        this.jsonMapper = jsonMapper;
+        this.reintentarEnSegundos = reintentarEnSegundos;
+        this.rutasExcluidas = List.copyOf(rutasExcluidas);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!METODOS_ESCRITURA.contains(request.getMethod())) {
+            return true;
+        }
+        String ruta = request.getRequestURI();
+        if (rutasExcluidas.stream().anyMatch(ruta::startsWith)) {
+            return true;
+        }
+        return HttpMethod.POST.matches(request.getMethod()) && ruta.equals(RUTA_PEDIDOS)
+                && request.getHeader(ENCABEZADO_IDEMPOTENCIA) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        LimitadorAdaptativo.Permiso permiso = limitador.adquirir();
+        if (permiso == null) {
+            rechazar(request, response);
+            return;
+        }
+
+        boolean completada = false;
+        try {
+            chain.doFilter(request, response);
+            completada = true;
+        } finally {
+            int status = response.getStatus();
+            if (!completada || status >= 500) {
+                permiso.fallo();
+            } else if (status >= 400) {
+                permiso.ignorar();
+            } else {
+                permiso.exito();
+            }
+        }
+    }
+
+    private void rechazar(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        LOG.debug("{} {} rechazada: {} escrituras en curso (límite {}).",
+                request.getMethod(), request.getRequestURI(), limitador.getEnCurso(), limitador.getLimite());
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(reintentarEnSegundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        jsonMapper.writeValue(response.getOutputStream(), new ErrorResponse(status,
+                "Demasiadas escrituras en curso; reintente en " + reintentarEnSegundos + " s.", request.getRequestURI()));
+    }
+}
@@ -12,6 +12,9 @@ public interface PedidoMapper {
     @Mapping(target = "estado", ignore = true) // El estado se define en el servicio (RN2)
     @Mapping(target = "fechaHora", ignore = true) // La fecha/hora se define en el servicio
     @Mapping(target = "total", ignore = true) // El total se calcula en el servicio (RN1)
+    @Mapping(target = "version", ignore = true) // Bloqueo optimista: lo asigna Hibernate
+    @Mapping(target = "cambioSeq", ignore = true) // Feed de cambios: lo asigna la BD (secuencia)
+    @Mapping(target = "cambiadoEn", ignore = true) // Feed de cambios: al insertar y en cada transición
 
     // Mapea la lista de items. MapStruct usará ItemPedidoMapper para esto.
     @Mapping(target = "items", source = "items")
@@ -0,0 +1,109 @@
+package pe.gob.pj.springrest.infraestructure.metricas;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import pe.gob.pj.springrest.application.service.EventosPedidoService;
+import pe.gob.pj.springrest.infraestructure.cache.CacheRespuestasPedido;
+import pe.gob.pj.springrest.infraestructure.config.LimitadorConexionesDataSource;
+import pe.gob.pj.springrest.infraestructure.config.RutaLecturaReplica;
+import pe.gob.pj.springrest.infraestructure.limitador.LimitadorAdaptativo;
+
+import javax.sql.DataSource;
+
+/**
+ * Publica en Micrometer los contadores que ya llevan los componentes (los mismos de /api/admin),
+ * leídos solo al momento del scrape. Las métricas de HikariCP (hikaricp.connections.*) las
+ * registra Spring Boot; su histograma de espera se activa en application.properties.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public MeterBinder metricasCacheRespuestas(CacheRespuestasPedido cache) {
+        return registry -> {
+            FunctionCounter.builder("pedidos.cache.respuestas.aciertos", cache, c -> c.estadisticas().aciertos())
+                    .description("Lecturas de GET /api/pedidos/{id} servidas desde la caché").register(registry);
+            FunctionCounter.builder("pedidos.cache.respuestas.fallos", cache, c -> c.estadisticas().fallos())
+                    .register(registry);
+            FunctionCounter.builder("pedidos.cache.respuestas.desalojos", cache, c -> c.estadisticas().desalojos())
+                    .register(registry);
+            Gauge.builder("pedidos.cache.respuestas.entradas", cache, c -> c.estadisticas().entradas())
+                    .register(registry);
+            Gauge.builder("pedidos.cache.respuestas.bytes", cache, c -> c.estadisticas().bytes())
+                    .baseUnit("bytes").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasEventos(EventosPedidoService eventos) {
+        return registry -> {
+            Gauge.builder("pedidos.eventos.suscriptores", eventos, e -> e.estadisticas().get("suscriptores"))
+                    .description("Conexiones SSE abiertas en GET /api/pedidos/eventos").register(registry);
+            FunctionCounter.builder("pedidos.eventos.descartados", eventos, e -> e.estadisticas().get("descartados"))
+                    .description("Suscriptores desconectados por buffer lleno").register(registry);
+        };
+    }
+
+    // Solo con hilos virtuales: espera en el semáforo, antes de llegar al pool
+    @Bean
+    public MeterBinder metricasLimitadorConexiones(DataSource dataSource) {
+        return registry -> {
+            // Puede estar envuelto por otros DataSource delegados (p. ej. estadísticas de SQL)
+            DataSource actual = dataSource;
+            while (actual instanceof DelegatingDataSource delegado && !(actual instanceof LimitadorConexionesDataSource)) {
+                actual = delegado.getTargetDataSource();
+            }
+            if (actual instanceof LimitadorConexionesDataSource limitador) {
+                Gauge.builder("pedidos.bd.limitador.ocupadas", limitador, LimitadorConexionesDataSource::getEnUso)
+                        .register(registry);
+                Gauge.builder("pedidos.bd.limitador.esperando", limitador, LimitadorConexionesDataSource::getEnEspera)
+                        .register(registry);
+            }
+        };
+    }
+
+    // Solo con réplica de lectura: Spring Boot instrumenta el pool de la primaria (el del DataSource
+    // de la aplicación); el de la réplica se instrumenta aquí (hikaricp.connections.*{pool=replica})
+    @Bean
+    public MeterBinder metricasReplicaLectura(ObjectProvider<RutaLecturaReplica> rutaLecturaReplica) {
+        return registry -> rutaLecturaReplica.ifAvailable(ruta -> {
+            if (ruta.getReplica().getMetricRegistry() == null && ruta.getReplica().getMetricsTrackerFactory() == null) {
+                ruta.getReplica().setMetricRegistry(registry);
+            }
+            FunctionCounter.builder("pedidos.bd.lecturas", ruta, r -> r.estado().lecturasReplica())
+                    .description("Transacciones de solo lectura por pool").tag("pool", "replica").register(registry);
+            FunctionCounter.builder("pedidos.bd.lecturas", ruta, r -> r.estado().lecturasPrimaria())
+                    .description("Transacciones de solo lectura por pool").tag("pool", "primaria").register(registry);
+            FunctionCounter.builder("pedidos.bd.replica.fallos", ruta, r -> r.estado().fallosReplica())
+                    .description("Conexiones que la réplica no entregó").register(registry);
+            Gauge.builder("pedidos.bd.replica.disponible", ruta, r -> r.estado().replicaDisponible() ? 1 : 0)
+                    .register(registry);
+            Gauge.builder("pedidos.bd.replica.retraso", ruta,
+                            r -> r.estado().retrasoSegundos() == null ? Double.NaN : r.estado().retrasoSegundos())
+                    .baseUnit("seconds").register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder metricasLimitadorEscritura(ObjectProvider<LimitadorAdaptativo> limitadorEscritura) {
+        return registry -> limitadorEscritura.ifAvailable(limitador -> {
+            Gauge.builder("pedidos.escritura.limite", limitador, LimitadorAdaptativo::getLimite)
+                    .description("Escrituras en curso admitidas (límite adaptativo)").register(registry);
+            Gauge.builder("pedidos.escritura.en-curso", limitador, LimitadorAdaptativo::getEnCurso)
+                    .register(registry);
+            Gauge.builder("pedidos.escritura.latencia", limitador, l -> l.estado().latenciaMs())
+                    .baseUnit("milliseconds").register(registry);
+            Gauge.builder("pedidos.escritura.latencia.largo-plazo", limitador, l -> l.estado().latenciaLargoPlazoMs())
+                    .baseUnit("milliseconds").register(registry);
+            FunctionCounter.builder("pedidos.escritura.admitidas", limitador, l -> l.estado().aceptadas())
+                    .register(registry);
+            FunctionCounter.builder("pedidos.escritura.rechazadas", limitador, l -> l.estado().rechazadas())
+                    .description("Escrituras rechazadas con 503 por superar el límite").register(registry);
+        });
+    }
+}
@@ -0,0 +1,153 @@
+package pe.gob.pj.springrest.infraestructure.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de negocio de PedidoService (Micrometer, expuestas en /actuator/prometheus):
+ * <ul>
+ *   <li>pedidos.creacion.etapa (timer, etiqueta etapa): RN3, RN1/RN4 y persistencia de crearPedido.</li>
+ *   <li>pedidos.rechazos (contador, etiqueta regla): pedidos rechazados por cada regla de negocio.</li>
+ *   <li>pedidos.transiciones (contador, etiquetas desde/hacia): cambios de estado aplicados (RN2).
+ *       Única excepción: la cancelación individual se etiqueta desde="desconocido". Su UPDATE se
+ *       condiciona a los dos predecesores de CANCELADO y saber cuál aplicó costaría otra consulta.</li>
+ * </ul>
+ * Todos los medidores se registran al iniciar: en la ruta de creación registrar una medición es
+ * un acceso a un EnumMap y una suma atómica, sin búsquedas en el registro ni asignaciones.
+ */
+@Component
+public class MetricasPedido {
+
+    /**
+     * Etapas de PedidoService.crearPedido.
+     */
+    public enum Etapa {
+        DATOS_ENTREGA("rn3"),
+        ITEMS("rn1_rn4"),
+        PERSISTENCIA("persistencia");
+
+        private final String etiqueta;
+
+        Etapa(String etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+    }
+
+    /**
+     * Reglas por las que se rechaza un pedido o una transición.
+     */
+    public enum Regla {
+        RN1_SIN_ITEMS("RN1"),
+        RN2("RN2"),
+        RN3("RN3"),
+        RN4("RN4"),
+        PRODUCTO_NO_ENCONTRADO("producto_no_encontrado");
+
+        private final String etiqueta;
+
+        Regla(String etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+    }
+
+    private final Map<Etapa, Timer> etapas = new EnumMap<>(Etapa.class);
+    private final Map<Regla, Counter> rechazos = new EnumMap<>(Regla.class);
+    // Etiqueta desde de las transiciones cuyo origen no se conoce
+    static final String DESDE_DESCONOCIDO = "desconocido";
+
+    // desde -> hacia, solo las transiciones que la RN2 permite
+    private final Map<EstadoPedido, Map<EstadoPedido, Counter>> transiciones = new EnumMap<>(EstadoPedido.class);
+    // hacia -> transiciones de origen desconocido, solo los estados con más de un predecesor (CANCELADO)
+    private final Map<EstadoPedido, Counter> transicionesSinOrigen = new EnumMap<>(EstadoPedido.class);
+
+    public MetricasPedido(MeterRegistry registry) {
+        for (Etapa etapa : Etapa.values()) {
+            etapas.put(etapa, Timer.builder("pedidos.creacion.etapa")
+                    .description("Duración de cada etapa de la creación de pedidos")
+                    .tag("etapa", etapa.etiqueta)
+                    .register(registry));
+        }
+        for (Regla regla : Regla.values()) {
+            rechazos.put(regla, Counter.builder("pedidos.rechazos")
+                    .description("Pedidos o transiciones rechazados por regla de negocio")
+                    .tag("regla", regla.etiqueta)
+                    .register(registry));
+        }
+        for (EstadoPedido desde : EstadoPedido.values()) {
+            Map<EstadoPedido, Counter> destinos = new EnumMap<>(EstadoPedido.class);
+            for (EstadoPedido hacia : EstadoPedido.values()) {
+                if (desde.esTransicionValida(hacia)) {
+                    destinos.put(hacia, transicion(registry, desde.name(), hacia));
+                }
+            }
+            transiciones.put(desde, destinos);
+        }
+        for (EstadoPedido hacia : EstadoPedido.values()) {
+            if (hacia.predecesores().size() > 1) {
+                transicionesSinOrigen.put(hacia, transicion(registry, DESDE_DESCONOCIDO, hacia));
+            }
+        }
+    }
+
+    /**
+     * Registra la duración de una etapa iniciada en inicioNanos (System.nanoTime()).
+     */
+    public void registrarEtapa(Etapa etapa, long inicioNanos) {
+        etapas.get(etapa).record(System.nanoTime() - inicioNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Como registrarEtapa, pero la etapa termina cuando confirma la transacción en curso (los
+     * INSERT salen en el commit). Si la transacción se revierte no se registra; sin transacción
+     * se registra ya.
+     */
+    public void registrarEtapaAlConfirmar(Etapa etapa, long inicioNanos) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            registrarEtapa(etapa, inicioNanos);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                registrarEtapa(etapa, inicioNanos);
+            }
+        });
+    }
+
+    public void registrarRechazo(Regla regla) {
+        rechazos.get(regla).increment();
+    }
+
+    public void registrarRechazos(Regla regla, int cantidad) {
+        if (cantidad > 0) {
+            rechazos.get(regla).increment(cantidad);
+        }
+    }
+
+    /**
+     * @param desde Estado de origen, o null si no se conoce (solo la cancelación individual).
+     */
+    public void registrarTransiciones(EstadoPedido desde, EstadoPedido hacia, int cantidad) {
+        Counter contador = desde != null ? transiciones.get(desde).get(hacia) : transicionesSinOrigen.get(hacia);
+        if (contador != null && cantidad > 0) {
+            contador.increment(cantidad);
+        }
+    }
+
+    private static Counter transicion(MeterRegistry registry, String desde, EstadoPedido hacia) {
+        return Counter.builder("pedidos.transiciones")
+                .description("Cambios de estado aplicados (RN2)")
+                .tag("desde", desde)
+                .tag("hacia", hacia.name())
+                .register(registry);
+    }
+}
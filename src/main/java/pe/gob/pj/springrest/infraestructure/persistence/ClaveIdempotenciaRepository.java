@@ -0,0 +1,18 @@
+package pe.gob.pj.springrest.infraestructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import pe.gob.pj.springrest.domain.model.ClaveIdempotencia;
+
+import java.time.LocalDateTime;
+
+public interface ClaveIdempotenciaRepository extends JpaRepository<ClaveIdempotencia, String> {
+
+    // Purga de claves vencidas en una sola sentencia, sin cargar las entidades
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c WHERE c.creadoEn < :limite")
+    int eliminarCreadasAntesDe(LocalDateTime limite);
+}
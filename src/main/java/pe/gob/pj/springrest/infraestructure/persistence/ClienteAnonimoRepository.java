@@ -0,0 +1,89 @@
+package pe.gob.pj.springrest.infraestructure.persistence;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Repository;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository.ContactoCliente;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Alta de clientes anónimos (pedidos sin clienteId) en la transacción del pedido, sin que una
+ * carrera por el mismo teléfono la invalide:
+ * <ul>
+ *   <li>Si otro pedido ya insertó el teléfono (aun sin confirmar, el INSERT espera a esa
+ *       transacción), el INSERT falla por clave duplicada; solo ese error se descarta (la sentencia
+ *       fallida no revierte la transacción). Un INSERT de JPA rechazado por el índice único dejaría
+ *       la transacción marcada para rollback. No se usa INSERT IGNORE: también convertiría en
+ *       advertencias un teléfono truncado o una columna obligatoria nula.</li>
+ *   <li>La fila ganadora se lee con FOR UPDATE: una lectura normal usaría la instantánea de la
+ *       transacción (REPEATABLE READ) y no la vería.</li>
+ * </ul>
+ * Se usa JDBC sobre la conexión de la sesión para no invalidar la caché de segundo nivel de
+ * Cliente, como haría una consulta nativa de modificación.
+ */
+@Repository
+public class ClienteAnonimoRepository {
+
+    private final EntityManager entityManager;
+
+    public ClienteAnonimoRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Inserta el cliente anónimo del teléfono (ya normalizado) si no existe.
+     * @return el ID insertado, o vacío si el teléfono ya tenía cliente anónimo.
+     */
+    public Optional<Long> insertarSiNoExiste(String telefono, String direccion) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        // El mismo generador (secuencia pooled) que usa Hibernate al persistir un Cliente
+        Long id = (Long) ((IdentifierGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(Cliente.class).getGenerator()).generate(session, null);
+
+        int insertadas = session.doReturningWork(conexion -> {
+            try (PreparedStatement sentencia = conexion.prepareStatement(
+                    "INSERT INTO cliente (id, nombre, telefono, telefono_anonimo, direccion) VALUES (?, ?, ?, ?, ?)")) {
+                sentencia.setLong(1, id);
+                sentencia.setString(2, Cliente.NOMBRE_SIN_REGISTRO);
+                sentencia.setString(3, telefono);
+                sentencia.setString(4, telefono);
+                sentencia.setString(5, direccion);
+                return sentencia.executeUpdate();
+            } catch (SQLException e) {
+                if (esClaveDuplicada(e)) {
+                    return 0;
+                }
+                throw e;
+            }
+        });
+        return insertadas == 1 ? Optional.of(id) : Optional.empty();
+    }
+
+    // ER_DUP_ENTRY de MariaDB; 23505 es el SQLState estándar (H2 en los tests)
+    private static boolean esClaveDuplicada(SQLException e) {
+        return e.getErrorCode() == 1062 || "23505".equals(e.getSQLState());
+    }
+
+    /**
+     * Cliente anónimo del teléfono según la última versión confirmada (lectura con bloqueo).
+     */
+    public Optional<ContactoCliente> buscarBloqueando(String telefono) {
+        return entityManager.unwrap(SharedSessionContractImplementor.class).doReturningWork(conexion -> {
+            try (PreparedStatement sentencia = conexion.prepareStatement(
+                    "SELECT id, nombre, telefono, direccion FROM cliente WHERE telefono_anonimo = ? FOR UPDATE")) {
+                sentencia.setString(1, telefono);
+                try (ResultSet rs = sentencia.executeQuery()) {
+                    return rs.next()
+                            ? Optional.of(new ContactoCliente(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)))
+                            : Optional.<ContactoCliente>empty();
+                }
+            }
+        });
+    }
+}
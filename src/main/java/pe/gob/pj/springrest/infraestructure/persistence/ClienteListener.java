@@ -0,0 +1,28 @@
+package pe.gob.pj.springrest.infraestructure.persistence;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import pe.gob.pj.springrest.application.service.ClienteService;
+import pe.gob.pj.springrest.domain.model.Cliente;
+
+/**
+ * Saca de la caché teléfono -> cliente de ClienteService al cliente modificado (p. ej. se registró
+ * o cambió de teléfono) o eliminado, para que un pedido sin clienteId no reciba un ID obsoleto.
+ * Hibernate lo crea como bean de Spring (SpringBeanContainer); ObjectProvider evita el ciclo
+ * ClienteService -> ClienteRepository -> EntityManagerFactory -> este listener.
+ */
+public class ClienteListener {
+
+    private final ObjectProvider<ClienteService> clienteService;
+
+    public ClienteListener(ObjectProvider<ClienteService> clienteService) {
+        this.clienteService = clienteService;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void alModificar(Cliente cliente) {
+        clienteService.ifAvailable(servicio -> servicio.olvidar(cliente.getId()));
+    }
+}
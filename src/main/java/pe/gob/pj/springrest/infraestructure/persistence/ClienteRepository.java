@@ -1,6 +1,32 @@
 package pe.gob.pj.springrest.infraestructure.persistence;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import pe.gob.pj.springrest.domain.model.Cliente;
 
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {}
\ No newline at end of file
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+
+    // ===============================================
+    // RESOLUCIÓN POR TELÉFONO (pedidos sin clienteId, ver ClienteService)
+    // Solo clientes anónimos: usan el índice único uk_cliente_telefono_anonimo y proyectan solo lo
+    // que necesita el pedido. Los registrados nunca se resuelven por teléfono.
+    // ===============================================
+
+    String NUEVO_CONTACTO = "new pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository$ContactoCliente(" +
+            "c.id, c.nombre, c.telefono, c.direccion)";
+
+    @Query("SELECT " + NUEVO_CONTACTO + " FROM Cliente c WHERE c.telefonoAnonimo = :telefono")
+    Optional<ContactoCliente> buscarContactoAnonimo(@Param("telefono") String telefono);
+
+    @Query("SELECT " + NUEVO_CONTACTO + " FROM Cliente c WHERE c.telefonoAnonimo IN :telefonos")
+    List<ContactoCliente> buscarContactosAnonimos(@Param("telefonos") Collection<String> telefonos);
+
+    // Datos del cliente que se copian al pedido (RN3) y a su respuesta
+    record ContactoCliente(Long id, String nombre, String telefono, String direccion) {
+    }
+}
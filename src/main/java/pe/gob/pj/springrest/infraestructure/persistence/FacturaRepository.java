@@ -2,19 +2,25 @@ package pe.gob.pj.springrest.infraestructure.persistence;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 import pe.gob.pj.springrest.domain.model.Factura;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public class FacturaRepository {
 
     private static final Logger LOG = LoggerFactory.getLogger(FacturaRepository.class);
 
+    // Filas por viaje a la BD al exportar (mismo valor que PedidoRepository.exportarConItems)
+    private static final int TAMANO_FETCH_EXPORTACION = 500;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -36,6 +42,17 @@ public class FacturaRepository {
                 .getResultList();
     }
 
+    // 2b. READ para exportación: recorre la tabla con un cursor (fetch size) en lugar de una lista.
+    // El constructor en la consulta devuelve facturas no administradas: el contexto de persistencia
+    // no crece. El Stream debe consumirse y cerrarse dentro de la transacción.
+    public Stream<Factura> exportarTodas() {
+        return entityManager
+                .createQuery("SELECT new pe.gob.pj.springrest.domain.model.Factura(f.numero, f.concepto, f.importe) " +
+                        "FROM Factura f ORDER BY f.numero", Factura.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, TAMANO_FETCH_EXPORTACION)
+                .getResultStream();
+    }
+
     // 3. READ (Buscar por ID)
     public Optional<Factura> buscarPorId(Integer id) {
         LOG.info("Buscando factura por ID: {}", id);
@@ -45,15 +62,49 @@ public class FacturaRepository {
     }
 
     // 4. DELETE (Eliminar)
-    public void eliminar(Integer id) {
+    // Por la entidad y no con un DELETE JPQL: un DELETE masivo invalida toda la región 'factura'
+    // de la caché de segundo nivel, y 'remove' solo desaloja esta factura. 'find' suele
+    // resolverse en la caché, sin SELECT. Devuelve las filas eliminadas (0 si no existía).
+    public int eliminar(Integer id) {
         LOG.info("Intentando eliminar factura con ID: {}", id);
-        // Primero necesitas encontrar la entidad para ponerla en estado 'managed'
         Factura factura = entityManager.find(Factura.class, id);
-        if (factura != null) {
-            entityManager.remove(factura);
-            LOG.info("Factura con ID {} eliminada exitosamente.", id);
-        } else {
+        if (factura == null) {
             LOG.warn("No se encontró la factura con ID {} para eliminar.", id);
+            return 0;
         }
+        entityManager.remove(factura);
+        LOG.info("Factura con ID {} eliminada exitosamente.", id);
+        return 1;
+    }
+
+    // 5. DELETE por rango de números (ambos inclusive), en una sola sentencia.
+    // Al ser masivo, Hibernate invalida la región 'factura' completa de la caché de segundo nivel.
+    public int eliminarRango(Integer desde, Integer hasta) {
+        int eliminadas = entityManager
+                .createQuery("DELETE FROM Factura f WHERE f.numero BETWEEN :desde AND :hasta")
+                .setParameter("desde", desde)
+                .setParameter("hasta", hasta)
+                .executeUpdate();
+        LOG.info("Facturas eliminadas en el rango [{}, {}]: {}", desde, hasta, eliminadas);
+        return eliminadas;
+    }
+
+    // 6. READ de varias facturas por número, en una sola consulta (quedan 'managed')
+    public List<Factura> buscarPorNumeros(Collection<Integer> numeros) {
+        return entityManager
+                .createQuery("SELECT f FROM Factura f WHERE f.numero IN :numeros", Factura.class)
+                .setParameter("numeros", numeros)
+                .getResultList();
+    }
+
+    // 7. INSERT de una factura nueva; a diferencia de 'merge', no consulta antes si existe
+    public void insertar(Factura factura) {
+        entityManager.persist(factura);
+    }
+
+    // Envía los cambios pendientes (batches JDBC) y vacía el contexto de persistencia
+    public void sincronizarYLimpiar() {
+        entityManager.flush();
+        entityManager.clear();
     }
-}
\ No newline at end of file
+}
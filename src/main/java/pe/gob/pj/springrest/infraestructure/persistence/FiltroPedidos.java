@@ -0,0 +1,16 @@
+package pe.gob.pj.springrest.infraestructure.persistence;
+
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros opcionales de GET /api/pedidos/buscar; los null no restringen.
+ * El rango de fecha_hora es [desde, hasta): desde incluido, hasta excluido.
+ */
+public record FiltroPedidos(EstadoPedido estado,
+                            Long clienteId,
+                            String tipoEntrega,
+                            LocalDateTime desde,
+                            LocalDateTime hasta) {
+}
@@ -0,0 +1,83 @@
+package pe.gob.pj.springrest.infraestructure.persistence;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+import pe.gob.pj.springrest.application.dto.PedidoResponse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Búsqueda de pedidos con filtros opcionales (GET /api/pedidos/buscar), proyectada a DTO como
+ * las demás lecturas de PedidoRepository.
+ * La consulta se arma solo con los filtros presentes: un "(:x IS NULL OR columna = :x)" obligaría a
+ * la BD a un plan genérico que no puede elegir índice. Con predicados de igualdad seguidos del
+ * rango/orden por (fecha_hora, id), cada combinación usa uno de los índices de la tabla pedido y
+ * lee las filas ya ordenadas (sin filesort); un tipoEntrega junto con clienteId o estado se evalúa
+ * sobre las filas que entrega el índice:
+ * <ul>
+ *   <li>clienteId + estado [+ tipoEntrega] [+ rango] → idx_pedido_cliente_estado_fecha</li>
+ *   <li>clienteId [+ tipoEntrega] [+ rango] → idx_pedido_cliente_fecha</li>
+ *   <li>estado [+ tipoEntrega] [+ rango] → idx_pedido_estado_fecha</li>
+ *   <li>tipoEntrega [+ rango] → idx_pedido_tipo_entrega_fecha</li>
+ *   <li>solo rango o sin filtros → idx_pedido_fecha_hora_id</li>
+ * </ul>
+ */
+@Repository
+public class PedidoBusquedaRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Pedidos que cumplen el filtro, del más reciente al más antiguo. Si se indica la posición
+     * (fechaHora, id) de la última fila entregada, devuelve solo los anteriores a ella (keyset).
+     */
+    public List<PedidoResponse> buscar(FiltroPedidos filtro, LocalDateTime despuesDeFecha, Long despuesDeId, int limite) {
+        List<String> condiciones = new ArrayList<>();
+        Map<String, Object> parametros = new LinkedHashMap<>();
+
+        // p.cliente.id es la FK de pedido: no agrega un JOIN a cliente en el WHERE
+        if (filtro.clienteId() != null) {
+            condiciones.add("p.cliente.id = :clienteId");
+            parametros.put("clienteId", filtro.clienteId());
+        }
+        if (filtro.estado() != null) {
+            condiciones.add("p.estado = :estado");
+            parametros.put("estado", filtro.estado());
+        }
+        if (filtro.tipoEntrega() != null) {
+            condiciones.add("p.tipoEntrega = :tipoEntrega");
+            parametros.put("tipoEntrega", filtro.tipoEntrega());
+        }
+        if (filtro.desde() != null) {
+            condiciones.add("p.fechaHora >= :desde");
+            parametros.put("desde", filtro.desde());
+        }
+        if (filtro.hasta() != null) {
+            condiciones.add("p.fechaHora < :hasta");
+            parametros.put("hasta", filtro.hasta());
+        }
+        if (despuesDeFecha != null) {
+            condiciones.add("(p.fechaHora < :fechaCursor OR (p.fechaHora = :fechaCursor AND p.id < :idCursor))");
+            parametros.put("fechaCursor", despuesDeFecha);
+            parametros.put("idCursor", despuesDeId);
+        }
+
+        StringBuilder jpql = new StringBuilder(PedidoRepository.PROYECCION_PEDIDO);
+        if (!condiciones.isEmpty()) {
+            jpql.append("WHERE ").append(String.join(" AND ", condiciones)).append(' ');
+        }
+        jpql.append("ORDER BY p.fechaHora DESC, p.id DESC");
+
+        TypedQuery<PedidoResponse> consulta = entityManager.createQuery(jpql.toString(), PedidoResponse.class)
+                .setMaxResults(limite);
+        parametros.forEach(consulta::setParameter);
+        return consulta.getResultList();
+    }
+}
@@ -1,6 +1,162 @@
 package pe.gob.pj.springrest.infraestructure.persistence;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
 import pe.gob.pj.springrest.domain.model.Pedido;
 
-public interface PedidoRepository extends JpaRepository<Pedido, Long> {}
\ No newline at end of file
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface PedidoRepository extends JpaRepository<Pedido, Long> {
+
+    // ===============================================
+    // PLANES DE CARGA (evitan el N+1 de PedidoResponseMapper)
+    // ===============================================
+
+    // Pedido con cliente, ítems y producto de cada ítem en una sola consulta
+    @EntityGraph(attributePaths = {"cliente", "items", "items.producto"})
+    @Query("SELECT p FROM Pedido p WHERE p.id = :id")
+    Optional<Pedido> buscarConDetallePorId(@Param("id") Long id);
+
+    // Inicializa ítems y productos de pedidos ya cargados en el contexto de persistencia (feed de cambios).
+    // Se hace en una consulta aparte porque un JOIN FETCH de colecciones no se puede combinar con LIMIT.
+    @Query("SELECT DISTINCT p FROM Pedido p LEFT JOIN FETCH p.items i LEFT JOIN FETCH i.producto WHERE p.id IN :ids")
+    List<Pedido> cargarItems(@Param("ids") Collection<Long> ids);
+
+    // ===============================================
+    // LECTURAS PROYECTADAS A DTO (GET /api/pedidos/{id} y GET /api/pedidos)
+    // Construyen PedidoResponse/ItemPedidoResponse directamente desde la consulta: no hay
+    // entidades administradas, ni copias para dirty checking, ni paso por PedidoResponseMapper.
+    // En las páginas, una consulta para las cabeceras (con el nombre del cliente) y otra para los ítems.
+    // ===============================================
+
+    String NUEVO_PEDIDO_RESPONSE = "new pe.gob.pj.springrest.application.dto.PedidoResponse(" +
+            "p.id, c.id, c.nombre, p.fechaHora, p.estado, p.tipoEntrega, p.direccionEntrega, p.total)";
+    String NUEVO_ITEM_RESPONSE = "new pe.gob.pj.springrest.application.dto.ItemPedidoResponse(" +
+            "pr.nombre, i.cantidad, i.precioUnitario, i.precioUnitario * i.cantidad)";
+    String PROYECCION_PEDIDO = "SELECT " + NUEVO_PEDIDO_RESPONSE + " FROM Pedido p JOIN p.cliente c ";
+
+    // Un solo pedido en una sola consulta: una fila [PedidoResponse, ItemPedidoResponse] por ítem.
+    // Sin ítems llega una fila con el ítem vacío (cantidad null).
+    @Query("SELECT " + NUEVO_PEDIDO_RESPONSE + ", " + NUEVO_ITEM_RESPONSE + " " +
+            "FROM Pedido p JOIN p.cliente c LEFT JOIN p.items i LEFT JOIN i.producto pr " +
+            "WHERE p.id = :id ORDER BY i.id")
+    List<Object[]> proyectarConItemsPorId(@Param("id") Long id);
+
+    // Paginación por clave (keyset) sobre (fecha_hora, id), del más reciente al más antiguo.
+    // Usa el índice idx_pedido_fecha_hora_id: cada página cuesta lo mismo, sin OFFSET.
+
+    // Primera página
+    @Query(PROYECCION_PEDIDO + "ORDER BY p.fechaHora DESC, p.id DESC")
+    List<PedidoResponse> proyectarPrimeraPagina(Limit limit);
+
+    // Páginas siguientes: pedidos estrictamente anteriores a la última fila entregada
+    @Query(PROYECCION_PEDIDO +
+            "WHERE p.fechaHora < :fechaHora OR (p.fechaHora = :fechaHora AND p.id < :id) " +
+            "ORDER BY p.fechaHora DESC, p.id DESC")
+    List<PedidoResponse> proyectarPaginaSiguiente(@Param("fechaHora") LocalDateTime fechaHora,
+                                                  @Param("id") Long id,
+                                                  Limit limit);
+
+    // Ítems de varios pedidos, en orden: cada fila es [ID del pedido, ItemPedidoResponse].
+    // El subtotal (precio unitario x cantidad) lo calcula la BD, igual que PedidoResponseMapper.
+    @Query("SELECT i.pedido.id, " + NUEVO_ITEM_RESPONSE + " " +
+            "FROM ItemPedido i JOIN i.producto pr WHERE i.pedido.id IN :ids ORDER BY i.pedido.id, i.id")
+    List<Object[]> proyectarItems(@Param("ids") Collection<Long> ids);
+
+    // ===============================================
+    // TRANSICIÓN DE ESTADO (RN2) COMO COMPARE-AND-SET
+    // ===============================================
+
+    // Un solo UPDATE condicionado al estado actual: solo cambia si el pedido sigue en uno de los
+    // estados predecesores. Devuelve 0 si no existe o si otra transición ganó la carrera.
+    // Es nativo para renovar cambio_seq con NEXT VALUE FOR (feed de cambios), que JPQL no admite.
+    // HINT_NATIVE_SPACES: sin declarar la tabla afectada, Hibernate trata un UPDATE nativo como
+    // si tocara todas y vacía todas las regiones de la caché de segundo nivel (cliente, factura).
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "pedido"))
+    @Query(value = "UPDATE pedido SET estado = :nuevoEstado, version = version + 1, " +
+            "cambio_seq = NEXT VALUE FOR pedido_cambio_seq, cambiado_en = :ahora " +
+            "WHERE id = :id AND estado IN (:predecesores)", nativeQuery = true)
+    int transicionarEstado(@Param("id") Long id,
+                           @Param("nuevoEstado") String nuevoEstado,
+                           @Param("predecesores") Collection<String> predecesores,
+                           @Param("ahora") LocalDateTime ahora);
+
+    default int transicionarEstado(Long id, EstadoPedido nuevoEstado, Collection<EstadoPedido> predecesores) {
+        return transicionarEstado(id, nuevoEstado.name(), nombres(predecesores), LocalDateTime.now());
+    }
+
+    // Variante por lotes (PATCH /api/pedidos/estado): un solo UPDATE para todos los IDs
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "pedido"))
+    @Query(value = "UPDATE pedido SET estado = :nuevoEstado, version = version + 1, " +
+            "cambio_seq = NEXT VALUE FOR pedido_cambio_seq, cambiado_en = :ahora " +
+            "WHERE id IN (:ids) AND estado IN (:predecesores)", nativeQuery = true)
+    int transicionarEstados(@Param("ids") Collection<Long> ids,
+                            @Param("nuevoEstado") String nuevoEstado,
+                            @Param("predecesores") Collection<String> predecesores,
+                            @Param("ahora") LocalDateTime ahora);
+
+    default int transicionarEstados(Collection<Long> ids, EstadoPedido nuevoEstado, Collection<EstadoPedido> predecesores) {
+        return transicionarEstados(ids, nuevoEstado.name(), nombres(predecesores), LocalDateTime.now());
+    }
+
+    private static List<String> nombres(Collection<EstadoPedido> estados) {
+        return estados.stream().map(Enum::name).toList();
+    }
+
+    // [id, estado] de los pedidos indicados, bloqueados hasta el fin de la transacción para que el
+    // UPDATE por lotes afecte exactamente a los que se clasificaron como válidos.
+    // ORDER BY id: dos lotes simultáneos bloquean en el mismo orden (sin interbloqueos).
+    @Query(value = "SELECT id, estado FROM pedido WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Object[]> bloquearEstados(@Param("ids") Collection<Long> ids);
+
+    // Solo el estado, para diagnosticar un UPDATE que no afectó filas
+    @Query("SELECT p.estado FROM Pedido p WHERE p.id = :id")
+    Optional<EstadoPedido> buscarEstadoPorId(@Param("id") Long id);
+
+    // ===============================================
+    // FEED DE CAMBIOS (GET /api/pedidos/cambios)
+    // Recorre idx_pedido_cambio_seq desde el cursor: el costo depende de los cambios, no del tamaño de la tabla.
+    // ===============================================
+
+    @EntityGraph(attributePaths = {"cliente"})
+    @Query("SELECT p FROM Pedido p WHERE p.cambioSeq > :desde AND p.cambiadoEn < :limite ORDER BY p.cambioSeq")
+    List<Pedido> buscarCambiosDesde(@Param("desde") long desde,
+                                    @Param("limite") LocalDateTime limite,
+                                    Limit limit);
+
+    // ===============================================
+    // EXPORTACIÓN (GET /api/pedidos/exportacion)
+    // Una fila por ítem, ordenadas por pedido: se recorren con un cursor (fetch size) y se agrupan
+    // al vuelo. Son proyecciones, no entidades: el contexto de persistencia no crece.
+    // ===============================================
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository$FilaExportacion(" +
+            "p.id, c.id, c.nombre, p.fechaHora, p.estado, p.tipoEntrega, p.direccionEntrega, p.total, " +
+            "pr.nombre, i.cantidad, i.precioUnitario) " +
+            "FROM Pedido p JOIN p.cliente c LEFT JOIN p.items i LEFT JOIN i.producto pr " +
+            "ORDER BY p.id, i.id")
+    Stream<FilaExportacion> exportarConItems();
+
+    // Un ítem de un pedido (sin ítems, los campos del ítem llegan en null)
+    record FilaExportacion(Long pedidoId, Long clienteId, String nombreCliente, LocalDateTime fechaHora,
+                           EstadoPedido estado, String tipoEntrega, String direccionEntrega, BigDecimal total,
+                           String nombreProducto, Integer cantidad, BigDecimal precioUnitario) {
+    }
+}
@@ -1,6 +1,25 @@
 package pe.gob.pj.springrest.infraestructure.persistence;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import pe.gob.pj.springrest.domain.model.Producto;
 
-public interface ProductoRepository extends JpaRepository<Producto, Long> {}
\ No newline at end of file
+public interface ProductoRepository extends JpaRepository<Producto, Long> {
+
+    /**
+     * Resumen de la tabla producto con el que CatalogoProductoService detecta cambios hechos en
+     * otros nodos: un INSERT sube el máximo ID (AUTO_INCREMENT no reutiliza IDs), un UPDATE sube
+     * la suma de versiones y un DELETE baja la cantidad.
+     */
+    interface Huella {
+        Long getCantidad();
+
+        Long getMaximoId();
+
+        Long getSumaVersiones();
+    }
+
+    @Query("SELECT COUNT(p) AS cantidad, COALESCE(MAX(p.id), 0) AS maximoId, "
+            + "COALESCE(SUM(p.version), 0) AS sumaVersiones FROM Producto p")
+    Huella huella();
+}
@@ -0,0 +1,48 @@
+package pe.gob.pj.springrest.infraestructure.sql;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Estadísticas de SQL por solicitud (pedidos.sql.estadisticas=true, por defecto): el DataSource
+ * se envuelve en un EstadisticasSqlDataSource y cada solicitud HTTP abre su medición
+ * (EstadisticasSqlFilter).
+ */
+@Configuration
+@ConditionalOnProperty(name = "pedidos.sql.estadisticas", havingValue = "true", matchIfMissing = true)
+public class EstadisticasSqlConfig {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EstadisticasSqlConfig.class);
+
+    // static: los BeanPostProcessor deben registrarse antes que el resto de beans
+    @Bean
+    public static BeanPostProcessor estadisticasSqlPostProcessor(Environment env) {
+        long sentenciaLentaMs = env.getProperty("pedidos.sql.sentencia-lenta-ms", Long.class, 200L);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof EstadisticasSqlDataSource)) {
+                    LOG.info("Estadísticas de SQL activas en el DataSource '{}' (sentencia lenta: {} ms).", beanName, sentenciaLentaMs);
+                    return new EstadisticasSqlDataSource(dataSource, sentenciaLentaMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public EstadisticasSqlFilter estadisticasSqlFilter(EstadisticasSqlPorEndpoint porEndpoint,
+                                                       @Value("${pedidos.sql.presupuesto-sentencias:20}") int presupuestoSentencias,
+                                                       @Value("${pedidos.sql.presupuesto-ms:500}") long presupuestoMs) {
+        return new EstadisticasSqlFilter(porEndpoint, presupuestoSentencias, presupuestoMs);
+    }
+}
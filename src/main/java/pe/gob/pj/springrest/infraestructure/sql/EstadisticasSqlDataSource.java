@@ -0,0 +1,138 @@
+package pe.gob.pj.springrest.infraestructure.sql;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataSource que mide cada sentencia JDBC: la cuenta (una por execute*, un batch es una sola),
+ * suma su tiempo y las filas leídas (next() del ResultSet) o afectadas (update count) en la
+ * MedicionSql del hilo actual, si hay una abierta. Las sentencias que superan
+ * pedidos.sql.sentencia-lenta-ms se registran en el log con su SQL.
+ * Reemplaza a spring.jpa.show-sql: no escribe nada por sentencia salvo las lentas.
+ */
+public class EstadisticasSqlDataSource extends DelegatingDataSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EstadisticasSqlDataSource.class);
+
+    private final long sentenciaLentaNanos;
+
+    public EstadisticasSqlDataSource(DataSource destino, long sentenciaLentaMs) {
+        super(destino);
+        this.sentenciaLentaNanos = TimeUnit.MILLISECONDS.toNanos(sentenciaLentaMs);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return conexion(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return conexion(super.getConnection(username, password));
+    }
+
+    private Connection conexion(Connection conexion) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object resultado = invocar(conexion, method, args);
+                    // createStatement, prepareStatement, prepareCall
+                    if (resultado instanceof Statement sentencia) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : null;
+                        return sentencia(sentencia, method.getReturnType(), sql);
+                    }
+                    return resultado;
+                });
+    }
+
+    private Object sentencia(Statement sentencia, Class<?> tipo, String sqlPreparado) {
+        Class<?> interfaz = CallableStatement.class.isAssignableFrom(tipo) ? CallableStatement.class
+                : PreparedStatement.class.isAssignableFrom(tipo) ? PreparedStatement.class
+                : Statement.class;
+        return Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{interfaz},
+                (proxy, method, args) -> {
+                    String nombre = method.getName();
+                    if (!nombre.startsWith("execute")) {
+                        Object resultado = invocar(sentencia, method, args);
+                        return resultado instanceof ResultSet filas && "getResultSet".equals(nombre) ? resultados(filas) : resultado;
+                    }
+
+                    long inicio = System.nanoTime();
+                    Object resultado = invocar(sentencia, method, args);
+                    long duracion = System.nanoTime() - inicio;
+
+                    MedicionSql medicion = MedicionSql.actual();
+                    if (medicion != null) {
+                        medicion.registrarSentencia(duracion, filasAfectadas(resultado));
+                    }
+                    if (duracion > sentenciaLentaNanos) {
+                        String sql = sqlPreparado != null ? sqlPreparado
+                                : args != null && args.length > 0 && args[0] instanceof String texto ? texto : "(batch)";
+                        LOG.warn("Sentencia SQL lenta ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(duracion), sql);
+                    }
+                    return resultado instanceof ResultSet filas ? resultados(filas) : resultado;
+                });
+    }
+
+    // Cuenta las filas a medida que se leen
+    private static ResultSet resultados(ResultSet resultSet) {
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    Object resultado = invocar(resultSet, method, args);
+                    if (Boolean.TRUE.equals(resultado) && "next".equals(method.getName())) {
+                        MedicionSql medicion = MedicionSql.actual();
+                        if (medicion != null) {
+                            medicion.registrarFila();
+                        }
+                    }
+                    return resultado;
+                });
+    }
+
+    // executeUpdate/executeLargeUpdate y executeBatch; las consultas suman filas al leerlas
+    private static long filasAfectadas(Object resultado) {
+        if (resultado instanceof Integer filas) {
+            return Math.max(filas, 0);
+        }
+        if (resultado instanceof Long filas) {
+            return Math.max(filas, 0);
+        }
+        long total = 0;
+        if (resultado instanceof int[] lote) {
+            for (int filas : lote) {
+                total += Math.max(filas, 0); // SUCCESS_NO_INFO (-2) no suma
+            }
+        } else if (resultado instanceof long[] lote) {
+            for (long filas : lote) {
+                total += Math.max(filas, 0);
+            }
+        }
+        return total;
+    }
+
+    private static Object invocar(Object destino, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package pe.gob.pj.springrest.infraestructure.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Abre una MedicionSql por solicitud HTTP. Al terminar la acumula por endpoint y registra en el
+ * log las solicitudes que superan el presupuesto de sentencias o de tiempo de BD. El encabezado
+ * Server-Timing se agrega antes de escribir el cuerpo (ServerTimingAdvice), o aquí si la
+ * respuesta no tiene cuerpo.
+ */
+public class EstadisticasSqlFilter extends OncePerRequestFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EstadisticasSqlFilter.class);
+
+    public static final String ATRIBUTO_MEDICION = EstadisticasSqlFilter.class.getName() + ".medicion";
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private final EstadisticasSqlPorEndpoint porEndpoint;
+    private final int presupuestoSentencias;
+    private final long presupuestoMs;
+
+    public EstadisticasSqlFilter(EstadisticasSqlPorEndpoint porEndpoint, int presupuestoSentencias, long presupuestoMs) {
+        this.porEndpoint = porEndpoint;
+        this.presupuestoSentencias = presupuestoSentencias;
+        this.presupuestoMs = presupuestoMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        MedicionSql medicion = MedicionSql.iniciar();
+        request.setAttribute(ATRIBUTO_MEDICION, medicion);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            medicion.finalizar();
+            if (!response.isCommitted()) {
+                response.setHeader(SERVER_TIMING, medicion.serverTiming());
+            }
+
+            String endpoint = endpoint(request);
+            boolean excedida = medicion.getSentencias() > presupuestoSentencias || medicion.getMilisegundos() > presupuestoMs;
+            porEndpoint.registrar(endpoint, medicion, excedida);
+            if (excedida) {
+                LOG.warn("{} superó el presupuesto de SQL ({} sentencias / {} ms): {} sentencias, {} filas, {} ms.",
+                        endpoint, presupuestoSentencias, presupuestoMs,
+                        medicion.getSentencias(), medicion.getFilas(), Math.round(medicion.getMilisegundos()));
+            }
+        }
+    }
+
+    // Patrón de la ruta que atendió la solicitud; sin él, la URL crearía una entrada por ID
+    private static String endpoint(HttpServletRequest request) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (patron != null ? patron : "(sin ruta)");
+    }
+}
@@ -0,0 +1,88 @@
+package pe.gob.pj.springrest.infraestructure.sql;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totales de SQL por endpoint (método + patrón de ruta, p. ej. "GET /api/pedidos/{id}"), para
+ * encontrar los que más sentencias o tiempo de BD consumen (GET /api/admin/sql/endpoints).
+ * La clave es el patrón y no la URL, así que la cantidad de entradas está acotada por las rutas.
+ */
+@Component
+public class EstadisticasSqlPorEndpoint {
+
+    /**
+     * Criterio de orden del ranking.
+     */
+    public enum Orden {
+        SENTENCIAS, TIEMPO, PROMEDIO_SENTENCIAS, EXCEDIDAS
+    }
+
+    /**
+     * Totales de un endpoint desde el arranque (o el último reinicio).
+     */
+    public record Resumen(String endpoint, long solicitudes, long sentencias, long filas, double tiempoMs,
+                          double promedioSentencias, long maximoSentencias, double maximoTiempoMs,
+                          long excedidas) {
+    }
+
+    private static final class Acumulado {
+        final LongAdder solicitudes = new LongAdder();
+        final LongAdder sentencias = new LongAdder();
+        final LongAdder filas = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAdder excedidas = new LongAdder();
+        final AtomicLong maximoSentencias = new AtomicLong();
+        final AtomicLong maximoNanos = new AtomicLong();
+    }
+
+    private final Map<String, Acumulado> endpoints = new ConcurrentHashMap<>();
+
+    public void registrar(String endpoint, MedicionSql medicion, boolean excedida) {
+        Acumulado acumulado = endpoints.computeIfAbsent(endpoint, e -> new Acumulado());
+        acumulado.solicitudes.increment();
+        acumulado.sentencias.add(medicion.getSentencias());
+        acumulado.filas.add(medicion.getFilas());
+        acumulado.nanos.add(medicion.getNanos());
+        if (excedida) {
+            acumulado.excedidas.increment();
+        }
+        acumulado.maximoSentencias.accumulateAndGet(medicion.getSentencias(), Math::max);
+        acumulado.maximoNanos.accumulateAndGet(medicion.getNanos(), Math::max);
+    }
+
+    /**
+     * Los endpoints con mayor valor según el orden indicado.
+     */
+    public List<Resumen> top(Orden orden, int limite) {
+        Comparator<Resumen> criterio = switch (orden) {
+            case SENTENCIAS -> Comparator.comparingLong(Resumen::sentencias);
+            case TIEMPO -> Comparator.comparingDouble(Resumen::tiempoMs);
+            case PROMEDIO_SENTENCIAS -> Comparator.comparingDouble(Resumen::promedioSentencias);
+            case EXCEDIDAS -> Comparator.comparingLong(Resumen::excedidas);
+        };
+        return endpoints.entrySet().stream()
+                .map(e -> resumen(e.getKey(), e.getValue()))
+                .sorted(criterio.reversed())
+                .limit(limite)
+                .toList();
+    }
+
+    public void limpiar() {
+        endpoints.clear();
+    }
+
+    private static Resumen resumen(String endpoint, Acumulado a) {
+        long solicitudes = a.solicitudes.sum();
+        long sentencias = a.sentencias.sum();
+        return new Resumen(endpoint, solicitudes, sentencias, a.filas.sum(), a.nanos.sum() / 1_000_000.0,
+                solicitudes == 0 ? 0 : (double) sentencias / solicitudes,
+                a.maximoSentencias.get(), a.maximoNanos.get() / 1_000_000.0, a.excedidas.sum());
+    }
+}
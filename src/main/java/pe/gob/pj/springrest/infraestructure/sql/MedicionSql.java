@@ -0,0 +1,86 @@
+package pe.gob.pj.springrest.infraestructure.sql;
+
+import java.util.Locale;
+
+/**
+ * Sentencias, filas y tiempo JDBC acumulados por el hilo actual entre iniciar() y finalizar().
+ * EstadisticasSqlFilter abre una medición por solicitud HTTP; las pruebas pueden abrir otra
+ * alrededor de una operación (se anidan: al finalizar, lo medido se suma a la medición externa).
+ */
+public final class MedicionSql {
+
+    private static final ThreadLocal<MedicionSql> ACTUAL = new ThreadLocal<>();
+
+    private final MedicionSql externa;
+    private int sentencias;
+    private long filas;
+    private long nanos;
+
+    private MedicionSql(MedicionSql externa) {
+        this.externa = externa;
+    }
+
+    /**
+     * Abre una medición en el hilo actual.
+     */
+    public static MedicionSql iniciar() {
+        MedicionSql medicion = new MedicionSql(ACTUAL.get());
+        ACTUAL.set(medicion);
+        return medicion;
+    }
+
+    // Medición abierta en el hilo actual, o null
+    static MedicionSql actual() {
+        return ACTUAL.get();
+    }
+
+    /**
+     * Cierra la medición y restaura la externa (si existe), sumándole lo medido.
+     */
+    public void finalizar() {
+        if (ACTUAL.get() != this) {
+            return;
+        }
+        if (externa == null) {
+            ACTUAL.remove();
+        } else {
+            ACTUAL.set(externa);
+            externa.sentencias += sentencias;
+            externa.filas += filas;
+            externa.nanos += nanos;
+        }
+    }
+
+    void registrarSentencia(long duracionNanos, long filasAfectadas) {
+        sentencias++;
+        nanos += duracionNanos;
+        filas += filasAfectadas;
+    }
+
+    void registrarFila() {
+        filas++;
+    }
+
+    public int getSentencias() {
+        return sentencias;
+    }
+
+    public long getFilas() {
+        return filas;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public double getMilisegundos() {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Valor del encabezado Server-Timing (métrica "db"), visible en las herramientas del navegador.
+     */
+    public String serverTiming() {
+        return String.format(Locale.ROOT, "db;dur=%.2f;desc=\"%d sentencias, %d filas\"", getMilisegundos(), sentencias, filas);
+    }
+}
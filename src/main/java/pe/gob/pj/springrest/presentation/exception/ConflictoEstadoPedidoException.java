@@ -0,0 +1,11 @@
+package pe.gob.pj.springrest.presentation.exception;
+
+/**
+ * Excepción lanzada cuando el estado actual de un Pedido no permite la transición solicitada
+ * (RN2), por ejemplo porque otra actualización simultánea lo cambió primero.
+ */
+public class ConflictoEstadoPedidoException extends RuntimeException {
+    public ConflictoEstadoPedidoException(String mensaje) {
+        super(mensaje);
+    }
+}
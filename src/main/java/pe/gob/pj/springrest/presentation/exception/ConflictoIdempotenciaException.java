@@ -0,0 +1,11 @@
+package pe.gob.pj.springrest.presentation.exception;
+
+/**
+ * Excepción lanzada cuando una Idempotency-Key no puede resolverse: se reutilizó con otro cuerpo
+ * de solicitud, o la solicitud original sigue en curso tras la espera máxima.
+ */
+public class ConflictoIdempotenciaException extends RuntimeException {
+    public ConflictoIdempotenciaException(String mensaje) {
+        super(mensaje);
+    }
+}
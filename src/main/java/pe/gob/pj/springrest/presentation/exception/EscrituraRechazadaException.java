@@ -0,0 +1,20 @@
+package pe.gob.pj.springrest.presentation.exception;
+
+/**
+ * Excepción lanzada cuando el límite adaptativo de escrituras en curso está completo; se mapea a
+ * HTTP 503 con Retry-After. La lanza AdmisionEscritura, para las escrituras que toman su permiso
+ * dentro del controlador en lugar de en LimitadorEscrituraFilter.
+ */
+public class EscrituraRechazadaException extends RuntimeException {
+
+    private final long reintentarEnSegundos;
+
+    public EscrituraRechazadaException(String mensaje, long reintentarEnSegundos) {
+        super(mensaje);
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
@@ -1,7 +1,9 @@
 package pe.gob.pj.springrest.presentation.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -78,6 +80,63 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, status);
     }
 
+    /**
+     * Maneja ConflictoIdempotenciaException, mapeándola a HTTP 409 Conflict: la Idempotency-Key
+     * se reutilizó con otro cuerpo, o la solicitud original aún no termina.
+     */
+    @ExceptionHandler(ConflictoIdempotenciaException.class)
+    public ResponseEntity<ErrorResponse> handleConflictoIdempotencia(ConflictoIdempotenciaException ex, WebRequest request) {
+        HttpStatus status = HttpStatus.CONFLICT;
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                status,
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, status);
+    }
+
+    /**
+     * Maneja ConflictoEstadoPedidoException, mapeándola a HTTP 409 Conflict: el estado actual
+     * del pedido no permite la transición (RN2), p. ej. otra actualización se aplicó primero.
+     * Incluye los conflictos de bloqueo optimista (@Version) al guardar un pedido modificado.
+     */
+    @ExceptionHandler({ConflictoEstadoPedidoException.class, ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<ErrorResponse> handleConflictoEstado(RuntimeException ex, WebRequest request) {
+        HttpStatus status = HttpStatus.CONFLICT;
+
+        String mensaje = ex instanceof ConflictoEstadoPedidoException
+                ? ex.getMessage()
+                : "El recurso fue modificado por otra solicitud. Vuelva a consultarlo e intente de nuevo.";
+        ErrorResponse errorResponse = new ErrorResponse(
+                status,
+                mensaje,
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return new ResponseEntity<>(errorResponse, status);
+    }
+
+    /**
+     * Maneja EscrituraRechazadaException, mapeándola a HTTP 503 Service Unavailable con
+     * Retry-After: hay demasiadas escrituras en curso (LimitadorAdaptativo).
+     */
+    @ExceptionHandler(EscrituraRechazadaException.class)
+    public ResponseEntity<ErrorResponse> handleEscrituraRechazada(EscrituraRechazadaException ex, WebRequest request) {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                status,
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getReintentarEnSegundos()))
+                .body(errorResponse);
+    }
+
     // --- Manejador genérico para cualquier otra excepción no manejada ---
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex, WebRequest request) {
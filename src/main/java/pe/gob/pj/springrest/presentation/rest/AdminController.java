@@ -0,0 +1,137 @@
+package pe.gob.pj.springrest.presentation.rest;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import pe.gob.pj.springrest.application.service.ClienteService;
+import pe.gob.pj.springrest.application.service.EventosPedidoService;
+import pe.gob.pj.springrest.infraestructure.cache.CacheRespuestasPedido;
+import pe.gob.pj.springrest.infraestructure.cache.CacheSegundoNivel;
+import pe.gob.pj.springrest.infraestructure.config.RutaLecturaReplica;
+import pe.gob.pj.springrest.infraestructure.limitador.LimitadorAdaptativo;
+import pe.gob.pj.springrest.infraestructure.sql.EstadisticasSqlPorEndpoint;
+import pe.gob.pj.springrest.presentation.exception.RecursoNoEncontradoException;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoints de diagnóstico para operación (cachés, estadísticas).
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final CacheRespuestasPedido cacheRespuestas;
+    private final EventosPedidoService eventosPedido;
+    private final EstadisticasSqlPorEndpoint sqlPorEndpoint;
+    private final ClienteService clienteService;
+    private final CacheSegundoNivel cacheSegundoNivel;
+    private final ObjectProvider<RutaLecturaReplica> rutaLecturaReplica;
+    private final ObjectProvider<LimitadorAdaptativo> limitadorEscritura;
+
+    public AdminController(CacheRespuestasPedido cacheRespuestas, EventosPedidoService eventosPedido,
+                           EstadisticasSqlPorEndpoint sqlPorEndpoint, ClienteService clienteService,
+                           CacheSegundoNivel cacheSegundoNivel, ObjectProvider<RutaLecturaReplica> rutaLecturaReplica,
+                           ObjectProvider<LimitadorAdaptativo> limitadorEscritura) {
+        this.cacheRespuestas = cacheRespuestas;
+        this.eventosPedido = eventosPedido;
+        this.sqlPorEndpoint = sqlPorEndpoint;
+        this.clienteService = clienteService;
+        this.cacheSegundoNivel = cacheSegundoNivel;
+        this.rutaLecturaReplica = rutaLecturaReplica;
+        this.limitadorEscritura = limitadorEscritura;
+    }
+
+    /**
+     * GET /api/admin/cache/respuestas-pedido
+     * Aciertos, fallos, desalojos y ocupación de la caché de pedidos finalizados.
+     */
+    @GetMapping("/cache/respuestas-pedido")
+    public ResponseEntity<CacheRespuestasPedido.Estadisticas> estadisticasCacheRespuestas() {
+        return ResponseEntity.ok(cacheRespuestas.estadisticas());
+    }
+
+    /**
+     * GET /api/admin/cache/clientes-telefono
+     * Aciertos, clientes registrados por teléfono y ocupación de la caché teléfono → cliente.
+     */
+    @GetMapping("/cache/clientes-telefono")
+    public ResponseEntity<ClienteService.Estadisticas> estadisticasCacheClientes() {
+        return ResponseEntity.ok(clienteService.estadisticas());
+    }
+
+    /**
+     * GET /api/admin/cache/segundo-nivel
+     * Por región de la caché de segundo nivel de Hibernate (cliente, factura): aciertos, fallos,
+     * escrituras, tasa de aciertos y entidades en memoria, acumulados desde el arranque.
+     */
+    @GetMapping("/cache/segundo-nivel")
+    public ResponseEntity<List<CacheSegundoNivel.Region>> estadisticasCacheSegundoNivel() {
+        return ResponseEntity.ok(cacheSegundoNivel.estadisticas());
+    }
+
+    /**
+     * GET /api/admin/bd/replica
+     * Estado de la réplica de lectura (disponible, último retraso medido) y transacciones de solo
+     * lectura atendidas por la réplica o por la primaria. 404 si la réplica no está habilitada.
+     */
+    @GetMapping("/bd/replica")
+    public ResponseEntity<RutaLecturaReplica.Estado> estadoReplica() {
+        RutaLecturaReplica ruta = rutaLecturaReplica.getIfAvailable();
+        if (ruta == null) {
+            throw new RecursoNoEncontradoException("La réplica de lectura no está habilitada (pedidos.bd.replica.habilitada).");
+        }
+        return ResponseEntity.ok(ruta.estado());
+    }
+
+    /**
+     * GET /api/admin/limitador-escritura
+     * Límite adaptativo de escrituras en curso, latencias que lo ajustan y solicitudes admitidas
+     * y rechazadas (503). 404 si el limitador no está habilitado.
+     */
+    @GetMapping("/limitador-escritura")
+    public ResponseEntity<LimitadorAdaptativo.Estado> estadoLimitadorEscritura() {
+        LimitadorAdaptativo limitador = limitadorEscritura.getIfAvailable();
+        if (limitador == null) {
+            throw new RecursoNoEncontradoException("El limitador de escrituras no está habilitado (pedidos.limitador-escritura.habilitado).");
+        }
+        return ResponseEntity.ok(limitador.estado());
+    }
+
+    /**
+     * GET /api/admin/eventos
+     * Suscriptores SSE conectados, último ID publicado y suscriptores descartados por lentitud.
+     */
+    @GetMapping("/eventos")
+    public ResponseEntity<Map<String, Long>> estadisticasEventos() {
+        return ResponseEntity.ok(eventosPedido.estadisticas());
+    }
+
+    /**
+     * GET /api/admin/sql/endpoints?orden=SENTENCIAS&limite=10
+     * Endpoints que más SQL ejecutan: sentencias, filas y tiempo de BD acumulados, máximos por
+     * solicitud y solicitudes que superaron el presupuesto (orden: SENTENCIAS, TIEMPO,
+     * PROMEDIO_SENTENCIAS o EXCEDIDAS).
+     */
+    @GetMapping("/sql/endpoints")
+    public ResponseEntity<List<EstadisticasSqlPorEndpoint.Resumen>> estadisticasSql(
+            @RequestParam(defaultValue = "SENTENCIAS") EstadisticasSqlPorEndpoint.Orden orden,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(sqlPorEndpoint.top(orden, Math.max(1, limite)));
+    }
+
+    /**
+     * DELETE /api/admin/sql/endpoints
+     * Reinicia los totales (p. ej. antes de medir una prueba de carga).
+     */
+    @DeleteMapping("/sql/endpoints")
+    public ResponseEntity<Void> reiniciarEstadisticasSql() {
+        sqlPorEndpoint.limpiar();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -3,14 +3,27 @@ package pe.gob.pj.springrest.presentation.rest;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import pe.gob.pj.springrest.application.dto.EliminacionFacturasResponse;
+import pe.gob.pj.springrest.application.dto.ResultadoImportacionFacturasResponse;
+import pe.gob.pj.springrest.application.dto.ResultadoLoteFacturasResponse;
+import pe.gob.pj.springrest.application.service.ExportacionService;
+import pe.gob.pj.springrest.application.service.FacturaImportacionService;
+import pe.gob.pj.springrest.application.service.FacturaImportacionService.Formato;
+import pe.gob.pj.springrest.application.service.FacturaLoteService;
 import pe.gob.pj.springrest.application.service.FacturaService;
 import pe.gob.pj.springrest.domain.model.Factura;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +35,9 @@ public class FacturaController {
     private static final Logger LOG = LoggerFactory.getLogger(FacturaController.class);
 
     private final FacturaService service;
+    private final FacturaLoteService loteService;
+    private final FacturaImportacionService importacionService;
+    private final ExportacionService exportacionService;
 
     // 1. READ ALL (GET /facturas)
     @GetMapping
@@ -89,4 +105,44 @@ public class FacturaController {
         // El @ControllerAdvice maneja la excepción si el 'numero' no existe y devuelve 404.
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // 6. BULK UPSERT (POST /facturas/lote)
+    @PostMapping("/lote")
+    public ResponseEntity<ResultadoLoteFacturasResponse> guardarLote(@RequestBody List<Factura> facturas) {
+        LOG.info("REST request to upsert {} Facturas", facturas.size());
+
+        // Las facturas se validan en el servicio; un lote inválido devuelve 400 sin escribir nada
+        return ResponseEntity.ok(loteService.guardarLote(facturas));
+    }
+
+    // 7. BULK DELETE (DELETE /facturas?desde=&hasta=)
+    @DeleteMapping(params = {"desde", "hasta"})
+    public ResponseEntity<EliminacionFacturasResponse> eliminarRango(@RequestParam Integer desde, @RequestParam Integer hasta) {
+        LOG.info("REST request to delete Facturas from {} to {}", desde, hasta);
+
+        // Devuelve 200 OK con la cantidad de filas eliminadas (0 si el rango estaba vacío)
+        return ResponseEntity.ok(new EliminacionFacturasResponse(service.eliminarRango(desde, hasta)));
+    }
+
+    // 8. IMPORT (POST /facturas/importacion), archivo CSV o NDJSON en el cuerpo
+    @PostMapping(value = "/importacion", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ResultadoImportacionFacturasResponse> importar(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String tipoContenido, InputStream cuerpo) {
+        Formato formato = MediaType.parseMediaType(tipoContenido).getSubtype().equals("csv") ? Formato.CSV : Formato.NDJSON;
+        LOG.info("REST request to import Facturas ({})", formato);
+
+        // El cuerpo se procesa a medida que llega; las líneas inválidas se informan en el resumen
+        return ResponseEntity.ok(importacionService.importar(cuerpo, formato));
+    }
+
+    // 9. EXPORT (GET /facturas/exportacion), NDJSON escrito a medida que se lee de la BD
+    @GetMapping(value = "/exportacion", produces = SalidaNdjson.NDJSON)
+    public void exportar(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String aceptaCodificacion,
+                         HttpServletResponse response) throws IOException {
+        LOG.info("REST request to export Facturas");
+
+        try (OutputStream salida = SalidaNdjson.abrir(response, aceptaCodificacion, "facturas.ndjson")) {
+            exportacionService.exportarFacturas(salida);
+        }
+    }
+}
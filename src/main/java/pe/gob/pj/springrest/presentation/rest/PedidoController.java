@@ -1,64 +1,154 @@
 package pe.gob.pj.springrest.presentation.rest;
 
+import pe.gob.pj.springrest.application.dto.ActualizarEstadoLoteRequest;
+import pe.gob.pj.springrest.application.dto.CambiosPedidoResponse;
 import pe.gob.pj.springrest.application.dto.CrearPedidoRequest;
+import pe.gob.pj.springrest.application.dto.PaginaPedidosResponse;
 import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import pe.gob.pj.springrest.application.dto.ResultadoEstadoLoteResponse;
+import pe.gob.pj.springrest.application.dto.ResultadoLoteResponse;
+import pe.gob.pj.springrest.application.service.CambiosPedidoService;
+import pe.gob.pj.springrest.application.service.EventosPedidoService;
+import pe.gob.pj.springrest.application.service.ExportacionService;
+import pe.gob.pj.springrest.application.service.IdempotenciaPedidoService;
+import pe.gob.pj.springrest.application.service.PedidoLoteService;
 import pe.gob.pj.springrest.application.service.PedidoService;
 import pe.gob.pj.springrest.domain.enums.EstadoPedido;
-import pe.gob.pj.springrest.domain.model.Cliente;
 import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.infraestructure.cache.CacheRespuestasPedido;
+import pe.gob.pj.springrest.infraestructure.limitador.AdmisionEscritura;
 import pe.gob.pj.springrest.infraestructure.mapper.PedidoMapper;
 import pe.gob.pj.springrest.infraestructure.mapper.PedidoResponseMapper;
 import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.FiltroPedidos;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
+
 
 @RestController
 @RequestMapping("/api/pedidos")
 public class PedidoController {
 
+    static final String ENCABEZADO_IDEMPOTENCIA = "Idempotency-Key";
+    static final String ENCABEZADO_REPETIDO = "Idempotent-Replayed";
+
     private final PedidoService pedidoService;
     private final PedidoMapper pedidoMapper;
     private final PedidoResponseMapper responseMapper; // Nuevo inyectado
     private final ClienteRepository clienteRepository;
+    private final PedidoLoteService pedidoLoteService;
+    private final IdempotenciaPedidoService idempotenciaPedidoService;
+    private final CacheRespuestasPedido cacheRespuestas;
+    private final EventosPedidoService eventosPedido;
+    private final CambiosPedidoService cambiosPedido;
+    private final ExportacionService exportacion;
+    private final int tamanoMaximoPagina;
+    private final int tamanoMaximoLoteEstado;
+    // Permiso de escritura de los POST con Idempotency-Key (sin limitador: no se usa)
+    private final ObjectProvider<AdmisionEscritura> admisionEscritura;
 
     public PedidoController(PedidoService pedidoService,
                             PedidoMapper pedidoMapper,
                             PedidoResponseMapper responseMapper, // Inyección en constructor
-                            ClienteRepository clienteRepository) {
+                            ClienteRepository clienteRepository,
+                            PedidoLoteService pedidoLoteService,
+                            IdempotenciaPedidoService idempotenciaPedidoService,
+                            CacheRespuestasPedido cacheRespuestas,
+                            EventosPedidoService eventosPedido,
+                            CambiosPedidoService cambiosPedido,
+                            ExportacionService exportacion,
+                            @Value("${pedidos.paginacion.tamano-maximo:100}") int tamanoMaximoPagina,
+                            @Value("${pedidos.estado-lote.tamano-maximo:500}") int tamanoMaximoLoteEstado,
+                            ObjectProvider<AdmisionEscritura> admisionEscritura) {
         this.pedidoService = pedidoService;
         this.pedidoMapper = pedidoMapper;
         this.responseMapper = responseMapper; // Asignación
         this.clienteRepository = clienteRepository;
+        this.pedidoLoteService = pedidoLoteService;
+        this.idempotenciaPedidoService = idempotenciaPedidoService;
+        this.cacheRespuestas = cacheRespuestas;
+        this.eventosPedido = eventosPedido;
+        this.cambiosPedido = cambiosPedido;
+        this.exportacion = exportacion;
+        this.tamanoMaximoPagina = tamanoMaximoPagina;
+        this.tamanoMaximoLoteEstado = tamanoMaximoLoteEstado;
+        this.admisionEscritura = admisionEscritura;
     }
 
     /**
      * HU4, HU5, HU6: Crea un nuevo Pedido (Aplicación de RN1, RN3, RN4).
      * Retorna PedidoResponse DTO.
+     * Con el encabezado Idempotency-Key, un reintento con la misma clave devuelve el pedido ya
+     * creado (marcado con Idempotent-Replayed: true) sin volver a crearlo.
      */
     @PostMapping
-    public ResponseEntity<PedidoResponse> crearPedido(@Valid @RequestBody CrearPedidoRequest request) {
+    public ResponseEntity<PedidoResponse> crearPedido(
+            @RequestHeader(value = ENCABEZADO_IDEMPOTENCIA, required = false) String claveIdempotencia,
+            @Valid @RequestBody CrearPedidoRequest request) {
 
-        Pedido pedido = pedidoMapper.toEntity(request);
+        if (claveIdempotencia == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(crear(request));
+        }
 
-        Cliente cliente = gestionarCliente(request);
-        pedido.setCliente(cliente);
+        // El permiso de escritura se toma solo si esta solicitud crea el pedido, no mientras
+        // espera el resultado de otra con la misma clave
+        AdmisionEscritura admision = admisionEscritura.getIfAvailable();
+        IdempotenciaPedidoService.Resultado resultado = idempotenciaPedidoService.crearPedido(claveIdempotencia, request,
+                () -> admision != null ? admision.ejecutar(() -> crear(request)) : crear(request));
 
-        Pedido pedidoCreado = pedidoService.crearPedido(pedido);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(ENCABEZADO_REPETIDO, String.valueOf(resultado.repetido()))
+                .body(resultado.pedido());
+    }
+
+    private PedidoResponse crear(CrearPedidoRequest request) {
+        Pedido pedido = pedidoMapper.toEntity(request);
+
+        // Sin clienteId, el pedido se asigna al cliente de su teléfono (se crea la primera vez, en la
+        // transacción del pedido)
+        Pedido pedidoCreado;
+        if (request.getClienteId() == null) {
+            pedidoCreado = pedidoService.crearPedidoAnonimo(pedido, request.getTelefonoCliente());
+        } else {
+            pedido.setCliente(clienteRepository.findById(request.getClienteId())
+                    .orElseThrow(() -> new IllegalArgumentException("Cliente ID no encontrado.")));
+            pedidoCreado = pedidoService.crearPedido(pedido);
+        }
 
         // Convertir la Entidad final a DTO de Respuesta
-        PedidoResponse response = responseMapper.toResponse(pedidoCreado);
+        return responseMapper.toResponse(pedidoCreado);
+    }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    /**
+     * POST /api/pedidos/lote
+     * Ingesta masiva de pedidos (call-center). Cada pedido se valida con las mismas reglas que
+     * POST /api/pedidos (RN1, RN3, RN4) y se informa su resultado individual: un pedido
+     * rechazado no impide crear los demás.
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<ResultadoLoteResponse> crearPedidosEnLote(@RequestBody List<CrearPedidoRequest> requests) {
+        ResultadoLoteResponse resultado = pedidoLoteService.crearPedidos(requests);
+        return ResponseEntity.ok(resultado);
     }
 
     /**
      * HU9: Actualiza el estado de un Pedido (Aplicación de RN2).
-     * Retorna PedidoResponse DTO.
+     * Retorna PedidoResponse DTO; 404 si no existe y 409 si su estado actual no permite la
+     * transición (p. ej. otra actualización simultánea se aplicó primero).
      */
     @PatchMapping("/{id}/estado")
     public ResponseEntity<PedidoResponse> actualizarEstado(
@@ -73,20 +163,21 @@ public class PedidoController {
         return ResponseEntity.ok(response);
     }
 
-    // Método auxiliar gestionarCliente (sin cambios)
-    private Cliente gestionarCliente(CrearPedidoRequest request) {
-        // ... (Implementación existente)
-        if (request.getClienteId() != null) {
-            return clienteRepository.findById(request.getClienteId())
-                    .orElseThrow(() -> new IllegalArgumentException("Cliente ID no encontrado."));
+    /**
+     * PATCH /api/pedidos/estado
+     * HU9 por lotes (tablero de cocina): lleva varios pedidos al mismo estado aplicando la RN2
+     * a cada uno. Responde 200 con los IDs movidos y los rechazados con su motivo.
+     */
+    @PatchMapping("/estado")
+    public ResponseEntity<ResultadoEstadoLoteResponse> actualizarEstadoEnLote(
+            @Valid @RequestBody ActualizarEstadoLoteRequest request) {
+        if (request.getIds().size() > tamanoMaximoLoteEstado) {
+            throw new IllegalArgumentException(String.format(
+                    "El lote admite como máximo %d pedidos (recibidos: %d).", tamanoMaximoLoteEstado, request.getIds().size()));
         }
 
-        return Cliente.builder()
-                .telefono(request.getTelefonoCliente())
-                .direccion(request.getDireccionEntrega())
-                .nombre("Cliente Temporal")
-                .email(null)
-                .build();
+        ResultadoEstadoLoteResponse resultado = pedidoService.actualizarEstadoPedidos(request.getIds(), request.getNuevoEstado());
+        return ResponseEntity.ok(resultado);
     }
 
     // ===============================================
@@ -96,20 +187,89 @@ public class PedidoController {
     /**
      * GET /api/pedidos/{id}
      * Busca un pedido por su ID. Devuelve 404 si no existe (manejo por GlobalExceptionHandler).
+     * Los pedidos en estado final (ENTREGADO, CANCELADO) se sirven desde el JSON en caché.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PedidoResponse> buscarPedidoPorId(@PathVariable Long id) {
-        PedidoResponse response = pedidoService.buscarPedidoPorId(id);
-        return ResponseEntity.ok(response); // HTTP 200 OK
+    public ResponseEntity<?> buscarPedidoPorId(@PathVariable Long id) {
+        byte[] json = cacheRespuestas.obtener(id);
+        if (json == null) {
+            PedidoResponse response = pedidoService.buscarPedidoPorId(id);
+            if (!response.getEstado().esFinal()) {
+                return ResponseEntity.ok(response); // HTTP 200 OK
+            }
+            json = cacheRespuestas.serializarYGuardar(response);
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
     }
 
     /**
-     * GET /api/pedidos
-     * Lista todos los pedidos existentes en el sistema.
+     * GET /api/pedidos?cursor=...&tamano=N
+     * Lista los pedidos paginados por cursor (del más reciente al más antiguo).
+     * El tamaño solicitado se acota a pedidos.paginacion.tamano-maximo.
      */
     @GetMapping
-    public ResponseEntity<List<PedidoResponse>> listarPedidos() {
-        List<PedidoResponse> responseList = pedidoService.listarTodosPedidos();
-        return ResponseEntity.ok(responseList); // HTTP 200 OK
+    public ResponseEntity<PaginaPedidosResponse> listarPedidos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int tamano) {
+        int tamanoPagina = Math.max(1, Math.min(tamano, tamanoMaximoPagina));
+        PaginaPedidosResponse pagina = pedidoService.listarPedidos(cursor, tamanoPagina);
+        return ResponseEntity.ok(pagina); // HTTP 200 OK
+    }
+
+    /**
+     * GET /api/pedidos/buscar?estado=...&clienteId=...&tipoEntrega=...&desde=...&hasta=...&cursor=...&tamano=N
+     * Busca pedidos con filtros opcionales, paginados por cursor como el listado. desde/hasta
+     * son fechas ISO (2025-01-31T00:00:00) y delimitan el rango [desde, hasta).
+     */
+    @GetMapping("/buscar")
+    public ResponseEntity<PaginaPedidosResponse> buscarPedidos(
+            @RequestParam(required = false) EstadoPedido estado,
+            @RequestParam(required = false) Long clienteId,
+            @RequestParam(required = false) String tipoEntrega,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int tamano) {
+        int tamanoPagina = Math.max(1, Math.min(tamano, tamanoMaximoPagina));
+        FiltroPedidos filtro = new FiltroPedidos(estado, clienteId, tipoEntrega, desde, hasta);
+        return ResponseEntity.ok(pedidoService.buscarPedidos(filtro, cursor, tamanoPagina));
+    }
+
+    /**
+     * GET /api/pedidos/cambios?desde=N&limite=M
+     * Feed de cambios para sincronización: pedidos creados o con cambio de estado después del
+     * cursor "desde". El consumidor guarda siguienteCursor y lo envía en la próxima llamada.
+     */
+    @GetMapping("/cambios")
+    public ResponseEntity<CambiosPedidoResponse> listarCambios(
+            @RequestParam(defaultValue = "0") long desde,
+            @RequestParam(defaultValue = "100") int limite) {
+        return ResponseEntity.ok(cambiosPedido.listarCambios(desde, limite));
+    }
+
+    /**
+     * GET /api/pedidos/exportacion (application/x-ndjson)
+     * Todos los pedidos con sus ítems, uno por línea, leídos con un cursor y escritos a medida que
+     * llegan (memoria constante). Con Accept-Encoding: gzip la salida se comprime.
+     */
+    @GetMapping(value = "/exportacion", produces = SalidaNdjson.NDJSON)
+    public void exportarPedidos(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String aceptaCodificacion,
+            HttpServletResponse response) throws IOException {
+        try (OutputStream salida = SalidaNdjson.abrir(response, aceptaCodificacion, "pedidos.ndjson")) {
+            exportacion.exportarPedidos(salida);
+        }
+    }
+
+    /**
+     * GET /api/pedidos/eventos (text/event-stream)
+     * Flujo de eventos de creación y cambio de estado, emitidos tras el commit.
+     * Al reconectar, el navegador envía Last-Event-ID y se reenvían los eventos perdidos; si el
+     * ID es de antes de un reinicio del servidor, recibe "reinicio" y recarga los pedidos.
+     */
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirEventos(
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+        return eventosPedido.suscribir(ultimoEventoId);
     }
 }
\ No newline at end of file
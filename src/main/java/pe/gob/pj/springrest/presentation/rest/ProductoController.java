@@ -0,0 +1,30 @@
+package pe.gob.pj.springrest.presentation.rest;
+
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.gob.pj.springrest.application.dto.ActualizarProductoRequest;
+import pe.gob.pj.springrest.application.service.CatalogoProductoService;
+import pe.gob.pj.springrest.domain.model.Producto;
+
+@RestController
+@RequestMapping("/api/productos")
+public class ProductoController {
+
+    private final CatalogoProductoService catalogoService;
+
+    public ProductoController(CatalogoProductoService catalogoService) {
+        this.catalogoService = catalogoService;
+    }
+
+    /**
+     * HU2: Actualiza el precio o marca un producto como agotado (RN1, RN4).
+     * El catálogo en memoria usado por los pedidos se renueva antes de responder.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Producto> actualizarProducto(@PathVariable Long id,
+                                                       @Valid @RequestBody ActualizarProductoRequest request) {
+        Producto producto = catalogoService.actualizarProducto(id, request);
+        return ResponseEntity.ok(producto);
+    }
+}
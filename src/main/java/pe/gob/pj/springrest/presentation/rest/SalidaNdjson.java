@@ -0,0 +1,33 @@
+package pe.gob.pj.springrest.presentation.rest;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Prepara la respuesta de un endpoint de exportación NDJSON: tipo de contenido y, si el cliente
+ * acepta gzip (Accept-Encoding), compresión al vuelo. Quien la abre debe cerrarla para terminar
+ * el flujo gzip.
+ */
+final class SalidaNdjson {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private SalidaNdjson() {
+    }
+
+    static OutputStream abrir(HttpServletResponse response, String aceptaCodificacion, String nombreArchivo) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + nombreArchivo + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (aceptaCodificacion != null && aceptaCodificacion.toLowerCase().contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return new GZIPOutputStream(response.getOutputStream(), 8192);
+        }
+        return response.getOutputStream();
+    }
+}
@@ -0,0 +1,36 @@
+package pe.gob.pj.springrest.presentation.rest;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import pe.gob.pj.springrest.infraestructure.sql.EstadisticasSqlFilter;
+import pe.gob.pj.springrest.infraestructure.sql.MedicionSql;
+
+/**
+ * Agrega Server-Timing (sentencias, filas y tiempo de BD de la solicitud) justo antes de escribir
+ * el cuerpo: para entonces la transacción del servicio ya terminó y los encabezados aún no se enviaron.
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(EstadisticasSqlFilter.ATRIBUTO_MEDICION) instanceof MedicionSql medicion) {
+            response.getHeaders().set(EstadisticasSqlFilter.SERVER_TIMING, medicion.serverTiming());
+        }
+        return body;
+    }
+}
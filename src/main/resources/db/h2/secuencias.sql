@@ -0,0 +1,3 @@
+-- Secuencias que el esquema generado por Hibernate (perfiles H2) necesita antes de crear las tablas:
+-- pedido.cambio_seq toma su DEFAULT de pedido_cambio_seq y Hibernate no exporta secuencias que no son de IDs.
+CREATE SEQUENCE IF NOT EXISTS pedido_cambio_seq START WITH 1 INCREMENT BY 1;
@@ -0,0 +1,49 @@
+-- ************************************************************
+-- MIGRACIÓN V2: IDs por secuencia con asignación por bloques (MariaDB 10.3+)
+-- ************************************************************
+-- Cliente, Pedido e ItemPedido dejan de usar AUTO_INCREMENT (GenerationType.IDENTITY)
+-- y pasan a secuencias con INCREMENT BY 50 (allocationSize = 50 en las entidades).
+-- Esto permite a Hibernate conocer los IDs sin ejecutar el INSERT y agruparlos en batches JDBC.
+--
+-- Se aplica UNA sola vez sobre una BD existente (perfil prod, spring.sql.init.mode=never).
+-- Para BD nuevas basta con schema.sql, que ya crea las secuencias.
+--
+-- Cada secuencia arranca por encima del MAX(id) actual (+ un bloque de margen), para que
+-- ningún ID asignado por Hibernate choque con filas existentes.
+--
+-- Las columnas id dejan de ser AUTO_INCREMENT: su contador no sabe de los bloques que Hibernate
+-- reserva y entregaría IDs ya asignados. Un INSERT manual sin ID toma el siguiente valor de la
+-- secuencia (DEFAULT NEXT VALUE FOR); Hibernate usa ese valor y los 49 anteriores solo cuando
+-- él mismo lo obtiene, así que el bloque de un valor tomado por un INSERT manual queda libre.
+-- Los INSERT con ID explícito deben usar NEXT VALUE FOR <tabla>_seq.
+
+CREATE SEQUENCE IF NOT EXISTS cliente_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS pedido_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_pedido_seq START WITH 1000 INCREMENT BY 50;
+
+-- ALTER SEQUENCE ... RESTART no admite subconsultas: se arma la sentencia dinámicamente.
+SET @inicio = (SELECT GREATEST(COALESCE(MAX(id), 0) + 50, 1000) FROM cliente);
+SET @sql = CONCAT('ALTER SEQUENCE cliente_seq RESTART WITH ', @inicio);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @inicio = (SELECT GREATEST(COALESCE(MAX(id), 0) + 50, 1000) FROM pedido);
+SET @sql = CONCAT('ALTER SEQUENCE pedido_seq RESTART WITH ', @inicio);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @inicio = (SELECT GREATEST(COALESCE(MAX(id), 0) + 50, 1000) FROM item_pedido);
+SET @sql = CONCAT('ALTER SEQUENCE item_pedido_seq RESTART WITH ', @inicio);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Con las secuencias ya por encima de los datos, se quita AUTO_INCREMENT.
+-- FOREIGN_KEY_CHECKS: cliente.id y pedido.id están referenciadas por pedido e item_pedido.
+SET FOREIGN_KEY_CHECKS = 0;
+ALTER TABLE cliente MODIFY id INT NOT NULL DEFAULT (NEXT VALUE FOR cliente_seq);
+ALTER TABLE pedido MODIFY id INT NOT NULL DEFAULT (NEXT VALUE FOR pedido_seq);
+ALTER TABLE item_pedido MODIFY id INT NOT NULL DEFAULT (NEXT VALUE FOR item_pedido_seq);
+SET FOREIGN_KEY_CHECKS = 1;
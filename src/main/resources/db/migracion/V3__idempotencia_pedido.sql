@@ -0,0 +1,15 @@
+-- ************************************************************
+-- MIGRACIÓN V3: registro compartido de Idempotency-Key (POST /api/pedidos)
+-- ************************************************************
+-- Solo es necesaria con pedidos.idempotencia.persistente=true (varios nodos).
+-- Se aplica UNA sola vez sobre una BD existente; para BD nuevas basta con schema.sql.
+CREATE TABLE IF NOT EXISTS idempotencia_pedido (
+    clave VARCHAR(100) PRIMARY KEY,
+    huella CHAR(64) NOT NULL,
+    pedido_id INT,
+    creado_en DATETIME NOT NULL,
+
+    FOREIGN KEY (pedido_id) REFERENCES pedido(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotencia_creado_en ON idempotencia_pedido (creado_en);
@@ -0,0 +1,6 @@
+-- ************************************************************
+-- MIGRACIÓN V4: bloqueo optimista en pedido (@Version)
+-- ************************************************************
+-- Las transiciones de estado (RN2) se aplican con un UPDATE condicionado al estado actual
+-- que además incrementa version. Los pedidos existentes empiezan en 0.
+ALTER TABLE pedido ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0 AFTER estado;
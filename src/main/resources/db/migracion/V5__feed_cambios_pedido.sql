@@ -0,0 +1,22 @@
+-- ************************************************************
+-- MIGRACIÓN V5: feed de cambios de pedidos (GET /api/pedidos/cambios)
+-- ************************************************************
+-- Cada INSERT de pedido toma el siguiente valor de pedido_cambio_seq por DEFAULT de la columna,
+-- y cada transición de estado lo renueva en el mismo UPDATE (ver PedidoRepository).
+-- Se aplica UNA sola vez sobre una BD existente (MariaDB 10.3+); para BD nuevas basta con schema.sql.
+CREATE SEQUENCE IF NOT EXISTS pedido_cambio_seq START WITH 1 INCREMENT BY 1;
+
+ALTER TABLE pedido
+    ADD COLUMN IF NOT EXISTS cambio_seq BIGINT NULL,
+    ADD COLUMN IF NOT EXISTS cambiado_en DATETIME(3) NULL;
+
+-- Los pedidos existentes entran al feed en orden de ID (una sola vez, en la primera sincronización)
+UPDATE pedido SET cambio_seq = NEXT VALUE FOR pedido_cambio_seq, cambiado_en = fecha_hora
+WHERE cambio_seq IS NULL
+ORDER BY id;
+
+ALTER TABLE pedido
+    MODIFY cambio_seq BIGINT NOT NULL DEFAULT (NEXT VALUE FOR pedido_cambio_seq),
+    MODIFY cambiado_en DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_pedido_cambio_seq ON pedido (cambio_seq);
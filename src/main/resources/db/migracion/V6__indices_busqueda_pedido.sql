@@ -0,0 +1,13 @@
+-- ************************************************************
+-- MIGRACIÓN V6: índices de la búsqueda con filtros (GET /api/pedidos/buscar)
+-- ************************************************************
+-- PedidoBusquedaRepository arma el WHERE solo con los filtros presentes; cada combinación
+-- empieza por las igualdades de uno de estos índices y termina en el rango/orden (fecha_hora, id);
+-- un filtro que no está en el índice (p. ej. tipo de entrega junto con cliente) se evalúa al leer
+-- cada fila, sin ordenar el resultado.
+-- Sin cliente ni estado ni tipo de entrega se usa idx_pedido_fecha_hora_id (schema.sql).
+-- Se aplica UNA sola vez sobre una BD existente (MariaDB 10.3+); para BD nuevas basta con schema.sql.
+CREATE INDEX IF NOT EXISTS idx_pedido_cliente_fecha ON pedido (cliente_id, fecha_hora, id);
+CREATE INDEX IF NOT EXISTS idx_pedido_cliente_estado_fecha ON pedido (cliente_id, estado, fecha_hora, id);
+CREATE INDEX IF NOT EXISTS idx_pedido_estado_fecha ON pedido (estado, fecha_hora, id);
+CREATE INDEX IF NOT EXISTS idx_pedido_tipo_entrega_fecha ON pedido (tipo_entrega, fecha_hora, id);
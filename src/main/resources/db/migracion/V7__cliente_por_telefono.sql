@@ -0,0 +1,40 @@
+-- ************************************************************
+-- MIGRACIÓN V7: un cliente anónimo por teléfono (pedidos sin clienteId, ver ClienteService)
+-- ************************************************************
+-- Hasta ahora cada pedido sin clienteId insertaba su propio "Cliente Temporal". Esta migración
+-- agrega telefono_anonimo (teléfono normalizado, solo en clientes anónimos), reasigna los pedidos
+-- de los anónimos repetidos al anónimo más antiguo de su teléfono, elimina los repetidos y crea
+-- el índice único. Los clientes registrados no se modifican: conservan su teléfono, quedan con
+-- telefono_anonimo NULL y nunca se fusionan con un anónimo aunque compartan el número.
+-- Se aplica UNA sola vez sobre una BD existente (MariaDB 10.3+); para BD nuevas basta con schema.sql.
+ALTER TABLE cliente ADD COLUMN IF NOT EXISTS telefono_anonimo VARCHAR(20) AFTER telefono;
+
+-- Mismo criterio que Cliente.normalizarTelefono: solo dígitos y sin +51 / 0051 delante de 9 dígitos
+UPDATE cliente SET telefono_anonimo = REGEXP_REPLACE(telefono, '[^0-9]', '')
+WHERE nombre = 'Cliente Temporal';
+UPDATE cliente SET telefono_anonimo = SUBSTRING(telefono_anonimo, 5)
+WHERE CHAR_LENGTH(telefono_anonimo) = 13 AND telefono_anonimo LIKE '0051%';
+UPDATE cliente SET telefono_anonimo = SUBSTRING(telefono_anonimo, 3)
+WHERE CHAR_LENGTH(telefono_anonimo) = 11 AND telefono_anonimo LIKE '51%';
+UPDATE cliente SET telefono_anonimo = NULL WHERE telefono_anonimo = '';
+UPDATE cliente SET telefono = telefono_anonimo WHERE telefono_anonimo IS NOT NULL;
+
+CREATE TEMPORARY TABLE cliente_anonimo_por_telefono AS
+SELECT telefono_anonimo, MIN(id) AS id
+FROM cliente
+WHERE telefono_anonimo IS NOT NULL
+GROUP BY telefono_anonimo;
+
+UPDATE pedido p
+    JOIN cliente c ON c.id = p.cliente_id
+    JOIN cliente_anonimo_por_telefono u ON u.telefono_anonimo = c.telefono_anonimo
+SET p.cliente_id = u.id
+WHERE p.cliente_id <> u.id;
+
+DELETE c FROM cliente c
+    JOIN cliente_anonimo_por_telefono u ON u.telefono_anonimo = c.telefono_anonimo
+WHERE c.id <> u.id;
+
+DROP TEMPORARY TABLE cliente_anonimo_por_telefono;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_cliente_telefono_anonimo ON cliente (telefono_anonimo);
@@ -0,0 +1,8 @@
+-- ************************************************************
+-- MIGRACIÓN V8: bloqueo optimista en producto (@Version)
+-- ************************************************************
+-- Cada actualización de un producto incrementa version. Con ella cada nodo compara la huella de
+-- la tabla (COUNT, MAX(id), SUM(version)) con la de su catálogo en memoria y lo recarga si cambió.
+-- Los productos existentes empiezan en 0. Quien modifique producto por SQL directo debe
+-- incrementar version para que los nodos lo noten.
+ALTER TABLE producto ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0 AFTER disponible;
@@ -1,18 +1,39 @@
 -- 1. Eliminación de tablas existentes (para pruebas y reinicio)
+DROP TABLE IF EXISTS idempotencia_pedido;
 DROP TABLE IF EXISTS item_pedido;
 DROP TABLE IF EXISTS pedido;
 DROP TABLE IF EXISTS producto;
 DROP TABLE IF EXISTS cliente;
+DROP SEQUENCE IF EXISTS item_pedido_seq;
+DROP SEQUENCE IF EXISTS pedido_seq;
+DROP SEQUENCE IF EXISTS cliente_seq;
+DROP SEQUENCE IF EXISTS pedido_cambio_seq;
+
+-- 1.1 Secuencias para los IDs de Cliente, Pedido e ItemPedido (asignación por bloques de 50).
+-- Hibernate reserva 50 IDs por llamada (el valor obtenido y los 49 anteriores) y agrupa los INSERT
+-- en batches JDBC. Estas tablas no usan AUTO_INCREMENT: su contador no sabe de los bloques
+-- reservados y terminaría entregando IDs que Hibernate ya asignó. Un INSERT sin ID toma el
+-- siguiente valor de la secuencia (DEFAULT), cuyo bloque nadie más usa.
+-- Empiezan en 1000: data.sql inserta sus filas con IDs explícitos menores.
+-- Para una BD existente con datos, ver db/migracion/V2__secuencias_ids.sql.
+CREATE SEQUENCE cliente_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE pedido_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE item_pedido_seq START WITH 1000 INCREMENT BY 50;
 
 -- 2. Creación de la tabla Cliente (Customer)
 CREATE TABLE cliente (
-    id INT AUTO_INCREMENT PRIMARY KEY,
+    id INT NOT NULL DEFAULT (NEXT VALUE FOR cliente_seq) PRIMARY KEY,
     nombre VARCHAR(100) NOT NULL,
     email VARCHAR(100) UNIQUE,
     telefono VARCHAR(20) NOT NULL,
+    -- Teléfono normalizado, solo en clientes anónimos ('Cliente Temporal'; NULL en los registrados)
+    telefono_anonimo VARCHAR(20),
     direccion TEXT NOT NULL
 );
 
+-- Un cliente anónimo por teléfono: los pedidos sin clienteId se asignan al cliente anónimo de su teléfono
+CREATE UNIQUE INDEX uk_cliente_telefono_anonimo ON cliente (telefono_anonimo);
+
 -- 3. Creación de la tabla Producto (Pizza/Menú)
 -- Solo pizzas predefinidas de un solo tamaño.
 CREATE TABLE producto (
@@ -21,19 +42,28 @@ CREATE TABLE producto (
     descripcion TEXT,
     precio_base DECIMAL(10, 2) NOT NULL CHECK (precio_base > 0),
     -- Campo para aplicar la RN4 (Validación de Disponibilidad)
-    disponible BOOLEAN DEFAULT TRUE
+    disponible BOOLEAN DEFAULT TRUE,
+    -- Bloqueo optimista; los demás nodos recargan su catálogo cuando cambia (CatalogoProductoService)
+    version INT NOT NULL DEFAULT 0
 );
 
+-- Secuencia del feed de cambios (GET /api/pedidos/cambios): se asigna a pedido.cambio_seq en
+-- cada INSERT (DEFAULT) y en cada transición de estado (UPDATE de PedidoRepository).
+CREATE SEQUENCE pedido_cambio_seq START WITH 1 INCREMENT BY 1;
+
 -- 4. Creación de la tabla Pedido (Order)
 -- El total se calculará y actualizará desde el OrderService de Spring Boot (RN1).
 CREATE TABLE pedido (
-    id INT AUTO_INCREMENT PRIMARY KEY,
+    id INT NOT NULL DEFAULT (NEXT VALUE FOR pedido_seq) PRIMARY KEY,
     cliente_id INT NOT NULL,
     fecha_hora DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
 
     -- Para aplicar la RN2 (Secuencia de Estados)
     estado ENUM('PENDIENTE', 'EN_PREPARACION', 'LISTO_PARA_ENTREGA', 'ENTREGADO', 'CANCELADO') NOT NULL,
 
+    -- Bloqueo optimista (@Version): se incrementa en cada transición de estado
+    version INT NOT NULL DEFAULT 0,
+
     -- Para definir el tipo de servicio
     tipo_entrega ENUM('DOMICILIO', 'RECOGIDA') NOT NULL,
 
@@ -46,13 +76,33 @@ CREATE TABLE pedido (
     -- Total final, calculado por el sistema (RN1)
     total DECIMAL(10, 2) DEFAULT 0.00,
 
+    -- Feed de cambios: posición del último cambio (INSERT o transición de estado) y su fecha
+    cambio_seq BIGINT NOT NULL DEFAULT (NEXT VALUE FOR pedido_cambio_seq),
+    cambiado_en DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+
     FOREIGN KEY (cliente_id) REFERENCES cliente(id)
 );
 
+-- Índice para la paginación por clave (keyset) de GET /api/pedidos: ORDER BY fecha_hora DESC, id DESC
+CREATE INDEX idx_pedido_fecha_hora_id ON pedido (fecha_hora, id);
+
+-- Recorrido del feed de cambios: WHERE cambio_seq > ? ORDER BY cambio_seq
+CREATE UNIQUE INDEX idx_pedido_cambio_seq ON pedido (cambio_seq);
+
+-- Búsqueda con filtros de GET /api/pedidos/buscar: igualdades primero, luego el rango/orden por (fecha_hora, id).
+-- Por cliente sin estado (con o sin tipo de entrega); también cubre la FK cliente_id
+CREATE INDEX idx_pedido_cliente_fecha ON pedido (cliente_id, fecha_hora, id);
+-- Por cliente y estado
+CREATE INDEX idx_pedido_cliente_estado_fecha ON pedido (cliente_id, estado, fecha_hora, id);
+-- Por estado, sin cliente
+CREATE INDEX idx_pedido_estado_fecha ON pedido (estado, fecha_hora, id);
+-- Por tipo de entrega, sin cliente ni estado
+CREATE INDEX idx_pedido_tipo_entrega_fecha ON pedido (tipo_entrega, fecha_hora, id);
+
 -- 5. Creación de la tabla ItemPedido (OrderItem)
 -- Tabla de detalle que une Pedido con Producto (N:1)
 CREATE TABLE item_pedido (
-    id INT AUTO_INCREMENT PRIMARY KEY,
+    id INT NOT NULL DEFAULT (NEXT VALUE FOR item_pedido_seq) PRIMARY KEY,
     pedido_id INT NOT NULL,
     producto_id INT NOT NULL,
     cantidad INT NOT NULL CHECK (cantidad > 0),
@@ -62,4 +112,18 @@ CREATE TABLE item_pedido (
 
     FOREIGN KEY (pedido_id) REFERENCES pedido(id),
     FOREIGN KEY (producto_id) REFERENCES producto(id)
-);
\ No newline at end of file
+);
+
+
+-- 6. Claves Idempotency-Key de POST /api/pedidos (pedidos.idempotencia.persistente=true).
+-- pedido_id queda NULL mientras la solicitud original no confirma su transacción.
+CREATE TABLE idempotencia_pedido (
+    clave VARCHAR(100) PRIMARY KEY,
+    huella CHAR(64) NOT NULL,
+    pedido_id INT,
+    creado_en DATETIME NOT NULL,
+
+    FOREIGN KEY (pedido_id) REFERENCES pedido(id)
+);
+
+CREATE INDEX idx_idempotencia_creado_en ON idempotencia_pedido (creado_en);
@@ -0,0 +1,85 @@
+package pe.gob.pj.springrest.config;
+
+import org.junit.jupiter.api.Test;
+import pe.gob.pj.springrest.infraestructure.limitador.LimitadorAdaptativo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LimitadorAdaptativoTest {
+
+    private final AtomicLong relojNanos = new AtomicLong();
+
+    @Test
+    void rechazaAlAlcanzarElLimite_YAdmiteAlLiberar() {
+        LimitadorAdaptativo limitador = new LimitadorAdaptativo(2, 1, 10, 1.5, relojNanos::get);
+
+        LimitadorAdaptativo.Permiso p1 = limitador.adquirir();
+        assertNotNull(p1);
+        assertNotNull(limitador.adquirir());
+        assertNull(limitador.adquirir());
+
+        // Cerrar dos veces el mismo permiso lo devuelve una sola vez
+        p1.ignorar();
+        p1.ignorar();
+        assertEquals(1, limitador.getEnCurso());
+        assertNotNull(limitador.adquirir());
+        assertNull(limitador.adquirir());
+
+        LimitadorAdaptativo.Estado estado = limitador.estado();
+        assertEquals(3, estado.aceptadas());
+        assertEquals(2, estado.rechazadas());
+    }
+
+    @Test
+    void latenciaEstable_CreceConLaCarga_LatenciaCreciente_Reduce() {
+        LimitadorAdaptativo limitador = new LimitadorAdaptativo(10, 1, 100, 1.5, relojNanos::get);
+
+        for (int i = 0; i < 50; i++) {
+            atender(limitador, 10, 10);
+        }
+        int trasCarga = limitador.getLimite();
+        assertTrue(trasCarga > 10, "Con latencia estable y el límite en uso, el límite crece: " + trasCarga);
+        // Con 10 en curso no crece más allá del doble: la carga no lo necesita
+        assertTrue(trasCarga <= 21, "Sin crecer por encima de lo que la carga usa: " + trasCarga);
+
+        // La BD se satura: la latencia se multiplica por 10
+        for (int i = 0; i < 30; i++) {
+            atender(limitador, limitador.getLimite(), 100);
+        }
+        int trasSaturacion = limitador.getLimite();
+        assertTrue(trasSaturacion < trasCarga / 2, "Con latencia creciente el límite baja: " + trasSaturacion);
+        assertTrue(trasSaturacion >= 1);
+    }
+
+    @Test
+    void fallo_ReduceElLimite_SinBajarDelMinimo() {
+        LimitadorAdaptativo limitador = new LimitadorAdaptativo(10, 8, 100, 1.5, relojNanos::get);
+
+        limitador.adquirir().fallo();
+        assertEquals(9, limitador.getLimite());
+        limitador.adquirir().fallo();
+        limitador.adquirir().fallo();
+        assertEquals(8, limitador.getLimite());
+        assertEquals(0, limitador.getEnCurso());
+    }
+
+    @Test
+    void limitesInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new LimitadorAdaptativo(5, 0, 10, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> new LimitadorAdaptativo(20, 1, 10, 1.5));
+    }
+
+    // concurrentes solicitudes a la vez, todas con la misma latencia
+    private void atender(LimitadorAdaptativo limitador, int concurrentes, long latenciaMs) {
+        List<LimitadorAdaptativo.Permiso> permisos = new ArrayList<>();
+        for (int i = 0; i < concurrentes; i++) {
+            permisos.add(limitador.adquirir());
+        }
+        relojNanos.addAndGet(latenciaMs * 1_000_000);
+        permisos.forEach(LimitadorAdaptativo.Permiso::exito);
+    }
+}
@@ -0,0 +1,82 @@
+package pe.gob.pj.springrest.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import pe.gob.pj.springrest.infraestructure.config.LimitadorConexionesDataSource;
+import pe.gob.pj.springrest.infraestructure.config.RutaLecturaReplica;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class LimitadorConexionesDataSourceTest {
+
+    @Test
+    void noEntregaMasConexionesQueElLimite_YLiberaAlCerrar() throws Exception {
+        DataSource destino = mock(DataSource.class);
+        when(destino.getConnection()).thenAnswer(i -> mock(Connection.class));
+
+        LimitadorConexionesDataSource limitador = new LimitadorConexionesDataSource(destino, 2, 50);
+
+        Connection c1 = limitador.getConnection();
+        Connection c2 = limitador.getConnection();
+        assertEquals(2, limitador.getEnUso());
+
+        // La tercera espera 50 ms y falla rápido, sin llegar al pool
+        assertThrows(SQLTransientConnectionException.class, limitador::getConnection);
+        verify(destino, times(2)).getConnection();
+
+        // Cerrar dos veces la misma conexión devuelve un solo permiso
+        c1.close();
+        c1.close();
+        assertEquals(1, limitador.getEnUso());
+
+        Connection c3 = limitador.getConnection();
+        assertNotNull(c3);
+        c2.close();
+        c3.close();
+        assertEquals(0, limitador.getEnUso());
+    }
+
+    @Test
+    void liberaElPermisoSiElPoolFalla() throws Exception {
+        DataSource destino = mock(DataSource.class);
+        when(destino.getConnection()).thenThrow(new SQLTransientConnectionException("pool agotado"));
+
+        LimitadorConexionesDataSource limitador = new LimitadorConexionesDataSource(destino, 1, 50);
+
+        assertThrows(SQLTransientConnectionException.class, limitador::getConnection);
+        assertEquals(0, limitador.getEnUso());
+    }
+
+    @Test
+    void conReplica_CadaPoolTieneSuPropioLimite() throws Exception {
+        HikariDataSource primaria = mock(HikariDataSource.class);
+        HikariDataSource replica = mock(HikariDataSource.class);
+        when(replica.getMaximumPoolSize()).thenReturn(2);
+        when(primaria.getConnection()).thenAnswer(i -> mock(Connection.class));
+        // La réplica informa retraso 0: las lecturas van a ella
+        Connection conexionReplica = mock(Connection.class, RETURNS_DEEP_STUBS);
+        when(conexionReplica.createStatement().executeQuery(anyString()).next()).thenReturn(true);
+        when(conexionReplica.createStatement().executeQuery(anyString()).getObject(anyString())).thenReturn(0L);
+        when(replica.getConnection()).thenReturn(conexionReplica);
+
+        RutaLecturaReplica ruta = new RutaLecturaReplica(primaria, replica, "SHOW REPLICA STATUS", "Seconds_Behind_Master", 5);
+        ruta.limitarConexiones(1, 50);
+        ruta.verificar();
+
+        // Las lecturas en la réplica no consumen los permisos de la primaria
+        Connection escritura = ruta.getEscrituras().getConnection();
+        Connection lectura1 = ruta.getLecturas().getConnection();
+        Connection lectura2 = ruta.getLecturas().getConnection();
+        assertEquals(2, ruta.estado().lecturasReplica());
+
+        assertThrows(SQLTransientConnectionException.class, () -> ruta.getEscrituras().getConnection());
+        escritura.close();
+        lectura1.close();
+        lectura2.close();
+    }
+}
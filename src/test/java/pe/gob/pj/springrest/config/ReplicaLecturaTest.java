@@ -0,0 +1,184 @@
+package pe.gob.pj.springrest.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import pe.gob.pj.springrest.application.service.CambiosPedidoService;
+import pe.gob.pj.springrest.application.service.FacturaService;
+import pe.gob.pj.springrest.application.service.PedidoService;
+import pe.gob.pj.springrest.domain.model.Factura;
+import pe.gob.pj.springrest.infraestructure.cache.CacheSegundoNivel;
+import pe.gob.pj.springrest.infraestructure.config.RutaLecturaReplica;
+import pe.gob.pj.springrest.presentation.exception.RecursoNoEncontradoException;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Réplica de lectura con dos H2 en memoria: "pruebas" (perfil h2) como primaria y "replica".
+ * La replicación se simula copiando la primaria a la réplica (replicar()); mientras no se copia,
+ * la réplica queda atrasada y se distingue de dónde leyó cada transacción. El retraso lo informa
+ * la tabla retraso_replica de la réplica. Lo leído de la réplica no entra a la caché de segundo nivel.
+ */
+@SpringBootTest(properties = {
+        "pedidos.bd.replica.habilitada=true",
+        "pedidos.bd.replica.jdbc-url=jdbc:h2:mem:replica;MODE=MariaDB;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "pedidos.bd.replica.username=sa",
+        "pedidos.bd.replica.verificacion-ms=3600000",
+        "pedidos.bd.replica.consulta-retraso=SELECT segundos AS Seconds_Behind_Master FROM retraso_replica",
+        "pedidos.bd.replica.retraso-maximo-segundos=5"
+})
+@ActiveProfiles("h2")
+public class ReplicaLecturaTest {
+
+    @Autowired
+    WebApplicationContext context;
+    @Autowired
+    FacturaService facturaService;
+    @Autowired
+    RutaLecturaReplica ruta;
+    @Autowired
+    PedidoService pedidoService;
+    @Autowired
+    CambiosPedidoService cambiosPedido;
+    @Autowired
+    CacheSegundoNivel cacheSegundoNivel;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        facturaService.eliminarRango(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        replicar();
+        informarRetraso(0);
+    }
+
+    @Test
+    void lecturasDeSoloLectura_VanALaReplica_EscriturasALaPrimaria() throws Exception {
+        facturaService.guardar(new Factura(1, "Televisor", 1500.0));
+        long lecturasAntes = ruta.estado().lecturasReplica();
+
+        // Aún sin replicar: la lectura no la ve, así que no fue a la primaria
+        assertTrue(facturaService.buscarTodas().isEmpty());
+
+        replicar();
+        informarRetraso(0);
+        assertEquals(1, facturaService.buscarTodas().size());
+        assertEquals(2, ruta.estado().lecturasReplica() - lecturasAntes);
+    }
+
+    @Test
+    void replicaAtrasada_LecturasVuelvenALaPrimaria() throws Exception {
+        facturaService.guardar(new Factura(2, "Radio AM/FM", 80.0));
+
+        informarRetraso(60);
+        assertFalse(ruta.estado().replicaDisponible());
+        assertEquals(1, facturaService.buscarTodas().size(), "Con la réplica atrasada se lee de la primaria.");
+
+        mockMvc.perform(get("/api/admin/bd/replica"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.replicaDisponible").value(false))
+                .andExpect(jsonPath("$.retrasoSegundos").value(60));
+
+        informarRetraso(0);
+        assertTrue(ruta.estado().replicaDisponible());
+        assertTrue(facturaService.buscarTodas().isEmpty(), "Al día según su retraso, se vuelve a leer de la réplica.");
+    }
+
+    @Test
+    void lecturaPorIdYFeedDeCambios_VanALaPrimariaConLaReplicaAlDia() {
+        facturaService.guardar(new Factura(3, "Licuadora", 120.0));
+        cacheSegundoNivel.limpiar();
+        assertTrue(ruta.estado().replicaDisponible());
+        long replicaAntes = ruta.estado().lecturasReplica();
+        long primariaAntes = ruta.estado().lecturasPrimaria();
+
+        // La réplica aún no la tiene: leerla de ahí daría 404 justo después de escribirla
+        assertTrue(facturaService.buscarPorId(3).isPresent());
+        assertThrows(RecursoNoEncontradoException.class, () -> pedidoService.buscarPedidoPorId(-1L));
+        cambiosPedido.listarCambios(0, 10);
+
+        assertEquals(0, ruta.estado().lecturasReplica() - replicaAntes);
+        assertEquals(3, ruta.estado().lecturasPrimaria() - primariaAntes);
+    }
+
+    @Test
+    void lecturasEnLaReplica_NoPueblanLaCacheDeSegundoNivel() throws Exception {
+        facturaService.guardar(new Factura(4, "Plancha", 90.0));
+        replicar();
+        informarRetraso(0);
+        cacheSegundoNivel.limpiar();
+        long replicaAntes = ruta.estado().lecturasReplica();
+
+        assertEquals(1, facturaService.buscarTodas().size());
+
+        assertEquals(1, ruta.estado().lecturasReplica() - replicaAntes);
+        // Una fila de la réplica puede estar atrasada: no reemplaza en la caché a la de la primaria
+        assertFalse(entityManagerFactory.getCache().contains(Factura.class, 4));
+        assertTrue(facturaService.buscarPorId(4).isPresent());
+        assertTrue(entityManagerFactory.getCache().contains(Factura.class, 4), "La lectura en la primaria sí la guarda.");
+    }
+
+    @Test
+    void replicaSinReplicar_NoSeUsa() throws Exception {
+        try (Connection conexion = ruta.getReplica().getConnection(); Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("DELETE FROM retraso_replica");
+        }
+        ruta.verificar();
+
+        assertFalse(ruta.estado().replicaDisponible());
+        long primariaAntes = ruta.estado().lecturasPrimaria();
+        facturaService.buscarTodas();
+        assertEquals(1, ruta.estado().lecturasPrimaria() - primariaAntes);
+    }
+
+    // Copia el esquema y los datos de la primaria a la réplica
+    private void replicar() throws SQLException {
+        List<String> script = new ArrayList<>();
+        try (Connection primaria = ruta.getPrimaria().getConnection();
+             Statement sentencia = primaria.createStatement();
+             ResultSet rs = sentencia.executeQuery("SCRIPT")) {
+            while (rs.next()) {
+                script.add(rs.getString(1));
+            }
+        }
+        try (Connection replica = ruta.getReplica().getConnection(); Statement sentencia = replica.createStatement()) {
+            replica.setReadOnly(false);
+            sentencia.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                sentencia.execute(sql);
+            }
+        }
+    }
+
+    private void informarRetraso(int segundos) throws SQLException {
+        try (Connection replica = ruta.getReplica().getConnection(); Statement sentencia = replica.createStatement()) {
+            replica.setReadOnly(false);
+            sentencia.execute("CREATE TABLE IF NOT EXISTS retraso_replica (segundos INT)");
+            sentencia.execute("DELETE FROM retraso_replica");
+            sentencia.execute("INSERT INTO retraso_replica VALUES (" + segundos + ")");
+        }
+        ruta.verificar();
+    }
+}
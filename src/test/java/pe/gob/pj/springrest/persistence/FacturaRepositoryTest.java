@@ -4,6 +4,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static pe.gob.pj.springrest.support.ContadorSentenciasSql.assertSentencias;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,8 +23,9 @@ public class FacturaRepositoryTest {
     FacturaRepository repository;
 
     @Test
-    void deberiaRecuperarFacturasDesdeLaBaseDeDatos() {
-        List<Factura> lista = repository.buscarTodas();
+    void deberiaRecuperarFacturasDesdeLaBaseDeDatos() throws Exception {
+        // Una sola consulta para todas las facturas
+        List<Factura> lista = assertSentencias(1, () -> repository.buscarTodas());
 
         // Verifica que hay 2 facturas
         assertEquals(2, lista.size(), "La lista de facturas debería tener 2 elementos");
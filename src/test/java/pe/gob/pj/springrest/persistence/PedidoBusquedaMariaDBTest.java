@@ -0,0 +1,101 @@
+package pe.gob.pj.springrest.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+import pe.gob.pj.springrest.infraestructure.persistence.FiltroPedidos;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoBusquedaRepository;
+import pe.gob.pj.springrest.support.ContadorSentenciasSql;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Planes de la búsqueda con filtros en MariaDB (como FacturaRepositoryTest, requiere la BD de
+ * application.properties). PedidoBusquedaRepositoryTest verifica los planes en H2, cuyo optimizador
+ * no es el de producción; aquí cada combinación de filtros debe leer pedido por el índice esperado
+ * y sin filesort.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "pe.gob.pj.springrest.support.ContadorSentenciasSql$Inspector")
+// El schema.sql de src/test/resources (facturas) oculta el de la aplicación en el classpath
+@Sql(scripts = "file:src/main/resources/schema.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+public class PedidoBusquedaMariaDBTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private static final int CLIENTES = 20;
+    private static final int PEDIDOS = 5000;
+    private static final int LIMITE = 21;
+
+    @Autowired
+    PedidoBusquedaRepository busquedaRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> clientes = new ArrayList<>();
+        for (int c = 1; c <= CLIENTES; c++) {
+            clientes.add(new Object[]{c, "Cliente " + c, "9000000" + c, "Calle " + c});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO cliente (id, nombre, telefono, direccion) VALUES (?, ?, ?, ?)", clientes);
+
+        EstadoPedido[] estados = EstadoPedido.values();
+        List<Object[]> pedidos = new ArrayList<>();
+        for (int p = 0; p < PEDIDOS; p++) {
+            pedidos.add(new Object[]{p % CLIENTES + 1, Timestamp.valueOf(INICIO.plusHours(p)),
+                    estados[p % estados.length].name(), p % 2 == 0 ? "DOMICILIO" : "RECOGIDA"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pedido (cliente_id, fecha_hora, estado, tipo_entrega, metodo_pago, "
+                + "direccion_entrega, total) VALUES (?, ?, ?, ?, 'EFECTIVO', 'Calle', 20.00)", pedidos);
+        jdbcTemplate.execute("ANALYZE TABLE cliente, pedido");
+    }
+
+    @Test
+    void filtrosHabituales_UsanElIndiceEsperadoSinFilesort() throws Exception {
+        LocalDateTime desde = INICIO.plusDays(20);
+        LocalDateTime hasta = INICIO.plusDays(40);
+
+        assertPlan(new FiltroPedidos(EstadoPedido.PENDIENTE, null, null, null, null), "idx_pedido_estado_fecha");
+        assertPlan(new FiltroPedidos(EstadoPedido.PENDIENTE, null, "RECOGIDA", desde, hasta), "idx_pedido_estado_fecha");
+        assertPlan(new FiltroPedidos(null, 1L, null, null, null), "idx_pedido_cliente_fecha");
+        assertPlan(new FiltroPedidos(null, 1L, null, desde, hasta), "idx_pedido_cliente_fecha");
+        assertPlan(new FiltroPedidos(null, 1L, "RECOGIDA", null, null), "idx_pedido_cliente_fecha");
+        assertPlan(new FiltroPedidos(EstadoPedido.PENDIENTE, 1L, null, desde, hasta), "idx_pedido_cliente_estado_fecha");
+        assertPlan(new FiltroPedidos(null, null, "RECOGIDA", null, null), "idx_pedido_tipo_entrega_fecha");
+        assertPlan(new FiltroPedidos(null, null, null, desde, hasta), "idx_pedido_fecha_hora_id");
+        assertPlan(new FiltroPedidos(null, null, null, null, null), "idx_pedido_fecha_hora_id");
+    }
+
+    // EXPLAIN del SQL que genera la búsqueda, con sus parámetros en el orden en que PedidoBusquedaRepository los agrega
+    private void assertPlan(FiltroPedidos filtro, String indice) throws Exception {
+        List<String> sentencias = ContadorSentenciasSql.capturar(() -> busquedaRepository.buscar(filtro, null, null, LIMITE));
+        assertEquals(1, sentencias.size(), "Una sola consulta por búsqueda.");
+
+        Object[] parametros = Stream.of(filtro.clienteId(), filtro.estado() != null ? filtro.estado().name() : null,
+                        filtro.tipoEntrega(), filtro.desde(), filtro.hasta(), LIMITE)
+                .filter(parametro -> parametro != null)
+                .toArray();
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sentencias.get(0), parametros);
+
+        Map<String, Object> pedido = plan.stream()
+                .filter(fila -> String.valueOf(fila.get("table")).startsWith("p"))
+                .findFirst().orElseThrow();
+        assertEquals(indice, pedido.get("key"), () -> filtro + " no usa " + indice + ": " + plan);
+        assertTrue(plan.stream().noneMatch(fila -> "ALL".equals(fila.get("type"))), () -> filtro + " hace un recorrido completo: " + plan);
+        assertFalse(plan.stream().anyMatch(fila -> String.valueOf(fila.get("Extra")).contains("filesort")),
+                () -> filtro + " ordena con filesort: " + plan);
+    }
+}
@@ -0,0 +1,125 @@
+package pe.gob.pj.springrest.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.FiltroPedidos;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoBusquedaRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+import pe.gob.pj.springrest.support.ContadorSentenciasSql;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Búsqueda de pedidos con filtros contra H2 (perfil h2): el SQL que genera PedidoBusquedaRepository
+ * para cada combinación habitual de filtros se pasa a EXPLAIN, y el plan debe leer pedido por el
+ * índice esperado, nunca con un recorrido completo (tableScan). El optimizador de H2 no es el de
+ * MariaDB (p. ej. solo por cliente prefiere el índice de la FK); el plan de producción lo verifica
+ * PedidoBusquedaMariaDBTest.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "pe.gob.pj.springrest.support.ContadorSentenciasSql$Inspector")
+@ActiveProfiles("h2")
+public class PedidoBusquedaRepositoryTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Autowired
+    PedidoBusquedaRepository busquedaRepository;
+    @Autowired
+    PedidoRepository pedidoRepository;
+    @Autowired
+    ClienteRepository clienteRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Long clienteId;
+
+    @BeforeEach
+    void setUp() {
+        pedidoRepository.deleteAll();
+        clienteRepository.deleteAll();
+
+        List<Cliente> clientes = new ArrayList<>();
+        for (int c = 0; c < 5; c++) {
+            clientes.add(clienteRepository.save(Cliente.builder()
+                    .nombre("Cliente " + c).telefono("90000000" + c).direccion("Calle " + c).build()));
+        }
+        clienteId = clientes.get(0).getId();
+
+        EstadoPedido[] estados = EstadoPedido.values();
+        List<Pedido> pedidos = new ArrayList<>();
+        for (int p = 0; p < 200; p++) {
+            Cliente cliente = clientes.get(p % clientes.size());
+            pedidos.add(Pedido.builder()
+                    .cliente(cliente)
+                    .estado(estados[p % estados.length])
+                    .fechaHora(INICIO.plusHours(p))
+                    .tipoEntrega(p % 2 == 0 ? "DOMICILIO" : "RECOGIDA")
+                    .metodoPago("EFECTIVO")
+                    .direccionEntrega(cliente.getDireccion())
+                    .total(new BigDecimal("20.00"))
+                    .items(new ArrayList<>())
+                    .build());
+        }
+        pedidoRepository.saveAll(pedidos);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void filtrosHabituales_UsanIndiceSinRecorridoCompleto() throws Exception {
+        LocalDateTime desde = INICIO.plusDays(2);
+        LocalDateTime hasta = INICIO.plusDays(5);
+
+        assertUsaIndice(new FiltroPedidos(EstadoPedido.PENDIENTE, null, null, null, null), "IDX_PEDIDO_ESTADO_FECHA");
+        assertUsaIndice(new FiltroPedidos(EstadoPedido.PENDIENTE, null, null, desde, hasta), "IDX_PEDIDO_ESTADO_FECHA");
+        // Solo por cliente H2 puede elegir el índice de la FK (misma primera columna): basta que busque por cliente_id
+        assertUsaIndice(new FiltroPedidos(null, clienteId, null, null, null), "CLIENTE_ID = ?");
+        assertUsaIndice(new FiltroPedidos(EstadoPedido.PENDIENTE, clienteId, null, desde, hasta), "IDX_PEDIDO_CLIENTE_ESTADO_FECHA");
+        assertUsaIndice(new FiltroPedidos(null, null, "RECOGIDA", null, null), "IDX_PEDIDO_TIPO_ENTREGA_FECHA");
+        assertUsaIndice(new FiltroPedidos(null, null, null, desde, hasta), "IDX_PEDIDO_FECHA_HORA_ID");
+        assertUsaIndice(new FiltroPedidos(null, null, null, null, null), "IDX_PEDIDO_FECHA_HORA_ID");
+    }
+
+    @Test
+    void buscar_AplicaFiltrosRangoSemiabiertoYCursor() {
+        LocalDateTime desde = INICIO.plusHours(10);
+        LocalDateTime hasta = INICIO.plusHours(20);
+
+        // Horas 10..19 del cliente 0 (p % 5 == 0): 10 y 15; hasta es exclusivo
+        List<PedidoResponse> pedidos = busquedaRepository.buscar(
+                new FiltroPedidos(null, clienteId, null, desde, hasta), null, null, 10);
+        assertEquals(List.of(INICIO.plusHours(15), INICIO.plusHours(10)),
+                pedidos.stream().map(PedidoResponse::getFechaHora).toList());
+
+        PedidoResponse primero = pedidos.get(0);
+        List<PedidoResponse> siguiente = busquedaRepository.buscar(
+                new FiltroPedidos(null, clienteId, null, desde, hasta), primero.getFechaHora(), primero.getId(), 10);
+        assertEquals(List.of(INICIO.plusHours(10)), siguiente.stream().map(PedidoResponse::getFechaHora).toList());
+    }
+
+    // Ejecuta la búsqueda, captura su SQL y verifica que el plan de EXPLAIN contenga el índice (o condición) esperado
+    private void assertUsaIndice(FiltroPedidos filtro, String indice) throws Exception {
+        List<String> sentencias = ContadorSentenciasSql.capturar(() -> busquedaRepository.buscar(filtro, null, null, 21));
+        assertEquals(1, sentencias.size(), "Una sola consulta por búsqueda.");
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sentencias.get(0), String.class);
+        assertFalse(plan.contains("tableScan"), () -> filtro + " hace un recorrido completo:\n" + plan);
+        assertTrue(plan.contains(indice), () -> filtro + " no usa " + indice + ":\n" + plan);
+    }
+}
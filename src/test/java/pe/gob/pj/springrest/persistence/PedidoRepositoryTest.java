@@ -0,0 +1,121 @@
+package pe.gob.pj.springrest.persistence;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import pe.gob.pj.springrest.application.dto.PaginaPedidosResponse;
+import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import pe.gob.pj.springrest.application.service.PedidoService;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.ItemPedido;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.domain.model.Producto;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Verifica que las lecturas de pedidos proyectan directamente a DTOs: la cantidad de sentencias SQL
+ * es constante, sin importar cuántos pedidos o ítems se devuelvan (sin N+1), y no se cargan entidades.
+ * Se ejecuta contra H2 en memoria (perfil h2) con el esquema generado desde las entidades.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+public class PedidoRepositoryTest {
+
+    private static final int PEDIDOS = 5;
+    private static final int ITEMS_POR_PEDIDO = 3;
+
+    @Autowired
+    PedidoService pedidoService;
+    @Autowired
+    PedidoRepository pedidoRepository;
+    @Autowired
+    ClienteRepository clienteRepository;
+    @Autowired
+    ProductoRepository productoRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long primerPedidoId;
+
+    @BeforeEach
+    void setUp() {
+        pedidoRepository.deleteAll();
+        clienteRepository.deleteAll();
+        productoRepository.deleteAll();
+
+        Cliente cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Carlos Gómez").telefono("987654321").direccion("Calle Falsa 123").build());
+
+        List<Producto> productos = new ArrayList<>();
+        for (int i = 1; i <= ITEMS_POR_PEDIDO; i++) {
+            productos.add(productoRepository.save(Producto.builder()
+                    .nombre("Pizza " + i).precioBase(new BigDecimal("10.00")).disponible(true).build()));
+        }
+
+        for (int p = 0; p < PEDIDOS; p++) {
+            Pedido pedido = Pedido.builder()
+                    .cliente(cliente)
+                    .estado(EstadoPedido.PENDIENTE)
+                    .fechaHora(LocalDateTime.of(2025, 1, 10, 12, 0).plusMinutes(p))
+                    .tipoEntrega("DOMICILIO")
+                    .metodoPago("EFECTIVO")
+                    .direccionEntrega(cliente.getDireccion())
+                    .total(new BigDecimal("30.00"))
+                    .items(new ArrayList<>())
+                    .build();
+            for (Producto producto : productos) {
+                pedido.getItems().add(ItemPedido.builder()
+                        .pedido(pedido).producto(producto).cantidad(1).precioUnitario(producto.getPrecioBase()).build());
+            }
+            Pedido guardado = pedidoRepository.save(pedido);
+            if (primerPedidoId == null) {
+                primerPedidoId = guardado.getId();
+            }
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void buscarPedidoPorId_EjecutaUnaSolaSentencia() {
+        PedidoResponse response = pedidoService.buscarPedidoPorId(primerPedidoId);
+
+        assertEquals("Carlos Gómez", response.getNombreCliente());
+        assertEquals(ITEMS_POR_PEDIDO, response.getItems().size());
+        assertNotNull(response.getItems().get(0).getNombreProducto());
+        assertEquals(1, statistics.getPrepareStatementCount(), "Pedido, cliente, ítems y productos en una consulta.");
+        assertEquals(0, statistics.getEntityLoadCount(), "Proyección a DTO: no se cargan entidades.");
+    }
+
+    @Test
+    void listarPedidos_EjecutaDosSentenciasPorPagina() {
+        PaginaPedidosResponse pagina = pedidoService.listarPedidos(null, PEDIDOS);
+
+        assertEquals(PEDIDOS, pagina.getPedidos().size());
+        pagina.getPedidos().forEach(p -> {
+            assertEquals("Carlos Gómez", p.getNombreCliente());
+            assertEquals(ITEMS_POR_PEDIDO, p.getItems().size());
+            assertNotNull(p.getItems().get(0).getNombreProducto());
+        });
+        assertEquals(2, statistics.getPrepareStatementCount(), "Página con cliente + ítems con productos, sin N+1.");
+        assertEquals(0, statistics.getEntityLoadCount(), "Proyección a DTO: no se cargan entidades.");
+    }
+}
@@ -0,0 +1,148 @@
+package pe.gob.pj.springrest.presentation.rest;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.ItemPedido;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.domain.model.Producto;
+import pe.gob.pj.springrest.infraestructure.cache.CacheRespuestasPedido;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Caché de JSON de GET /api/pedidos/{id} para pedidos en estado final, contra H2 (perfil h2).
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+public class CacheRespuestasPedidoTest {
+
+    @Autowired
+    WebApplicationContext context;
+    @Autowired
+    CacheRespuestasPedido cacheRespuestas;
+    @Autowired
+    JsonMapper jsonMapper;
+    @Autowired
+    PedidoRepository pedidoRepository;
+    @Autowired
+    ClienteRepository clienteRepository;
+    @Autowired
+    ProductoRepository productoRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+    private Cliente cliente;
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        cacheRespuestas.limpiar();
+        pedidoRepository.deleteAll();
+        clienteRepository.deleteAll();
+        productoRepository.deleteAll();
+
+        cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Carlos Gómez").telefono("987654321").direccion("Calle Falsa 123").build());
+        producto = productoRepository.save(Producto.builder()
+                .nombre("Margarita").precioBase(new BigDecimal("12.00")).disponible(true).build());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void buscarPedidoPorId_PedidoFinalizado_SeSirveDesdeCacheSinConsultar() throws Exception {
+        Long id = guardarPedido(EstadoPedido.ENTREGADO);
+
+        String primera = mockMvc.perform(get("/api/pedidos/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("ENTREGADO"))
+                .andReturn().getResponse().getContentAsString();
+
+        statistics.clear();
+        mockMvc.perform(get("/api/pedidos/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(content().json(primera, true));
+
+        assertEquals(0, statistics.getPrepareStatementCount(), "Respuesta servida desde la caché.");
+        assertEquals(1, cacheRespuestas.estadisticas().aciertos());
+        assertEquals(1, cacheRespuestas.estadisticas().entradas());
+    }
+
+    @Test
+    void buscarPedidoPorId_PedidoNoFinalizado_NoSeGuardaEnCache() throws Exception {
+        Long id = guardarPedido(EstadoPedido.LISTO_PARA_ENTREGA);
+
+        mockMvc.perform(get("/api/pedidos/{id}", id)).andExpect(status().isOk());
+        statistics.clear();
+        mockMvc.perform(get("/api/pedidos/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("LISTO_PARA_ENTREGA"));
+
+        assertEquals(1, statistics.getPrepareStatementCount(), "Cada lectura consulta la BD.");
+        assertEquals(0, cacheRespuestas.estadisticas().entradas());
+        assertEquals(2, cacheRespuestas.estadisticas().fallos());
+    }
+
+    @Test
+    void serializarYGuardar_SuperadoElLimiteDeBytes_DesalojaLaMenosUsada() {
+        PedidoResponse uno = respuesta(1L);
+        int tamano = jsonMapper.writeValueAsBytes(uno).length;
+        CacheRespuestasPedido cache = new CacheRespuestasPedido(jsonMapper, 2L * tamano);
+
+        cache.serializarYGuardar(uno);
+        cache.serializarYGuardar(respuesta(2L));
+        cache.obtener(1L); // 1 pasa a ser la más reciente
+        cache.serializarYGuardar(respuesta(3L));
+
+        assertNotNull(cache.obtener(1L));
+        assertNull(cache.obtener(2L));
+        assertNotNull(cache.obtener(3L));
+        assertEquals(1, cache.estadisticas().desalojos());
+        assertTrue(cache.estadisticas().bytes() <= 2L * tamano);
+    }
+
+    private PedidoResponse respuesta(Long id) {
+        PedidoResponse response = new PedidoResponse();
+        response.setId(id);
+        response.setEstado(EstadoPedido.CANCELADO);
+        response.setTotal(new BigDecimal("10.00"));
+        return response;
+    }
+
+    private Long guardarPedido(EstadoPedido estado) {
+        Pedido pedido = Pedido.builder()
+                .cliente(cliente).estado(estado).fechaHora(LocalDateTime.now())
+                .tipoEntrega("DOMICILIO").metodoPago("EFECTIVO").direccionEntrega(cliente.getDireccion())
+                .total(new BigDecimal("24.00")).items(new ArrayList<>()).build();
+        pedido.getItems().add(ItemPedido.builder()
+                .pedido(pedido).producto(producto).cantidad(2).precioUnitario(producto.getPrecioBase()).build());
+        return pedidoRepository.save(pedido).getId();
+    }
+}
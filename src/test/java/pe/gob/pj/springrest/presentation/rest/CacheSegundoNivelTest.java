@@ -0,0 +1,143 @@
+package pe.gob.pj.springrest.presentation.rest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import pe.gob.pj.springrest.application.service.FacturaService;
+import pe.gob.pj.springrest.application.service.PedidoService;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.Factura;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.infraestructure.cache.CacheSegundoNivel;
+import pe.gob.pj.springrest.infraestructure.cache.CacheSegundoNivelConfig;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static pe.gob.pj.springrest.support.ContadorSentenciasSql.assertSentencias;
+
+/**
+ * Caché de segundo nivel de Cliente y Factura contra H2 (perfil h2): las lecturas por ID repetidas
+ * no llegan a la BD, guardar actualiza la entrada y eliminar la invalida; las escrituras de otras
+ * tablas (p. ej. las transiciones de estado de pedido) no desalojan sus entradas.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+public class CacheSegundoNivelTest {
+
+    @Autowired
+    WebApplicationContext context;
+    @Autowired
+    FacturaService facturaService;
+    @Autowired
+    ClienteRepository clienteRepository;
+    @Autowired
+    PedidoRepository pedidoRepository;
+    @Autowired
+    PedidoService pedidoService;
+    @Autowired
+    CacheSegundoNivel cacheSegundoNivel;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        facturaService.eliminarRango(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        pedidoRepository.deleteAll();
+        clienteRepository.deleteAll();
+        cacheSegundoNivel.limpiar();
+    }
+
+    @Test
+    void factura_LecturaRepetidaDesdeCache_GuardarActualizaYEliminarInvalida() throws Exception {
+        facturaService.guardar(new Factura(1, "Televisor", 1500.0));
+
+        assertSentencias(0, () -> facturaService.buscarPorId(1));
+
+        facturaService.guardar(new Factura(1, "Televisor 55 pulgadas", 1800.0));
+        Factura actualizada = assertSentencias(0, () -> facturaService.buscarPorId(1).orElseThrow());
+        assertEquals("Televisor 55 pulgadas", actualizada.getConcepto());
+
+        facturaService.eliminar(1);
+        assertTrue(assertSentencias(1, () -> facturaService.buscarPorId(1)).isEmpty(),
+                "La factura eliminada no debe seguir en la caché.");
+    }
+
+    @Test
+    void factura_EliminarUna_NoDesalojaLasDemas() throws Exception {
+        facturaService.guardar(new Factura(3, "Licuadora", 120.0));
+        facturaService.guardar(new Factura(4, "Plancha", 60.0));
+
+        facturaService.eliminar(3);
+        assertSentencias(0, () -> facturaService.buscarPorId(4).orElseThrow());
+    }
+
+    @Test
+    void cliente_LecturaPorIdRepetidaDesdeCache() throws Exception {
+        Long id = clienteRepository.save(Cliente.builder()
+                .nombre("Carlos Gómez").telefono("987654321").direccion("Calle Falsa 123").build()).getId();
+
+        assertSentencias(0, () -> clienteRepository.findById(id).orElseThrow());
+    }
+
+    @Test
+    void pedido_TransicionDeEstado_NoDesalojaClientesNiFacturas() throws Exception {
+        Cliente cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Ana Torres").telefono("912345678").direccion("Av. Primavera 456").build());
+        facturaService.guardar(new Factura(5, "Horno", 300.0));
+        Long pedidoId = pedidoRepository.save(Pedido.builder()
+                .cliente(cliente).estado(EstadoPedido.PENDIENTE).fechaHora(LocalDateTime.now())
+                .tipoEntrega("RECOGIDA").metodoPago("EFECTIVO").direccionEntrega(cliente.getDireccion())
+                .total(new BigDecimal("20.00")).items(new ArrayList<>()).build()).getId();
+
+        // El UPDATE nativo de la transición declara solo la tabla pedido como afectada
+        pedidoService.actualizarEstadoPedido(pedidoId, EstadoPedido.EN_PREPARACION);
+
+        assertSentencias(0, () -> clienteRepository.findById(cliente.getId()).orElseThrow());
+        assertSentencias(0, () -> facturaService.buscarPorId(5).orElseThrow());
+
+        // Igual con la transición por lotes (PATCH /api/pedidos/estado)
+        pedidoService.actualizarEstadoPedidos(List.of(pedidoId), EstadoPedido.LISTO_PARA_ENTREGA);
+
+        assertSentencias(0, () -> clienteRepository.findById(cliente.getId()).orElseThrow());
+        assertSentencias(0, () -> facturaService.buscarPorId(5).orElseThrow());
+    }
+
+    @Test
+    void estadisticas_PorRegion() throws Exception {
+        facturaService.guardar(new Factura(2, "Radio AM/FM", 80.0));
+        long aciertosAntes = regionFactura().aciertos();
+        facturaService.buscarPorId(2);
+        facturaService.buscarPorId(2);
+
+        // Las estadísticas son acumuladas desde el arranque; limpiar() solo vacía las regiones
+        assertEquals(2, regionFactura().aciertos() - aciertosAntes);
+        assertEquals(1, regionFactura().entidades());
+
+        mockMvc.perform(get("/api/admin/cache/segundo-nivel"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].region").value(containsInAnyOrder("cliente", "factura")));
+    }
+
+    private CacheSegundoNivel.Region regionFactura() {
+        return cacheSegundoNivel.estadisticas().stream()
+                .filter(r -> CacheSegundoNivelConfig.REGION_FACTURA.equals(r.region())).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,171 @@
+package pe.gob.pj.springrest.presentation.rest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import pe.gob.pj.springrest.application.dto.PaginaPedidosResponse;
+import pe.gob.pj.springrest.application.service.CatalogoProductoService;
+import pe.gob.pj.springrest.application.service.PedidoService;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.ItemPedido;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.domain.model.Producto;
+import pe.gob.pj.springrest.infraestructure.cache.CacheRespuestasPedido;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+import pe.gob.pj.springrest.infraestructure.sql.EstadisticasSqlFilter;
+import pe.gob.pj.springrest.infraestructure.sql.EstadisticasSqlPorEndpoint;
+import pe.gob.pj.springrest.infraestructure.sql.MedicionSql;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static pe.gob.pj.springrest.support.ContadorSentenciasSql.assertSentencias;
+import static pe.gob.pj.springrest.support.ContadorSentenciasSql.assertSentenciasSinSecuencias;
+import static pe.gob.pj.springrest.support.ContadorSentenciasSql.medir;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Estadísticas de SQL por solicitud contra H2 (perfil h2): Server-Timing, totales por endpoint
+ * y conteo exacto de sentencias con ContadorSentenciasSql, con los repositorios reales. El presupuesto se fija en 1 sentencia
+ * para verificar el registro de solicitudes excedidas. El Inspector permite descontar las llamadas a secuencias de los IDs.
+ */
+@SpringBootTest(properties = {"pedidos.sql.presupuesto-sentencias=1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "pe.gob.pj.springrest.support.ContadorSentenciasSql$Inspector"})
+@ActiveProfiles("h2")
+public class EstadisticasSqlTest {
+
+    @Autowired
+    WebApplicationContext context;
+    @Autowired
+    EstadisticasSqlFilter estadisticasSqlFilter;
+    @Autowired
+    EstadisticasSqlPorEndpoint sqlPorEndpoint;
+    @Autowired
+    CacheRespuestasPedido cacheRespuestas;
+    @Autowired
+    PedidoService pedidoService;
+    @Autowired
+    PedidoRepository pedidoRepository;
+    @Autowired
+    ClienteRepository clienteRepository;
+    @Autowired
+    ProductoRepository productoRepository;
+    @Autowired
+    CatalogoProductoService catalogoProductoService;
+
+    private MockMvc mockMvc;
+    private Long pedidoId;
+    private Long clienteId;
+    private Long productoId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(estadisticasSqlFilter).build();
+        cacheRespuestas.limpiar();
+        pedidoRepository.deleteAll();
+        clienteRepository.deleteAll();
+        productoRepository.deleteAll();
+
+        Cliente cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Carlos Gómez").telefono("987654321").direccion("Calle Falsa 123").build());
+        Producto producto = productoRepository.save(Producto.builder()
+                .nombre("Margarita").precioBase(new BigDecimal("12.00")).disponible(true).build());
+        Pedido pedido = Pedido.builder()
+                .cliente(cliente).estado(EstadoPedido.PENDIENTE).fechaHora(LocalDateTime.now())
+                .tipoEntrega("DOMICILIO").metodoPago("EFECTIVO").direccionEntrega(cliente.getDireccion())
+                .total(new BigDecimal("24.00")).items(new ArrayList<>()).build();
+        pedido.getItems().add(ItemPedido.builder()
+                .pedido(pedido).producto(producto).cantidad(2).precioUnitario(producto.getPrecioBase()).build());
+        pedidoId = pedidoRepository.save(pedido).getId();
+        clienteId = cliente.getId();
+        productoId = producto.getId();
+        catalogoProductoService.recargar();
+
+        sqlPorEndpoint.limpiar();
+    }
+
+    @Test
+    void buscarPedidoPorId_AgregaServerTimingYAcumulaPorEndpoint() throws Exception {
+        assertSentencias(1, () -> mockMvc.perform(get("/api/pedidos/{id}", pedidoId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", startsWith("db;dur=")))
+                .andExpect(header().string("Server-Timing", endsWith(";desc=\"1 sentencias, 1 filas\""))));
+
+        EstadisticasSqlPorEndpoint.Resumen resumen = sqlPorEndpoint.top(EstadisticasSqlPorEndpoint.Orden.SENTENCIAS, 10).get(0);
+        assertEquals("GET /api/pedidos/{id}", resumen.endpoint());
+        assertEquals(1, resumen.solicitudes());
+        assertEquals(1, resumen.sentencias());
+        assertEquals(0, resumen.excedidas());
+    }
+
+    @Test
+    void listarPedidos_SuperaElPresupuesto_SeCuentaComoExcedida() throws Exception {
+        mockMvc.perform(get("/api/pedidos")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/admin/sql/endpoints").param("orden", "EXCEDIDAS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].endpoint").value("GET /api/pedidos"))
+                .andExpect(jsonPath("$[0].sentencias").value(2))
+                .andExpect(jsonPath("$[0].excedidas").value(1));
+    }
+
+    @Test
+    void medir_CuentaSentenciasYFilasLeidas() throws Exception {
+        MedicionSql medicion = medir(() -> {
+            PaginaPedidosResponse pagina = pedidoService.listarPedidos(null, 10);
+            assertEquals(1, pagina.getPedidos().size());
+            return pagina;
+        });
+
+        assertEquals(2, medicion.getSentencias(), "Página + ítems de la página.");
+        assertEquals(2, medicion.getFilas(), "Un pedido y su único ítem.");
+    }
+
+    @Test
+    void crearPedido_ValidacionFallida_NoEjecutaSql() throws Exception {
+        // RN3 violada en el DTO (sin dirección): se rechaza antes de llegar a la BD
+        assertSentencias(0, () -> mockMvc.perform(post("/api/pedidos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(pedido("")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.direccionEntrega").exists()));
+    }
+
+    @Test
+    void crearPedido_Exitoso_CantidadExactaDeSentencias() throws Exception {
+        // Huella del catálogo + INSERT del pedido + INSERT de su ítem: el cliente sale de la caché de
+        // segundo nivel y los productos de la foto del catálogo (la huella coincide). No se cuenta el
+        // bloque de IDs que se pide a las secuencias cuando se agota el anterior.
+        assertSentenciasSinSecuencias(3, () -> mockMvc.perform(post("/api/pedidos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(pedido("Calle Falsa 123")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.estado").value(EstadoPedido.PENDIENTE.name())));
+    }
+
+    private String pedido(String direccionEntrega) {
+        return """
+                {"clienteId": %d, "telefonoCliente": "987654321", "direccionEntrega": "%s", "tipoEntrega": "DOMICILIO",
+                 "metodoPago": "EFECTIVO",
+                 "items": [{"productoId": %d, "cantidad": 2}]}
+                """.formatted(clienteId, direccionEntrega, productoId);
+    }
+}
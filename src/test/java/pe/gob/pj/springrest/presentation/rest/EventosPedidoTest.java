@@ -0,0 +1,165 @@
+package pe.gob.pj.springrest.presentation.rest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.gob.pj.springrest.application.service.EventosPedidoService;
+import pe.gob.pj.springrest.application.service.PedidoService;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GET /api/pedidos/eventos (SSE) sobre un servidor real en puerto aleatorio, con H2 (perfil h2).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+public class EventosPedidoTest {
+
+    @LocalServerPort
+    int puerto;
+    @Autowired
+    PedidoService pedidoService;
+    @Autowired
+    EventosPedidoService eventosPedido;
+    @Autowired
+    PedidoRepository pedidoRepository;
+    @Autowired
+    ClienteRepository clienteRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        pedidoRepository.deleteAll();
+        clienteRepository.deleteAll();
+        cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Carlos Gómez").telefono("987654321").direccion("Calle Falsa 123").build());
+    }
+
+    @Test
+    void eventos_CambioDeEstadoConfirmado_SeEmiteAlSuscriptor() throws Exception {
+        Long pedidoId = guardarPedido(EstadoPedido.PENDIENTE);
+
+        try (Stream<String> lineas = suscribir(null)) {
+            esperarSuscriptores(1);
+            pedidoService.actualizarEstadoPedido(pedidoId, EstadoPedido.EN_PREPARACION);
+
+            String data = siguienteDato(lineas.iterator());
+            assertTrue(data.contains("\"pedidoId\":" + pedidoId), data);
+            assertTrue(data.contains("\"estado\":\"EN_PREPARACION\""), data);
+            assertTrue(data.contains("\"tipo\":\"ESTADO_ACTUALIZADO\""), data);
+        }
+    }
+
+    @Test
+    void eventos_TransaccionRevertida_NoEmiteNada() {
+        Long pedidoId = guardarPedido(EstadoPedido.PENDIENTE);
+        long antes = eventosPedido.estadisticas().get("ultimoId");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            pedidoService.actualizarEstadoPedido(pedidoId, EstadoPedido.EN_PREPARACION);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(antes, eventosPedido.estadisticas().get("ultimoId"));
+    }
+
+    @Test
+    void eventos_ConLastEventId_ReenviaLosEventosPerdidos() throws Exception {
+        Long pedidoId = guardarPedido(EstadoPedido.PENDIENTE);
+        long ultimoRecibido = eventosPedido.estadisticas().get("ultimoId");
+
+        // El cliente estaba desconectado mientras ocurrían estos cambios
+        pedidoService.actualizarEstadoPedido(pedidoId, EstadoPedido.EN_PREPARACION);
+        pedidoService.actualizarEstadoPedido(pedidoId, EstadoPedido.LISTO_PARA_ENTREGA);
+
+        try (Stream<String> lineas = suscribir(eventosPedido.idEvento(ultimoRecibido))) {
+            Iterator<String> iterator = lineas.iterator();
+            assertTrue(siguienteDato(iterator).contains("\"estado\":\"EN_PREPARACION\""));
+            assertTrue(siguienteDato(iterator).contains("\"estado\":\"LISTO_PARA_ENTREGA\""));
+        }
+    }
+
+    @Test
+    void eventos_LastEventIdDeOtraEpoca_RecibeReinicio() throws Exception {
+        Long pedidoId = guardarPedido(EstadoPedido.PENDIENTE);
+        pedidoService.actualizarEstadoPedido(pedidoId, EstadoPedido.EN_PREPARACION);
+
+        // Misma secuencia, pero de antes de un reinicio del servidor: no se reanuda desde ahí
+        long ultimoId = eventosPedido.estadisticas().get("ultimoId");
+        try (Stream<String> lineas = suscribir("0a1b2c3d-" + (ultimoId - 1))) {
+            assertTrue(siguienteDato(lineas.iterator()).contains("recargue"));
+        }
+    }
+
+    @Test
+    void eventos_BufferPorSuscriptor_MayorQueElLoteMasGrande() {
+        // pedidos.lote.tamano-maximo=1000 y pedidos.estado-lote.tamano-maximo=500 por defecto
+        assertTrue(eventosPedido.estadisticas().get("capacidadBuffer") >= 2000);
+    }
+
+    private Stream<String> suscribir(String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/pedidos/eventos"))
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<Stream<String>> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+        return response.body();
+    }
+
+    // Primera línea "data:" del flujo, con un límite de tiempo para no colgar la prueba
+    private static String siguienteDato(Iterator<String> lineas) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            while (lineas.hasNext()) {
+                String linea = lineas.next();
+                if (linea.startsWith("data:")) {
+                    return linea.substring(5);
+                }
+            }
+            throw new IllegalStateException("El flujo terminó sin eventos.");
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    private void esperarSuscriptores(long esperados) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (eventosPedido.estadisticas().get("suscriptores") < esperados && System.nanoTime() < limite) {
+            Thread.sleep(20);
+        }
+    }
+
+    private Long guardarPedido(EstadoPedido estado) {
+        return pedidoRepository.save(Pedido.builder()
+                .cliente(cliente).estado(estado).fechaHora(LocalDateTime.now())
+                .tipoEntrega("DOMICILIO").metodoPago("EFECTIVO").direccionEntrega(cliente.getDireccion())
+                .total(new BigDecimal("24.00")).items(new ArrayList<>()).build()).getId();
+    }
+}
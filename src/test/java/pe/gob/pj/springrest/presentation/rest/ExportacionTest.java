@@ -0,0 +1,154 @@
+package pe.gob.pj.springrest.presentation.rest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import pe.gob.pj.springrest.application.service.FacturaLoteService;
+import pe.gob.pj.springrest.application.service.FacturaService;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.Factura;
+import pe.gob.pj.springrest.domain.model.ItemPedido;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.domain.model.Producto;
+import pe.gob.pj.springrest.infraestructure.cache.CacheRespuestasPedido;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static pe.gob.pj.springrest.support.ContadorSentenciasSql.assertSentencias;
+
+/**
+ * Exportación NDJSON de pedidos y facturas contra H2 (perfil h2).
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+public class ExportacionTest {
+
+    @Autowired
+    WebApplicationContext context;
+    @Autowired
+    JsonMapper jsonMapper;
+    @Autowired
+    CacheRespuestasPedido cacheRespuestas;
+    @Autowired
+    PedidoRepository pedidoRepository;
+    @Autowired
+    ClienteRepository clienteRepository;
+    @Autowired
+    ProductoRepository productoRepository;
+    @Autowired
+    FacturaService facturaService;
+    @Autowired
+    FacturaLoteService facturaLoteService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        cacheRespuestas.limpiar();
+        pedidoRepository.deleteAll();
+        clienteRepository.deleteAll();
+        productoRepository.deleteAll();
+        facturaService.eliminarRango(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void exportarPedidos_UnaConsulta_UnPedidoPorLineaConSusItems() throws Exception {
+        Cliente cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Carlos Gómez").telefono("987654321").direccion("Calle Falsa 123").build());
+        Producto margarita = productoRepository.save(Producto.builder()
+                .nombre("Margarita").precioBase(new BigDecimal("12.00")).disponible(true).build());
+        Producto hawaiana = productoRepository.save(Producto.builder()
+                .nombre("Hawaiana").precioBase(new BigDecimal("15.00")).disponible(true).build());
+        Long primero = guardarPedido(cliente, List.of(margarita, hawaiana));
+        guardarPedido(cliente, List.of(margarita));
+        guardarPedido(cliente, List.of(hawaiana));
+
+        MvcResult resultado = assertSentencias(1, () -> mockMvc.perform(get("/api/pedidos/exportacion"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SalidaNdjson.NDJSON))
+                .andReturn());
+
+        List<JsonNode> lineas = lineas(resultado.getResponse().getContentAsByteArray());
+        assertEquals(3, lineas.size());
+        JsonNode pedido = lineas.get(0);
+        assertEquals(primero, pedido.get("id").asLong());
+        assertEquals("Carlos Gómez", pedido.get("nombreCliente").asString());
+        assertEquals(2, pedido.get("items").size());
+        assertEquals("Margarita", pedido.get("items").get(0).get("nombreProducto").asString());
+        assertEquals(0, new BigDecimal("24.00").compareTo(pedido.get("items").get(0).get("subtotal").decimalValue()));
+    }
+
+    @Test
+    void exportarFacturas_ConGzip_ComprimeLaSalida() throws Exception {
+        int facturas = 1200;
+        facturaLoteService.guardarLote(new ArrayList<>(IntStream.rangeClosed(1, facturas)
+                .mapToObj(n -> new Factura(n, "Factura " + n, n + 0.5))
+                .toList()));
+
+        MvcResult resultado = mockMvc.perform(get("/facturas/exportacion").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        byte[] descomprimido;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(resultado.getResponse().getContentAsByteArray()))) {
+            descomprimido = gzip.readAllBytes();
+        }
+        List<JsonNode> lineas = lineas(descomprimido);
+        assertEquals(facturas, lineas.size());
+        assertEquals(1, lineas.get(0).get("numero").asInt());
+        assertEquals("Factura 1", lineas.get(0).get("concepto").asString());
+        assertEquals(facturas + 0.5, lineas.get(facturas - 1).get("importe").asDouble());
+    }
+
+    @Test
+    void exportarFacturas_SinGzip_TablaVacia() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/facturas/exportacion"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn();
+
+        assertEquals(0, resultado.getResponse().getContentAsByteArray().length);
+    }
+
+    private Long guardarPedido(Cliente cliente, List<Producto> productos) {
+        Pedido pedido = Pedido.builder()
+                .cliente(cliente).estado(EstadoPedido.PENDIENTE).fechaHora(LocalDateTime.now())
+                .tipoEntrega("DOMICILIO").metodoPago("EFECTIVO").direccionEntrega(cliente.getDireccion())
+                .total(BigDecimal.TEN).items(new ArrayList<>()).build();
+        productos.forEach(p -> pedido.getItems().add(ItemPedido.builder()
+                .pedido(pedido).producto(p).cantidad(2).precioUnitario(p.getPrecioBase()).build()));
+        return pedidoRepository.save(pedido).getId();
+    }
+
+    private List<JsonNode> lineas(byte[] ndjson) {
+        return new String(ndjson, StandardCharsets.UTF_8).lines()
+                .map(jsonMapper::readTree)
+                .toList();
+    }
+}
@@ -0,0 +1,181 @@
+package pe.gob.pj.springrest.presentation.rest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import pe.gob.pj.springrest.application.dto.ResultadoImportacionFacturasResponse;
+import pe.gob.pj.springrest.application.service.FacturaImportacionService;
+import pe.gob.pj.springrest.application.service.FacturaImportacionService.Formato;
+import pe.gob.pj.springrest.application.service.FacturaService;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntFunction;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /facturas/importacion contra H2 (perfil h2). Se reducen el bloque por transacción, la
+ * cantidad de errores informados y la longitud de línea para ejercitar varios bloques, el recorte
+ * de errores y el rechazo de líneas largas.
+ */
+@SpringBootTest(properties = {
+        "facturas.importacion.tamano-transaccion=100",
+        "facturas.importacion.errores-maximos=5",
+        "facturas.importacion.longitud-maxima-linea=200"
+})
+@ActiveProfiles("h2")
+public class FacturaImportacionTest {
+
+    @Autowired
+    WebApplicationContext context;
+    @Autowired
+    FacturaService facturaService;
+    @Autowired
+    FacturaImportacionService importacionService;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        facturaService.eliminarRango(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void importarCsv_GuardaLasValidasEInformaErroresPorLinea() throws Exception {
+        String csv = """
+                numero,concepto,importe
+                1,"Televisor, 55 pulgadas",1500.50
+                2,TV,20
+
+                3,Radio,abc
+                4,"Parlante \"\"Bluetooth\"\"",80
+                """;
+
+        mockMvc.perform(post("/facturas/importacion").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lineas").value(4))
+                .andExpect(jsonPath("$.insertadas").value(2))
+                .andExpect(jsonPath("$.rechazadas").value(2))
+                .andExpect(jsonPath("$.errores[0].linea").value(3))
+                .andExpect(jsonPath("$.errores[0].mensaje").value(containsString("concepto")))
+                .andExpect(jsonPath("$.errores[1].linea").value(5))
+                .andExpect(jsonPath("$.errores[1].mensaje").value(containsString("importe no es un número")));
+
+        assertEquals("Televisor, 55 pulgadas", facturaService.buscarPorId(1).orElseThrow().getConcepto());
+        assertEquals("Parlante \"Bluetooth\"", facturaService.buscarPorId(4).orElseThrow().getConcepto());
+    }
+
+    @Test
+    void importarNdjson_ActualizaExistentesYRechazaLineasInvalidas() throws Exception {
+        mockMvc.perform(post("/facturas/importacion").contentType("text/csv").content("7,Lavadora,900\n"))
+                .andExpect(jsonPath("$.insertadas").value(1));
+
+        String ndjson = """
+                {"numero":7,"concepto":"Lavadora 12 kg","importe":950.0}
+                {"numero":8,"concepto":"Secadora","importe":700.0
+                {"concepto":"Sin número","importe":10.0}
+                """;
+
+        mockMvc.perform(post("/facturas/importacion").contentType("application/x-ndjson").content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lineas").value(3))
+                .andExpect(jsonPath("$.insertadas").value(0))
+                .andExpect(jsonPath("$.actualizadas").value(1))
+                .andExpect(jsonPath("$.rechazadas").value(2))
+                .andExpect(jsonPath("$.errores[0].linea").value(2))
+                .andExpect(jsonPath("$.errores[0].mensaje").value(containsString("JSON inválido")))
+                .andExpect(jsonPath("$.errores[1].mensaje").value(containsString("numero")));
+
+        assertEquals("Lavadora 12 kg", facturaService.buscarPorId(7).orElseThrow().getConcepto());
+    }
+
+    @Test
+    void importar_LineaDemasiadoLarga_SeRechazaYSigueConLaSiguiente() throws Exception {
+        String csv = "1,Televisor,1500\n2,\"" + "x".repeat(10_000) + "\",20\r\n3,Radio AM,80\n";
+
+        mockMvc.perform(post("/facturas/importacion").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lineas").value(3))
+                .andExpect(jsonPath("$.insertadas").value(2))
+                .andExpect(jsonPath("$.rechazadas").value(1))
+                .andExpect(jsonPath("$.errores[0].linea").value(2))
+                .andExpect(jsonPath("$.errores[0].mensaje").value(containsString("200 caracteres")));
+    }
+
+    @Test
+    void importar_FalloDeBDEnUnBloque_SeReintentaFacturaPorFactura() throws Exception {
+        // La BD rechaza la factura 13 aunque pase la validación
+        jdbcTemplate.execute("ALTER TABLE facturas ADD CONSTRAINT chk_prueba_importacion CHECK (numero <> 13)");
+        try {
+            String csv = "11,Televisor,1500\n12,Radio AM,80\n13,Parlante,60\n14,Licuadora,120\n";
+
+            mockMvc.perform(post("/facturas/importacion").contentType("text/csv").content(csv))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.insertadas").value(3))
+                    .andExpect(jsonPath("$.rechazadas").value(1))
+                    .andExpect(jsonPath("$.errores[0].linea").value(3))
+                    .andExpect(jsonPath("$.errores[0].mensaje").value(containsString("base de datos")));
+            assertEquals(3, facturaService.buscarTodas().size());
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE facturas DROP CONSTRAINT chk_prueba_importacion");
+        }
+    }
+
+    @Test
+    void importar_ArchivoGrande_SeProcesaPorBloquesYRecortaErrores() {
+        int lineas = 20_000;
+        // Una de cada 1000 líneas tiene importe 0 (inválida)
+        InputStream archivo = new LineasGeneradas(lineas, n -> n % 1000 == 0
+                ? n + ",Factura " + n + ",0\n"
+                : n + ",Factura " + n + "," + (n % 500 + 1) + ".25\n");
+
+        ResultadoImportacionFacturasResponse resultado = importacionService.importar(archivo, Formato.CSV);
+
+        assertEquals(lineas, resultado.getLineas());
+        assertEquals(lineas - 20, resultado.getInsertadas());
+        assertEquals(20, resultado.getRechazadas());
+        assertEquals(5, resultado.getErrores().size(), "Solo se informan los primeros errores.");
+        assertEquals(1000, resultado.getErrores().get(0).getLinea());
+        assertEquals(lineas - 20, facturaService.buscarTodas().size());
+    }
+
+    // Genera el archivo a medida que se lee, sin tenerlo completo en memoria
+    private static class LineasGeneradas extends InputStream {
+        private final int total;
+        private final IntFunction<String> linea;
+        private int siguiente = 1;
+        private byte[] actual = new byte[0];
+        private int posicion;
+
+        LineasGeneradas(int total, IntFunction<String> linea) {
+            this.total = total;
+            this.linea = linea;
+        }
+
+        @Override
+        public int read() {
+            if (posicion == actual.length) {
+                if (siguiente > total) {
+                    return -1;
+                }
+                actual = linea.apply(siguiente++).getBytes(StandardCharsets.UTF_8);
+                posicion = 0;
+            }
+            return actual[posicion++];
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package pe.gob.pj.springrest.presentation.rest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import pe.gob.pj.springrest.application.dto.ResultadoLoteFacturasResponse;
+import pe.gob.pj.springrest.application.service.FacturaLoteService;
+import pe.gob.pj.springrest.application.service.FacturaService;
+import pe.gob.pj.springrest.domain.model.Factura;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static pe.gob.pj.springrest.support.ContadorSentenciasSql.assertSentencias;
+
+/**
+ * POST /facturas/lote y DELETE /facturas?desde=&hasta= contra H2 (perfil h2). Con bloques de 50
+ * facturas, cada bloque cuesta una consulta de existentes y un batch JDBC de escritura.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+public class FacturaLoteTest {
+
+    private static final int FACTURAS = 120; // 3 bloques de 50
+
+    @Autowired
+    WebApplicationContext context;
+    @Autowired
+    FacturaService facturaService;
+    @Autowired
+    FacturaLoteService facturaLoteService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        facturaService.eliminarRango(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void guardarLote_InsertaYActualizaPorBloques() throws Exception {
+        ResultadoLoteFacturasResponse alta = assertSentencias(6, () -> facturaLoteService.guardarLote(facturas("Alta", 10.0)));
+        assertEquals(FACTURAS, alta.getInsertadas());
+        assertEquals(0, alta.getActualizadas());
+
+        ResultadoLoteFacturasResponse cambio = assertSentencias(6, () -> facturaLoteService.guardarLote(facturas("Ajuste", 20.0)));
+        assertEquals(0, cambio.getInsertadas());
+        assertEquals(FACTURAS, cambio.getActualizadas());
+        assertEquals(0, cambio.getSinCambios());
+
+        Factura factura = facturaService.buscarPorId(FACTURAS).orElseThrow();
+        assertEquals("Ajuste " + FACTURAS, factura.getConcepto());
+        assertEquals(20.0, factura.getImporte());
+    }
+
+    @Test
+    void guardarLote_ReenvioSinCambios_SoloEscribeYCuentaLasQueCambian() throws Exception {
+        facturaLoteService.guardarLote(facturas("Alta", 10.0));
+        List<Factura> reenvio = facturas("Alta", 10.0);
+        reenvio.set(0, new Factura(1, "Alta corregida", 10.0));
+
+        // 3 consultas de existentes y un solo batch de UPDATE (el del primer bloque)
+        ResultadoLoteFacturasResponse resultado = assertSentencias(4, () -> facturaLoteService.guardarLote(reenvio));
+        assertEquals(0, resultado.getInsertadas());
+        assertEquals(1, resultado.getActualizadas());
+        assertEquals(FACTURAS - 1, resultado.getSinCambios());
+        assertEquals(List.of(), resultado.getDuplicadas());
+    }
+
+    @Test
+    void postLote_ReportaInsertadasYActualizadas() throws Exception {
+        facturaLoteService.guardarLote(List.of(new Factura(1, "Televisor", 500.0)));
+
+        mockMvc.perform(post("/facturas/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"numero":1,"concepto":"Televisor 4K","importe":650.0},
+                                 {"numero":2,"concepto":"Radio","importe":50.0},
+                                 {"numero":2,"concepto":"Radio AM/FM","importe":55.0}]
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.insertadas").value(1))
+                .andExpect(jsonPath("$.actualizadas").value(1))
+                .andExpect(jsonPath("$.sinCambios").value(0))
+                .andExpect(jsonPath("$.duplicadas.length()").value(1))
+                .andExpect(jsonPath("$.duplicadas[0]").value(2));
+
+        assertEquals("Radio AM/FM", facturaService.buscarPorId(2).orElseThrow().getConcepto());
+    }
+
+    @Test
+    void postLote_ConFacturaInvalida_Retorna400SinEscribir() throws Exception {
+        mockMvc.perform(post("/facturas/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"numero":1,"concepto":"Televisor","importe":500.0},
+                                 {"numero":2,"concepto":"TV","importe":0}]
+                                """))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("[1] concepto")))
+                .andExpect(jsonPath("$.message").value(containsString("[1] importe")));
+
+        assertEquals(0, facturaService.buscarTodas().size());
+    }
+
+    @Test
+    void deleteRango_EjecutaUnSoloDeleteYReportaFilas() throws Exception {
+        facturaLoteService.guardarLote(facturas("Alta", 10.0));
+
+        assertSentencias(1, () -> mockMvc.perform(delete("/facturas").param("desde", "11").param("hasta", "60"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eliminadas").value(50)));
+
+        assertEquals(FACTURAS - 50, facturaService.buscarTodas().size());
+        mockMvc.perform(delete("/facturas").param("desde", "60").param("hasta", "11"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deletePorNumero_UnaSentencia_Y404SiNoExiste() throws Exception {
+        facturaLoteService.guardarLote(List.of(new Factura(7, "Lavadora", 900.0)));
+
+        assertSentencias(1, () -> mockMvc.perform(delete("/facturas/{numero}", 7)).andExpect(status().isNoContent()));
+        mockMvc.perform(delete("/facturas/{numero}", 7)).andExpect(status().isNotFound());
+    }
+
+    private static List<Factura> facturas(String concepto, double importe) {
+        return new ArrayList<>(IntStream.rangeClosed(1, FACTURAS)
+                .mapToObj(n -> new Factura(n, concepto + " " + n, importe))
+                .toList());
+    }
+}
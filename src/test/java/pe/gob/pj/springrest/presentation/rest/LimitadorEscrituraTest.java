@@ -0,0 +1,122 @@
+package pe.gob.pj.springrest.presentation.rest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import pe.gob.pj.springrest.application.service.FacturaService;
+import pe.gob.pj.springrest.infraestructure.limitador.LimitadorAdaptativo;
+import pe.gob.pj.springrest.infraestructure.limitador.LimitadorEscrituraFilter;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Control de admisión de escrituras contra H2 (perfil h2), con el límite fijo en 1: mientras una
+ * escritura está en curso, la siguiente recibe 503 con Retry-After; las lecturas, las cargas
+ * masivas y la espera de un POST con Idempotency-Key no se limitan.
+ */
+@SpringBootTest(properties = {
+        "pedidos.limitador-escritura.limite-inicial=1",
+        "pedidos.limitador-escritura.limite-minimo=1",
+        "pedidos.limitador-escritura.limite-maximo=1",
+        "pedidos.limitador-escritura.reintentar-en-segundos=2"
+})
+@ActiveProfiles("h2")
+public class LimitadorEscrituraTest {
+
+    private static final String FACTURA = """
+            {"numero": 7, "concepto": "Lámpara", "importe": 45.0}
+            """;
+    private static final String PEDIDO = """
+            {"telefonoCliente": "987654321", "direccionEntrega": "Calle Falsa 123", "tipoEntrega": "DOMICILIO",
+             "metodoPago": "EFECTIVO", "items": [{"productoId": 999999, "cantidad": 1}]}
+            """;
+
+    @Autowired
+    WebApplicationContext context;
+    @Autowired
+    LimitadorEscrituraFilter limitadorEscrituraFilter;
+    @Autowired
+    LimitadorAdaptativo limitadorEscritura;
+    @Autowired
+    FacturaService facturaService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(limitadorEscrituraFilter).build();
+        facturaService.eliminarRango(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void escrituraSobreElLimite_503ConRetryAfter_LecturasNoSeLimitan() throws Exception {
+        // Otra escritura ocupa el único permiso
+        LimitadorAdaptativo.Permiso enCurso = limitadorEscritura.adquirir();
+        long rechazadasAntes = limitadorEscritura.estado().rechazadas();
+
+        mockMvc.perform(put("/facturas/7").contentType(MediaType.APPLICATION_JSON).content(FACTURA))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.status").value(503))
+                .andExpect(jsonPath("$.path").value("/facturas/7"));
+        mockMvc.perform(get("/facturas")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/admin/limitador-escritura"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.limite").value(1))
+                .andExpect(jsonPath("$.enCurso").value(1))
+                .andExpect(jsonPath("$.rechazadas").value(rechazadasAntes + 1));
+
+        enCurso.ignorar();
+        mockMvc.perform(put("/facturas/7").contentType(MediaType.APPLICATION_JSON).content(FACTURA))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/admin/limitador-escritura")).andExpect(jsonPath("$.enCurso").value(0));
+    }
+
+    @Test
+    void cargaMasiva_NoPasaPorElLimitador() throws Exception {
+        LimitadorAdaptativo.Permiso enCurso = limitadorEscritura.adquirir();
+        try {
+            mockMvc.perform(post("/facturas/lote").contentType(MediaType.APPLICATION_JSON).content("[" + FACTURA + "]"))
+                    .andExpect(status().isOk());
+        } finally {
+            enCurso.ignorar();
+        }
+    }
+
+    @Test
+    void postConIdempotencyKey_TomaElPermisoSoloAlCrear() throws Exception {
+        LimitadorAdaptativo.Permiso enCurso = limitadorEscritura.adquirir();
+        try {
+            // El filtro la deja pasar: la validación del cuerpo responde antes que el limitador
+            mockMvc.perform(post("/api/pedidos").header("Idempotency-Key", "limitador-1")
+                            .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                    .andExpect(status().isBadRequest());
+
+            // Al crear el pedido no hay permiso
+            mockMvc.perform(post("/api/pedidos").header("Idempotency-Key", "limitador-2")
+                            .contentType(MediaType.APPLICATION_JSON).content(PEDIDO))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "2"))
+                    .andExpect(jsonPath("$.status").value(503));
+        } finally {
+            enCurso.ignorar();
+        }
+
+        // Con permiso se crea (aquí 404: el producto no existe) y el permiso se devuelve
+        mockMvc.perform(post("/api/pedidos").header("Idempotency-Key", "limitador-3")
+                        .contentType(MediaType.APPLICATION_JSON).content(PEDIDO))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/admin/limitador-escritura")).andExpect(jsonPath("$.enCurso").value(0));
+    }
+}
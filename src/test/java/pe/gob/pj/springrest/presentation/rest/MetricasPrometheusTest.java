@@ -0,0 +1,60 @@
+package pe.gob.pj.springrest.presentation.rest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import pe.gob.pj.springrest.application.service.PedidoService;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.Pedido;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Scrape de GET /actuator/prometheus contra H2 (perfil h2): métricas de negocio de PedidoService,
+ * histograma de espera de HikariCP y contadores ya existentes (caché de respuestas, SSE).
+ * Spring Boot desactiva la exportación de métricas en pruebas; aquí se habilita Prometheus.
+ */
+@SpringBootTest(properties = "spring.test.metrics.export=true")
+@ActiveProfiles("h2")
+public class MetricasPrometheusTest {
+
+    @Autowired
+    WebApplicationContext context;
+    @Autowired
+    PedidoService pedidoService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    void prometheus_ExponeMetricasDeNegocioYDelPool() throws Exception {
+        // Un rechazo por RN3 antes de tocar la BD
+        Pedido sinDireccion = Pedido.builder()
+                .cliente(Cliente.builder().telefono("987654321").build()).items(List.of()).build();
+        assertThrows(IllegalArgumentException.class, () -> pedidoService.crearPedido(sinDireccion));
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("pedidos_rechazos_total{regla=\"RN3\"} 1.0")))
+                .andExpect(content().string(containsString("pedidos_creacion_etapa_seconds_count{etapa=\"rn3\"}")))
+                .andExpect(content().string(containsString("pedidos_transiciones_total{desde=\"PENDIENTE\",hacia=\"EN_PREPARACION\"}")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")))
+                .andExpect(content().string(containsString("pedidos_cache_respuestas_aciertos_total")))
+                .andExpect(content().string(containsString("pedidos_eventos_suscriptores")));
+    }
+}
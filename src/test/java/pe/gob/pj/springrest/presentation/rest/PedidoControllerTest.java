@@ -36,6 +36,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static pe.gob.pj.springrest.support.ContadorSentenciasSql.assertSentencias;
 
 @SpringBootTest(classes = PedidoControllerTest.TestConfig.class)
 public class PedidoControllerTest {
@@ -135,13 +136,14 @@ public class PedidoControllerTest {
     void testCrearPedido_Exitoso_Retorna201() throws Exception {
         when(pedidoService.crearPedido(any(Pedido.class))).thenReturn(pedidoMockeado);
 
-        mockMvc.perform(post("/api/pedidos")
+        // Con el servicio y el repositorio simulados, la capa web no debe ejecutar SQL
+        assertSentencias(0, () -> mockMvc.perform(post("/api/pedidos")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(requestValida)))
 
                 .andExpect(status().isCreated()) // HTTP 201 Created
                 .andExpect(jsonPath("$.id").value(1L)) // Validamos que el ID del mock se mapee
-                .andExpect(jsonPath("$.estado").value(EstadoPedido.PENDIENTE.name()));
+                .andExpect(jsonPath("$.estado").value(EstadoPedido.PENDIENTE.name())));
     }
 
     @Test
@@ -149,12 +151,12 @@ public class PedidoControllerTest {
         // RN3 violada en el DTO (dirección nula)
         requestValida.setDireccionEntrega(null);
 
-        mockMvc.perform(post("/api/pedidos")
+        assertSentencias(0, () -> mockMvc.perform(post("/api/pedidos")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(requestValida)))
 
                 .andExpect(status().isBadRequest()) // HTTP 400 Bad Request (Fallo de @Valid)
-                .andExpect(jsonPath("$.direccionEntrega").exists());
+                .andExpect(jsonPath("$.direccionEntrega").exists()));
     }
 
     @Test
@@ -0,0 +1,108 @@
+package pe.gob.pj.springrest.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import pe.gob.pj.springrest.application.service.PedidoService;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.ItemPedido;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.domain.model.Producto;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+import pe.gob.pj.springrest.presentation.exception.ConflictoEstadoPedidoException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transiciones de estado (RN2) simultáneas e incompatibles sobre el mismo pedido, contra H2
+ * (perfil h2): el UPDATE condicionado deja pasar exactamente una y las demás reciben conflicto.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+public class ActualizarEstadoConcurrenteTest {
+
+    private static final int HILOS = 16;
+
+    @Autowired
+    PedidoService pedidoService;
+    @Autowired
+    PedidoRepository pedidoRepository;
+    @Autowired
+    ClienteRepository clienteRepository;
+    @Autowired
+    ProductoRepository productoRepository;
+
+    private Long pedidoId;
+
+    @BeforeEach
+    void setUp() {
+        pedidoRepository.deleteAll();
+        clienteRepository.deleteAll();
+        productoRepository.deleteAll();
+
+        Cliente cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Carlos Gómez").telefono("987654321").direccion("Calle Falsa 123").build());
+        Producto producto = productoRepository.save(Producto.builder()
+                .nombre("Margarita").precioBase(new BigDecimal("12.00")).disponible(true).build());
+        Pedido pedido = Pedido.builder()
+                .cliente(cliente).estado(EstadoPedido.EN_PREPARACION).fechaHora(LocalDateTime.now())
+                .tipoEntrega("DOMICILIO").metodoPago("EFECTIVO").direccionEntrega(cliente.getDireccion())
+                .total(new BigDecimal("24.00")).items(new ArrayList<>()).build();
+        pedido.getItems().add(ItemPedido.builder()
+                .pedido(pedido).producto(producto).cantidad(2).precioUnitario(producto.getPrecioBase()).build());
+        pedidoId = pedidoRepository.save(pedido).getId();
+    }
+
+    @Test
+    void actualizarEstado_TransicionesIncompatiblesEnParalelo_SoloUnaSeAplica() throws Exception {
+        // Cocina marca LISTO_PARA_ENTREGA mientras atención al cliente CANCELA: ambas válidas desde EN_PREPARACION
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        List<Future<Pedido>> futuros = new ArrayList<>();
+        try {
+            for (int i = 0; i < HILOS; i++) {
+                EstadoPedido destino = i % 2 == 0 ? EstadoPedido.LISTO_PARA_ENTREGA : EstadoPedido.CANCELADO;
+                futuros.add(executor.submit(() -> {
+                    salida.await();
+                    return pedidoService.actualizarEstadoPedido(pedidoId, destino);
+                }));
+            }
+            salida.countDown();
+
+            List<EstadoPedido> aplicados = new ArrayList<>();
+            int conflictos = 0;
+            for (Future<Pedido> futuro : futuros) {
+                try {
+                    aplicados.add(futuro.get(10, TimeUnit.SECONDS).getEstado());
+                } catch (ExecutionException e) {
+                    assertInstanceOf(ConflictoEstadoPedidoException.class, e.getCause());
+                    conflictos++;
+                }
+            }
+
+            assertEquals(1, aplicados.size(), "Solo una transición gana la carrera.");
+            assertEquals(HILOS - 1, conflictos);
+            Pedido finalizado = pedidoRepository.findById(pedidoId).orElseThrow();
+            assertEquals(aplicados.get(0), finalizado.getEstado());
+            assertEquals(1L, finalizado.getVersion(), "La versión se incrementa una sola vez.");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package pe.gob.pj.springrest.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import pe.gob.pj.springrest.application.dto.ResultadoEstadoLoteResponse;
+import pe.gob.pj.springrest.application.service.PedidoService;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cambio de estado por lotes (PATCH /api/pedidos/estado) contra H2 en memoria (perfil h2).
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+public class ActualizarEstadoLoteTest {
+
+    private static final int EN_PREPARACION = 20;
+
+    @Autowired
+    PedidoService pedidoService;
+    @Autowired
+    PedidoRepository pedidoRepository;
+    @Autowired
+    ClienteRepository clienteRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        pedidoRepository.deleteAll();
+        clienteRepository.deleteAll();
+        cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Carlos Gómez").telefono("987654321").direccion("Calle Falsa 123").build());
+    }
+
+    @Test
+    void actualizarEstadoPedidos_MueveLosValidosYReportaRechazos_EnDosSentencias() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < EN_PREPARACION; i++) {
+            ids.add(guardarPedido(EstadoPedido.EN_PREPARACION));
+        }
+        Long pendiente = guardarPedido(EstadoPedido.PENDIENTE);
+        ids.add(pendiente);
+        ids.add(999_999L);
+        ids.add(ids.get(0)); // repetido: se considera una vez
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResultadoEstadoLoteResponse resultado = pedidoService.actualizarEstadoPedidos(ids, EstadoPedido.LISTO_PARA_ENTREGA);
+
+        assertEquals(ids.subList(0, EN_PREPARACION), resultado.getMovidos());
+        assertEquals(2, resultado.getRechazados().size());
+        ResultadoEstadoLoteResponse.Rechazo invalido = resultado.getRechazados().get(0);
+        assertEquals(pendiente, invalido.getId());
+        assertEquals(EstadoPedido.PENDIENTE, invalido.getEstadoActual());
+        assertTrue(invalido.getMotivo().startsWith("RN2"));
+        assertNull(resultado.getRechazados().get(1).getEstadoActual(), "El pedido inexistente no tiene estado.");
+        assertEquals(2, statistics.getPrepareStatementCount(), "Lectura bloqueante + un UPDATE, sin importar el tamaño.");
+
+        assertEquals(EstadoPedido.LISTO_PARA_ENTREGA, pedidoRepository.findById(ids.get(0)).orElseThrow().getEstado());
+        assertEquals(EstadoPedido.PENDIENTE, pedidoRepository.findById(pendiente).orElseThrow().getEstado());
+    }
+
+    @Test
+    void actualizarEstadoPedidos_DestinoInalcanzable_RechazaTodosSinConsultar() {
+        Long id = guardarPedido(EstadoPedido.EN_PREPARACION);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResultadoEstadoLoteResponse resultado = pedidoService.actualizarEstadoPedidos(List.of(id), EstadoPedido.PENDIENTE);
+
+        assertTrue(resultado.getMovidos().isEmpty());
+        assertEquals(1, resultado.getRechazados().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private Long guardarPedido(EstadoPedido estado) {
+        return pedidoRepository.save(Pedido.builder()
+                .cliente(cliente).estado(estado).fechaHora(LocalDateTime.now())
+                .tipoEntrega("DOMICILIO").metodoPago("EFECTIVO").direccionEntrega(cliente.getDireccion())
+                .total(new BigDecimal("24.00")).items(new ArrayList<>()).build()).getId();
+    }
+}
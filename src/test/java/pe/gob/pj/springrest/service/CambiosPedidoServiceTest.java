@@ -0,0 +1,126 @@
+package pe.gob.pj.springrest.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import pe.gob.pj.springrest.application.dto.CambiosPedidoResponse;
+import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import pe.gob.pj.springrest.application.service.CambiosPedidoService;
+import pe.gob.pj.springrest.application.service.PedidoService;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.ItemPedido;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.domain.model.Producto;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Feed de cambios de GET /api/pedidos/cambios contra H2 (perfil h2), con margen 0 para que los
+ * cambios recién confirmados sean visibles de inmediato.
+ */
+@SpringBootTest(properties = "pedidos.cambios.margen-ms=0")
+@ActiveProfiles("h2")
+public class CambiosPedidoServiceTest {
+
+    @Autowired
+    PedidoService pedidoService;
+    @Autowired
+    PedidoRepository pedidoRepository;
+    @Autowired
+    ClienteRepository clienteRepository;
+    @Autowired
+    ProductoRepository productoRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    CambiosPedidoService cambiosPedido;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        pedidoRepository.deleteAll();
+        clienteRepository.deleteAll();
+        productoRepository.deleteAll();
+        ids.clear();
+
+        Cliente cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Carlos Gómez").telefono("987654321").direccion("Calle Falsa 123").build());
+        Producto producto = productoRepository.save(Producto.builder()
+                .nombre("Margarita").precioBase(new BigDecimal("12.00")).disponible(true).build());
+        for (int i = 0; i < 3; i++) {
+            Pedido pedido = Pedido.builder()
+                    .cliente(cliente).estado(EstadoPedido.PENDIENTE).fechaHora(LocalDateTime.now())
+                    .tipoEntrega("DOMICILIO").metodoPago("EFECTIVO").direccionEntrega(cliente.getDireccion())
+                    .total(new BigDecimal("24.00")).items(new ArrayList<>()).build();
+            pedido.getItems().add(ItemPedido.builder()
+                    .pedido(pedido).producto(producto).cantidad(2).precioUnitario(producto.getPrecioBase()).build());
+            ids.add(pedidoRepository.save(pedido).getId());
+        }
+    }
+
+    @Test
+    void listarCambios_PaginaPorCursorEnOrdenDeCreacion() {
+        CambiosPedidoResponse primera = cambiosPedido.listarCambios(0, 2);
+        assertEquals(List.of(ids.get(0), ids.get(1)), idsDe(primera));
+        assertTrue(primera.isHayMas());
+
+        CambiosPedidoResponse segunda = cambiosPedido.listarCambios(primera.getSiguienteCursor(), 2);
+        assertEquals(List.of(ids.get(2)), idsDe(segunda));
+        assertFalse(segunda.isHayMas());
+
+        CambiosPedidoResponse vacia = cambiosPedido.listarCambios(segunda.getSiguienteCursor(), 2);
+        assertTrue(vacia.getPedidos().isEmpty());
+        assertEquals(segunda.getSiguienteCursor(), vacia.getSiguienteCursor(), "Sin cambios el cursor no avanza.");
+    }
+
+    @Test
+    void listarCambios_TransicionDeEstado_ReapareceAlFinalConSuEstadoActual() {
+        long cursor = cambiosPedido.listarCambios(0, 100).getSiguienteCursor();
+
+        pedidoService.actualizarEstadoPedido(ids.get(0), EstadoPedido.EN_PREPARACION);
+        CambiosPedidoResponse cambios = cambiosPedido.listarCambios(cursor, 100);
+
+        assertEquals(List.of(ids.get(0)), idsDe(cambios));
+        assertEquals(EstadoPedido.EN_PREPARACION, cambios.getPedidos().get(0).getEstado());
+        assertTrue(cambios.getSiguienteCursor() > cursor);
+    }
+
+    @Test
+    void listarCambios_EjecutaDosSentenciasPorPagina() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CambiosPedidoResponse cambios = cambiosPedido.listarCambios(0, 100);
+
+        assertEquals(3, cambios.getPedidos().size());
+        cambios.getPedidos().forEach(p -> {
+            assertEquals("Carlos Gómez", p.getNombreCliente());
+            assertEquals("Margarita", p.getItems().get(0).getNombreProducto());
+        });
+        assertEquals(2, statistics.getPrepareStatementCount(), "Página con cliente + ítems con productos, sin N+1.");
+    }
+
+    @Test
+    void listarCambios_CursorNegativo_LanzaIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> cambiosPedido.listarCambios(-1, 10));
+    }
+
+    private static List<Long> idsDe(CambiosPedidoResponse response) {
+        return response.getPedidos().stream().map(PedidoResponse::getId).toList();
+    }
+}
@@ -0,0 +1,139 @@
+package pe.gob.pj.springrest.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import pe.gob.pj.springrest.application.dto.ActualizarProductoRequest;
+import pe.gob.pj.springrest.application.service.CatalogoProductoService;
+import pe.gob.pj.springrest.application.service.PedidoService;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.ItemPedido;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.domain.model.Producto;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Catálogo de productos en memoria contra H2 (perfil h2): recarga tras actualizar, detección de
+ * cambios hechos fuera del nodo (también en la transacción de un pedido) e índice compacto por ID.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+public class CatalogoProductoServiceTest {
+
+    @Autowired
+    CatalogoProductoService catalogoProductoService;
+    @Autowired
+    PedidoService pedidoService;
+    @Autowired
+    PedidoRepository pedidoRepository;
+    @Autowired
+    ClienteRepository clienteRepository;
+    @Autowired
+    ProductoRepository productoRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        pedidoRepository.deleteAll();
+        productoRepository.deleteAll();
+        producto = productoRepository.save(Producto.builder()
+                .nombre("Margarita").precioBase(new BigDecimal("12.00")).disponible(true).build());
+        catalogoProductoService.recargar();
+    }
+
+    @Test
+    void actualizarProducto_PublicaLaNuevaFotoTrasElCommit() {
+        ActualizarProductoRequest request = new ActualizarProductoRequest();
+        request.setPrecioBase(new BigDecimal("13.50"));
+        request.setDisponible(false);
+
+        catalogoProductoService.actualizarProducto(producto.getId(), request);
+
+        CatalogoProductoService.Snapshot foto = catalogoProductoService.snapshot();
+        assertEquals(new BigDecimal("13.50"), foto.precio(producto.getId()));
+        assertFalse(foto.disponible(producto.getId()));
+    }
+
+    @Test
+    void verificar_CambioHechoEnOtroNodo_RecargaElCatalogo() {
+        CatalogoProductoService.Snapshot antes = catalogoProductoService.snapshot();
+
+        // Sin cambios en la tabla la foto se conserva
+        catalogoProductoService.verificar();
+        assertSame(antes, catalogoProductoService.snapshot());
+
+        // Otro nodo actualiza el precio (su UPDATE incrementa version)
+        jdbcTemplate.update("UPDATE producto SET precio_base = 14.00, version = version + 1 WHERE id = ?", producto.getId());
+        assertEquals(new BigDecimal("12.00"), catalogoProductoService.snapshot().precio(producto.getId()));
+
+        catalogoProductoService.verificar();
+        assertEquals(new BigDecimal("14.00"), catalogoProductoService.snapshot().precio(producto.getId()));
+
+        // Otro nodo agrega un producto
+        Producto nuevo = productoRepository.save(Producto.builder()
+                .nombre("Hawaiana").precioBase(new BigDecimal("15.00")).disponible(true).build());
+        catalogoProductoService.verificar();
+        assertNotNull(catalogoProductoService.snapshot().producto(nuevo.getId()));
+    }
+
+    @Test
+    void crearPedido_CambioAunNoVerificado_UsaElPrecioConfirmado() {
+        Cliente cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Ana").telefono("987654321").direccion("Calle Falsa 123").build());
+        CatalogoProductoService.Snapshot antes = catalogoProductoService.snapshot();
+
+        // Otro nodo sube el precio y este nodo aún no lo verificó
+        jdbcTemplate.update("UPDATE producto SET precio_base = 14.00, version = version + 1 WHERE id = ?", producto.getId());
+        assertSame(antes, catalogoProductoService.snapshot());
+
+        Pedido pedido = Pedido.builder()
+                .cliente(cliente)
+                .tipoEntrega("DOMICILIO")
+                .metodoPago("EFECTIVO")
+                .direccionEntrega(cliente.getDireccion())
+                .items(new ArrayList<>(List.of(ItemPedido.builder()
+                        .producto(Producto.builder().id(producto.getId()).build()).cantidad(2).build())))
+                .build();
+        Pedido creado = pedidoService.crearPedido(pedido);
+
+        assertEquals(0, new BigDecimal("28.00").compareTo(creado.getTotal()));
+        // Al terminar la transacción del pedido se publica la foto nueva
+        assertEquals(new BigDecimal("14.00"), catalogoProductoService.snapshot().precio(producto.getId()));
+    }
+
+    @Test
+    void vigente_SinTransaccion_Falla() {
+        assertThrows(IllegalTransactionStateException.class, () -> catalogoProductoService.vigente());
+    }
+
+    @Test
+    void snapshot_IdsGrandesYDispersos_IndiceCompacto() {
+        CatalogoProductoService.Snapshot foto = CatalogoProductoService.Snapshot.de(List.of(
+                Producto.builder().id(5_000_000_000L).nombre("Grande").precioBase(new BigDecimal("20.00")).disponible(true).build(),
+                Producto.builder().id(3L).nombre("Chica").precioBase(new BigDecimal("9.90")).disponible(false).build()));
+
+        assertEquals(2, foto.cantidad());
+        assertEquals(new BigDecimal("20.00"), foto.precio(5_000_000_000L));
+        assertTrue(foto.disponible(5_000_000_000L));
+        assertEquals(new BigDecimal("9.90"), foto.precio(3L));
+        assertFalse(foto.disponible(3L));
+        assertNull(foto.producto(4L));
+        assertNull(foto.producto(-1L));
+        assertNull(foto.producto(null));
+    }
+}
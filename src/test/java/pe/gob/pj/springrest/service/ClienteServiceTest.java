@@ -0,0 +1,227 @@
+package pe.gob.pj.springrest.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.gob.pj.springrest.application.dto.CrearItemPedidoRequest;
+import pe.gob.pj.springrest.application.dto.CrearPedidoRequest;
+import pe.gob.pj.springrest.application.dto.ResultadoLoteResponse;
+import pe.gob.pj.springrest.application.service.CatalogoProductoService;
+import pe.gob.pj.springrest.application.service.ClienteService;
+import pe.gob.pj.springrest.application.service.PedidoLoteService;
+import pe.gob.pj.springrest.application.service.PedidoService;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.ItemPedido;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.domain.model.Producto;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.gob.pj.springrest.support.ContadorSentenciasSql.assertSentencias;
+
+/**
+ * Resolución del cliente por teléfono para pedidos sin clienteId, contra H2 (perfil h2): un solo
+ * cliente por teléfono normalizado, también con pedidos simultáneos y en la ingesta por lotes, y
+ * ninguno si el pedido se rechaza.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+public class ClienteServiceTest {
+
+    private static final int HILOS = 8;
+
+    @Autowired
+    ClienteService clienteService;
+    @Autowired
+    PedidoService pedidoService;
+    @Autowired
+    PedidoLoteService pedidoLoteService;
+    @Autowired
+    CatalogoProductoService catalogoProductoService;
+    @Autowired
+    PedidoRepository pedidoRepository;
+    @Autowired
+    ClienteRepository clienteRepository;
+    @Autowired
+    ProductoRepository productoRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private Producto producto;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        pedidoRepository.deleteAll();
+        clienteRepository.deleteAll();
+        productoRepository.deleteAll();
+        clienteService.limpiar();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        producto = productoRepository.save(Producto.builder()
+                .nombre("Margarita").precioBase(new BigDecimal("12.00")).disponible(true).build());
+        catalogoProductoService.recargar();
+    }
+
+    @Test
+    void normalizarTelefono_SoloDigitosSinCodigoDePais() {
+        assertEquals("987654321", ClienteService.normalizarTelefono("987 654 321"));
+        assertEquals("987654321", ClienteService.normalizarTelefono("+51 987-654-321"));
+        assertEquals("987654321", ClienteService.normalizarTelefono("0051987654321"));
+        assertNull(ClienteService.normalizarTelefono("sin número"));
+    }
+
+    @Test
+    void pedidosSinClienteId_MismoTelefono_CompartenUnCliente() throws Exception {
+        Cliente primero = clienteService.resolverPorTelefono("987654321", "Calle Falsa 123");
+        // En caché: ni consulta ni INSERT, aunque el teléfono llegue con otro formato
+        Cliente segundo = assertSentencias(0, () -> clienteService.resolverPorTelefono("+51 987 654 321", "Otra dirección"));
+
+        assertEquals(primero.getId(), segundo.getId());
+        assertEquals("Calle Falsa 123", segundo.getDireccion());
+
+        Pedido pedido = Pedido.builder()
+                .cliente(segundo).tipoEntrega("DOMICILIO").metodoPago("EFECTIVO").direccionEntrega("Otra dirección")
+                .items(new ArrayList<>(List.of(ItemPedido.builder()
+                        .producto(Producto.builder().id(producto.getId()).build()).cantidad(1).build())))
+                .build();
+        Long pedidoId = pedidoService.crearPedido(pedido).getId();
+
+        assertEquals(1, clienteRepository.count());
+        assertEquals(primero.getId(), pedidoService.buscarPedidoPorId(pedidoId).getClienteId());
+        assertEquals("Otra dirección", pedidoService.buscarPedidoPorId(pedidoId).getDireccionEntrega());
+    }
+
+    @Test
+    void resolverPorTelefono_ClienteRegistradoConElMismoTelefono_NoSeExpone() {
+        Cliente registrado = clienteRepository.save(Cliente.builder()
+                .nombre("Ana Torres").telefono("912345678").direccion("Av. Primavera 456").build());
+
+        Cliente resuelto = clienteService.resolverPorTelefono("+51 912 345 678", "Av. Primavera 456");
+
+        assertNotEquals(registrado.getId(), resuelto.getId());
+        assertEquals(Cliente.NOMBRE_SIN_REGISTRO, resuelto.getNombre());
+        assertEquals(2, clienteRepository.count());
+        assertNull(clienteRepository.findById(registrado.getId()).orElseThrow().getTelefonoAnonimo());
+    }
+
+    @Test
+    void resolverPorTelefono_EnTransaccionRevertida_NoQuedaEnCache() {
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            clienteService.resolverPorTelefono("955444333", "Av. Arequipa 100");
+            throw new IllegalStateException("falla el pedido");
+        }));
+
+        assertEquals(0, clienteRepository.count());
+        assertEquals(0, clienteService.estadisticas().entradas());
+        Long id = clienteService.resolverPorTelefono("955444333", "Av. Arequipa 100").getId();
+        assertTrue(clienteRepository.existsById(id));
+    }
+
+    @Test
+    void crearPedidoAnonimo_RechazadoPorRN4_NoDejaCliente() {
+        Producto agotado = productoRepository.save(Producto.builder()
+                .nombre("Hawaiana").precioBase(new BigDecimal("15.00")).disponible(false).build());
+        Pedido pedido = Pedido.builder()
+                .tipoEntrega("DOMICILIO").metodoPago("EFECTIVO").direccionEntrega("Av. Arequipa 100")
+                .items(new ArrayList<>(List.of(ItemPedido.builder()
+                        .producto(Producto.builder().id(agotado.getId()).build()).cantidad(1).build())))
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> pedidoService.crearPedidoAnonimo(pedido, "955444333"));
+
+        assertEquals(0, clienteRepository.count());
+        assertEquals(0, clienteService.estadisticas().entradas());
+    }
+
+    @Test
+    void resolverPorTelefono_MasLargoQueLaColumna_Rechazado() {
+        assertThrows(IllegalArgumentException.class,
+                () -> clienteService.resolverPorTelefono("123456789012345678901", "Av. Arequipa 100"));
+        assertEquals(0, clienteRepository.count());
+    }
+
+    @Test
+    void clienteModificadoOEliminado_SaleDeLaCache() {
+        Cliente anonimo = clienteService.resolverPorTelefono("944555666", "Jr. Puno 200");
+
+        // Se registra: deja de ser anónimo y el teléfono vuelve a resolverse a un cliente anónimo nuevo
+        Cliente registrado = clienteRepository.findById(anonimo.getId()).orElseThrow();
+        registrado.setNombre("Luis Paredes");
+        clienteRepository.save(registrado);
+        Cliente nuevo = clienteService.resolverPorTelefono("944555666", "Jr. Puno 200");
+        assertNotEquals(anonimo.getId(), nuevo.getId());
+
+        clienteRepository.deleteById(nuevo.getId());
+        assertEquals(0, clienteService.estadisticas().entradas());
+        assertNotEquals(nuevo.getId(), clienteService.resolverPorTelefono("944555666", "Jr. Puno 200").getId());
+    }
+
+    @Test
+    void resolverPorTelefono_Simultaneos_InsertanUnSoloCliente() throws Exception {
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        try {
+            List<Future<Long>> ids = new ArrayList<>();
+            for (int i = 0; i < HILOS; i++) {
+                ids.add(executor.submit(() -> {
+                    salida.await();
+                    return clienteService.resolverPorTelefono("999888777", "Jr. Los Álamos 789").getId();
+                }));
+            }
+            salida.countDown();
+
+            Set<Long> distintos = new HashSet<>();
+            for (Future<Long> id : ids) {
+                distintos.add(id.get());
+            }
+            assertEquals(1, distintos.size(), "Todos los pedidos deben recibir el mismo cliente.");
+            assertEquals(1, clienteRepository.count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void crearPedidosEnLote_SinClienteId_UnClientePorTelefono() {
+        List<CrearPedidoRequest> lote = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            lote.add(request("90000000" + (i % 3)));
+        }
+
+        ResultadoLoteResponse resultado = pedidoLoteService.crearPedidos(lote);
+        assertEquals(12, resultado.getCreados());
+        assertEquals(3, clienteRepository.count());
+
+        clienteService.limpiar(); // el segundo lote resuelve desde la BD (precarga del bloque)
+        assertEquals(12, pedidoLoteService.crearPedidos(lote).getCreados());
+        assertEquals(3, clienteRepository.count());
+        assertEquals(24, pedidoRepository.count());
+    }
+
+    private CrearPedidoRequest request(String telefono) {
+        CrearPedidoRequest request = new CrearPedidoRequest();
+        request.setTelefonoCliente(telefono);
+        request.setDireccionEntrega("Av. Primavera 456");
+        request.setTipoEntrega("RECOGIDA");
+        request.setMetodoPago("TARJETA");
+        request.setItems(List.of(new CrearItemPedidoRequest(producto.getId(), 1)));
+        return request;
+    }
+}
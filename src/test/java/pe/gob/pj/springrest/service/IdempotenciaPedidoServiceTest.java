@@ -0,0 +1,206 @@
+package pe.gob.pj.springrest.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import pe.gob.pj.springrest.application.dto.CrearItemPedidoRequest;
+import pe.gob.pj.springrest.application.dto.CrearPedidoRequest;
+import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import pe.gob.pj.springrest.application.service.IdempotenciaPedidoService;
+import pe.gob.pj.springrest.application.service.PedidoService;
+import pe.gob.pj.springrest.domain.enums.EstadoPedido;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.ItemPedido;
+import pe.gob.pj.springrest.domain.model.Pedido;
+import pe.gob.pj.springrest.domain.model.Producto;
+import pe.gob.pj.springrest.infraestructure.persistence.ClaveIdempotenciaRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+import pe.gob.pj.springrest.presentation.exception.ConflictoIdempotenciaException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Idempotency-Key de POST /api/pedidos contra H2 en memoria (perfil h2). La creación se simula
+ * con un proveedor que cuenta sus ejecuciones y devuelve un pedido ya guardado.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+public class IdempotenciaPedidoServiceTest {
+
+    @Autowired
+    PedidoService pedidoService;
+    @Autowired
+    ClaveIdempotenciaRepository claveRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    PedidoRepository pedidoRepository;
+    @Autowired
+    ClienteRepository clienteRepository;
+    @Autowired
+    ProductoRepository productoRepository;
+
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+    private PedidoResponse pedidoCreado;
+    private CrearPedidoRequest request;
+
+    @BeforeEach
+    void setUp() {
+        claveRepository.deleteAll();
+        pedidoRepository.deleteAll();
+        clienteRepository.deleteAll();
+        productoRepository.deleteAll();
+
+        Cliente cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Ana Torres").telefono("912345678").direccion("Av. Primavera 456").build());
+        Producto producto = productoRepository.save(Producto.builder()
+                .nombre("Margarita").precioBase(new BigDecimal("12.00")).disponible(true).build());
+        Pedido pedido = Pedido.builder()
+                .cliente(cliente).estado(EstadoPedido.PENDIENTE).fechaHora(LocalDateTime.now())
+                .tipoEntrega("DOMICILIO").metodoPago("EFECTIVO").direccionEntrega(cliente.getDireccion())
+                .total(new BigDecimal("24.00")).items(new ArrayList<>()).build();
+        pedido.getItems().add(ItemPedido.builder()
+                .pedido(pedido).producto(producto).cantidad(2).precioUnitario(producto.getPrecioBase()).build());
+        pedidoCreado = pedidoService.buscarPedidoPorId(pedidoRepository.save(pedido).getId());
+
+        request = new CrearPedidoRequest();
+        request.setClienteId(cliente.getId());
+        request.setTelefonoCliente("912345678");
+        request.setDireccionEntrega("Av. Primavera 456");
+        request.setTipoEntrega("DOMICILIO");
+        request.setMetodoPago("EFECTIVO");
+        request.setItems(List.of(new CrearItemPedidoRequest(producto.getId(), 2)));
+        ejecuciones.set(0);
+    }
+
+    @Test
+    void crearPedido_ReintentoConMismaClave_DevuelveElMismoPedidoSinRecrearlo() {
+        IdempotenciaPedidoService servicio = servicio(100, false);
+
+        IdempotenciaPedidoService.Resultado primero = servicio.crearPedido("clave-1", request, creacion());
+        IdempotenciaPedidoService.Resultado reintento = servicio.crearPedido("clave-1", request, creacion());
+
+        assertFalse(primero.repetido());
+        assertTrue(reintento.repetido());
+        assertSame(primero.pedido(), reintento.pedido());
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    void crearPedido_DuplicadosSimultaneos_EsperanALaPrimeraSolicitud() throws Exception {
+        IdempotenciaPedidoService servicio = servicio(100, false);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Supplier<PedidoResponse> lenta = () -> {
+            ejecuciones.incrementAndGet();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return pedidoCreado;
+        };
+
+        int concurrentes = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(concurrentes);
+        try {
+            List<Future<IdempotenciaPedidoService.Resultado>> futuros = new ArrayList<>();
+            for (int i = 0; i < concurrentes; i++) {
+                futuros.add(executor.submit(() -> servicio.crearPedido("clave-1", request, lenta)));
+            }
+            Thread.sleep(200);
+            liberar.countDown();
+
+            int repetidos = 0;
+            for (Future<IdempotenciaPedidoService.Resultado> futuro : futuros) {
+                IdempotenciaPedidoService.Resultado resultado = futuro.get(5, TimeUnit.SECONDS);
+                assertEquals(pedidoCreado.getId(), resultado.pedido().getId());
+                repetidos += resultado.repetido() ? 1 : 0;
+            }
+            assertEquals(1, ejecuciones.get(), "Solo la primera solicitud crea el pedido.");
+            assertEquals(concurrentes - 1, repetidos);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void crearPedido_MismaClaveConOtroCuerpo_LanzaConflicto() {
+        IdempotenciaPedidoService servicio = servicio(100, false);
+        servicio.crearPedido("clave-1", request, creacion());
+
+        request.setDireccionEntrega("Otra dirección 789");
+
+        assertThrows(ConflictoIdempotenciaException.class, () -> servicio.crearPedido("clave-1", request, creacion()));
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    void crearPedido_SiLaCreacionFalla_LiberaLaClave() {
+        IdempotenciaPedidoService servicio = servicio(100, false);
+
+        assertThrows(IllegalArgumentException.class, () -> servicio.crearPedido("clave-1", request, () -> {
+            throw new IllegalArgumentException("RN4: Producto no disponible.");
+        }));
+        IdempotenciaPedidoService.Resultado reintento = servicio.crearPedido("clave-1", request, creacion());
+
+        assertFalse(reintento.repetido());
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    void crearPedido_ConPersistencia_OtroNodoReutilizaLaClaveRegistrada() {
+        IdempotenciaPedidoService nodoA = servicio(100, true);
+        IdempotenciaPedidoService nodoB = servicio(100, true);
+
+        IdempotenciaPedidoService.Resultado primero = nodoA.crearPedido("clave-1", request, creacion());
+        IdempotenciaPedidoService.Resultado reintento = nodoB.crearPedido("clave-1", request, creacion());
+
+        assertFalse(primero.repetido());
+        assertTrue(reintento.repetido());
+        assertEquals(pedidoCreado.getId(), reintento.pedido().getId());
+        assertEquals(1, ejecuciones.get());
+        assertEquals(pedidoCreado.getId(), claveRepository.findById("clave-1").orElseThrow().getPedidoId());
+    }
+
+    @Test
+    void crearPedido_SuperadaLaCapacidad_DescartaLasClavesMasAntiguas() {
+        IdempotenciaPedidoService servicio = servicio(2, false);
+
+        servicio.crearPedido("clave-1", request, creacion());
+        servicio.crearPedido("clave-2", request, creacion());
+        servicio.crearPedido("clave-3", request, creacion());
+        IdempotenciaPedidoService.Resultado reintento = servicio.crearPedido("clave-1", request, creacion());
+
+        assertFalse(reintento.repetido(), "clave-1 se descartó al superar la capacidad.");
+        assertEquals(4, ejecuciones.get());
+    }
+
+    private IdempotenciaPedidoService servicio(int capacidad, boolean persistente) {
+        return new IdempotenciaPedidoService(pedidoService, claveRepository, transactionManager,
+                capacidad, 3600, 2000, persistente);
+    }
+
+    private Supplier<PedidoResponse> creacion() {
+        return () -> {
+            ejecuciones.incrementAndGet();
+            return pedidoCreado;
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package pe.gob.pj.springrest.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import pe.gob.pj.springrest.application.dto.CrearItemPedidoRequest;
+import pe.gob.pj.springrest.application.dto.CrearPedidoRequest;
+import pe.gob.pj.springrest.application.dto.ResultadoLoteResponse;
+import pe.gob.pj.springrest.application.dto.ResultadoPedidoLote;
+import pe.gob.pj.springrest.application.service.CatalogoProductoService;
+import pe.gob.pj.springrest.application.service.PedidoLoteService;
+import pe.gob.pj.springrest.domain.model.Cliente;
+import pe.gob.pj.springrest.domain.model.Producto;
+import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ingesta por lotes (POST /api/pedidos/lote) contra H2 en memoria (perfil h2).
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+public class PedidoLoteServiceTest {
+
+    @Autowired
+    PedidoLoteService pedidoLoteService;
+    @Autowired
+    CatalogoProductoService catalogoProductoService;
+    @Autowired
+    PedidoRepository pedidoRepository;
+    @Autowired
+    ClienteRepository clienteRepository;
+    @Autowired
+    ProductoRepository productoRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Cliente cliente;
+    private Producto disponible;
+    private Producto agotado;
+
+    @BeforeEach
+    void setUp() {
+        pedidoRepository.deleteAll();
+        clienteRepository.deleteAll();
+        productoRepository.deleteAll();
+
+        cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Ana Torres").telefono("912345678").direccion("Av. Primavera 456").build());
+        disponible = productoRepository.save(Producto.builder()
+                .nombre("Margarita").precioBase(new BigDecimal("12.00")).disponible(true).build());
+        agotado = productoRepository.save(Producto.builder()
+                .nombre("Cuatro Quesos").precioBase(new BigDecimal("16.75")).disponible(false).build());
+        catalogoProductoService.recargar();
+    }
+
+    @Test
+    void crearPedidos_ReportaResultadoPorPedido_ConFallosParciales() {
+        CrearPedidoRequest valido = request(cliente.getId(), disponible.getId(), 2);
+        CrearPedidoRequest rn4 = request(cliente.getId(), agotado.getId(), 1);
+        CrearPedidoRequest sinDireccion = request(cliente.getId(), disponible.getId(), 1);
+        sinDireccion.setDireccionEntrega(null);
+        CrearPedidoRequest clienteInexistente = request(999_999L, disponible.getId(), 1);
+
+        ResultadoLoteResponse resultado = pedidoLoteService.crearPedidos(List.of(valido, rn4, sinDireccion, clienteInexistente));
+
+        assertEquals(1, resultado.getCreados());
+        assertEquals(3, resultado.getRechazados());
+
+        ResultadoPedidoLote creado = resultado.getResultados().get(0);
+        assertTrue(creado.isCreado());
+        assertNotNull(creado.getPedidoId());
+        assertEquals(new BigDecimal("36.00"), creado.getTotal()); // (2 + 1) x 12.00
+
+        assertTrue(resultado.getResultados().get(1).getError().startsWith("RN4"));
+        assertTrue(resultado.getResultados().get(2).getError().contains("direccionEntrega"));
+        assertEquals("Cliente ID no encontrado.", resultado.getResultados().get(3).getError());
+        assertEquals(1, pedidoRepository.count());
+    }
+
+    @Test
+    void crearPedidos_AgrupaLosInsertEnBatchesJdbc() {
+        List<CrearPedidoRequest> lote = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            lote.add(request(cliente.getId(), disponible.getId(), 1));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResultadoLoteResponse resultado = pedidoLoteService.crearPedidos(lote);
+
+        assertEquals(20, resultado.getCreados());
+        assertEquals(20, pedidoRepository.count());
+        // Consulta de clientes + secuencias + un INSERT preparado por tabla (batch), no uno por fila
+        assertTrue(statistics.getPrepareStatementCount() <= 6,
+                "Se esperaban INSERT por batches, sentencias preparadas: " + statistics.getPrepareStatementCount());
+    }
+
+    private CrearPedidoRequest request(Long clienteId, Long productoId, int cantidad) {
+        CrearPedidoRequest request = new CrearPedidoRequest();
+        request.setClienteId(clienteId);
+        request.setTelefonoCliente("912345678");
+        request.setDireccionEntrega("Av. Primavera 456");
+        request.setTipoEntrega("RECOGIDA");
+        request.setMetodoPago("TARJETA");
+        request.setItems(List.of(new CrearItemPedidoRequest(productoId, cantidad), new CrearItemPedidoRequest(productoId, 1)));
+        return request;
+    }
+}
@@ -1,28 +1,41 @@
 package pe.gob.pj.springrest.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import pe.gob.pj.springrest.application.dto.ItemPedidoResponse;
+import pe.gob.pj.springrest.application.dto.PaginaPedidosResponse;
 import pe.gob.pj.springrest.application.dto.PedidoResponse;
+import pe.gob.pj.springrest.application.service.CatalogoProductoService;
+import pe.gob.pj.springrest.application.service.ClienteService;
+import pe.gob.pj.springrest.application.service.EventosPedidoService;
 import pe.gob.pj.springrest.application.service.PedidoService;
 import pe.gob.pj.springrest.domain.enums.EstadoPedido;
 import pe.gob.pj.springrest.domain.model.Cliente;
 import pe.gob.pj.springrest.domain.model.ItemPedido;
 import pe.gob.pj.springrest.domain.model.Pedido;
 import pe.gob.pj.springrest.domain.model.Producto;
-import pe.gob.pj.springrest.infraestructure.mapper.PedidoResponseMapper;
+import pe.gob.pj.springrest.infraestructure.metricas.MetricasPedido;
 import pe.gob.pj.springrest.infraestructure.persistence.ClienteRepository;
+import pe.gob.pj.springrest.infraestructure.persistence.FiltroPedidos;
+import pe.gob.pj.springrest.infraestructure.persistence.PedidoBusquedaRepository;
 import pe.gob.pj.springrest.infraestructure.persistence.PedidoRepository;
-import pe.gob.pj.springrest.infraestructure.persistence.ProductoRepository;
+import pe.gob.pj.springrest.presentation.exception.ConflictoEstadoPedidoException;
 import pe.gob.pj.springrest.presentation.exception.RecursoNoEncontradoException;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -40,9 +53,18 @@ public class PedidoServiceTest {
     @Mock
     private ClienteRepository clienteRepository;
     @Mock
-    private ProductoRepository productoRepository;
+    private PedidoBusquedaRepository pedidoBusquedaRepository;
     @Mock
-    private PedidoResponseMapper responseMapper;
+    private ClienteService clienteService;
+    @Mock
+    private CatalogoProductoService catalogoProductoService;
+    @Mock
+    private EventosPedidoService eventosPedido;
+
+    // Métricas reales sobre un registro en memoria, para verificar rechazos y transiciones
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    @Spy
+    private MetricasPedido metricas = new MetricasPedido(registry);
 
     private Producto pizzaPepperoni;
     private Producto pizzaMargarita;
@@ -101,9 +123,8 @@ public class PedidoServiceTest {
                 .items(List.of(item1, item2))
                 .build();
 
-        // Configuración de Mocks: simular que los productos existen
-        when(productoRepository.findById(1L)).thenReturn(Optional.of(pizzaPepperoni));
-        when(productoRepository.findById(2L)).thenReturn(Optional.of(pizzaMargarita));
+        // Configuración de Mocks: simular que los productos existen en el catálogo en memoria
+        when(catalogoProductoService.vigente()).thenReturn(CatalogoProductoService.Snapshot.de(List.of(pizzaPepperoni, pizzaMargarita)));
 
         // Configuración de Mocks: simular que el pedido se guarda correctamente
         when(pedidoRepository.save(any(Pedido.class))).thenAnswer(invocation -> {
@@ -152,7 +173,7 @@ public class PedidoServiceTest {
                 .build();
 
         // Configuración de Mocks: retornar el producto agotado
-        when(productoRepository.findById(3L)).thenReturn(Optional.of(pizzaAgotada));
+        when(catalogoProductoService.vigente()).thenReturn(CatalogoProductoService.Snapshot.de(List.of(pizzaAgotada)));
 
         // EJECUCIÓN y VERIFICACIÓN DE EXCEPCIÓN
         // Se espera que falle con IllegalArgumentException por la RN4
@@ -162,6 +183,7 @@ public class PedidoServiceTest {
 
         assertTrue(thrown.getMessage().contains("RN4: El producto 'Cuatro Quesos' no está disponible"), "Debe fallar por indisponibilidad del producto (RN4).");
         verify(pedidoRepository, never()).save(any(Pedido.class)); // Verificar que NO se guardó en la DB
+        assertEquals(1.0, registry.get("pedidos.rechazos").tag("regla", "RN4").counter().count());
     }
 
     // ************************************************************
@@ -179,8 +201,7 @@ public class PedidoServiceTest {
                 .direccion(null) // RN3: ESTE FALLARÁ
                 .build();
 
-        // Mockear producto solo para que pase la validación de RN4, aunque no llegará ahí
-        when(productoRepository.findById(anyLong())).thenReturn(Optional.of(pizzaPepperoni));
+        // No se mockea el catálogo: la RN3 falla antes de consultar productos.
 
         Pedido pedidoInput = Pedido.builder()
                 .cliente(clienteInvalido)
@@ -196,29 +217,189 @@ public class PedidoServiceTest {
 
         assertTrue(thrown.getMessage().contains("RN3: El teléfono y la dirección de entrega son obligatorios"), "Debe fallar por dirección faltante (RN3).");
         verify(pedidoRepository, never()).save(any(Pedido.class)); // Verificar que NO se guardó
+        verifyNoInteractions(catalogoProductoService);
     }
 
+    // ************************************************************
+    // PRUEBAS DE RESOLUCIÓN DE PRODUCTOS CONTRA EL CATÁLOGO
+    // ************************************************************
+
+    @Test
+    void testCrearPedido_ProductoInexistente_LanzaRecursoNoEncontrado() {
+        ItemPedido itemExistente = ItemPedido.builder().producto(Producto.builder().id(1L).build()).cantidad(1).build();
+        ItemPedido itemInexistente = ItemPedido.builder().producto(Producto.builder().id(99L).build()).cantidad(1).build();
+
+        Pedido pedidoInput = Pedido.builder()
+                .cliente(clienteValido)
+                .items(List.of(itemExistente, itemInexistente))
+                .build();
+
+        // El catálogo solo contiene los productos que existen
+        when(catalogoProductoService.vigente()).thenReturn(CatalogoProductoService.Snapshot.de(List.of(pizzaPepperoni)));
+
+        RecursoNoEncontradoException thrown = assertThrows(RecursoNoEncontradoException.class, () -> {
+            pedidoService.crearPedido(pedidoInput);
+        });
+
+        assertEquals("Producto con ID 99 no encontrado.", thrown.getMessage());
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+    }
+
+    @Test
+    void testCrearPedido_UsaPrecioDeLaFotoVigenteDelCatalogo_RN1() {
+        ItemPedido item = ItemPedido.builder().producto(Producto.builder().id(1L).build()).cantidad(2).build();
+        Pedido pedidoInput = Pedido.builder()
+                .cliente(clienteValido)
+                .items(List.of(item))
+                .build();
+
+        // El administrador cambió el precio: la nueva foto ya está publicada
+        Producto pepperoniNuevoPrecio = Producto.builder()
+                .id(1L).nombre("Pepperoni Clásica").precioBase(new BigDecimal("17.25")).disponible(true).build();
+        when(catalogoProductoService.vigente()).thenReturn(CatalogoProductoService.Snapshot.de(List.of(pepperoniNuevoPrecio)));
+        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Pedido pedidoResult = pedidoService.crearPedido(pedidoInput);
+
+        assertEquals(new BigDecimal("34.50"), pedidoResult.getTotal());
+        assertEquals(new BigDecimal("17.25"), pedidoResult.getItems().get(0).getPrecioUnitario());
+    }
+
+    @Test
+    void testCrearPedido_CantidadDeConsultasConstante_IndependienteDeItems() {
+        when(catalogoProductoService.vigente()).thenReturn(CatalogoProductoService.Snapshot.de(List.of(pizzaPepperoni, pizzaMargarita)));
+        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        for (int cantidadItems : new int[]{1, 15}) {
+            clearInvocations(catalogoProductoService, pedidoRepository);
+
+            List<ItemPedido> items = new ArrayList<>();
+            for (int i = 0; i < cantidadItems; i++) {
+                long productoId = (i % 2 == 0) ? 1L : 2L;
+                items.add(ItemPedido.builder().producto(Producto.builder().id(productoId).build()).cantidad(1).build());
+            }
+
+            Pedido pedidoInput = Pedido.builder()
+                    .cliente(clienteValido)
+                    .items(items)
+                    .build();
+
+            pedidoService.crearPedido(pedidoInput);
+
+            // Una sola foto del catálogo (sin BD) + un guardado, sin importar el tamaño del carrito
+            verify(catalogoProductoService, times(1)).vigente();
+            verify(pedidoRepository, times(1)).save(any(Pedido.class));
+            verifyNoMoreInteractions(catalogoProductoService, pedidoRepository);
+        }
+    }
+
+    // ==================================================================
+    // RN2: TRANSICIÓN DE ESTADO (compare-and-set)
     // ==================================================================
 
     @Test
-    void testBuscarPedidoPorId_Exitoso() {
-        // Simular que el repositorio encuentra un pedido
-        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedidoMockeado));
+    void testActualizarEstado_TransicionValida_UnUpdateSinCargarAntes_RN2() {
+        when(pedidoRepository.transicionarEstado(1L, EstadoPedido.EN_PREPARACION, EstadoPedido.EN_PREPARACION.predecesores()))
+                .thenReturn(1);
+        pedidoMockeado.setEstado(EstadoPedido.EN_PREPARACION);
+        when(pedidoRepository.buscarConDetallePorId(1L)).thenReturn(Optional.of(pedidoMockeado));
+
+        Pedido actualizado = pedidoService.actualizarEstadoPedido(1L, EstadoPedido.EN_PREPARACION);
+
+        assertEquals(EstadoPedido.EN_PREPARACION, actualizado.getEstado());
+        // El UPDATE condicionado va primero; el detalle solo se carga para la respuesta
+        var orden = inOrder(pedidoRepository);
+        orden.verify(pedidoRepository).transicionarEstado(eq(1L), eq(EstadoPedido.EN_PREPARACION), any());
+        orden.verify(pedidoRepository).buscarConDetallePorId(1L);
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+        // EN_PREPARACION solo se alcanza desde PENDIENTE
+        assertEquals(1.0, registry.get("pedidos.transiciones")
+                .tag("desde", "PENDIENTE").tag("hacia", "EN_PREPARACION").counter().count());
+    }
 
-        // Simular la respuesta del mapper
-        when(responseMapper.toResponse(any(Pedido.class))).thenReturn(new PedidoResponse());
+    @Test
+    void testActualizarEstado_Cancelacion_UnSoloUpdateConTodosLosPredecesores_RN2() {
+        when(pedidoRepository.transicionarEstado(1L, EstadoPedido.CANCELADO, EstadoPedido.CANCELADO.predecesores()))
+                .thenReturn(1);
+        when(pedidoRepository.buscarConDetallePorId(1L)).thenReturn(Optional.of(pedidoMockeado));
+
+        pedidoService.actualizarEstadoPedido(1L, EstadoPedido.CANCELADO);
+
+        verify(pedidoRepository, times(1)).transicionarEstado(eq(1L), eq(EstadoPedido.CANCELADO), any());
+        // Con dos predecesores posibles, el origen de la cancelación individual no se conoce
+        assertEquals(1.0, registry.get("pedidos.transiciones")
+                .tag("desde", "desconocido").tag("hacia", "CANCELADO").counter().count());
+    }
+
+    @Test
+    void testActualizarEstadoPedidos_CancelacionEnLote_TransicionesPorOrigen_RN2() {
+        when(pedidoRepository.bloquearEstados(any())).thenReturn(List.of(
+                new Object[]{1L, "PENDIENTE"}, new Object[]{2L, "EN_PREPARACION"}, new Object[]{3L, "EN_PREPARACION"}));
+        when(pedidoRepository.transicionarEstados(any(), eq(EstadoPedido.CANCELADO), any())).thenReturn(3);
+
+        pedidoService.actualizarEstadoPedidos(List.of(1L, 2L, 3L), EstadoPedido.CANCELADO);
+
+        // La lectura bloqueante da el origen de cada pedido
+        assertEquals(1.0, registry.get("pedidos.transiciones")
+                .tag("desde", "PENDIENTE").tag("hacia", "CANCELADO").counter().count());
+        assertEquals(2.0, registry.get("pedidos.transiciones")
+                .tag("desde", "EN_PREPARACION").tag("hacia", "CANCELADO").counter().count());
+        assertEquals(0.0, registry.get("pedidos.transiciones")
+                .tag("desde", "desconocido").tag("hacia", "CANCELADO").counter().count());
+    }
+
+    @Test
+    void testActualizarEstado_EstadoActualNoLoPermite_LanzaConflicto_RN2() {
+        when(pedidoRepository.transicionarEstado(eq(1L), eq(EstadoPedido.ENTREGADO), any())).thenReturn(0);
+        when(pedidoRepository.buscarEstadoPorId(1L)).thenReturn(Optional.of(EstadoPedido.PENDIENTE));
+
+        ConflictoEstadoPedidoException ex = assertThrows(ConflictoEstadoPedidoException.class,
+                () -> pedidoService.actualizarEstadoPedido(1L, EstadoPedido.ENTREGADO));
+
+        assertTrue(ex.getMessage().contains("PENDIENTE a ENTREGADO"));
+        verify(pedidoRepository, never()).buscarConDetallePorId(anyLong());
+        assertEquals(1.0, registry.get("pedidos.rechazos").tag("regla", "RN2").counter().count());
+    }
+
+    @Test
+    void testActualizarEstado_PedidoInexistente_LanzaRecursoNoEncontrado() {
+        when(pedidoRepository.transicionarEstado(eq(999L), eq(EstadoPedido.CANCELADO), any())).thenReturn(0);
+        when(pedidoRepository.buscarEstadoPorId(999L)).thenReturn(Optional.empty());
+
+        assertThrows(RecursoNoEncontradoException.class,
+                () -> pedidoService.actualizarEstadoPedido(999L, EstadoPedido.CANCELADO));
+    }
+
+    @Test
+    void testActualizarEstado_NingunEstadoLlevaAPendiente_FallaSinConsultar_RN2() {
+        assertThrows(IllegalArgumentException.class,
+                () -> pedidoService.actualizarEstadoPedido(1L, EstadoPedido.PENDIENTE));
+        verifyNoInteractions(pedidoRepository);
+    }
+
+    // ==================================================================
+
+    @Test
+    void testBuscarPedidoPorId_Exitoso() {
+        // Simular que el repositorio proyecta el pedido con sus dos ítems (una fila por ítem)
+        PedidoResponse cabecera = cabecera(1L, LocalDateTime.now());
+        when(pedidoRepository.proyectarConItemsPorId(1L)).thenReturn(List.of(
+                new Object[]{cabecera, new ItemPedidoResponse("Margarita", 2, new BigDecimal("12.00"), new BigDecimal("24.00"))},
+                new Object[]{cabecera(1L, cabecera.getFechaHora()), new ItemPedidoResponse("Hawaiana", 1, new BigDecimal("15.00"), new BigDecimal("15.00"))}));
 
         PedidoResponse result = pedidoService.buscarPedidoPorId(1L);
 
-        assertNotNull(result);
-        // Verificar más detalles del PedidoResponse si es necesario
-        verify(pedidoRepository, times(1)).findById(1L);
+        assertSame(cabecera, result);
+        assertEquals(List.of("Margarita", "Hawaiana"), result.getItems().stream().map(ItemPedidoResponse::getNombreProducto).toList());
+        // Sin entidades: ni el plan de carga ni el mapper
+        verify(pedidoRepository, times(1)).proyectarConItemsPorId(1L);
+        verify(pedidoRepository, never()).buscarConDetallePorId(anyLong());
     }
 
     @Test
     void testBuscarPedidoPorId_NoEncontrado_LanzaExcepcion() {
         // Simular que el repositorio NO encuentra el pedido (retorna Optional.empty())
-        when(pedidoRepository.findById(999L)).thenReturn(Optional.empty());
+        when(pedidoRepository.proyectarConItemsPorId(999L)).thenReturn(List.of());
 
         // Verificar que el servicio lanza la excepción correcta
         assertThrows(RecursoNoEncontradoException.class, () -> {
@@ -227,18 +408,66 @@ public class PedidoServiceTest {
     }
 
     @Test
-    void testListarTodosPedidos_RetornaListaNoVacia() {
-        // Simular que el repositorio devuelve una lista de pedidos
-        List<Pedido> pedidosMock = List.of(pedidoMockeado, Pedido.builder().id(2L).estado(EstadoPedido.CANCELADO).build());
-        when(pedidoRepository.findAll()).thenReturn(pedidosMock);
+    void testListarPedidos_PrimeraPagina_DevuelveCursorSiHayMas() {
+        // El repositorio devuelve tamaño + 1 filas: existe una página siguiente
+        PedidoResponse pedido2 = cabecera(2L, LocalDateTime.of(2025, 1, 10, 12, 0));
+        PedidoResponse pedido1 = cabecera(1L, LocalDateTime.of(2025, 1, 10, 11, 0));
+        when(pedidoRepository.proyectarPrimeraPagina(Limit.of(2))).thenReturn(List.of(pedido2, pedido1));
+
+        PaginaPedidosResponse pagina = pedidoService.listarPedidos(null, 1);
+
+        assertEquals(1, pagina.getPedidos().size());
+        assertNotNull(pagina.getSiguienteCursor(), "Debe devolver un cursor porque hay más pedidos.");
+        verify(pedidoRepository, never()).findAll();
+        // Los ítems se piden solo para los pedidos de la página, no para la fila extra
+        verify(pedidoRepository).proyectarItems(Set.of(2L));
+
+        // El cursor apunta a la última fila entregada (pedido 2)
+        when(pedidoRepository.proyectarPaginaSiguiente(pedido2.getFechaHora(), 2L, Limit.of(2))).thenReturn(List.of(pedido1));
+
+        PaginaPedidosResponse siguiente = pedidoService.listarPedidos(pagina.getSiguienteCursor(), 1);
+
+        assertEquals(1, siguiente.getPedidos().size());
+        assertNull(siguiente.getSiguienteCursor(), "La última página no debe tener cursor.");
+    }
+
+    @Test
+    void testListarPedidos_CursorInvalido_LanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> pedidoService.listarPedidos("no-es-un-cursor", 10));
+        verifyNoInteractions(pedidoRepository);
+    }
+
+    @Test
+    void testBuscarPedidos_FiltrosInvalidos_LanzaExcepcionSinConsultar() {
+        LocalDateTime ahora = LocalDateTime.now();
+        assertThrows(IllegalArgumentException.class, () -> pedidoService.buscarPedidos(
+                new FiltroPedidos(null, null, "DRON", null, null), null, 10));
+        assertThrows(IllegalArgumentException.class, () -> pedidoService.buscarPedidos(
+                new FiltroPedidos(null, null, null, ahora, ahora.minusDays(1)), null, 10));
+        verifyNoInteractions(pedidoBusquedaRepository);
+    }
+
+    @Test
+    void testBuscarPedidos_PaginaConCursor() {
+        FiltroPedidos filtro = new FiltroPedidos(EstadoPedido.PENDIENTE, 100L, null, null, null);
+        PedidoResponse pedido1 = cabecera(1L, LocalDateTime.of(2025, 1, 10, 12, 0));
+        PedidoResponse pedido2 = cabecera(2L, LocalDateTime.of(2025, 1, 10, 12, 5));
+        when(pedidoBusquedaRepository.buscar(filtro, null, null, 2)).thenReturn(List.of(pedido2, pedido1));
+
+        PaginaPedidosResponse pagina = pedidoService.buscarPedidos(filtro, null, 1);
 
-        // Simular la conversión a DTOs
-        when(responseMapper.toResponse(any(Pedido.class))).thenReturn(new PedidoResponse());
+        assertEquals(List.of(pedido2), pagina.getPedidos());
+        verify(pedidoRepository).proyectarItems(Set.of(2L));
 
-        List<PedidoResponse> resultados = pedidoService.listarTodosPedidos();
+        when(pedidoBusquedaRepository.buscar(filtro, pedido2.getFechaHora(), 2L, 2)).thenReturn(List.of(pedido1));
+        PaginaPedidosResponse siguiente = pedidoService.buscarPedidos(filtro, pagina.getSiguienteCursor(), 1);
+
+        assertEquals(List.of(pedido1), siguiente.getPedidos());
+        assertNull(siguiente.getSiguienteCursor());
+    }
 
-        assertNotNull(resultados);
-        assertEquals(2, resultados.size());
-        verify(pedidoRepository, times(1)).findAll();
+    private static PedidoResponse cabecera(Long id, LocalDateTime fechaHora) {
+        return new PedidoResponse(id, 100L, "Carlos Gómez", fechaHora, EstadoPedido.PENDIENTE,
+                "DOMICILIO", "Calle Falsa 123", new BigDecimal("24.00"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package pe.gob.pj.springrest.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import pe.gob.pj.springrest.infraestructure.sql.MedicionSql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cuenta las sentencias JDBC que ejecuta una operación en el hilo actual (EstadisticasSqlDataSource),
+ * para fijar en las pruebas la cantidad exacta de consultas de un repositorio o endpoint.
+ * Con MockMvc funciona igual: la solicitud se atiende en el mismo hilo.
+ * Con {@link #capturar(Accion)} guarda además el SQL que generó Hibernate, para pasarlo luego a EXPLAIN.
+ */
+public final class ContadorSentenciasSql {
+
+    // Siguiente valor de una secuencia: "next value for x" (H2) o "nextval(x)" (MariaDB)
+    private static final Pattern SECUENCIA = Pattern.compile("(?i)\\bnext\\s+value\\s+for\\b|\\bnextval\\s*\\(");
+
+    @FunctionalInterface
+    public interface Accion<T> {
+        T ejecutar() throws Exception;
+    }
+
+    private ContadorSentenciasSql() {
+    }
+
+    /**
+     * StatementInspector de Hibernate que guarda el SQL generado en el hilo actual. Se activa en la
+     * prueba con la propiedad spring.jpa.properties.hibernate.session_factory.statement_inspector=
+     * pe.gob.pj.springrest.support.ContadorSentenciasSql$Inspector.
+     */
+    public static class Inspector implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> SENTENCIAS = ThreadLocal.withInitial(ArrayList::new);
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.get().add(sql);
+            return sql;
+        }
+    }
+
+    /**
+     * Ejecuta la acción y devuelve lo medido (sentencias, filas, tiempo).
+     */
+    public static MedicionSql medir(Accion<?> accion) throws Exception {
+        MedicionSql medicion = MedicionSql.iniciar();
+        try {
+            accion.ejecutar();
+        } finally {
+            medicion.finalizar();
+        }
+        return medicion;
+    }
+
+    /**
+     * Ejecuta la acción, verifica que ejecutó exactamente esperadas sentencias y devuelve su resultado.
+     */
+    public static <T> T assertSentencias(int esperadas, Accion<T> accion) throws Exception {
+        MedicionSql medicion = MedicionSql.iniciar();
+        T resultado;
+        try {
+            resultado = accion.ejecutar();
+        } finally {
+            medicion.finalizar();
+        }
+        assertEquals(esperadas, medicion.getSentencias(), "Cantidad de sentencias SQL ejecutadas.");
+        return resultado;
+    }
+
+    /**
+     * Como {@link #assertSentencias}, pero sin contar las llamadas a secuencias (requiere Inspector).
+     * Con IDs pooled, Hibernate pide un bloque nuevo cada allocationSize inserciones: si la acción
+     * lo agota o no depende de las pruebas que corrieron antes en el mismo contexto.
+     */
+    public static <T> T assertSentenciasSinSecuencias(int esperadas, Accion<T> accion) throws Exception {
+        Inspector.SENTENCIAS.get().clear();
+        MedicionSql medicion = MedicionSql.iniciar();
+        T resultado;
+        long secuencias;
+        try {
+            resultado = accion.ejecutar();
+        } finally {
+            medicion.finalizar();
+            secuencias = Inspector.SENTENCIAS.get().stream().filter(sql -> SECUENCIA.matcher(sql).find()).count();
+            Inspector.SENTENCIAS.remove();
+        }
+        assertEquals(esperadas, medicion.getSentencias() - secuencias, "Cantidad de sentencias SQL ejecutadas, sin secuencias.");
+        return resultado;
+    }
+
+    /**
+     * Ejecuta la acción y devuelve el SQL que Hibernate generó durante ella, en orden (requiere Inspector).
+     */
+    public static List<String> capturar(Accion<?> accion) throws Exception {
+        Inspector.SENTENCIAS.get().clear();
+        try {
+            accion.ejecutar();
+            return List.copyOf(Inspector.SENTENCIAS.get());
+        } finally {
+            Inspector.SENTENCIAS.remove();
+        }
+    }
+}